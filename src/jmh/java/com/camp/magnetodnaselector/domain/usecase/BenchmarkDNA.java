@@ -0,0 +1,174 @@
+package com.camp.magnetodnaselector.domain.usecase;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+import java.util.Random;
+
+/**
+ * Generador de las cadenas de ADN de NxN que se usan en los benchmarks.
+ * <p>
+ * La cadena de humano asigna a la celda (i, j) la base {@code (i + 2j) % 4}, de manera que
+ * ninguna linea horizontal, vertical o diagonal tiene dos bases iguales consecutivas y el
+ * motor de deteccion recorre toda la matriz. Las cadenas de mutante agregan dos secuencias
+ * horizontales al inicio o al final de la matriz.
+ * <p>
+ * Las cadenas aleatorias usan una semilla fija por tamanio para que todas las ejecuciones midan
+ * la misma matriz, o la semilla indicada para medir un conjunto de matrices distintas. La de humano aleatoria evita en cada celda la base que completaria una
+ * secuencia con las tres celdas anteriores de alguna linea, por lo que tiene tripletas como una
+ * cadena real pero a lo sumo una secuencia aislada, en las pocas celdas donde todas las bases
+ * completan alguna.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public final class BenchmarkDNA {
+
+    /**
+     * Tipos de cadena de los benchmarks
+     */
+    public enum Kind {
+
+        /**
+         * Cadena sin secuencias, se recorre toda la matriz
+         */
+        HUMAN,
+
+        /**
+         * Cadena con las secuencias en las dos primeras filas
+         */
+        EARLY_MUTANT,
+
+        /**
+         * Cadena con las secuencias en las dos ultimas filas
+         */
+        LATE_MUTANT,
+
+        /**
+         * Cadena aleatoria de humano
+         */
+        RANDOM_HUMAN,
+
+        /**
+         * Cadena con bases aleatorias uniformes
+         */
+        RANDOM
+    }
+
+    private BenchmarkDNA() {
+    }
+
+    /**
+     * Crea la cadena de ADN del tipo indicado
+     *
+     * @param kind tipo de cadena
+     * @param size tamanio N de la matriz, minimo 4
+     * @return cadena de ADN de NxN
+     */
+    public static String[] of(Kind kind, int size) {
+        return of(kind, size, size);
+    }
+
+    /**
+     * Crea la cadena de ADN del tipo indicado, las cadenas aleatorias usan la semilla indicada
+     *
+     * @param kind tipo de cadena
+     * @param size tamanio N de la matriz, minimo 4
+     * @param seed semilla de las cadenas aleatorias
+     * @return cadena de ADN de NxN
+     */
+    public static String[] of(Kind kind, int size, long seed) {
+        if (kind == Kind.RANDOM_HUMAN || kind == Kind.RANDOM) {
+            return toStrings(random(size, kind == Kind.RANDOM_HUMAN, seed));
+        }
+        char[][] rows = human(size);
+        if (kind == Kind.EARLY_MUTANT) {
+            fill(rows[0], 0);
+            fill(rows[1], 0);
+        } else if (kind == Kind.LATE_MUTANT) {
+            fill(rows[size - 2], size - SequenceDNAUseCase.SEQUENCE_SIZE);
+            fill(rows[size - 1], size - SequenceDNAUseCase.SEQUENCE_SIZE);
+        }
+        return toStrings(rows);
+    }
+
+    /**
+     * Crea una cadena de humano distinta por cada indice, el indice se codifica en base 4
+     * en las primeras 16 columnas de la primera fila
+     *
+     * @param size  tamanio N de la matriz, minimo 16
+     * @param index indice de la cadena
+     * @return cadena de ADN de NxN
+     */
+    public static String[] distinct(int size, long index) {
+        char[][] rows = human(size);
+        for (int j = 0; j < 16; j++) {
+            rows[0][j] = PackedDNA.decode((int) (index >>> (2 * j)));
+        }
+        return toStrings(rows);
+    }
+
+    private static char[][] human(int size) {
+        char[][] rows = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                rows[i][j] = PackedDNA.decode(i + (2 * j));
+            }
+        }
+        return rows;
+    }
+
+    private static char[][] random(int size, boolean human, long seed) {
+        Random random = new Random(seed);
+        char[][] rows = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int code = random.nextInt(4);
+                if (human) {
+                    int excluded = completes(rows, i, j, 0, -1) | completes(rows, i, j, -1, 0)
+                            | completes(rows, i, j, -1, -1) | completes(rows, i, j, -1, 1);
+                    for (int k = 0; k < 4 && (excluded & (1 << code)) != 0; k++) {
+                        code = (code + 1) % 4;
+                    }
+                }
+                rows[i][j] = PackedDNA.decode(code);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Busca la base que completaria una secuencia en la celda (i, j) con las celdas anteriores
+     * en la direccion (di, dj)
+     *
+     * @return mascara con el bit de la base, 0 si no hay una secuencia por completar
+     */
+    private static int completes(char[][] rows, int i, int j, int di, int dj) {
+        int length = SequenceDNAUseCase.SEQUENCE_SIZE - 1;
+        int lastRow = i + (length * di);
+        int lastCol = j + (length * dj);
+        if (lastRow < 0 || lastCol < 0 || lastCol >= rows.length) {
+            return 0;
+        }
+        char base = rows[i + di][j + dj];
+        for (int k = 2; k <= length; k++) {
+            if (rows[i + (k * di)][j + (k * dj)] != base) {
+                return 0;
+            }
+        }
+        return 1 << PackedDNA.encode(base);
+    }
+
+    private static void fill(char[] row, int from) {
+        for (int j = from; j < from + SequenceDNAUseCase.SEQUENCE_SIZE; j++) {
+            row[j] = 'T';
+        }
+    }
+
+    private static String[] toStrings(char[][] rows) {
+        String[] dna = new String[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            dna[i] = new String(rows[i]);
+        }
+        return dna;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.camp.magnetodnaselector.domain.usecase;
+
+import com.camp.magnetodnaselector.config.DetectorConfig;
+import com.camp.magnetodnaselector.config.properties.DetectorProperties;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.usecase.detector.PreScreenSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.SequenceDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del motor de deteccion con y sin el descarte previo de
+ * {@link PreScreenSequenceDetector}, mide solo la deteccion sobre la matriz ya codificada.
+ * <p>
+ * Se ejecuta para cada motor de deteccion, tamanio de matriz y tipo de cadena de
+ * {@link BenchmarkDNA}, de manera que se pueda comparar la ganancia en las cadenas de humano
+ * con el costo adicional en las cadenas de mutante. Las cadenas HUMAN, EARLY_MUTANT y
+ * LATE_MUTANT estan construidas para recorrer toda la matriz y no representan la tasa de
+ * descarte real, por lo que las cadenas aleatorias se miden sobre hasta {@link #MATRICES} matrices
+ * distintas que se recorren en orden, y con preScreenMaxSize se compara el descarte limitado a
+ * las matrices pequenias con el descarte en todos los tamanios.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PreScreenBenchmark {
+
+    /**
+     * Cantidad maxima de matrices aleatorias distintas que se evaluan por tamanio
+     */
+    private static final int MATRICES = 1024;
+
+    /**
+     * Cantidad maxima de bases entre todas las matrices aleatorias, limita la memoria de las
+     * matrices grandes a 4 MB
+     */
+    private static final long MAX_BASES = 16L << 20;
+
+    @Param({"RUN_LENGTH", "BIT_PARALLEL"})
+    private DetectorProperties.Engine engine;
+
+    @Param({"true", "false"})
+    private boolean preScreen;
+
+    @Param({"8", "1000"})
+    private int preScreenMaxSize;
+
+    @Param({"4", "6", "8", "10", "16", "100", "1000"})
+    private int size;
+
+    @Param({"HUMAN", "EARLY_MUTANT", "LATE_MUTANT", "RANDOM_HUMAN", "RANDOM"})
+    private BenchmarkDNA.Kind kind;
+
+    private SequenceDetector sequenceDetector;
+
+    private PackedDNA[] packedDNA;
+
+    private int index;
+
+    private ForkJoinPool detectorPool;
+
+    @Setup
+    public void setup() {
+        DetectorProperties detectorProperties = new DetectorProperties();
+        detectorProperties.setEngine(engine);
+        detectorProperties.setPreScreen(preScreen);
+        detectorProperties.setPreScreenMaxSize(preScreenMaxSize);
+        DetectorConfig detectorConfig = new DetectorConfig();
+        detectorPool = detectorConfig.detectorPool(detectorProperties);
+        sequenceDetector = detectorConfig.sequenceDetector(detectorProperties, detectorPool);
+        boolean random = kind == BenchmarkDNA.Kind.RANDOM || kind == BenchmarkDNA.Kind.RANDOM_HUMAN;
+        packedDNA = new PackedDNA[random ? (int) Math.max(1, Math.min(MATRICES, MAX_BASES / ((long) size * size))) : 1];
+        for (int i = 0; i < packedDNA.length; i++) {
+            packedDNA[i] = PackedDNA.of(BenchmarkDNA.of(kind, size, (size * (long) MATRICES) + i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        detectorPool.shutdown();
+    }
+
+    @Benchmark
+    public boolean hasSequences() {
+        PackedDNA dna = packedDNA[index];
+        index = (index + 1) % packedDNA.length;
+        return sequenceDetector.hasSequences(dna, SequenceDNAUseCase.MIN_NUMBER_OF_SEQ);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.camp.magnetodnaselector.domain.usecase;
+
+import com.camp.magnetodnaselector.config.DetectorConfig;
+import com.camp.magnetodnaselector.config.properties.DetectorProperties;
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.StatRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del metodo {@link SequenceDNAUseCase#isMutant(SequenceDNAModel)} sin medio de
+ * persistencia, mide la validacion, la codificacion compacta y el motor de deteccion.
+ * <p>
+ * Se ejecuta para cada motor de deteccion, tamanio de matriz y tipo de cadena de
+ * {@link BenchmarkDNA}. El repositorio nunca encuentra la cadena guardada, por lo que cada
+ * invocacion evalua la cadena completa.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SequenceDNAUseCaseBenchmark {
+
+    @Param({"RUN_LENGTH", "BIT_PARALLEL", "VECTOR"})
+    private DetectorProperties.Engine engine;
+
+    @Param({"4", "10", "100", "1000", "10000"})
+    private int size;
+
+    @Param({"HUMAN", "EARLY_MUTANT", "LATE_MUTANT"})
+    private BenchmarkDNA.Kind kind;
+
+    private SequenceDNAUseCase sequenceDNAUseCase;
+
+    private SequenceDNAModel sequenceDNAModel;
+
+    private ForkJoinPool detectorPool;
+
+    @Setup
+    public void setup() {
+        DetectorProperties detectorProperties = new DetectorProperties();
+        detectorProperties.setEngine(engine);
+        DetectorConfig detectorConfig = new DetectorConfig();
+        detectorPool = detectorConfig.detectorPool(detectorProperties);
+        sequenceDNAUseCase = new SequenceDNAUseCase(new NoOpRepository(), new NoOpRepository(),
+                detectorConfig.sequenceDetector(detectorProperties, detectorPool), EvaluationMetrics.NONE);
+        sequenceDNAModel = SequenceDNAModel.builder().dna(BenchmarkDNA.of(kind, size)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        detectorPool.shutdown();
+    }
+
+    @Benchmark
+    public boolean isMutant() throws InvalidDNAException {
+        return sequenceDNAUseCase.isMutant(sequenceDNAModel);
+    }
+
+    /**
+     * Repositorio que no guarda las cadenas para medir solo la evaluacion
+     */
+    static class NoOpRepository implements SequenceDNARepository, StatRepository {
+
+        @Override
+        public Boolean isMutantSavedDNA(PackedDNA dna) {
+            return null;
+        }
+
+        @Override
+        public void saveDNA(PackedDNA dna, boolean mutant) {
+            // Las cadenas no se guardan
+        }
+
+        @Override
+        public StatModel getStat() {
+            return StatModel.builder().build();
+        }
+
+        @Override
+        public void calRatio(StatModel statModel) {
+            // Sin estadisticas
+        }
+    }
+
+}
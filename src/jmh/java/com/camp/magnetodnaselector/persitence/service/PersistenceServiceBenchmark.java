@@ -0,0 +1,92 @@
+package com.camp.magnetodnaselector.persitence.service;
+
+import com.camp.magnetodnaselector.MagnetoDnaSelectorApplication;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.usecase.BenchmarkDNA;
+import com.camp.magnetodnaselector.persitence.repository.RequestSequenceRepository;
+import com.camp.magnetodnaselector.persitence.repository.SequenceVerdictRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de {@link PersistenceService} sobre la instancia de MongoDB en memoria, con
+ * la misma configuracion del contexto de prueba: sin cache de resultados y sin escritura
+ * diferida, de manera que cada operacion llega a la base de datos.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersistenceServiceBenchmark {
+
+    @Param({"16", "128"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+
+    private PersistenceService persistenceService;
+
+    private PackedDNA savedDNA;
+
+    private long index;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(MagnetoDnaSelectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        context.getBean(RequestSequenceRepository.class).deleteAll();
+        context.getBean(SequenceVerdictRepository.class).deleteAll();
+        persistenceService = context.getBean(PersistenceService.class);
+        savedDNA = PackedDNA.of(BenchmarkDNA.distinct(size, -1));
+        persistenceService.saveDNA(savedDNA, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Guarda una cadena nueva en cada invocacion
+     */
+    @Benchmark
+    public void saveDNA() {
+        persistenceService.saveDNA(PackedDNA.of(BenchmarkDNA.distinct(size, index++)), false);
+    }
+
+    /**
+     * Busca una cadena que ya esta guardada
+     *
+     * @return resultado guardado de la cadena
+     */
+    @Benchmark
+    public Boolean isMutantSavedDNA() {
+        return persistenceService.isMutantSavedDNA(savedDNA);
+    }
+
+    /**
+     * Consulta las estadisticas
+     *
+     * @return estadisticas de las cadenas guardadas
+     */
+    @Benchmark
+    public StatModel getStat() {
+        return persistenceService.getStat();
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.camp.magnetodnaselector.restcontroller;
+
+import com.camp.magnetodnaselector.MagnetoDnaSelectorApplication;
+import com.camp.magnetodnaselector.domain.usecase.BenchmarkDNA;
+import com.camp.magnetodnaselector.persitence.repository.RequestSequenceRepository;
+import com.camp.magnetodnaselector.persitence.repository.SequenceVerdictRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de carga del servicio /selector/mutant que compara el pool de hilos de plataforma
+ * de Tomcat con los hilos virtuales del perfil virtual-threads.
+ * <p>
+ * El aplicativo se inicia con la instancia de MongoDB en memoria, sin cache de resultados y
+ * sin escritura diferida, y cada peticion envia una cadena distinta, de manera que cada peticion
+ * consulta y guarda en la base de datos.
+ * <p>
+ * La carga la genera un solo hilo del benchmark con el cliente asincrono de {@link HttpClient}:
+ * cada invocacion abre {@link #CONNECTIONS} cadenas de peticiones, y cada cadena envia la
+ * siguiente peticion en cuanto recibe la respuesta de la anterior, hasta completar
+ * {@link #REQUESTS} peticiones. Asi siempre hay {@link #CONNECTIONS} peticiones en curso sin
+ * un hilo del generador por conexion que compita por los procesadores con el servidor. El
+ * throughput se reporta por peticion, y al final de cada iteracion se imprimen los percentiles
+ * p50, p99 y p99.9 de la latencia por peticion y la cantidad de respuestas con error.
+ * <p>
+ * El valor virtual-threads requiere la clase VirtualThreadConfig, por lo que este benchmark
+ * solo se ejecuta con el perfil virtualThreads de build.gradle.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+public class SelectorLoadBenchmark {
+
+    /**
+     * Cantidad de peticiones simultaneas en curso
+     */
+    static final int CONNECTIONS = 2000;
+
+    /**
+     * Cantidad de peticiones por invocacion del benchmark
+     */
+    static final int REQUESTS = 20000;
+
+    /**
+     * Cantidad maxima de latencias que se guardan por iteracion para calcular los percentiles
+     */
+    private static final int MAX_SAMPLES = 1 << 22;
+
+    /**
+     * Perfil de Spring que atiende las peticiones en hilos virtuales
+     */
+    private static final String VIRTUAL_THREADS = "virtual-threads";
+
+    @Param({"platform", VIRTUAL_THREADS})
+    private String threads;
+
+    @Param({"16"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+
+    private ExecutorService executor;
+
+    private HttpClient client;
+
+    private URI uri;
+
+    private final AtomicLong index = new AtomicLong();
+
+    /**
+     * Latencias en nanosegundos de las peticiones de la iteracion en curso
+     */
+    private final long[] latencies = new long[MAX_SAMPLES];
+
+    private final AtomicInteger samples = new AtomicInteger();
+
+    private final AtomicInteger errors = new AtomicInteger();
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(MagnetoDnaSelectorApplication.class)
+                .properties("server.port=0");
+        if (VIRTUAL_THREADS.equals(threads)) {
+            Class.forName("com.camp.magnetodnaselector.config.VirtualThreadConfig");
+            builder.profiles(VIRTUAL_THREADS);
+        }
+        context = builder.run();
+        context.getBean(RequestSequenceRepository.class).deleteAll();
+        context.getBean(SequenceVerdictRepository.class).deleteAll();
+        uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/selector/mutant");
+        executor = Executors.newFixedThreadPool(2);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetSamples() {
+        samples.set(0);
+        errors.set(0);
+    }
+
+    /**
+     * Imprime los percentiles de la latencia por peticion de la iteracion
+     */
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        int count = Math.min(samples.get(), MAX_SAMPLES);
+        if (count == 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("%n%s: %d requests, %d errors, latency p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms%n",
+                threads, count, errors.get(), percentile(sorted, 0.5), percentile(sorted, 0.99),
+                percentile(sorted, 0.999));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        executor.shutdown();
+    }
+
+    /**
+     * Envia {@link #REQUESTS} peticiones con cadenas nuevas manteniendo {@link #CONNECTIONS}
+     * peticiones en curso y espera todas las respuestas
+     *
+     * @return cantidad de respuestas con error de la invocacion
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int isMutant() {
+        int errorsBefore = errors.get();
+        AtomicInteger remaining = new AtomicInteger(REQUESTS);
+        CompletableFuture<?>[] chains = new CompletableFuture<?>[CONNECTIONS];
+        for (int i = 0; i < CONNECTIONS; i++) {
+            chains[i] = next(remaining);
+        }
+        CompletableFuture.allOf(chains).join();
+        return errors.get() - errorsBefore;
+    }
+
+    /**
+     * Envia la siguiente peticion de una cadena si quedan peticiones por enviar, y al recibir
+     * la respuesta registra su latencia y continua con la siguiente
+     *
+     * @param remaining cantidad de peticiones pendientes de enviar en la invocacion
+     * @return futuro que se completa cuando la cadena no tiene mas peticiones por enviar
+     */
+    private CompletableFuture<Void> next(AtomicInteger remaining) {
+        if (remaining.getAndDecrement() <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String[] dna = BenchmarkDNA.distinct(size, index.getAndIncrement());
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"dna\":[\"" + String.join("\",\"", dna) + "\"]}"))
+                .build();
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    record(System.nanoTime() - start, error == null && response.statusCode() < 500);
+                    return remaining;
+                })
+                .thenCompose(this::next);
+    }
+
+    /**
+     * Registra la latencia de una peticion y si respondio con error
+     *
+     * @param latency latencia de la peticion en nanosegundos
+     * @param success true si la peticion obtuvo una respuesta sin error del servidor
+     */
+    private void record(long latency, boolean success) {
+        int sample = samples.getAndIncrement();
+        if (sample < MAX_SAMPLES) {
+            latencies[sample] = latency;
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int position = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, position)] / 1_000_000.0;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.DetectorProperties;
+import com.camp.magnetodnaselector.domain.usecase.SequenceDNAUseCase;
+import com.camp.magnetodnaselector.domain.usecase.detector.AdaptiveSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.BitParallelSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.DirectionalSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.ParallelSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.PreScreenSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.RunLengthSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.SequenceDetector;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Clase de configuracion que define el motor de deteccion {@link SequenceDetector}
+ * que utiliza la clase de negocio {@link SequenceDNAUseCase}.
+ * <p>
+ * El motor se selecciona por medio de la propiedad selector.detector.engine
+ * del archivo application.yml. Si el motor recorre cada dimension por separado y la propiedad
+ * selector.detector.adaptive-order es true, las dimensiones se recorren en el orden que define
+ * {@link AdaptiveSequenceDetector}; con los demas motores la propiedad se ignora y se registra una
+ * advertencia. Si la propiedad selector.detector.parallel-threshold es
+ * mayor a 0, las matrices de ese tamanio o mas se recorren en paralelo con el motor
+ * {@link ParallelSequenceDetector} en un {@link ForkJoinPool} propio del aplicativo. Si la propiedad
+ * selector.detector.pre-screen es true, antes de recorrer la matriz se descartan las cadenas de
+ * humano con el motor {@link PreScreenSequenceDetector}.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(DetectorProperties.class)
+public class DetectorConfig {
+
+    /**
+     * Nombre del modulo de la Vector API
+     */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Clase del motor de la Vector API, solo existe cuando se compila con el perfil vectorApi
+     */
+    private static final String VECTOR_DETECTOR = "com.camp.magnetodnaselector.domain.usecase.detector.VectorSequenceDetector";
+
+    /**
+     * Prefijo del nombre de los hilos del pool de deteccion en paralelo
+     */
+    private static final String DETECTOR_THREAD_PREFIX = "dna-detector-";
+
+    /**
+     * Crea el pool de hilos del motor {@link ParallelSequenceDetector}, separado del
+     * {@link ForkJoinPool#commonPool()} para que las matrices grandes no ocupen los hilos que usan
+     * los streams paralelos y las tareas asincronas del resto del aplicativo. El tamanio lo define
+     * la propiedad selector.detector.parallelism y el pool se detiene al cerrar el contenedor
+     *
+     * @param detectorProperties propiedades de configuracion del motor de deteccion
+     * @return pool de hilos de la deteccion en paralelo
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool detectorPool(DetectorProperties detectorProperties) {
+        int parallelism = detectorProperties.getParallelism() > 0
+                ? detectorProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(DETECTOR_THREAD_PREFIX + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Crea el motor de deteccion segun la propiedad selector.detector.engine, envuelto en el
+     * motor paralelo si la propiedad selector.detector.parallel-threshold es mayor a 0 y en el
+     * motor de descarte previo si la propiedad selector.detector.pre-screen es true, solo para las
+     * matrices de tamanio selector.detector.pre-screen-max-size o menor
+     *
+     * @param detectorProperties propiedades de configuracion del motor de deteccion
+     * @param detectorPool       pool de hilos de la deteccion en paralelo
+     * @return instancia del motor de deteccion seleccionado
+     * @throws IllegalStateException si el motor es vector y la Vector API no esta disponible
+     */
+    @Bean
+    public SequenceDetector sequenceDetector(DetectorProperties detectorProperties, ForkJoinPool detectorPool) {
+        SequenceDetector sequenceDetector;
+        switch (detectorProperties.getEngine()) {
+            case BIT_PARALLEL:
+                sequenceDetector = new BitParallelSequenceDetector(SequenceDNAUseCase.SEQUENCE_SIZE);
+                break;
+            case RUN_LENGTH:
+                sequenceDetector = new RunLengthSequenceDetector(SequenceDNAUseCase.SEQUENCE_SIZE);
+                break;
+            case VECTOR:
+                sequenceDetector = loadVectorDetector();
+                if (sequenceDetector == null) {
+                    throw new IllegalStateException("Vector API detector is not available, build with -PvectorApi "
+                            + "and run with --add-modules " + VECTOR_MODULE + " or use another engine");
+                }
+                break;
+            default:
+                sequenceDetector = loadVectorDetector();
+                if (sequenceDetector == null) {
+                    sequenceDetector = new RunLengthSequenceDetector(SequenceDNAUseCase.SEQUENCE_SIZE);
+                }
+        }
+        log.info("DNA sequence detector: {}", sequenceDetector.getClass().getSimpleName());
+        if (detectorProperties.isAdaptiveOrder()) {
+            if (sequenceDetector instanceof DirectionalSequenceDetector) {
+                log.info("Adaptive DNA sequence direction order enabled");
+                sequenceDetector = new AdaptiveSequenceDetector((DirectionalSequenceDetector) sequenceDetector);
+            } else {
+                log.warn("Adaptive DNA sequence direction order ignored, {} scans all directions in a single pass",
+                        sequenceDetector.getClass().getSimpleName());
+            }
+        }
+        if (detectorProperties.getParallelThreshold() > 0) {
+            log.info("Parallel DNA sequence detection from size {} with {} threads",
+                    detectorProperties.getParallelThreshold(), detectorPool.getParallelism());
+            sequenceDetector = new ParallelSequenceDetector(sequenceDetector, SequenceDNAUseCase.SEQUENCE_SIZE,
+                    detectorProperties.getParallelThreshold(), detectorPool);
+        }
+        if (detectorProperties.isPreScreen()) {
+            log.info("DNA sequence pre-screen enabled up to size {}", detectorProperties.getPreScreenMaxSize());
+            sequenceDetector = new PreScreenSequenceDetector(sequenceDetector, SequenceDNAUseCase.SEQUENCE_SIZE,
+                    detectorProperties.getPreScreenMaxSize());
+        }
+        return sequenceDetector;
+    }
+
+    /**
+     * Registra el contador selector.detector.screened con las matrices que el motor
+     * {@link PreScreenSequenceDetector} descarta sin recorrerlas, si el descarte previo esta habilitado
+     *
+     * @param sequenceDetector motor de deteccion del contenedor
+     * @return registro de la metrica del descarte previo
+     */
+    @Bean
+    public MeterBinder preScreenMetrics(SequenceDetector sequenceDetector) {
+        return meterRegistry -> {
+            if (sequenceDetector instanceof PreScreenSequenceDetector) {
+                FunctionCounter.builder("selector.detector.screened", (PreScreenSequenceDetector) sequenceDetector,
+                                PreScreenSequenceDetector::getScreenedCount)
+                        .description("DNA matrices proven human by the pre-screen bound without a full scan")
+                        .register(meterRegistry);
+            }
+        };
+    }
+
+    /**
+     * Carga por reflexion el motor de la Vector API si el modulo esta presente en la JVM
+     * y la clase fue compilada con el perfil vectorApi
+     *
+     * @return instancia del motor de la Vector API o null si no esta disponible
+     */
+    static SequenceDetector loadVectorDetector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (SequenceDetector) Class.forName(VECTOR_DETECTOR)
+                    .getConstructor(int.class)
+                    .newInstance(SequenceDNAUseCase.SEQUENCE_SIZE);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector API detector is not available, using scalar detector", e);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.EmbeddedStorageProperties;
+import com.camp.magnetodnaselector.persitence.embedded.AppendOnlyVerdictStore;
+import com.camp.magnetodnaselector.persitence.service.EmbeddedPersistenceService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Paths;
+
+/**
+ * Clase de configuracion del almacen local {@link AppendOnlyVerdictStore} que usa el medio de
+ * persistencia {@link EmbeddedPersistenceService} en el perfil embedded.
+ * <p>
+ * El directorio del almacen se define con la propiedad selector.embedded.directory del archivo
+ * application.yml, y la cantidad de cadenas guardadas se publica en la metrica
+ * selector.embedded.verdicts. El archivo application-embedded.yml excluye la configuracion
+ * automatica de MongoDB, por lo que en este perfil no se necesita la base de datos.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Configuration
+@Profile("embedded")
+@EnableConfigurationProperties(EmbeddedStorageProperties.class)
+public class EmbeddedStorageConfig {
+
+    /**
+     * Abre el almacen cargando su instantanea y sus logs, el contenedor lo cierra al detenerse
+     *
+     * @param embeddedStorageProperties propiedades de configuracion del almacen
+     * @return almacen local de los resultados
+     */
+    @Bean(destroyMethod = "close")
+    public AppendOnlyVerdictStore appendOnlyVerdictStore(EmbeddedStorageProperties embeddedStorageProperties) {
+        return AppendOnlyVerdictStore.open(Paths.get(embeddedStorageProperties.getDirectory()),
+                embeddedStorageProperties.isSyncWrites());
+    }
+
+    /**
+     * Registra la cantidad de cadenas guardadas en el almacen
+     *
+     * @param appendOnlyVerdictStore almacen local de los resultados
+     * @return registro de la metrica del almacen
+     */
+    @Bean
+    public MeterBinder embeddedStorageMetrics(AppendOnlyVerdictStore appendOnlyVerdictStore) {
+        return meterRegistry -> Gauge.builder("selector.embedded.verdicts", appendOnlyVerdictStore, AppendOnlyVerdictStore::size)
+                .description("Verdicts stored in the embedded append-only store")
+                .register(meterRegistry);
+    }
+
+}
@@ -2,6 +2,8 @@ package com.camp.magnetodnaselector.config;
 
 import com.camp.magnetodnaselector.config.model.ErrorModel;
 import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -20,32 +22,40 @@ import javax.servlet.http.HttpServletRequest;
  *
  * @author Carlos Alberto Manrique Palacios
  */
+@Profile("!reactive")
 @ControllerAdvice
 public class ExceptionHandlerConfig {
 
     /**
-     * Lanzador para los tipos de excepcion {@link InvalidDNAException}
-     * y {@link HttpMessageNotReadableException}.
+     * Lanzador para los tipos de excepcion {@link InvalidDNAException},
+     * {@link InvalidStatWindowException} y {@link HttpMessageNotReadableException}.
      * <p>
      * Retorna un objeto {@link ResponseEntity} que contiene una instancia
      * de la clase {@link ErrorModel}, la cual contiene los datos de la
      * fecha y hora representada en milisegundos, el tipo de excepcion
      * la cual sera el nombre de la clase de la excepcion y el mensaje de la excepcion.
      * <p>
-     * El codigo de la respuesta http sera 400 indicando que es un problema de request
+     * El codigo de la respuesta http sera 400 indicando que es un problema de request.
+     * <p>
+     * Cuando la cadena se valida mientras se lee la peticion la {@link InvalidDNAException}
+     * llega como causa de una {@link HttpMessageNotReadableException}, en tal caso se
+     * responde con los datos de la causa.
      *
      * @param request objecto de la solictud realizada
      * @param ex      excepcion interceptada por el lanzador
      * @return objeto {@link ResponseEntity} con codigo de respuesta http 400
      */
-    @ExceptionHandler({InvalidDNAException.class, HttpMessageNotReadableException.class})
+    @ExceptionHandler({InvalidDNAException.class, InvalidStatWindowException.class,
+            HttpMessageNotReadableException.class})
     public ResponseEntity<ErrorModel> handleInvalidDNAException(
             HttpServletRequest request,
             Exception ex) {
+        Throwable error = ex instanceof HttpMessageNotReadableException && ex.getCause() instanceof InvalidDNAException ?
+                ex.getCause() : ex;
         ErrorModel errorModel = ErrorModel.builder()
                 .timestamp(System.currentTimeMillis())
-                .type(ex.getClass().getSimpleName())
-                .message(ex.getMessage()).build();
+                .type(error.getClass().getSimpleName())
+                .message(error.getMessage()).build();
         return new ResponseEntity<>(errorModel, HttpStatus.BAD_REQUEST);
     }
 
@@ -0,0 +1,108 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.ResultCacheProperties;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import com.camp.magnetodnaselector.persitence.cache.CachedSequenceDNARepository;
+import com.camp.magnetodnaselector.persitence.cache.ReactiveCachedSequenceDNARepository;
+import com.camp.magnetodnaselector.persitence.service.EmbeddedPersistenceService;
+import com.camp.magnetodnaselector.persitence.service.PersistenceService;
+import com.camp.magnetodnaselector.persitence.service.ReactivePersistenceService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Clase de configuracion que ubica la cache de resultados {@link CachedSequenceDNARepository}
+ * delante del medio de persistencia {@link PersistenceService}, o de
+ * {@link ReactivePersistenceService} en el perfil reactive, o de {@link EmbeddedPersistenceService}
+ * en el perfil embedded. En estos dos perfiles el decorador es {@link ReactiveCachedSequenceDNARepository},
+ * de manera que las operaciones reactivas usan la misma cache.
+ * <p>
+ * La cache se habilita por medio de la propiedad selector.cache.enabled del archivo
+ * application.yml y su tamanio se define con selector.cache.maximum-size. Los aciertos, fallos y
+ * desalojos de la cache se publican en las metricas selector.cache.requests y selector.cache.evictions.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Configuration
+@EnableConfigurationProperties(ResultCacheProperties.class)
+@ConditionalOnProperty(prefix = "selector.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResultCacheConfig {
+
+    /**
+     * Crea el decorador con la cache de resultados, se marca como primario para que
+     * sea el que reciben las clases de negocio
+     *
+     * @param persistenceService    medio de persistencia de las cadenas de ADN
+     * @param resultCacheProperties propiedades de configuracion de la cache
+     * @return repositorio de cadenas de ADN con cache
+     */
+    @Bean
+    @Primary
+    @Profile("!reactive & !embedded")
+    public CachedSequenceDNARepository cachedSequenceDNARepository(PersistenceService persistenceService,
+                                                                   ResultCacheProperties resultCacheProperties) {
+        return new CachedSequenceDNARepository(persistenceService, resultCacheProperties.getMaximumSize().toBytes());
+    }
+
+    /**
+     * Crea el decorador con la cache de resultados delante del medio de persistencia
+     * reactivo, se marca como primario para que sea el que reciben las clases de negocio
+     *
+     * @param reactivePersistenceService medio de persistencia reactivo de las cadenas de ADN
+     * @param resultCacheProperties      propiedades de configuracion de la cache
+     * @return repositorio de cadenas de ADN con cache
+     */
+    @Bean
+    @Primary
+    @Profile("reactive & !embedded")
+    public ReactiveCachedSequenceDNARepository reactiveCachedSequenceDNARepository(ReactivePersistenceService reactivePersistenceService,
+                                                                                   ResultCacheProperties resultCacheProperties) {
+        return new ReactiveCachedSequenceDNARepository(reactivePersistenceService, resultCacheProperties.getMaximumSize().toBytes());
+    }
+
+    /**
+     * Crea el decorador con la cache de resultados delante del almacen local del perfil
+     * embedded, se marca como primario para que sea el que reciben las clases de negocio
+     *
+     * @param embeddedPersistenceService medio de persistencia local de las cadenas de ADN
+     * @param resultCacheProperties      propiedades de configuracion de la cache
+     * @return repositorio de cadenas de ADN con cache
+     */
+    @Bean
+    @Primary
+    @Profile("embedded")
+    public ReactiveCachedSequenceDNARepository embeddedCachedSequenceDNARepository(EmbeddedPersistenceService embeddedPersistenceService,
+                                                                                   ResultCacheProperties resultCacheProperties) {
+        return new ReactiveCachedSequenceDNARepository(embeddedPersistenceService, resultCacheProperties.getMaximumSize().toBytes());
+    }
+
+    /**
+     * Registra los contadores de la cache a partir de sus estadisticas acumuladas
+     *
+     * @param cachedSequenceDNARepository repositorio de cadenas de ADN con cache
+     * @return registro de las metricas de la cache
+     */
+    @Bean
+    public MeterBinder resultCacheMetrics(CachedSequenceDNARepository cachedSequenceDNARepository) {
+        return meterRegistry -> {
+            FunctionCounter.builder("selector.cache.requests", cachedSequenceDNARepository, cache -> cache.getStats().hitCount())
+                    .description("Result cache lookups")
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("selector.cache.requests", cachedSequenceDNARepository, cache -> cache.getStats().missCount())
+                    .description("Result cache lookups")
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            FunctionCounter.builder("selector.cache.evictions", cachedSequenceDNARepository, cache -> cache.getStats().evictionCount())
+                    .description("Result cache evictions")
+                    .register(meterRegistry);
+        };
+    }
+
+}
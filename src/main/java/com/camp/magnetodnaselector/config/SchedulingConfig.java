@@ -0,0 +1,25 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.StatsProperties;
+import com.camp.magnetodnaselector.persitence.service.StatCounterService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Clase de configuracion que habilita las tareas programadas del aplicativo, como la
+ * actualizacion y reconciliacion de los contadores de {@link StatCounterService}.
+ * <p>
+ * Los intervalos se definen con las propiedades selector.stats.refresh-interval y
+ * selector.stats.reconcile-cron del archivo application.yml, la reconciliacion esta deshabilitada
+ * por defecto y se debe programar en una sola instancia. Tambien registra las propiedades
+ * {@link StatsProperties} con la retencion de las estadisticas por intervalo de tiempo, que
+ * usan todos los perfiles.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(StatsProperties.class)
+public class SchedulingConfig {
+}
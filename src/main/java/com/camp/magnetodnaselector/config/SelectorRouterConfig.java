@@ -0,0 +1,42 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.restcontroller.SelectorHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Clase de configuracion de las rutas de WebFlux del perfil reactive.
+ * <p>
+ * El perfil atiende las peticiones en los hilos del event loop de Netty en lugar del pool
+ * de hilos de Tomcat, se activa con el perfil de Spring reactive, el cual define la propiedad
+ * spring.main.web-application-type en el archivo application-reactive.yml.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Configuration
+@Profile("reactive")
+public class SelectorRouterConfig {
+
+    /**
+     * Crea las rutas de los servicios /selector/health, /selector/mutant, /selector/stats y
+     * /selector/stats/series
+     *
+     * @param selectorHandler funciones de atencion de los servicios
+     * @return rutas de los servicios
+     */
+    @Bean
+    public RouterFunction<ServerResponse> selectorRoutes(SelectorHandler selectorHandler) {
+        return route(GET("/selector/health"), selectorHandler::getHealthMsg)
+                .andRoute(POST("/selector/mutant"), selectorHandler::isMutant)
+                .andRoute(GET("/selector/stats"), selectorHandler::getStat)
+                .andRoute(GET("/selector/stats/series"), selectorHandler::getStatSeries);
+    }
+
+}
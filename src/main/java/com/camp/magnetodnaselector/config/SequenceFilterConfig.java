@@ -0,0 +1,55 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.SequenceFilterProperties;
+import com.camp.magnetodnaselector.persitence.filter.SequenceHashFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Clase de configuracion del filtro de huellas {@link SequenceHashFilter} que consultan los
+ * medios de persistencia antes de buscar una cadena en la base de datos.
+ * <p>
+ * Se habilita por medio de la propiedad selector.filter.enabled del archivo application.yml,
+ * y su tamanio se define con selector.filter.expected-insertions, selector.filter.false-positive-rate
+ * y el limite de memoria selector.filter.maximum-size. Las busquedas evitadas se publican en la
+ * metrica selector.filter.skipped. El perfil embedded no lo usa, ya que no consulta MongoDB.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Configuration
+@Profile("!embedded")
+@EnableConfigurationProperties(SequenceFilterProperties.class)
+public class SequenceFilterConfig {
+
+    /**
+     * Crea el filtro, el contenedor lo llena con las huellas guardadas al crearlo
+     *
+     * @param mongoTemplate            objeto que implementa las funcionalidades generales para MongoDB
+     * @param sequenceFilterProperties propiedades de configuracion del filtro
+     * @return filtro de las huellas de las cadenas guardadas
+     */
+    @Bean(initMethod = "warmUp")
+    public SequenceHashFilter sequenceHashFilter(MongoTemplate mongoTemplate, SequenceFilterProperties sequenceFilterProperties) {
+        return new SequenceHashFilter(mongoTemplate, sequenceFilterProperties);
+    }
+
+    /**
+     * Registra el contador de las busquedas que el filtro evito
+     *
+     * @param sequenceHashFilter filtro de las huellas de las cadenas guardadas
+     * @return registro de la metrica del filtro
+     */
+    @Bean
+    public MeterBinder sequenceFilterMetrics(SequenceHashFilter sequenceHashFilter) {
+        return meterRegistry -> FunctionCounter.builder("selector.filter.skipped", sequenceHashFilter,
+                        SequenceHashFilter::getSkippedCount)
+                .description("Lookups skipped because the sequence was never saved")
+                .register(meterRegistry);
+    }
+
+}
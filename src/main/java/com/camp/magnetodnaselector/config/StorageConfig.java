@@ -0,0 +1,89 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.StorageProperties;
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
+import com.camp.magnetodnaselector.persitence.filter.SequenceHashFilter;
+import com.camp.magnetodnaselector.persitence.migration.RequestSequenceMigration;
+import com.camp.magnetodnaselector.persitence.migration.SequenceVerdictBackfill;
+import com.camp.magnetodnaselector.persitence.service.StatCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Clase de configuracion del formato de almacenamiento de las cadenas de ADN.
+ * <p>
+ * El formato de escritura se define con la propiedad selector.storage.format del archivo
+ * application.yml, y si la propiedad selector.storage.migrate-legacy es true al iniciar el
+ * aplicativo se convierten los documentos con el vector de strings al bloque de 2 bits.
+ * <p>
+ * Si al iniciar el aplicativo la construccion del nivel caliente de resultados no esta
+ * registrada en la coleccion Migrations y el archivo de secuencias tiene documentos, el nivel
+ * caliente se construye a partir del archivo. El perfil embedded no usa este almacenamiento.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+@Configuration
+@Profile("!embedded")
+@EnableConfigurationProperties(StorageProperties.class)
+public class StorageConfig {
+
+    /**
+     * Crea la conversion de las cadenas al formato de almacenamiento configurado
+     *
+     * @param storageProperties propiedades de configuracion del almacenamiento
+     * @return conversion de las cadenas
+     */
+    @Bean
+    public RequestSequenceCodec requestSequenceCodec(StorageProperties storageProperties) {
+        log.info("Request sequence storage format: {}", storageProperties.getFormat());
+        return new RequestSequenceCodec(storageProperties.getFormat(), storageProperties.getCompressionThreshold());
+    }
+
+    /**
+     * Crea la tarea que convierte los documentos anteriores al iniciar el aplicativo
+     *
+     * @param mongoTemplate     objeto que implementa las funcionalidades generales para MongoDB
+     * @param storageProperties propiedades de configuracion del almacenamiento
+     * @return tarea de inicio con la migracion
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "selector.storage", name = "migrate-legacy", havingValue = "true")
+    public ApplicationRunner requestSequenceMigrationRunner(MongoTemplate mongoTemplate, StorageProperties storageProperties) {
+        RequestSequenceMigration migration = new RequestSequenceMigration(mongoTemplate,
+                storageProperties.getCompressionThreshold(), storageProperties.getMigrationBatchSize());
+        return args -> migration.migrate();
+    }
+
+    /**
+     * Crea la tarea que construye el nivel caliente a partir del archivo al iniciar el aplicativo,
+     * solo cuando la construccion no esta registrada como terminada y el archivo tiene documentos,
+     * y despues reconstruye los contadores de las estadisticas y agrega las huellas al filtro de
+     * cadenas guardadas
+     *
+     * @param mongoTemplate      objeto que implementa las funcionalidades generales para MongoDB
+     * @param storageProperties  propiedades de configuracion del almacenamiento
+     * @param statCounterService contadores de cadenas de humanos y mutantes registradas
+     * @param sequenceHashFilter filtro de las huellas de las cadenas guardadas
+     * @return tarea de inicio con la construccion del nivel caliente
+     */
+    @Bean
+    public ApplicationRunner sequenceVerdictBackfillRunner(MongoTemplate mongoTemplate, StorageProperties storageProperties,
+                                                           StatCounterService statCounterService,
+                                                           SequenceHashFilter sequenceHashFilter) {
+        SequenceVerdictBackfill backfill = new SequenceVerdictBackfill(mongoTemplate, storageProperties.getMigrationBatchSize());
+        return args -> {
+            if (backfill.isRequired() && backfill.backfill() > 0) {
+                statCounterService.reconcile();
+                sequenceHashFilter.warmUp();
+            }
+        };
+    }
+
+}
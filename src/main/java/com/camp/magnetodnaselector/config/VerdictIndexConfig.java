@@ -0,0 +1,64 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.VerdictIndexProperties;
+import com.camp.magnetodnaselector.persitence.cache.MappedVerdictIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Paths;
+
+/**
+ * Clase de configuracion del indice local {@link MappedVerdictIndex} que consultan los medios
+ * de persistencia antes de buscar una cadena en la base de datos.
+ * <p>
+ * Se habilita por medio de la propiedad selector.index.enabled del archivo application.yml, el
+ * archivo se define con selector.index.path y su tamanio con selector.index.capacity. La
+ * cantidad de entradas se publica en la metrica selector.index.entries y las consultas resueltas
+ * por el indice en selector.index.hits. El perfil embedded no lo usa, ya que su almacen local
+ * ya resuelve las busquedas en memoria.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Configuration
+@Profile("!embedded")
+@EnableConfigurationProperties(VerdictIndexProperties.class)
+public class VerdictIndexConfig {
+
+    /**
+     * Abre el indice, el contenedor lo cierra al detenerse escribiendo las paginas modificadas
+     *
+     * @param verdictIndexProperties propiedades de configuracion del indice
+     * @return indice local de resultados, deshabilitado si asi se configura
+     */
+    @Bean(destroyMethod = "close")
+    public MappedVerdictIndex mappedVerdictIndex(VerdictIndexProperties verdictIndexProperties) {
+        if (!verdictIndexProperties.isEnabled()) {
+            return MappedVerdictIndex.disabled();
+        }
+        return MappedVerdictIndex.open(Paths.get(verdictIndexProperties.getPath()), verdictIndexProperties.getCapacity());
+    }
+
+    /**
+     * Registra la cantidad de entradas del indice y el contador de consultas resueltas por el indice
+     *
+     * @param mappedVerdictIndex indice local de resultados
+     * @return registro de la metrica del indice
+     */
+    @Bean
+    public MeterBinder verdictIndexMetrics(MappedVerdictIndex mappedVerdictIndex) {
+        return meterRegistry -> {
+            Gauge.builder("selector.index.entries", mappedVerdictIndex, MappedVerdictIndex::getCount)
+                    .description("Verdicts stored in the local memory-mapped index")
+                    .register(meterRegistry);
+            FunctionCounter.builder("selector.index.hits", mappedVerdictIndex, MappedVerdictIndex::getHitCount)
+                    .description("Lookups answered by the local memory-mapped index")
+                    .register(meterRegistry);
+        };
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.StorageProperties;
+import com.camp.magnetodnaselector.config.properties.WriteBehindProperties;
+import com.camp.magnetodnaselector.persitence.service.StatCounterService;
+import com.camp.magnetodnaselector.persitence.writer.RequestSequenceWriteBehind;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Clase de configuracion de la escritura diferida {@link RequestSequenceWriteBehind}
+ * de las cadenas de ADN evaluadas.
+ * <p>
+ * Se habilita por medio de la propiedad selector.write-behind.enabled del archivo
+ * application.yml, si no esta habilitada las cadenas se guardan en la misma peticion.
+ * Los perfiles reactive y embedded no la usan.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Configuration
+@Profile("!reactive & !embedded")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindConfig {
+
+    /**
+     * Crea la escritura diferida, el contenedor la inicia al crearla y la detiene
+     * guardando los documentos pendientes al cerrar el contexto
+     *
+     * @param mongoTemplate         objeto que implementa las funcionalidades generales para MongoDB
+     * @param statCounterService    contadores de cadenas de humanos y mutantes registradas
+     * @param writeBehindProperties propiedades de configuracion de la escritura diferida
+     * @param storageProperties     propiedades de configuracion del almacenamiento
+     * @return escritura diferida de las cadenas de ADN
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public RequestSequenceWriteBehind requestSequenceWriteBehind(MongoTemplate mongoTemplate,
+                                                                 StatCounterService statCounterService,
+                                                                 WriteBehindProperties writeBehindProperties,
+                                                                 StorageProperties storageProperties) {
+        return new RequestSequenceWriteBehind(mongoTemplate, statCounterService, writeBehindProperties,
+                storageProperties.isArchive());
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades de configuracion del motor de deteccion de secuencias,
+ * se leen del archivo application.yml bajo el prefijo selector.detector
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.detector")
+public class DetectorProperties {
+
+    /**
+     * Motor de deteccion que se utiliza para evaluar las cadenas de ADN
+     */
+    private Engine engine = Engine.AUTO;
+
+    /**
+     * Tamanio N a partir del cual la matriz se recorre en paralelo, con un valor de 0
+     * o menor las matrices siempre se recorren en un solo hilo
+     */
+    private int parallelThreshold = 1000;
+
+    /**
+     * Cantidad de hilos del pool de la deteccion en paralelo, con un valor de 0 o menor
+     * se usa la cantidad de procesadores disponibles
+     */
+    private int parallelism;
+
+    /**
+     * Reordena las dimensiones de la matriz segun donde se encuentran las secuencias en las
+     * cadenas evaluadas, solo aplica a los motores que recorren cada dimension por separado
+     * como {@link Engine#BIT_PARALLEL}
+     */
+    private boolean adaptiveOrder;
+
+    /**
+     * Calcula una cota de la cantidad de secuencias antes de recorrer la matriz, y si la cota
+     * demuestra que la cadena es de un humano no se recorre
+     */
+    private boolean preScreen;
+
+    /**
+     * Tamanio N maximo de las matrices para las cuales se calcula la cota del descarte previo,
+     * en las matrices aleatorias mayores la cota casi nunca descarta la cadena
+     */
+    private int preScreenMaxSize = 8;
+
+    /**
+     * Motores de deteccion disponibles
+     */
+    public enum Engine {
+
+        /**
+         * Usa el motor de la Vector API si el modulo jdk.incubator.vector esta presente,
+         * en otro caso usa el motor {@link #RUN_LENGTH}
+         */
+        AUTO,
+
+        /**
+         * Recorrido unico de la matriz con contadores de racha por linea
+         */
+        RUN_LENGTH,
+
+        /**
+         * Comparacion bit-paralela de 32 bases por palabra de 64 bits
+         */
+        BIT_PARALLEL,
+
+        /**
+         * Comparacion en carriles SIMD por medio de la Vector API, si el modulo no esta
+         * presente el aplicativo no inicia
+         */
+        VECTOR
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de configuracion del almacen local del perfil embedded, se leen del archivo
+ * application.yml bajo el prefijo selector.embedded
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.embedded")
+public class EmbeddedStorageProperties {
+
+    /**
+     * Directorio de la instantanea y de los logs del almacen
+     */
+    private String directory = "data/embedded";
+
+    /**
+     * Intervalo entre las instantaneas del almacen, que reemplazan a los logs escritos hasta el momento
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+
+    /**
+     * Determina si cada guardado espera a que el registro llegue al disco, en otro caso un
+     * apagado inesperado del equipo puede perder los ultimos registros
+     */
+    private boolean syncWrites = false;
+
+}
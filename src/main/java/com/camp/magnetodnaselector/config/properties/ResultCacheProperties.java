@@ -0,0 +1,28 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Propiedades de configuracion de la cache en memoria de los resultados de las
+ * cadenas de ADN evaluadas, se leen del archivo application.yml bajo el prefijo
+ * selector.cache
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.cache")
+public class ResultCacheProperties {
+
+    /**
+     * Determina si se usa la cache delante del medio de persistencia
+     */
+    private boolean enabled = true;
+
+    /**
+     * Memoria aproximada que pueden ocupar las cadenas guardadas en la cache
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+}
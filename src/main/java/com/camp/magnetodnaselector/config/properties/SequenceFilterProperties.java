@@ -0,0 +1,38 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Propiedades de configuracion del filtro de huellas de las cadenas de ADN guardadas,
+ * se leen del archivo application.yml bajo el prefijo selector.filter
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.filter")
+public class SequenceFilterProperties {
+
+    /**
+     * Determina si se consulta el filtro antes de buscar las cadenas en la base de datos
+     */
+    private boolean enabled = true;
+
+    /**
+     * Cantidad de cadenas guardadas para la cual se dimensiona el filtro
+     */
+    private long expectedInsertions = 10_000_000;
+
+    /**
+     * Probabilidad deseada de que el filtro responda que una cadena no guardada si puede estarlo
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Memoria maxima fuera del heap del filtro, si es menor a la necesaria para la probabilidad
+     * de falso positivo el filtro tendra mas falsos positivos
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(32);
+
+}
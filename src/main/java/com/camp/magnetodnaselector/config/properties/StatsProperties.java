@@ -0,0 +1,49 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de configuracion de las estadisticas por intervalo de tiempo, se leen del
+ * archivo application.yml bajo el prefijo selector.stats
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.stats")
+public class StatsProperties {
+
+    /**
+     * Tiempo que se conservan los intervalos de un minuto despues de terminar
+     */
+    private Duration minuteRetention = Duration.ofDays(2);
+
+    /**
+     * Tiempo que se conservan los intervalos de una hora despues de terminar
+     */
+    private Duration hourRetention = Duration.ofDays(90);
+
+    /**
+     * Tiempo que se conservan los intervalos de un dia despues de terminar
+     */
+    private Duration dayRetention = Duration.ofDays(3650);
+
+    /**
+     * @param resolution resolucion de los intervalos
+     * @return tiempo que se conservan los intervalos de la resolucion
+     */
+    public Duration retentionOf(StatResolution resolution) {
+        switch (resolution) {
+            case MINUTE:
+                return minuteRetention;
+            case HOUR:
+                return hourRetention;
+            default:
+                return dayRetention;
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades de configuracion del formato de almacenamiento de las cadenas de ADN,
+ * se leen del archivo application.yml bajo el prefijo selector.storage
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.storage")
+public class StorageProperties {
+
+    /**
+     * Formato en que se escriben las cadenas nuevas, la lectura admite ambos formatos
+     */
+    private RequestSequenceCodec.Format format = RequestSequenceCodec.Format.PACKED;
+
+    /**
+     * Tamanio N a partir del cual se intenta comprimir el bloque de 2 bits, con un valor
+     * de 0 o menor nunca se comprime
+     */
+    private int compressionThreshold = 256;
+
+    /**
+     * Determina si la secuencia completa de las cadenas nuevas se guarda en el archivo, el
+     * nivel caliente con el resultado de las cadenas siempre se guarda
+     */
+    private boolean archive = true;
+
+    /**
+     * Determina si al iniciar el aplicativo se convierten los documentos con el vector de
+     * strings al formato de 2 bits
+     */
+    private boolean migrateLegacy = false;
+
+    /**
+     * Cantidad de documentos que se convierten en cada operacion bulk de la migracion y de la
+     * construccion del nivel caliente a partir del archivo
+     */
+    private int migrationBatchSize = 500;
+
+}
@@ -0,0 +1,32 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades de configuracion del indice local de resultados en un archivo mapeado en memoria,
+ * se leen del archivo application.yml bajo el prefijo selector.index
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.index")
+public class VerdictIndexProperties {
+
+    /**
+     * Determina si se consulta el indice local antes de buscar las cadenas en la base de datos
+     */
+    private boolean enabled = false;
+
+    /**
+     * Ruta del archivo del indice, se conserva entre reinicios del aplicativo
+     */
+    private String path = "data/verdicts.idx";
+
+    /**
+     * Cantidad de ranuras de la tabla al crear el archivo, se redondea a una potencia de 2 y
+     * se llena hasta el 75%. Cada ranura ocupa 24 bytes del archivo
+     */
+    private int capacity = 1 << 22;
+
+}
@@ -0,0 +1,55 @@
+package com.camp.magnetodnaselector.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de configuracion de la escritura diferida de las cadenas de ADN
+ * evaluadas, se leen del archivo application.yml bajo el prefijo selector.write-behind
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@ConfigurationProperties(prefix = "selector.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Determina si las cadenas se guardan por lotes en segundo plano, en otro caso
+     * se guardan en la misma peticion
+     */
+    private boolean enabled = true;
+
+    /**
+     * Cantidad maxima de cadenas pendientes de guardar, al superarla la peticion
+     * guarda su cadena directamente
+     */
+    private int capacity = 10000;
+
+    /**
+     * Cantidad maxima de cadenas que se guardan en un lote
+     */
+    private int batchSize = 500;
+
+    /**
+     * Tiempo maximo que una cadena espera a que se complete su lote
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Cantidad de reintentos de las cadenas de un lote que no se pudieron guardar
+     */
+    private int retries = 3;
+
+    /**
+     * Tiempo de espera antes del primer reintento de un lote, se duplica en cada reintento
+     */
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    /**
+     * Tiempo maximo que se espera a que se guarden las cadenas pendientes al detener la aplicacion
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+}
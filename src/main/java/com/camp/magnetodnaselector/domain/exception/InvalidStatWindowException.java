@@ -0,0 +1,23 @@
+package com.camp.magnetodnaselector.domain.exception;
+
+import java.io.IOException;
+
+/**
+ * Excepcion de negocio utilizada para las validaciones de la ventana de tiempo y la
+ * resolucion solicitadas en las consultas de estadisticas
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class InvalidStatWindowException extends IOException {
+
+    /**
+     * Constructor para especificar el mensaje descriptivo
+     * de la excepcion generada
+     *
+     * @param message El mensaje descriptivo para la excepcion
+     */
+    public InvalidStatWindowException(String message) {
+        super(message);
+    }
+
+}
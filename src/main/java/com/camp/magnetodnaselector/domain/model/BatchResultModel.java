@@ -0,0 +1,33 @@
+package com.camp.magnetodnaselector.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Modelo de negocio con el resultado de la evaluacion de una de las cadenas de ADN
+ * de una peticion por lotes.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResultModel {
+
+    /**
+     * Posicion de la cadena dentro del lote
+     */
+    private int index;
+
+    /**
+     * Determina si la cadena pertenece a un mutante, es nulo si la cadena no es valida
+     */
+    private Boolean mutant;
+
+    /**
+     * Mensaje de error si la cadena no es valida para evaluar
+     */
+    private String error;
+
+}
@@ -0,0 +1,342 @@
+package com.camp.magnetodnaselector.domain.model;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Modelo de negocio que representa la matriz de ADN de NxN de forma compacta,
+ * utilizando 2 bits por cada base nitrogenada.
+ * <p>
+ * Cada fila se almacena en {@link #wordsPerRow} palabras de 64 bits consecutivas dentro
+ * del vector {@link #words}, de manera que cada palabra contiene hasta 32 bases. La base
+ * de la columna j se guarda en los bits {@code 2 * (j % 32)} y {@code 2 * (j % 32) + 1}
+ * de la palabra {@code j / 32} de su fila, y los bits sobrantes de la ultima palabra de
+ * cada fila quedan en cero.
+ * <p>
+ * La codificacion de las bases es A = 0, C = 1, G = 2 y T = 3.
+ * <p>
+ * La huella de contenido {@link #getContentHash()} identifica la matriz de forma compacta
+ * y se utiliza como llave de busqueda en los medios de persistencia, y la suma de verificacion
+ * {@link #getContentChecksum()} se guarda junto al resultado para confirmar que un resultado
+ * encontrado por la huella corresponde a la misma matriz.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Getter
+@EqualsAndHashCode
+public class PackedDNA {
+
+    /**
+     * Cantidad de bases que se almacenan en cada palabra de 64 bits
+     */
+    public static final int BASES_PER_WORD = 32;
+
+    /**
+     * Caracteres de las bases nitrogenadas indexados por su codigo de 2 bits
+     */
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    /**
+     * Cantidad de bytes del SHA-256 de la huella de contenido y de la suma de verificacion (128 bits)
+     */
+    private static final int HASH_BYTES = 16;
+
+    /**
+     * Cantidad de palabras que se copian por bloque al calcular la huella de contenido
+     */
+    private static final int HASH_CHUNK_WORDS = 1024;
+
+    /**
+     * Digitos hexadecimales para la representacion de la huella de contenido
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Tamanio N de la matriz
+     */
+    private final int size;
+
+    /**
+     * Cantidad de palabras de 64 bits que ocupa cada fila
+     */
+    private final int wordsPerRow;
+
+    /**
+     * Palabras de 64 bits con las bases de todas las filas de la matriz
+     */
+    @Getter(AccessLevel.NONE)
+    private final long[] words;
+
+    /**
+     * Huella de contenido calculada la primera vez que se solicita
+     */
+    @Getter(AccessLevel.NONE)
+    private transient String contentHash;
+
+    /**
+     * Suma de verificacion calculada junto a la huella de contenido
+     */
+    @Getter(AccessLevel.NONE)
+    private transient String contentChecksum;
+
+    /**
+     * Constructor que reserva el espacio para una matriz de NxN con todas sus bases en cero,
+     * las filas se deben llenar por medio del metodo {@link #packRow(int, CharSequence)}
+     *
+     * @param size tamanio N de la matriz
+     */
+    public PackedDNA(int size) {
+        this(size, new long[size * wordsPerRow(size)]);
+    }
+
+    /**
+     * Constructor a partir de las palabras de las bases ya codificadas
+     *
+     * @param size  tamanio N de la matriz
+     * @param words palabras de 64 bits con las bases de todas las filas
+     */
+    private PackedDNA(int size, long[] words) {
+        this.size = size;
+        this.wordsPerRow = wordsPerRow(size);
+        this.words = words;
+    }
+
+    /**
+     * Crea la matriz a partir de las palabras de las bases codificadas por medio del metodo
+     * {@link #packRow(long[], int, int, CharSequence)}, sin copiarlas
+     *
+     * @param size  tamanio N de la matriz
+     * @param words palabras de 64 bits con las bases de todas las filas
+     * @return instancia con las bases de las palabras
+     * @throws IllegalArgumentException si la cantidad de palabras no corresponde al tamanio de la matriz
+     */
+    public static PackedDNA wrap(int size, long[] words) {
+        if (words.length != size * wordsPerRow(size)) {
+            throw new IllegalArgumentException("Invalid number of words " + words.length);
+        }
+        return new PackedDNA(size, words);
+    }
+
+    /**
+     * Retorna la cantidad de palabras de 64 bits que ocupa cada fila de una matriz de NxN
+     *
+     * @param size tamanio N de la matriz
+     * @return cantidad de palabras por fila
+     */
+    public static int wordsPerRow(int size) {
+        return (size + BASES_PER_WORD - 1) / BASES_PER_WORD;
+    }
+
+    /**
+     * Crea la representacion compacta a partir del vector de strings que representa cada fila
+     * de la matriz
+     *
+     * @param dna cadena de ADN de NxN
+     * @return instancia con las bases de la cadena de ADN
+     * @throws IllegalArgumentException si la matriz no es cuadrada o contiene caracteres no permitidos
+     */
+    public static PackedDNA of(String... dna) {
+        PackedDNA packedDNA = new PackedDNA(dna.length);
+        for (int i = 0; i < dna.length; i++) {
+            if (dna[i].length() != dna.length || !packedDNA.packRow(i, dna[i])) {
+                throw new IllegalArgumentException("Invalid DNA row " + i);
+            }
+        }
+        return packedDNA;
+    }
+
+    /**
+     * Retorna el codigo de 2 bits de la base nitrogenada representada por el caracter
+     *
+     * @param base caracter de la base
+     * @return codigo de la base o -1 si el caracter no es una base permitida
+     */
+    public static int encode(char base) {
+        switch (base) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Retorna el caracter de la base nitrogenada representada por el codigo de 2 bits
+     *
+     * @param code codigo de la base
+     * @return caracter de la base
+     */
+    public static char decode(int code) {
+        return BASES[code & 3];
+    }
+
+    /**
+     * Codifica y guarda la fila indicada de la matriz a partir de sus caracteres.
+     * La longitud de la secuencia debe ser validada previamente.
+     *
+     * @param row indice de la fila
+     * @param seq caracteres de la fila
+     * @return false si la fila contiene caracteres no permitidos, en otro caso true
+     */
+    public boolean packRow(int row, CharSequence seq) {
+        return packRow(words, row * wordsPerRow, size, seq);
+    }
+
+    /**
+     * Codifica los caracteres de una fila de N bases en las palabras indicadas.
+     * La longitud de la secuencia debe ser validada previamente.
+     *
+     * @param words  palabras de 64 bits donde se guarda la fila
+     * @param offset indice de la primera palabra de la fila
+     * @param size   tamanio N de la fila
+     * @param seq    caracteres de la fila
+     * @return false si la fila contiene caracteres no permitidos, en otro caso true
+     */
+    public static boolean packRow(long[] words, int offset, int size, CharSequence seq) {
+        long word = 0;
+        for (int j = 0; j < size; j++) {
+            int code = encode(seq.charAt(j));
+            if (code < 0) {
+                return false;
+            }
+            word |= ((long) code) << ((j % BASES_PER_WORD) << 1);
+            if ((j % BASES_PER_WORD) == BASES_PER_WORD - 1 || j == size - 1) {
+                words[offset + (j / BASES_PER_WORD)] = word;
+                word = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna el codigo de 2 bits de la base en la posicion indicada
+     *
+     * @param row indice de la fila
+     * @param col indice de la columna
+     * @return codigo de la base
+     */
+    public int get(int row, int col) {
+        return (int) (words[(row * wordsPerRow) + (col / BASES_PER_WORD)] >>> ((col % BASES_PER_WORD) << 1)) & 3;
+    }
+
+    /**
+     * Retorna la palabra de 64 bits indicada de una fila, la cual contiene las bases
+     * de las columnas {@code index * 32} a {@code index * 32 + 31}
+     *
+     * @param row   indice de la fila
+     * @param index indice de la palabra dentro de la fila
+     * @return palabra con las bases
+     */
+    public long word(int row, int index) {
+        return words[(row * wordsPerRow) + index];
+    }
+
+    /**
+     * Decodifica la matriz a su representacion como vector de strings
+     *
+     * @return vector con cada fila de la matriz
+     */
+    public String[] toStrings() {
+        String[] dna = new String[size];
+        char[] row = new char[size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                row[j] = decode(get(i, j));
+            }
+            dna[i] = new String(row);
+        }
+        return dna;
+    }
+
+    /**
+     * Retorna la huella de contenido de 128 bits de la matriz, la cual corresponde a los
+     * primeros 16 bytes del SHA-256 del tamanio N y de las palabras de las bases, representados
+     * como 32 digitos hexadecimales.
+     * <p>
+     * Dos matrices con las mismas bases tienen la misma huella, por lo que sirve como llave
+     * de busqueda sin necesidad de comparar toda la matriz.
+     *
+     * @return huella de contenido en hexadecimal
+     */
+    public String getContentHash() {
+        String hash = contentHash;
+        if (hash == null) {
+            computeContentHash();
+            hash = contentHash;
+        }
+        return hash;
+    }
+
+    /**
+     * Retorna la suma de verificacion de 128 bits de la matriz, la cual corresponde a los
+     * ultimos 16 bytes del mismo SHA-256 del tamanio N y de las palabras de las bases del cual
+     * se toma {@link #getContentHash()}, representados como 32 digitos hexadecimales.
+     * <p>
+     * Al ser bytes distintos del mismo SHA-256 es independiente de la huella, por lo que dos
+     * matrices distintas con la misma huella tienen la misma suma de verificacion con una
+     * probabilidad de 2^-128. Al comparar ambas se confirma la matriz con los 256 bits del SHA-256
+     * sin leer la secuencia completa.
+     *
+     * @return suma de verificacion en hexadecimal
+     */
+    public String getContentChecksum() {
+        String checksum = contentChecksum;
+        if (checksum == null) {
+            computeContentHash();
+            checksum = contentChecksum;
+        }
+        return checksum;
+    }
+
+    /**
+     * Calcula el SHA-256 del tamanio y las palabras de la matriz copiandolas por bloques, y
+     * asigna la huella de contenido y la suma de verificacion con sus dos mitades
+     */
+    private void computeContentHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * Math.min(Math.max(words.length, 1), HASH_CHUNK_WORDS));
+        buffer.putInt(size);
+        for (long word : words) {
+            if (buffer.remaining() < Long.BYTES) {
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putLong(word);
+        }
+        digest.update(buffer.array(), 0, buffer.position());
+        byte[] sha = digest.digest();
+        contentChecksum = toHex(sha, HASH_BYTES);
+        contentHash = toHex(sha, 0);
+    }
+
+    /**
+     * @param bytes  bytes del SHA-256
+     * @param offset posicion del primero de los {@link #HASH_BYTES} bytes
+     * @return bytes en hexadecimal
+     */
+    private static String toHex(byte[] bytes, int offset) {
+        char[] hex = new char[HASH_BYTES * 2];
+        for (int i = 0; i < HASH_BYTES; i++) {
+            hex[i * 2] = HEX[(bytes[offset + i] >> 4) & 0xF];
+            hex[(i * 2) + 1] = HEX[bytes[offset + i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.camp.magnetodnaselector.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 
@@ -17,4 +18,11 @@ public class SequenceDNAModel {
      */
     private String[] dna;
 
+    /**
+     * Cadena de ADN ya validada en su representacion compacta, se asigna cuando las filas
+     * se validan a medida que se lee la peticion y en tal caso el vector dna no se asigna
+     */
+    @JsonIgnore
+    private PackedDNA packedDNA;
+
 }
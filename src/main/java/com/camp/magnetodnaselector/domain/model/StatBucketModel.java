@@ -0,0 +1,32 @@
+package com.camp.magnetodnaselector.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Modelo de negocio para representar las estadisticas de las cadenas de ADN evaluadas
+ * en un intervalo de tiempo de una serie
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Data
+@Builder(toBuilder = true)
+public class StatBucketModel {
+
+    /**
+     * Inicio del intervalo en UTC
+     */
+    @JsonProperty("start")
+    private Instant start;
+
+    /**
+     * Conteos y relacion de las cadenas evaluadas en el intervalo
+     */
+    @JsonUnwrapped
+    private StatModel stats;
+
+}
@@ -0,0 +1,71 @@
+package com.camp.magnetodnaselector.domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resoluciones de los intervalos en los que se agrupan las estadisticas de las cadenas
+ * evaluadas. Los intervalos se alinean en UTC, por lo que el intervalo de un dia inicia a
+ * la medianoche UTC
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public enum StatResolution {
+
+    /**
+     * Intervalos de un minuto
+     */
+    MINUTE(ChronoUnit.MINUTES),
+
+    /**
+     * Intervalos de una hora
+     */
+    HOUR(ChronoUnit.HOURS),
+
+    /**
+     * Intervalos de un dia
+     */
+    DAY(ChronoUnit.DAYS);
+
+    /**
+     * Unidad de tiempo del intervalo
+     */
+    private final ChronoUnit unit;
+
+    StatResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @return duracion de un intervalo
+     */
+    public Duration getLength() {
+        return unit.getDuration();
+    }
+
+    /**
+     * Calcula el inicio del intervalo que contiene el instante
+     *
+     * @param instant instante a truncar
+     * @return inicio del intervalo
+     */
+    public Instant truncate(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    /**
+     * Selecciona la resolucion de una ventana de tiempo, minutos hasta 6 horas, horas hasta
+     * 7 dias y dias para las ventanas mayores
+     *
+     * @param window duracion de la ventana
+     * @return resolucion con la que se agrupa la ventana
+     */
+    public static StatResolution forWindow(Duration window) {
+        if (window.compareTo(Duration.ofHours(6)) <= 0) {
+            return MINUTE;
+        }
+        return window.compareTo(Duration.ofDays(7)) <= 0 ? HOUR : DAY;
+    }
+
+}
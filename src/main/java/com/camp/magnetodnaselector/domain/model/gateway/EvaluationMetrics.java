@@ -0,0 +1,134 @@
+package com.camp.magnetodnaselector.domain.model.gateway;
+
+/**
+ * Interface para registrar las metricas de la evaluacion de las cadenas de ADN, su
+ * implementacion publica los tiempos de cada etapa, los tamanios de las matrices, las
+ * evaluaciones que terminan sin recorrer la matriz y el resultado de cada recorrido.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public interface EvaluationMetrics {
+
+    /**
+     * Implementacion que no registra ninguna metrica
+     */
+    EvaluationMetrics NONE = new EvaluationMetrics() {
+
+        @Override
+        public void recordStage(Stage stage, long nanos) {
+            // No se registran metricas
+        }
+
+        @Override
+        public void recordSize(int size) {
+            // No se registran metricas
+        }
+
+        @Override
+        public void recordShortcut(Shortcut shortcut) {
+            // No se registran metricas
+        }
+
+        @Override
+        public void recordDetection(Detection detection) {
+            // No se registran metricas
+        }
+    };
+
+    /**
+     * En su implementacion debe registrar la duracion de una etapa de la evaluacion
+     *
+     * @param stage etapa de la evaluacion
+     * @param nanos duracion de la etapa en nanosegundos
+     */
+    void recordStage(Stage stage, long nanos);
+
+    /**
+     * En su implementacion debe registrar el tamanio N de una matriz evaluada
+     *
+     * @param size tamanio N de la matriz
+     */
+    void recordSize(int size);
+
+    /**
+     * En su implementacion debe registrar una evaluacion que termino sin recorrer la matriz
+     *
+     * @param shortcut motivo por el cual no se recorrio la matriz
+     */
+    void recordShortcut(Shortcut shortcut);
+
+    /**
+     * En su implementacion debe registrar si un recorrido de la matriz con el motor de
+     * deteccion se detuvo al alcanzar el minimo de secuencias o la recorrio completa
+     *
+     * @param detection resultado del recorrido
+     */
+    void recordDetection(Detection detection);
+
+    /**
+     * Etapas de la evaluacion de una cadena de ADN
+     */
+    enum Stage {
+
+        /**
+         * Lectura del cuerpo de la peticion, incluye la validacion de las filas que se
+         * validan a medida que se leen
+         */
+        READ,
+
+        /**
+         * Validacion y codificacion del vector de strings cuando no se valido en la lectura
+         */
+        VALIDATE,
+
+        /**
+         * Busqueda del resultado guardado de la cadena
+         */
+        LOOKUP,
+
+        /**
+         * Recorrido de la matriz con el motor de deteccion
+         */
+        DETECT,
+
+        /**
+         * Guardado de la cadena y su resultado
+         */
+        SAVE
+    }
+
+    /**
+     * Motivos por los cuales una evaluacion termina sin recorrer la matriz
+     */
+    enum Shortcut {
+
+        /**
+         * El resultado de la cadena ya estaba guardado
+         */
+        SAVED,
+
+        /**
+         * Otra peticion estaba evaluando la misma cadena y se espero su resultado
+         */
+        IN_FLIGHT
+    }
+
+    /**
+     * Resultados del recorrido de la matriz con el motor de deteccion
+     */
+    enum Detection {
+
+        /**
+         * El recorrido se detuvo al alcanzar el minimo de secuencias del mutante, sin
+         * recorrer el resto de la matriz
+         */
+        EARLY_EXIT,
+
+        /**
+         * La matriz no alcanzo el minimo de secuencias, por lo que el motor la recorrio completa
+         * o la descarto con la cota de secuencias
+         */
+        FULL_SCAN
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.camp.magnetodnaselector.domain.model.gateway;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface reactiva para los metodos de negocio relacionados con la clase del dominio
+ * {@link SequenceDNAModel}, usada por el perfil reactive.
+ * <p>
+ * A diferencia de {@link SequenceDNARepository} sus implementaciones no deben bloquear el hilo
+ * que se suscribe, ya que se ejecutan en los hilos del event loop y del scheduler parallel
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public interface ReactiveSequenceDNARepository {
+
+    /**
+     * En su implementacion debe buscar la cadena de ADN en algun medio de persistencia y
+     * emitir el valor que determina si cumple con las condiciones de mutante
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return valor que determina si la cadena es mutante, vacio si la cadena no esta guardada
+     */
+    Mono<Boolean> findMutant(PackedDNA dna);
+
+    /**
+     * En su implementacion debe guardar en algun medio de persistencia la secuencia de ADN y
+     * el booleano que determina si es un mutante
+     *
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo que determina si la cadena a guadar cumple con la condicion del mutante
+     * @return senial de terminacion del guardado
+     */
+    Mono<Void> save(PackedDNA dna, boolean mutant);
+
+}
@@ -0,0 +1,31 @@
+package com.camp.magnetodnaselector.domain.model.gateway;
+
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * Interface reactiva para los metodos de negocio relacionados con la clase del dominio
+ * {@link StatModel} que consultan el medio de persistencia, usada por el perfil reactive.
+ * Las estadisticas totales y el ratio se obtienen de {@link StatRepository}, ya que sus
+ * implementaciones los calculan en memoria
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public interface ReactiveStatRepository {
+
+    /**
+     * En su implementacion debe emitir los conteos de las cadenas evaluadas agrupados en los
+     * intervalos de la resolucion que inician en el instante from o despues, con las mismas
+     * condiciones de {@link StatRepository#findStatBuckets(StatResolution, Instant)}
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo a retornar
+     * @return conteos de los intervalos
+     */
+    Flux<StatBucketModel> findBuckets(StatResolution resolution, Instant from);
+
+}
@@ -1,10 +1,18 @@
 package com.camp.magnetodnaselector.domain.model.gateway;
 
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
 import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Interface para los metodos de negocio relacionados con
- * la clase del dominio {@link SequenceDNAModel}
+ * la clase del dominio {@link SequenceDNAModel}.
+ * <p>
+ * Las cadenas se reciben en su representacion compacta {@link PackedDNA},
+ * la cual se genera una unica vez al validar la cadena de ADN
  *
  * @author Carlos Alberto Manrique Palacios
  */
@@ -20,16 +28,47 @@ public interface SequenceDNARepository {
      * @return si se encuentra la cadena guardada el valor que determina si es mutante,
      * en otro caso null
      */
-    Boolean isMutantSavedDNA(String[] dna);
+    Boolean isMutantSavedDNA(PackedDNA dna);
 
     /**
      * En su implementacion debe guardar en algun medio de persistencia las
      * secuencia de ADN y el booleano que determina si es un mutante
      *
-     * @param sequenceDNAModel La cadena de ADN a guardar
-     * @param mutant           Campo que determina si la cadena a
-     *                         guadar cumple con la condicion del mutante
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo que determina si la cadena a
+     *               guadar cumple con la condicion del mutante
+     */
+    void saveDNA(PackedDNA dna, boolean mutant);
+
+    /**
+     * Busca varias cadenas de ADN en el medio de persistencia. Por defecto busca
+     * cada cadena con el metodo {@link #isMutantSavedDNA(PackedDNA)}, las implementaciones
+     * pueden sobrescribirlo para buscarlas con una sola consulta
+     *
+     * @param dnas cadenas de ADN que se deben buscar
+     * @return mapa con el valor que determina si es mutante de las cadenas encontradas,
+     * las cadenas que no se encuentran no se incluyen
+     */
+    default Map<PackedDNA, Boolean> findMutantSavedDNA(Collection<PackedDNA> dnas) {
+        Map<PackedDNA, Boolean> found = new HashMap<>();
+        for (PackedDNA dna : dnas) {
+            Boolean mutant = isMutantSavedDNA(dna);
+            if (mutant != null) {
+                found.put(dna, mutant);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Guarda varias cadenas de ADN en el medio de persistencia. Por defecto guarda cada
+     * cadena con el metodo {@link #saveDNA(PackedDNA, boolean)}, las implementaciones
+     * pueden sobrescribirlo para guardarlas con una sola operacion
+     *
+     * @param results mapa con las cadenas de ADN a guardar y el valor que determina si son mutantes
      */
-    void saveDNA(SequenceDNAModel sequenceDNAModel, boolean mutant);
+    default void saveAllDNA(Map<PackedDNA, Boolean> results) {
+        results.forEach(this::saveDNA);
+    }
 
 }
@@ -1,6 +1,11 @@
 package com.camp.magnetodnaselector.domain.model.gateway;
 
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Interface para los metodos de negocio relacionados con
@@ -26,4 +31,16 @@ public interface StatRepository {
      */
     void calRatio(StatModel statModel);
 
+    /**
+     * En su implementacion debe retornar los conteos de las cadenas evaluadas agrupados en
+     * los intervalos de la resolucion que inician en el instante from o despues, sin calcular
+     * el ratio. Los intervalos sin cadenas se pueden omitir y un mismo intervalo puede
+     * aparecer mas de una vez, en tal caso sus conteos se suman
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo a retornar
+     * @return conteos de los intervalos
+     */
+    List<StatBucketModel> findStatBuckets(StatResolution resolution, Instant from);
+
 }
@@ -0,0 +1,181 @@
+package com.camp.magnetodnaselector.domain.usecase;
+
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+import java.util.Arrays;
+
+/**
+ * Validador de la cadena de ADN que recibe las filas de la matriz una a una y las codifica
+ * en la representacion compacta {@link PackedDNA} a medida que las valida, de manera que
+ * nunca se necesitan todas las filas como strings al mismo tiempo.
+ * <p>
+ * Realiza las mismas validaciones y con el mismo orden de prioridad que la validacion del
+ * vector completo de strings:
+ * <ul>
+ *     <li>Que la matriz tenga como minimo {@link SequenceDNAUseCase#SEQUENCE_SIZE} filas.</li>
+ *     <li>Que cada fila tenga la misma longitud que la cantidad de filas.</li>
+ *     <li>Que cada fila solo contenga los caracteres A, T, C y G.</li>
+ * </ul>
+ * <p>
+ * Si la cantidad de filas se conoce desde el inicio el primer error se lanza en cuanto se
+ * encuentra. Si no se conoce, el tamanio de la matriz se toma de la longitud de la primera
+ * fila, el primer error encontrado se guarda y las filas siguientes solo se cuentan, ya que
+ * el mensaje que corresponde depende de la cantidad total de filas.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class DNASequenceValidator {
+
+    /**
+     * Mensaje de error cuando la cantidad de filas es menor a la permitida
+     */
+    public static final String LESS_THAN_MINIMUM = "The length of the DNA string is less than the minimum allowed";
+
+    /**
+     * Mensaje de error cuando la longitud de una fila es distinta a la cantidad de filas
+     */
+    public static final String DIFFERENT_LENGTH = "The length of an individual string is different than the DNA string";
+
+    /**
+     * Mensaje de error cuando una fila contiene caracteres que no son bases nitrogenadas
+     */
+    public static final String ILLEGAL_CHARACTERS = "The individual string has illegal characters";
+
+    /**
+     * Mensaje de error cuando no se envia la cadena de ADN
+     */
+    public static final String REQUIRED = "The DNA string is required";
+
+    /**
+     * Cantidad de filas conocida desde el inicio, o -1 si no se conoce
+     */
+    private final int expectedSize;
+
+    /**
+     * Tamanio N de la matriz, o -1 si aun no se recibe la primera fila
+     */
+    private int size = -1;
+
+    /**
+     * Cantidad de filas recibidas
+     */
+    private int rows;
+
+    /**
+     * Palabras de las filas codificadas, crece a medida que se reciben las filas
+     */
+    private long[] words;
+
+    /**
+     * Mensaje del primer error encontrado
+     */
+    private String error;
+
+    /**
+     * Constructor para una matriz cuya cantidad de filas no se conoce
+     */
+    public DNASequenceValidator() {
+        this(-1);
+    }
+
+    /**
+     * Constructor para una matriz cuya cantidad de filas se conoce desde el inicio
+     *
+     * @param expectedSize cantidad de filas de la matriz
+     */
+    public DNASequenceValidator(int expectedSize) {
+        this.expectedSize = expectedSize;
+    }
+
+    /**
+     * Valida y codifica la siguiente fila de la matriz
+     *
+     * @param seq caracteres de la fila
+     * @throws InvalidDNAException si la cantidad de filas es conocida y la fila no es valida
+     */
+    public void addRow(CharSequence seq) throws InvalidDNAException {
+        if (error != null) {
+            skipRow();
+            return;
+        }
+        if (size < 0) {
+            size = expectedSize >= 0 ? expectedSize : seq.length();
+            words = new long[Math.min(size, SequenceDNAUseCase.SEQUENCE_SIZE) * PackedDNA.wordsPerRow(size)];
+        }
+        int row = rows++;
+        if (size < SequenceDNAUseCase.SEQUENCE_SIZE || row >= size || seq.length() != size) {//No es valida la secuencia si el tamanio de alguno de sus elementos es direfente al taminio del vector
+            fail(DIFFERENT_LENGTH);
+            return;
+        }
+        int wordsPerRow = PackedDNA.wordsPerRow(size);
+        if ((row + 1) * wordsPerRow > words.length) {
+            words = Arrays.copyOf(words, (int) Math.min((long) words.length * 2, (long) size * wordsPerRow));
+        }
+        if (!PackedDNA.packRow(words, row * wordsPerRow, size, seq)) {//No es valida la secuencia si contiene caracteres diferentes a las bases nitrogenadas
+            fail(ILLEGAL_CHARACTERS);
+        }
+    }
+
+    /**
+     * Cuenta una fila sin leer sus caracteres, solo se debe usar cuando {@link #isFailed()}
+     * retorna true
+     */
+    public void skipRow() {
+        rows++;
+    }
+
+    /**
+     * @return true si alguna de las filas recibidas no es valida
+     */
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    /**
+     * Termina la validacion una vez recibidas todas las filas
+     *
+     * @return matriz compacta con las bases de la cadena de ADN
+     * @throws InvalidDNAException si la cadena no es valida, con el mensaje que corresponde a la
+     *                             cantidad total de filas y al primer error encontrado
+     */
+    public PackedDNA finish() throws InvalidDNAException {
+        if (rows < SequenceDNAUseCase.SEQUENCE_SIZE) {
+            throw new InvalidDNAException(LESS_THAN_MINIMUM);
+        }
+        if (rows != size) {
+            throw new InvalidDNAException(DIFFERENT_LENGTH);
+        }
+        if (error != null) {
+            throw new InvalidDNAException(error);
+        }
+        return PackedDNA.wrap(size, words);
+    }
+
+    /**
+     * Registra el primer error encontrado, si la cantidad de filas es conocida lo lanza
+     *
+     * @param message mensaje del error
+     * @throws InvalidDNAException si la cantidad de filas es conocida
+     */
+    private void fail(String message) throws InvalidDNAException {
+        error = message;
+        words = null;
+        if (expectedSize >= 0) {
+            finishKnownSize();
+        }
+    }
+
+    /**
+     * Lanza el error que corresponde cuando la cantidad de filas es conocida
+     *
+     * @throws InvalidDNAException siempre, con el mensaje del error
+     */
+    private void finishKnownSize() throws InvalidDNAException {
+        if (expectedSize < SequenceDNAUseCase.SEQUENCE_SIZE) {
+            throw new InvalidDNAException(LESS_THAN_MINIMUM);
+        }
+        throw new InvalidDNAException(error);
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.camp.magnetodnaselector.domain.usecase;
+
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Shortcut;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Stage;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveSequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveStatRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clase de negocio del perfil reactive, compone la busqueda, la deteccion y el guardado de
+ * una cadena de ADN como un {@link Mono} sin bloquear el hilo que se suscribe.
+ * <p>
+ * Las reglas de negocio son las de {@link SequenceDNAUseCase}, a la cual se delegan la
+ * validacion de la cadena, el recorrido del motor de deteccion y el calculo de las
+ * estadisticas. La busqueda y el guardado se hacen por medio de {@link ReactiveSequenceDNARepository}
+ * y los intervalos de las estadisticas por medio de {@link ReactiveStatRepository}, por lo que
+ * se ejecutan en los hilos del event loop. Solo el recorrido del motor de deteccion, que es
+ * trabajo de CPU, se ejecuta en el scheduler parallel.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Profile("reactive")
+@Component
+@RequiredArgsConstructor
+public class ReactiveSequenceDNAUseCase {
+
+    /**
+     * Clase de negocio con las reglas de validacion, deteccion y estadisticas
+     */
+    private final SequenceDNAUseCase sequenceDNAUseCase;
+
+    /**
+     * Instancia de la interface {@link ReactiveSequenceDNARepository} para la busqueda y el
+     * guardado de las cadenas
+     */
+    private final ReactiveSequenceDNARepository reactiveSequenceDNARepository;
+
+    /**
+     * Instancia de la interface {@link ReactiveStatRepository} para la consulta de los
+     * intervalos de las estadisticas
+     */
+    private final ReactiveStatRepository reactiveStatRepository;
+
+    /**
+     * Instancia de la interface {@link EvaluationMetrics} que registra la duracion de cada etapa
+     * de la evaluacion, el tamanio de las matrices y las evaluaciones que no recorren la matriz
+     */
+    private final EvaluationMetrics evaluationMetrics;
+
+    /**
+     * Evaluaciones en curso indexadas por la llave de {@link SequenceDNAUseCase#inFlightKey(PackedDNA)},
+     * permite que las peticiones concurrentes de una misma cadena esperen el resultado de una
+     * unica evaluacion
+     */
+    private final Map<String, Mono<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Determina si la cadena de ADN pertence a un mutante con las mismas reglas de
+     * {@link SequenceDNAUseCase#isMutant(SequenceDNAModel)}.
+     * <p>
+     * La evaluacion se suscribe de forma independiente de la peticion que la inicia y su
+     * resultado se emite por medio de un {@link Sinks.One}, al cual se suscriben todas las
+     * peticiones de la misma cadena, incluida la primera. Por esto si otra peticion esta
+     * evaluando la misma cadena no se repite la busqueda ni el guardado, y si una peticion se
+     * cancela las demas reciben el resultado y el guardado termina
+     *
+     * @param sequenceDNAModel Modelo de negocio que contiene la cadena a evaluar
+     * @return booleano que determina si la cadena evaluada pertenece aun mutante, o el error
+     * {@link InvalidDNAException} si la cadena no es valida para evaluar
+     */
+    public Mono<Boolean> isMutant(SequenceDNAModel sequenceDNAModel) {
+        return Mono.fromCallable(() -> sequenceDNAUseCase.toPackedDNA(sequenceDNAModel))
+                .flatMap(packedDNA -> {
+                    evaluationMetrics.recordSize(packedDNA.getSize());
+                    Sinks.One<Boolean> evaluation = Sinks.one();
+                    Mono<Boolean> shared = evaluation.asMono();
+                    String key = SequenceDNAUseCase.inFlightKey(packedDNA);
+                    Mono<Boolean> current = inFlight.putIfAbsent(key, shared);
+                    if (current != null) {
+                        evaluationMetrics.recordShortcut(Shortcut.IN_FLIGHT);
+                        return current;
+                    }
+                    evalDNA(packedDNA)
+                            .doFinally(signal -> inFlight.remove(key, shared))
+                            .subscribe(evaluation::tryEmitValue, evaluation::tryEmitError, evaluation::tryEmitEmpty);
+                    return shared;
+                });
+    }
+
+    /**
+     * Busca el resultado guardado de la cadena y si no existe la evalua con el motor de
+     * deteccion en el scheduler parallel y guarda el resultado
+     *
+     * @param packedDNA matriz compacta con las bases de la cadena de ADN
+     * @return booleano que determina si la cadena evaluada pertenece aun mutante
+     */
+    private Mono<Boolean> evalDNA(PackedDNA packedDNA) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return reactiveSequenceDNARepository.findMutant(packedDNA)
+                    .doOnNext(saved -> evaluationMetrics.recordShortcut(Shortcut.SAVED))
+                    .doOnTerminate(() -> evaluationMetrics.recordStage(Stage.LOOKUP, System.nanoTime() - start));
+        }).switchIfEmpty(Mono.defer(() -> Mono.fromCallable(() -> sequenceDNAUseCase.detect(packedDNA))
+                .subscribeOn(Schedulers.parallel())
+                .flatMap(mutant -> save(packedDNA, mutant))));
+    }
+
+    /**
+     * Guarda la cadena y el resultado de la deteccion
+     *
+     * @param packedDNA matriz compacta con las bases de la cadena de ADN
+     * @param mutant    resultado de la deteccion
+     * @return el resultado de la deteccion al terminar el guardado
+     */
+    private Mono<Boolean> save(PackedDNA packedDNA, boolean mutant) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return reactiveSequenceDNARepository.save(packedDNA, mutant)
+                    .doOnSuccess(done -> evaluationMetrics.recordStage(Stage.SAVE, System.nanoTime() - start))
+                    .thenReturn(mutant);
+        });
+    }
+
+    /**
+     * Retorna las estadisticas de todas las cadenas evaluadas por medio de
+     * {@link SequenceDNAUseCase#getStat()}, las cuales se calculan en memoria
+     *
+     * @return una instancia de la clase {@link StatModel}
+     */
+    public Mono<StatModel> getStat() {
+        return Mono.fromSupplier(sequenceDNAUseCase::getStat);
+    }
+
+    /**
+     * Retorna las estadisticas de las cadenas evaluadas en la ventana de tiempo indicada con las
+     * mismas reglas de {@link SequenceDNAUseCase#getStat(String)}. Sin ventana retorna las
+     * estadisticas de todas las cadenas por medio de {@link #getStat()}
+     *
+     * @param window ventana de tiempo, puede ser nula
+     * @return una instancia de la clase {@link StatModel}, o el error {@link InvalidStatWindowException}
+     * si la ventana no es valida
+     */
+    public Mono<StatModel> getStat(String window) {
+        if (window == null) {
+            return getStat();
+        }
+        return Mono.defer(() -> {
+            Duration duration;
+            try {
+                duration = SequenceDNAUseCase.parseWindow(window);
+            } catch (InvalidStatWindowException e) {
+                return Mono.error(e);
+            }
+            StatResolution resolution = StatResolution.forWindow(duration);
+            Instant from = SequenceDNAUseCase.windowStart(resolution, duration, Instant.now());
+            return reactiveStatRepository.findBuckets(resolution, from)
+                    .collectList()
+                    .map(sequenceDNAUseCase::sumBuckets);
+        });
+    }
+
+    /**
+     * Retorna la serie de estadisticas de la ventana de tiempo que termina en el instante actual
+     * con las mismas reglas de {@link SequenceDNAUseCase#getStatSeries(String, String)}
+     *
+     * @param resolution resolucion de los intervalos: minute, hour o day, puede ser nula
+     * @param window     ventana de tiempo, puede ser nula
+     * @return estadisticas de cada intervalo ordenadas por su inicio, o el error
+     * {@link InvalidStatWindowException} si la ventana o la resolucion no son validas
+     */
+    public Mono<List<StatBucketModel>> getStatSeries(String resolution, String window) {
+        return Mono.defer(() -> {
+            Duration duration;
+            StatResolution statResolution;
+            try {
+                duration = SequenceDNAUseCase.parseWindow(window == null ? SequenceDNAUseCase.DEFAULT_STAT_WINDOW : window);
+                statResolution = SequenceDNAUseCase.seriesResolution(resolution, duration);
+            } catch (InvalidStatWindowException e) {
+                return Mono.error(e);
+            }
+            Instant now = Instant.now();
+            Instant from = SequenceDNAUseCase.windowStart(statResolution, duration, now);
+            return reactiveStatRepository.findBuckets(statResolution, from)
+                    .collectList()
+                    .map(buckets -> sequenceDNAUseCase.toSeries(statResolution, from, now, buckets));
+        });
+    }
+
+}
@@ -1,14 +1,33 @@
 package com.camp.magnetodnaselector.domain.usecase;
 
 import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.BatchResultModel;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
 import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Detection;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Shortcut;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Stage;
 import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
 import com.camp.magnetodnaselector.domain.model.gateway.StatRepository;
+import com.camp.magnetodnaselector.domain.usecase.detector.SequenceDetector;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,29 +51,38 @@ public class SequenceDNAUseCase {
     /**
      * Numero minimo de secuencias que debe tener la cadena de ADN para determinar si se es un mutante
      */
-    private static final int MIN_NUMBER_OF_SEQ = 2;
+    public static final int MIN_NUMBER_OF_SEQ = 2;
 
     /**
      * Cantidad de caracteres repetidos que se deben tener las secuencias a buscar
      */
-    private static final int SEQUENCE_SIZE = 4;
+    public static final int SEQUENCE_SIZE = 4;
 
     /**
-     * Patron de conteo que determina si en una cadena de texto existen una cantidad determinada de caracteres repetidos.
-     * En este caso esta cantidad esta dada por SEQUENCE_SIZE.
-     * La expresion regular se descompone asi:
-     * (\w): Determina cualquier caracter alfanumerico
-     * \1: Determina que se espera repeticion de el patron encontrado en la posicion anterior
-     * { (SEQUENCE_SIZE - 1) }: Determina la cantidad exacta de veces que se evalua el patron anterior,
-     * es SEQUENCE_SIZE - 1 debido a que primer patron se evalua con el \1.
+     * Cantidad maxima de cadenas de ADN que se pueden evaluar en un lote
      */
-    private static final Pattern COUNT_SEQUENCE_PATTERN = Pattern.compile("(\\w)\\1{" + (SEQUENCE_SIZE - 1) + "}+");
+    public static final int MAX_BATCH_SIZE = 1000;
 
     /**
-     * Patron de conteo que determina si en la cadena existen caracteres diferentes a los contenidos en la
-     * expreson
+     * Cantidad maxima de intervalos de una serie de estadisticas
      */
-    private static final Pattern VALID_CHAR_PATTERN = Pattern.compile("[ATCG]+");
+    public static final int MAX_SERIES_POINTS = 1440;
+
+    /**
+     * Ventana de tiempo de la serie de estadisticas cuando no se indica
+     */
+    public static final String DEFAULT_STAT_WINDOW = "1h";
+
+    /**
+     * Duracion maxima de la ventana de tiempo de las estadisticas
+     */
+    public static final Duration MAX_STAT_WINDOW = Duration.ofDays(3650);
+
+    /**
+     * Formato de la ventana de tiempo de las estadisticas, una cantidad seguida de la unidad
+     * m (minutos), h (horas) o d (dias)
+     */
+    private static final Pattern STAT_WINDOW = Pattern.compile("^(\\d{1,7})([mhd])$");
 
     /**
      * Instancia de la interface {@link SequenceDNARepository} para operaciones realicionadas con el
@@ -68,46 +96,220 @@ public class SequenceDNAUseCase {
      */
     private final StatRepository statRepository;
 
+    /**
+     * Instancia de la interface {@link SequenceDetector} que recorre la matriz compacta en las
+     * dimensiones horizontal, vertical y diagonal contando las secuencias de caracteres repetidos
+     */
+    private final SequenceDetector sequenceDetector;
+
+    /**
+     * Instancia de la interface {@link EvaluationMetrics} que registra la duracion de cada etapa
+     * de la evaluacion, el tamanio de las matrices y las evaluaciones que no recorren la matriz
+     */
+    private final EvaluationMetrics evaluationMetrics;
+
+    /**
+     * Evaluaciones en curso indexadas por la llave de {@link #inFlightKey(PackedDNA)}, permite que
+     * las peticiones concurrentes de una misma cadena esperen el resultado de una unica evaluacion
+     */
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
 
     /**
      * Llamado principal para determinar si la cadena de ADN pertence a un mutante.
      * <p>
-     * Su primera instruccion es buscar si la cadena ya se encuentra almacenada para no evaluarla si
-     * no tomar el resultado previamente guardado de la evaluacion, si no se encuentra la cadena guardada
-     * sigue con el siguiente proceso:
-     * <p>
-     * Instancia un objeto mutable numerico que sirve de contador el cual se parametrizara
-     * en los metodos siguientes.
      * Como primer paso realiza una validacion inicial para determinar que el vector
      * de strings cumpla con las condiciones minimas para ser evaluada. Si esta validacion no es
      * exitosa el metodo de validacion lanzara una {@link InvalidDNAException}. El metodo de validacion
-     * hace un primer recorrido al vector, por lo cual tambien hace la primera busqueda de cadenas, las de la dimesion horizontal,
-     * para evaluar el ADN. En caso de que encuentre la cantidad necesaria de cadenas cadenas de
-     * caracteres seguidos no realizara mas busquedas y el resultado sera true.
-     * De no encontrar las cadenas necesarias para determinar que el ADN pertence a un mutante
-     * sera necesario ejecutar el metodo de busqueda y generacion de cadenas el cual itera sobre el vector
-     * generando las posibles cadenas que se deben evaluar en la dimension vertical y diagonal.
-     * El ultimo paso para cualquiera de los casos descritos es guardar la cadena y el resultado de la
-     * busqueda por medio de la implementacion de metodo de guardado del objeto sequenceDNARepository.
+     * hace el unico recorrido sobre los strings del vector, codificando las bases en la representacion
+     * compacta {@link PackedDNA} que se utiliza en el resto del proceso. Si el modelo ya trae la
+     * matriz compacta, porque sus filas se validaron a medida que se leyo la peticion, no se
+     * vuelve a validar.
+     * <p>
+     * Con la matriz compacta busca si la cadena ya se encuentra almacenada para no evaluarla si
+     * no tomar el resultado previamente guardado de la evaluacion, si no se encuentra la cadena guardada
+     * el motor de deteccion {@link SequenceDetector} configurado recorre la matriz buscando las
+     * cadenas en las dimensiones horizontal, vertical y diagonal y se detiene en cuanto encuentra la
+     * cantidad de cadenas dada por la constante {@link #MIN_NUMBER_OF_SEQ}.
+     * El ultimo paso es guardar la cadena y el resultado de la busqueda por medio de la
+     * implementacion de metodo de guardado del objeto sequenceDNARepository.
+     * <p>
+     * Si otra peticion esta evaluando la misma cadena no se repite la busqueda ni el guardado,
+     * se espera el resultado de la evaluacion en curso.
+     * <p>
+     * La duracion de cada etapa se registra por medio de {@link EvaluationMetrics}.
      *
      * @param sequenceDNAModel Modelo de negocio que contiene la cadena a evaluar
      * @return booleano que determina si la cadena evaluada pertenece aun mutante
      * @throws InvalidDNAException Se lanza la excepcion en caso de que la cadena no sea valida para evaluar
      */
     public boolean isMutant(SequenceDNAModel sequenceDNAModel) throws InvalidDNAException {
-        Boolean res = sequenceDNARepository.isMutantSavedDNA(sequenceDNAModel.getDna());
-        if (res == null) {
-            AtomicInteger count = new AtomicInteger(0);
+        PackedDNA packedDNA = toPackedDNA(sequenceDNAModel);
+        evaluationMetrics.recordSize(packedDNA.getSize());
+        String key = inFlightKey(packedDNA);
+        CompletableFuture<Boolean> evaluation = new CompletableFuture<>();
+        CompletableFuture<Boolean> current = inFlight.putIfAbsent(key, evaluation);
+        if (current != null) {
+            evaluationMetrics.recordShortcut(Shortcut.IN_FLIGHT);
+            return awaitEvaluation(current);
+        }
+        try {
+            boolean res = evalDNA(packedDNA);
+            evaluation.complete(res);
+            return res;
+        } catch (Throwable e) {
+            evaluation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, evaluation);
+        }
+    }
+
+    /**
+     * Busca el resultado guardado de la cadena y si no existe la evalua con el motor de
+     * deteccion y guarda el resultado
+     *
+     * @param packedDNA matriz compacta con las bases de la cadena de ADN
+     * @return booleano que determina si la cadena evaluada pertenece aun mutante
+     */
+    private boolean evalDNA(PackedDNA packedDNA) {
+        long start = System.nanoTime();
+        Boolean res = sequenceDNARepository.isMutantSavedDNA(packedDNA);
+        evaluationMetrics.recordStage(Stage.LOOKUP, System.nanoTime() - start);
+        if (res != null) {
+            evaluationMetrics.recordShortcut(Shortcut.SAVED);
+            return res;
+        }
+        res = detect(packedDNA);
+        start = System.nanoTime();
+        sequenceDNARepository.saveDNA(packedDNA, res);
+        evaluationMetrics.recordStage(Stage.SAVE, System.nanoTime() - start);
+        return res;
+    }
+
+    /**
+     * Evalua un lote de cadenas de ADN, retornando por cada cadena el resultado o el error de
+     * validacion en la misma posicion en que se recibio.
+     * <p>
+     * Las cadenas validas y distintas del lote se buscan con una sola llamada al metodo
+     * {@link SequenceDNARepository#findMutantSavedDNA(java.util.Collection)}, las que no estan
+     * guardadas se evaluan con el motor de deteccion y sus resultados se guardan con una sola
+     * llamada al metodo {@link SequenceDNARepository#saveAllDNA(Map)}.
+     * <p>
+     * Las metricas de validacion, tamanio y deteccion se registran por cada cadena, la busqueda
+     * y el guardado del lote no se registran como etapas porque su duracion depende del tamanio
+     * del lote.
+     *
+     * @param sequences modelos de negocio con las cadenas a evaluar
+     * @return resultado de cada cadena del lote
+     * @throws InvalidDNAException si el lote supera la cantidad maxima {@link #MAX_BATCH_SIZE}
+     */
+    public List<BatchResultModel> isMutantBatch(List<SequenceDNAModel> sequences) throws InvalidDNAException {
+        if (sequences.size() > MAX_BATCH_SIZE) {
+            throw new InvalidDNAException("The batch exceeds the maximum allowed size");
+        }
+        List<BatchResultModel> results = new ArrayList<>(sequences.size());
+        Map<PackedDNA, List<BatchResultModel>> valid = new LinkedHashMap<>();
+        for (int i = 0; i < sequences.size(); i++) {
+            BatchResultModel result = BatchResultModel.builder().index(i).build();
+            results.add(result);
+            try {
+                PackedDNA packedDNA = toPackedDNA(sequences.get(i));
+                evaluationMetrics.recordSize(packedDNA.getSize());
+                valid.computeIfAbsent(packedDNA, dna -> new ArrayList<>()).add(result);
+            } catch (InvalidDNAException e) {
+                result.setError(e.getMessage());
+            }
+        }
+        Map<PackedDNA, Boolean> saved = sequenceDNARepository.findMutantSavedDNA(valid.keySet());
+        Map<PackedDNA, Boolean> evaluated = new LinkedHashMap<>();
+        valid.forEach((dna, items) -> {
+            Boolean mutant = saved.get(dna);
+            if (mutant == null) {
+                mutant = detect(dna);
+                evaluated.put(dna, mutant);
+            } else {
+                evaluationMetrics.recordShortcut(Shortcut.SAVED);
+            }
+            for (BatchResultModel item : items) {
+                item.setMutant(mutant);
+            }
+        });
+        if (!evaluated.isEmpty()) {
+            sequenceDNARepository.saveAllDNA(evaluated);
+        }
+        return results;
+    }
+
+    /**
+     * Obtiene la matriz compacta del modelo, si no la trae valida el vector de strings
+     *
+     * @param sequenceDNAModel modelo de negocio que contiene la cadena a evaluar
+     * @return matriz compacta con las bases de la cadena de ADN
+     * @throws InvalidDNAException Se lanza la excepcion en caso de que la cadena no sea valida para evaluar
+     */
+    PackedDNA toPackedDNA(SequenceDNAModel sequenceDNAModel) throws InvalidDNAException {
+        if (sequenceDNAModel == null || (sequenceDNAModel.getPackedDNA() == null && sequenceDNAModel.getDna() == null)) {
+            throw new InvalidDNAException(DNASequenceValidator.REQUIRED);
+        }
+        PackedDNA packedDNA = sequenceDNAModel.getPackedDNA();
+        if (packedDNA == null) {
+            long start = System.nanoTime();
             String[] dna = sequenceDNAModel.getDna();
-            int size = dna.length;
-            validDNASequence(count, dna, size);
-            if (count.intValue() < MIN_NUMBER_OF_SEQ) {
-                generateAndEvalSubsequence(count, dna, size);
+            packedDNA = validDNASequence(dna, dna.length);
+            evaluationMetrics.recordStage(Stage.VALIDATE, System.nanoTime() - start);
+        }
+        return packedDNA;
+    }
+
+    /**
+     * Recorre la matriz con el motor de deteccion hasta encontrar la cantidad de cadenas
+     * dada por la constante {@link #MIN_NUMBER_OF_SEQ}. Como el motor se detiene al alcanzar
+     * esa cantidad, el recorrido de un mutante se registra como {@link Detection#EARLY_EXIT}
+     * y el de un humano como {@link Detection#FULL_SCAN}
+     *
+     * @param packedDNA matriz compacta con las bases de la cadena de ADN
+     * @return booleano que determina si la cadena evaluada pertenece aun mutante
+     */
+    boolean detect(PackedDNA packedDNA) {
+        long start = System.nanoTime();
+        boolean mutant = sequenceDetector.hasSequences(packedDNA, MIN_NUMBER_OF_SEQ);
+        evaluationMetrics.recordStage(Stage.DETECT, System.nanoTime() - start);
+        evaluationMetrics.recordDetection(mutant ? Detection.EARLY_EXIT : Detection.FULL_SCAN);
+        return mutant;
+    }
+
+    /**
+     * Llave de las evaluaciones en curso, formada por la huella de contenido y la suma de
+     * verificacion de la cadena. Ambas se calculan una sola vez por cadena, por lo que la llave
+     * no recorre la matriz en cada busqueda como lo haria {@link PackedDNA#equals(Object)}, y
+     * juntas corresponden a los 256 bits del SHA-256 de la matriz
+     *
+     * @param packedDNA matriz compacta con las bases de la cadena de ADN
+     * @return llave de la cadena
+     */
+    static String inFlightKey(PackedDNA packedDNA) {
+        return packedDNA.getContentHash() + packedDNA.getContentChecksum();
+    }
+
+    /**
+     * Espera el resultado de la evaluacion en curso de otra peticion, si esta fallo
+     * se lanza la misma excepcion o el mismo error
+     *
+     * @param evaluation evaluacion en curso
+     * @return booleano que determina si la cadena evaluada pertenece aun mutante
+     */
+    private static boolean awaitEvaluation(CompletableFuture<Boolean> evaluation) {
+        try {
+            return evaluation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
             }
-            res = count.intValue() >= MIN_NUMBER_OF_SEQ;
-            sequenceDNARepository.saveDNA(sequenceDNAModel, res);
+            throw e;
         }
-        return res;
     }
 
     /**
@@ -116,140 +318,239 @@ public class SequenceDNAUseCase {
      * Que el vector tenga una longitud minima de el valor dado por la constante {@link #SEQUENCE_SIZE}.
      * Que las variables string que estan en el vector tengan la misma longitud que el vector,
      * garantizando que la matriz sea cuadrada.
-     * Que las variables string que estan en el vector no tengan caracteres no validos cumpliendo con el patron {@link #VALID_CHAR_PATTERN}
+     * Que las variables string que estan en el vector solo contengan los caracteres A, T, C y G.
      * <p>
-     * Ya que hay una evaluacion individual de cada cadena en este metodo tambien se va evaluando cada variables string
-     * para tenerminar si tienen valores que cumplan con la condicion establecida en la regla de negocio para ser un mutante
-     * y en tal caso agregar las ocurreccias encontradas al parametro count.
+     * A medida que valida cada fila la codifica a 2 bits por base en la matriz compacta, la cual
+     * es la entrada del motor de deteccion y de la capa de persistencia. Las validaciones de las
+     * filas se hacen por medio de la clase {@link DNASequenceValidator}.
      *
-     * @param count numerico mutable para contar la cadenas que cumplen el patron de mutacion encontradas
-     * @param dna   cadena de ADN a evaluar
-     * @param size  tamanio de la cadena de ADN
+     * @param dna  cadena de ADN a evaluar
+     * @param size tamanio de la cadena de ADN
+     * @return matriz compacta con las bases de la cadena de ADN
      * @throws InvalidDNAException Se lanza la excepcion en caso de que la cadena no sea valida para evaluar
      */
-    private void validDNASequence(AtomicInteger count, String[] dna, int size) throws InvalidDNAException {
+    private PackedDNA validDNASequence(String[] dna, int size) throws InvalidDNAException {
         if (size < SEQUENCE_SIZE) {
-            throw new InvalidDNAException("The length of the DNA string is less than the minimum allowed");
+            throw new InvalidDNAException(DNASequenceValidator.LESS_THAN_MINIMUM);
         }
+        DNASequenceValidator validator = new DNASequenceValidator(size);
         for (String seq : dna) {
-            if (seq.length() != size) {//No es valida la secuencia si el tamanio de alguno de sus elementos es direfente al taminio del vector
-                throw new InvalidDNAException("The length of an individual string is different than the DNA string");
-            }
-            Matcher validateMatcher = VALID_CHAR_PATTERN.matcher(seq);//No es valida la secuencia si contiene caracteres diferentes a los establecidos en el patron de validacion
-            if (validateMatcher.matches()) {
-                evalSequence(seq, count); // Se hace una primera evaluacion de las cadenas que componen el vector, siendo esta la evalucion del las horizontales
-            } else {
-                throw new InvalidDNAException("The individual string has illegal characters");
-            }
+            validator.addRow(seq);
         }
+        return validator.finish();
     }
 
     /**
-     * Este metodo realiza la generacion de las cadenas totales que componen el vector de strings para
-     * su posterior evaluacion. La idea es buscar la mayor cantidad de cadenas en las dimensiones
-     * vericales y diagonales por cada iteracion que se hace.
-     * <p>
-     * Sea la matriz:
-     * AACCG
-     * TCGAA
-     * TCGCA
-     * GACTG
-     * AAGTC
-     * <p>
-     * El algoritmo a partir de dos ciclos hara el recorrido generando en cada iteracion minimo una cadena
-     * de dimension vertical y hasta 4 de dimension diagonal.
-     * En la primera iteracion generara las primera vertical y las dos diaginales principales siendo estas:
-     * ATTGA    primera vertical
-     * ACGTC    Diagonal principal derecha
-     * GAGAA    Diagonal principal izquerda
-     * <p>
-     * Para la segunda iteracion generara la segunda vertical y las diagonales que estan al lado de cada diagonal
-     * principal siendo estas:
-     * ACCAA    segunda vertical
-     * AGCG     Diagonal superior derecha
-     * TCCT     Diagonal inferior derecha
-     * CGCG     Diagonal superior izquerda
-     * ACCA     Diagonal inferior izquerda
+     * Retorna el objeto con las estadisticas solicitadas segun la implementacion del
+     * objeto statRepository
+     *
+     * @return una instancia de la clase {@link StatModel}
+     */
+    public StatModel getStat() {
+        return statRepository.getStat();
+    }
+
+    /**
+     * Retorna las estadisticas de las cadenas evaluadas en la ventana de tiempo indicada,
+     * como 15m, 1h o 7d, que termina en el instante actual. Sin ventana retorna las
+     * estadisticas de todas las cadenas por medio de {@link #getStat()}.
      * <p>
-     * El proceso se repite hasta que se recorre toda la matriz siendo la ultima cadena generada la ultima vertical
-     * si no se ha cumplido la condicion de mutante antes, la cual es que el valor de count se mayor o igual
-     * al dado por la constante {@link #MIN_NUMBER_OF_SEQ}.
-     * Al finalizar cada interacion se evaluan las cadenas generadas por medio del
-     * metodo {@link #validSequenceList(AtomicInteger, StringBuilder...)} el cual de igualmenera detiene su
-     * ejecucion si la condicion del mutante se cumple. Lo cual retornara metodo {@link #isMutant(SequenceDNAModel)}
-     *
-     * @param count numerico mutable para contar la cadenas que cumplen el patron de mutacion encontradas
-     * @param dna   cadena de ADN a evaluar
-     * @param size  tamanio de la cadena de ADN
-     */
-    private void generateAndEvalSubsequence(AtomicInteger count, String[] dna, int size) {
-        StringBuilder topLeftDiagonalSeq = new StringBuilder("");
-        StringBuilder lowerRightDiagonalSeq = new StringBuilder("");
-        StringBuilder lowerLeftDiagonalSeq = new StringBuilder("");
-        StringBuilder topRightDiagonalSeq = new StringBuilder("");
-        StringBuilder verticalSeq = new StringBuilder("");
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if ((i + SEQUENCE_SIZE) <= size && (j < (size - i))) { //Validacion para evitar las cadenas diagonales de menor logitud al tamanio minimo de la secuencia
-                    lowerLeftDiagonalSeq.append(dna[i + j].charAt((size - 1) - j));
-                    topRightDiagonalSeq.append(dna[j].charAt(j + i));
-                    if (i > 0) {//Para que no se repitan las diagonales principales
-                        topLeftDiagonalSeq.append(dna[j].charAt((size - 1) - j - i));
-                        lowerRightDiagonalSeq.append(dna[j + i].charAt(j));
-                    }
-                }
-                verticalSeq.append(dna[j].charAt(i));
-            }
-            validSequenceList(count, verticalSeq, topLeftDiagonalSeq, lowerLeftDiagonalSeq, topRightDiagonalSeq, lowerRightDiagonalSeq);
-            if (count.intValue() >= MIN_NUMBER_OF_SEQ) {
-                return;
-            }
+     * Los conteos se suman a partir de los intervalos pre-agregados de la resolucion que da
+     * {@link StatResolution#forWindow(Duration)}, por lo que la ventana se redondea a los
+     * intervalos completos de esa resolucion, incluyendo el intervalo en curso
+     *
+     * @param window ventana de tiempo, puede ser nula
+     * @return una instancia de la clase {@link StatModel}
+     * @throws InvalidStatWindowException si la ventana no es valida
+     */
+    public StatModel getStat(String window) throws InvalidStatWindowException {
+        return window == null ? getStat() : getStat(window, Instant.now());
+    }
+
+    /**
+     * Suma los intervalos de la ventana de tiempo que termina en el instante indicado
+     *
+     * @param window ventana de tiempo
+     * @param now    instante en el que termina la ventana
+     * @return una instancia de la clase {@link StatModel}
+     * @throws InvalidStatWindowException si la ventana no es valida
+     */
+    StatModel getStat(String window, Instant now) throws InvalidStatWindowException {
+        Duration duration = parseWindow(window);
+        StatResolution resolution = StatResolution.forWindow(duration);
+        return sumBuckets(statRepository.findStatBuckets(resolution, windowStart(resolution, duration, now)));
+    }
+
+    /**
+     * Suma los conteos de los intervalos y calcula el ratio
+     *
+     * @param buckets conteos de los intervalos de la ventana
+     * @return una instancia de la clase {@link StatModel}
+     */
+    StatModel sumBuckets(List<StatBucketModel> buckets) {
+        StatModel statModel = StatModel.builder().build();
+        for (StatBucketModel bucket : buckets) {
+            addCounts(statModel, bucket.getStats());
         }
+        statRepository.calRatio(statModel);
+        return statModel;
     }
 
     /**
-     * Recorre la lista de cadenas de texto ingresadas en el vector sequences y realiza la evalucion
-     * de cada una para encontrar la catidad de cadenas que cumplen con el patron  {@link #COUNT_SEQUENCE_PATTERN}.
-     * <p>
-     * En caso de que el valor del numerico mutable count sea mayor o igual al valor dado por
-     * la constante {@link #MIN_NUMBER_OF_SEQ} el metodo retornara
-     *
-     * @param count     numerico mutable para contar la cadenas que cumplen el patron de mutacion encontradas
-     * @param sequences listado de secuencias a evaluar
-     */
-    public void validSequenceList(AtomicInteger count, StringBuilder... sequences) {
-        for (StringBuilder sequence : sequences) {
-            if (sequence.length() > 0) {
-                evalSequence(sequence.toString(), count);
-                sequence.setLength(0);
-                if (count.intValue() >= MIN_NUMBER_OF_SEQ) {
-                    return;
-                }
+     * Retorna la serie de estadisticas de la ventana de tiempo que termina en el instante
+     * actual, con un elemento por cada intervalo de la resolucion indicada, incluyendo los
+     * intervalos sin cadenas con conteos en cero. Sin ventana se usa {@link #DEFAULT_STAT_WINDOW}
+     * y sin resolucion la que da {@link StatResolution#forWindow(Duration)}
+     *
+     * @param resolution resolucion de los intervalos: minute, hour o day, puede ser nula
+     * @param window     ventana de tiempo, puede ser nula
+     * @return estadisticas de cada intervalo ordenadas por su inicio
+     * @throws InvalidStatWindowException si la ventana o la resolucion no son validas, o si la
+     *                                    serie supera los {@link #MAX_SERIES_POINTS} intervalos
+     */
+    public List<StatBucketModel> getStatSeries(String resolution, String window) throws InvalidStatWindowException {
+        return getStatSeries(resolution, window, Instant.now());
+    }
+
+    /**
+     * Crea la serie de estadisticas de la ventana de tiempo que termina en el instante indicado
+     *
+     * @param resolution resolucion de los intervalos, puede ser nula
+     * @param window     ventana de tiempo, puede ser nula
+     * @param now        instante en el que termina la ventana
+     * @return estadisticas de cada intervalo ordenadas por su inicio
+     * @throws InvalidStatWindowException si la ventana o la resolucion no son validas
+     */
+    List<StatBucketModel> getStatSeries(String resolution, String window, Instant now)
+            throws InvalidStatWindowException {
+        Duration duration = parseWindow(window == null ? DEFAULT_STAT_WINDOW : window);
+        StatResolution statResolution = seriesResolution(resolution, duration);
+        Instant from = windowStart(statResolution, duration, now);
+        return toSeries(statResolution, from, now, statRepository.findStatBuckets(statResolution, from));
+    }
+
+    /**
+     * Obtiene la resolucion de la serie de estadisticas, validando que la serie no supere los
+     * {@link #MAX_SERIES_POINTS} intervalos
+     *
+     * @param resolution resolucion de los intervalos, puede ser nula
+     * @param window     duracion de la ventana
+     * @return resolucion de los intervalos, sin resolucion la que da {@link StatResolution#forWindow(Duration)}
+     * @throws InvalidStatWindowException si la resolucion no es valida o la serie supera el maximo de intervalos
+     */
+    static StatResolution seriesResolution(String resolution, Duration window) throws InvalidStatWindowException {
+        StatResolution statResolution = resolution == null ?
+                StatResolution.forWindow(window) : parseResolution(resolution);
+        if (bucketCount(statResolution, window) > MAX_SERIES_POINTS) {
+            throw new InvalidStatWindowException("The stats series exceeds the maximum allowed points");
+        }
+        return statResolution;
+    }
+
+    /**
+     * Crea la serie de estadisticas con un elemento por cada intervalo de la ventana a partir
+     * de los conteos de los intervalos
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo
+     * @param now        instante en el que termina la ventana
+     * @param buckets    conteos de los intervalos de la ventana
+     * @return estadisticas de cada intervalo ordenadas por su inicio
+     */
+    List<StatBucketModel> toSeries(StatResolution resolution, Instant from, Instant now, List<StatBucketModel> buckets) {
+        Map<Instant, StatModel> series = new LinkedHashMap<>();
+        for (Instant start = from; !start.isAfter(now); start = start.plus(resolution.getLength())) {
+            series.put(start, StatModel.builder().build());
+        }
+        for (StatBucketModel bucket : buckets) {
+            StatModel statModel = series.get(bucket.getStart());
+            if (statModel != null) {
+                addCounts(statModel, bucket.getStats());
             }
         }
+        List<StatBucketModel> result = new ArrayList<>(series.size());
+        series.forEach((start, statModel) -> {
+            statRepository.calRatio(statModel);
+            result.add(StatBucketModel.builder().start(start).stats(statModel).build());
+        });
+        return result;
     }
 
     /**
-     * Realiza la validacion de la cadena de texto ingresada por parametro, donde
-     * evalua si coincide con el patron {@link #COUNT_SEQUENCE_PATTERN} y le suma la
-     * cantidad de ocurrecias al contador mutable
+     * Convierte la ventana de tiempo con el formato {@link #STAT_WINDOW} en su duracion
      *
-     * @param seq   secuencia a evaluar
-     * @param count numerico mutable para contar la cadenas que cumplen el patron de mutacion encontradas
+     * @param window ventana de tiempo
+     * @return duracion de la ventana
+     * @throws InvalidStatWindowException si la ventana no tiene el formato o supera {@link #MAX_STAT_WINDOW}
      */
-    private void evalSequence(String seq, AtomicInteger count) {
-        Matcher m = COUNT_SEQUENCE_PATTERN.matcher(seq);
-        count.addAndGet((int) m.results().count());
+    static Duration parseWindow(String window) throws InvalidStatWindowException {
+        Matcher matcher = STAT_WINDOW.matcher(window);
+        if (!matcher.matches() || Long.parseLong(matcher.group(1)) == 0) {
+            throw new InvalidStatWindowException("The stats window is not valid");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        Duration duration;
+        switch (matcher.group(2)) {
+            case "m":
+                duration = Duration.ofMinutes(amount);
+                break;
+            case "h":
+                duration = Duration.ofHours(amount);
+                break;
+            default:
+                duration = Duration.ofDays(amount);
+        }
+        if (duration.compareTo(MAX_STAT_WINDOW) > 0) {
+            throw new InvalidStatWindowException("The stats window exceeds the maximum allowed");
+        }
+        return duration;
     }
 
     /**
-     * Retorna el objeto con las estadisticas solicitadas segun la implementacion del
-     * objeto statRepository
+     * @param resolution nombre de la resolucion sin distinguir mayusculas
+     * @return resolucion de los intervalos
+     * @throws InvalidStatWindowException si la resolucion no existe
+     */
+    private static StatResolution parseResolution(String resolution) throws InvalidStatWindowException {
+        try {
+            return StatResolution.valueOf(resolution.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStatWindowException("The stats resolution is not valid");
+        }
+    }
+
+    /**
+     * @param resolution resolucion de los intervalos
+     * @param window     duracion de la ventana
+     * @return cantidad de intervalos que cubren la ventana
+     */
+    private static long bucketCount(StatResolution resolution, Duration window) {
+        long length = resolution.getLength().getSeconds();
+        return (window.getSeconds() + length - 1) / length;
+    }
+
+    /**
+     * Calcula el inicio del primer intervalo de la ventana, de manera que el ultimo intervalo
+     * sea el que esta en curso
      *
-     * @return una instancia de la clase {@link StatModel}
+     * @param resolution resolucion de los intervalos
+     * @param window     duracion de la ventana
+     * @param now        instante en el que termina la ventana
+     * @return inicio del primer intervalo
      */
-    public StatModel getStat() {
-        return statRepository.getStat();
+    static Instant windowStart(StatResolution resolution, Duration window, Instant now) {
+        return resolution.truncate(now).minus(resolution.getLength().multipliedBy(bucketCount(resolution, window) - 1));
+    }
+
+    /**
+     * Suma los conteos de un intervalo a las estadisticas
+     *
+     * @param target estadisticas acumuladas
+     * @param counts conteos del intervalo
+     */
+    private static void addCounts(StatModel target, StatModel counts) {
+        target.setCountMutantDNA(target.getCountMutantDNA() + counts.getCountMutantDNA());
+        target.setCountHumanDNA(target.getCountHumanDNA() + counts.getCountHumanDNA());
     }
 
 }
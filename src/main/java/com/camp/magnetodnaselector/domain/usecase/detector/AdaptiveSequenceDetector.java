@@ -0,0 +1,140 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Motor de deteccion que recorre las dimensiones de la matriz en el orden en que las
+ * secuencias se encuentran con mas frecuencia en las cadenas evaluadas.
+ * <p>
+ * Por cada dimension recorrida se suma la cantidad de secuencias que aporto al conteo, y cada
+ * {@link #interval} evaluaciones las dimensiones se reordenan de mayor a menor aporte. Como el
+ * recorrido se detiene al alcanzar el limite, poner primero las dimensiones donde suelen estar
+ * las secuencias confirma los mutantes recorriendo menos celdas. El resultado no depende del
+ * orden, porque el conteo de cada dimension es independiente de las demas.
+ * <p>
+ * El aporte acumulado se reduce a la mitad en cada reordenamiento, de manera que el orden sigue
+ * los cambios del trafico reciente. Mientras no haya suficientes datos el orden es el de
+ * {@link Direction}.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class AdaptiveSequenceDetector implements SequenceDetector {
+
+    /**
+     * Cantidad de evaluaciones por defecto entre cada reordenamiento de las dimensiones
+     */
+    public static final int DEFAULT_INTERVAL = 1024;
+
+    /**
+     * Motor de deteccion que recorre cada dimension
+     */
+    private final DirectionalSequenceDetector delegate;
+
+    /**
+     * Cantidad de evaluaciones entre cada reordenamiento de las dimensiones
+     */
+    private final int interval;
+
+    /**
+     * Secuencias encontradas por dimension desde el ultimo reordenamiento
+     */
+    private final LongAdder[] hits = new LongAdder[Direction.values().length];
+
+    /**
+     * Aporte acumulado por dimension con el que se calcula el orden, se reduce a la mitad en
+     * cada reordenamiento
+     */
+    private final double[] weights = new double[Direction.values().length];
+
+    /**
+     * Cantidad de evaluaciones realizadas
+     */
+    private final AtomicLong evaluations = new AtomicLong();
+
+    /**
+     * Orden actual de recorrido de las dimensiones
+     */
+    private volatile Direction[] order = Direction.values();
+
+    /**
+     * Constructor que reordena las dimensiones cada {@link #DEFAULT_INTERVAL} evaluaciones
+     *
+     * @param delegate motor de deteccion que recorre cada dimension
+     */
+    public AdaptiveSequenceDetector(DirectionalSequenceDetector delegate) {
+        this(delegate, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Constructor para especificar la cantidad de evaluaciones entre cada reordenamiento
+     *
+     * @param delegate motor de deteccion que recorre cada dimension
+     * @param interval cantidad de evaluaciones entre cada reordenamiento, mayor a 0
+     */
+    public AdaptiveSequenceDetector(DirectionalSequenceDetector delegate, int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Unsupported reorder interval " + interval);
+        }
+        this.delegate = delegate;
+        this.interval = interval;
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Cuenta las secuencias recorriendo las dimensiones en el orden actual, deteniendose al
+     * alcanzar el valor de limit, y registra el aporte de cada dimension recorrida
+     *
+     * @param dna   matriz de ADN de NxN en su representacion compacta
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return cantidad de secuencias encontradas
+     */
+    @Override
+    public int countSequences(PackedDNA dna, int limit) {
+        int count = 0;
+        for (Direction direction : order) {
+            if (count >= limit) {
+                break;
+            }
+            int next = delegate.countSequences(dna, direction, count, limit);
+            if (next > count) {
+                hits[direction.ordinal()].add((long) next - count);
+            }
+            count = next;
+        }
+        if (evaluations.incrementAndGet() % interval == 0) {
+            reorder();
+        }
+        return count;
+    }
+
+    /**
+     * Retorna el orden actual de recorrido de las dimensiones
+     *
+     * @return copia del orden de las dimensiones
+     */
+    public Direction[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * Agrega las secuencias encontradas desde el ultimo reordenamiento al aporte de cada
+     * dimension y ordena las dimensiones de mayor a menor aporte. Las dimensiones con el
+     * mismo aporte conservan el orden de {@link Direction}.
+     */
+    private synchronized void reorder() {
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (weights[i] / 2) + hits[i].sumThenReset();
+        }
+        Direction[] sorted = Direction.values();
+        Arrays.sort(sorted, Comparator.comparingDouble((Direction direction) -> weights[direction.ordinal()]).reversed());
+        order = sorted;
+    }
+
+}
@@ -0,0 +1,312 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+/**
+ * Motor de deteccion bit-paralelo (SWAR) que trabaja directamente sobre las palabras
+ * de 64 bits de la representacion compacta {@link PackedDNA}.
+ * <p>
+ * Cada palabra contiene 32 bases de 2 bits, por lo que una operacion XOR entre dos palabras
+ * compara 32 pares de bases a la vez. Una base es igual a la otra cuando sus dos bits del
+ * XOR son cero, lo cual se reduce a un bit por base (mascara de carriles) en las posiciones
+ * pares de la palabra.
+ * <p>
+ * Para cada dimension se calcula la mascara de inicios de ventana, es decir las posiciones
+ * donde empiezan {@link #sequenceSize} bases iguales:
+ * <ul>
+ *     <li>Horizontal: la palabra de la fila contra si misma desplazada k bases.</li>
+ *     <li>Vertical: la palabra de la fila contra la palabra de las k filas siguientes.</li>
+ *     <li>Diagonal: la palabra de la fila contra la de la fila k desplazada k bases a la izquierda o derecha.</li>
+ * </ul>
+ * <p>
+ * Para respetar la semantica de conteo de {@link RunLengthSequenceDetector} las ventanas se
+ * toman de forma voraz y sin traslape sobre cada linea: en la horizontal se toma el primer
+ * inicio y se descartan las siguientes bases de la secuencia, y en las demas dimensiones se
+ * lleva por cada fila futura la mascara de carriles bloqueados por las secuencias ya contadas.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class BitParallelSequenceDetector implements DirectionalSequenceDetector {
+
+    /**
+     * Mascara con el bit bajo de cada carril de 2 bits de la palabra
+     */
+    private static final long LANE_MASK = 0x5555555555555555L;
+
+    /**
+     * Cantidad de bits que ocupa cada base dentro de la palabra
+     */
+    private static final int BITS_PER_BASE = 2;
+
+    /**
+     * Cantidad de caracteres repetidos que deben tener las secuencias a buscar
+     */
+    private final int sequenceSize;
+
+    /**
+     * Constructor para especificar la longitud de las secuencias a buscar, la cual
+     * debe estar entre 2 y {@link PackedDNA#BASES_PER_WORD}
+     *
+     * @param sequenceSize cantidad de caracteres repetidos que componen una secuencia
+     */
+    public BitParallelSequenceDetector(int sequenceSize) {
+        if (sequenceSize < 2 || sequenceSize > PackedDNA.BASES_PER_WORD) {
+            throw new IllegalArgumentException("Unsupported sequence size " + sequenceSize);
+        }
+        this.sequenceSize = sequenceSize;
+    }
+
+    /**
+     * Cuenta las secuencias de la dimension indicada. El recorrido por defecto de
+     * {@link #countSequences(PackedDNA, int)} toma primero las horizontales, luego las
+     * verticales y por ultimo las dos diagonales.
+     *
+     * @param dna       matriz de ADN de NxN en su representacion compacta
+     * @param direction dimension que se recorre
+     * @param count     conteo acumulado de las dimensiones ya recorridas
+     * @param limit     cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return conteo acumulado incluyendo la dimension recorrida
+     */
+    @Override
+    public int countSequences(PackedDNA dna, Direction direction, int count, int limit) {
+        switch (direction) {
+            case HORIZONTAL:
+                return countHorizontal(dna, count, limit);
+            case VERTICAL:
+                return countVertical(dna, count, limit);
+            case RIGHT_DIAGONAL:
+                return countDiagonal(dna, count, limit, 1);
+            default:
+                return countDiagonal(dna, count, limit, -1);
+        }
+    }
+
+    /**
+     * Cuenta las secuencias de la dimension horizontal. Sobre cada fila toma el inicio de
+     * ventana de menor columna, lo cuenta y descarta los inicios que se traslapan con la
+     * secuencia contada, los cuales pueden continuar en la siguiente palabra de la fila.
+     *
+     * @param dna   matriz de ADN
+     * @param count conteo acumulado
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return conteo acumulado
+     */
+    int countHorizontal(PackedDNA dna, int count, int limit) {
+        int size = dna.getSize();
+        int words = dna.getWordsPerRow();
+        for (int row = 0; row < size; row++) {
+            int skip = 0;
+            for (int w = 0; w < words; w++) {
+                long word = dna.word(row, w);
+                long windows = lanesBetween(w, 0, size - sequenceSize);
+                for (int k = 1; k < sequenceSize && windows != 0; k++) {
+                    windows &= equalLanes(word, forward(dna, row, w, k));
+                }
+                windows &= ~lowLanes(skip);
+                skip = 0;
+                while (windows != 0) {
+                    count++;
+                    if (count >= limit) {
+                        return count;
+                    }
+                    int end = (Long.numberOfTrailingZeros(windows) / BITS_PER_BASE) + sequenceSize;
+                    if (end >= PackedDNA.BASES_PER_WORD) {
+                        skip = end - PackedDNA.BASES_PER_WORD;
+                        windows = 0;
+                    } else {
+                        windows &= ~lowLanes(end);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cuenta las secuencias de la dimension vertical comparando cada palabra de la fila con la
+     * palabra de la misma columna en las filas siguientes. Cada carril representa una columna
+     * distinta, por lo que las ventanas encontradas en una fila se cuentan todas a la vez.
+     *
+     * @param dna   matriz de ADN
+     * @param count conteo acumulado
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return conteo acumulado
+     */
+    int countVertical(PackedDNA dna, int count, int limit) {
+        int size = dna.getSize();
+        int words = dna.getWordsPerRow();
+        long[][] blocked = new long[sequenceSize - 1][words];
+        long[] matched = new long[words];
+        for (int row = 0; row + sequenceSize <= size; row++) {
+            for (int w = 0; w < words; w++) {
+                long word = dna.word(row, w);
+                long windows = lanesBetween(w, 0, size - 1) & ~blocked[0][w];
+                for (int k = 1; k < sequenceSize && windows != 0; k++) {
+                    windows &= equalLanes(word, dna.word(row + k, w));
+                }
+                matched[w] = windows;
+                count += Long.bitCount(windows);
+            }
+            if (count >= limit) {
+                return count;
+            }
+            for (int j = 0; j < sequenceSize - 1; j++) {
+                for (int w = 0; w < words; w++) {
+                    blocked[j][w] = (j + 1 < sequenceSize - 1 ? blocked[j + 1][w] : 0) | matched[w];
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cuenta las secuencias de una de las dimensiones diagonales. La base de la fila k
+     * siguiente se alinea con la columna de inicio desplazando la palabra k bases, hacia la
+     * izquierda para la diagonal derecha (direction = 1) o hacia la derecha para la diagonal
+     * izquierda (direction = -1). Los carriles bloqueados por una secuencia contada se
+     * desplazan de igual manera en cada fila futura.
+     *
+     * @param dna       matriz de ADN
+     * @param count     conteo acumulado
+     * @param limit     cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @param direction 1 para la diagonal derecha, -1 para la diagonal izquierda
+     * @return conteo acumulado
+     */
+    int countDiagonal(PackedDNA dna, int count, int limit, int direction) {
+        int size = dna.getSize();
+        int words = dna.getWordsPerRow();
+        int first = direction > 0 ? 0 : sequenceSize - 1;
+        int last = direction > 0 ? size - sequenceSize : size - 1;
+        long[][] blocked = new long[sequenceSize - 1][words];
+        long[] matched = new long[words];
+        long[] shifted = new long[words];
+        for (int row = 0; row + sequenceSize <= size; row++) {
+            for (int w = 0; w < words; w++) {
+                long word = dna.word(row, w);
+                long windows = lanesBetween(w, first, last) & ~blocked[0][w];
+                for (int k = 1; k < sequenceSize && windows != 0; k++) {
+                    long next = direction > 0 ? forward(dna, row + k, w, k) : backward(dna, row + k, w, k);
+                    windows &= equalLanes(word, next);
+                }
+                matched[w] = windows;
+                count += Long.bitCount(windows);
+            }
+            if (count >= limit) {
+                return count;
+            }
+            for (int j = 0; j < sequenceSize - 1; j++) {
+                shiftLanes(matched, shifted, (j + 1) * direction);
+                for (int w = 0; w < words; w++) {
+                    long carried = j + 1 < sequenceSize - 1 ? blocked[j + 1][w] : 0;
+                    blocked[j][w] = carried | shifted[w];
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retorna la palabra de la fila con las bases desplazadas k posiciones hacia la columna 0,
+     * tomando de la siguiente palabra las bases que completan los carriles altos
+     *
+     * @param dna matriz de ADN
+     * @param row indice de la fila
+     * @param w   indice de la palabra dentro de la fila
+     * @param k   cantidad de bases a desplazar, entre 1 y 31
+     * @return palabra donde el carril c contiene la base de la columna c + k
+     */
+    static long forward(PackedDNA dna, int row, int w, int k) {
+        long word = dna.word(row, w) >>> (k * BITS_PER_BASE);
+        if (w + 1 < dna.getWordsPerRow()) {
+            word |= dna.word(row, w + 1) << (Long.SIZE - (k * BITS_PER_BASE));
+        }
+        return word;
+    }
+
+    /**
+     * Retorna la palabra de la fila con las bases desplazadas k posiciones hacia la ultima
+     * columna, tomando de la palabra anterior las bases que completan los carriles bajos
+     *
+     * @param dna matriz de ADN
+     * @param row indice de la fila
+     * @param w   indice de la palabra dentro de la fila
+     * @param k   cantidad de bases a desplazar, entre 1 y 31
+     * @return palabra donde el carril c contiene la base de la columna c - k
+     */
+    static long backward(PackedDNA dna, int row, int w, int k) {
+        long word = dna.word(row, w) << (k * BITS_PER_BASE);
+        if (w > 0) {
+            word |= dna.word(row, w - 1) >>> (Long.SIZE - (k * BITS_PER_BASE));
+        }
+        return word;
+    }
+
+    /**
+     * Desplaza una mascara de carriles de varias palabras la cantidad de carriles indicada,
+     * hacia las columnas mayores si es positiva o hacia las menores si es negativa
+     *
+     * @param source mascara de carriles de la fila
+     * @param target vector donde se deja la mascara desplazada
+     * @param lanes  cantidad de carriles a desplazar, entre -31 y 31
+     */
+    private static void shiftLanes(long[] source, long[] target, int lanes) {
+        int words = source.length;
+        int bits = Math.abs(lanes) * BITS_PER_BASE;
+        if (bits == 0) {
+            System.arraycopy(source, 0, target, 0, words);
+            return;
+        }
+        for (int w = 0; w < words; w++) {
+            if (lanes > 0) {
+                target[w] = (source[w] << bits) | (w > 0 ? source[w - 1] >>> (Long.SIZE - bits) : 0);
+            } else {
+                target[w] = (source[w] >>> bits) | (w + 1 < words ? source[w + 1] << (Long.SIZE - bits) : 0);
+            }
+        }
+    }
+
+    /**
+     * Compara las bases de dos palabras carril por carril
+     *
+     * @param a primera palabra
+     * @param b segunda palabra
+     * @return mascara de carriles donde ambas palabras tienen la misma base
+     */
+    static long equalLanes(long a, long b) {
+        long diff = a ^ b;
+        return ~(diff | (diff >>> 1)) & LANE_MASK;
+    }
+
+    /**
+     * Retorna la mascara de carriles de la palabra w que corresponden a las columnas
+     * entre from y to, ambas incluidas
+     *
+     * @param w    indice de la palabra dentro de la fila
+     * @param from primera columna valida
+     * @param to   ultima columna valida
+     * @return mascara de carriles validos
+     */
+    static long lanesBetween(int w, int from, int to) {
+        int base = w * PackedDNA.BASES_PER_WORD;
+        int low = Math.max(from - base, 0);
+        int high = Math.min(to - base, PackedDNA.BASES_PER_WORD - 1);
+        if (low > high) {
+            return 0;
+        }
+        return lowLanes(high + 1) & ~lowLanes(low) & LANE_MASK;
+    }
+
+    /**
+     * Retorna la mascara con los bits de los primeros carriles de la palabra
+     *
+     * @param lanes cantidad de carriles
+     * @return mascara con los bits de los carriles 0 a lanes - 1
+     */
+    private static long lowLanes(int lanes) {
+        if (lanes <= 0) {
+            return 0;
+        }
+        return lanes >= PackedDNA.BASES_PER_WORD ? -1L : (1L << (lanes * BITS_PER_BASE)) - 1;
+    }
+
+}
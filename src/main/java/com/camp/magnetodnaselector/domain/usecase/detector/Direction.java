@@ -0,0 +1,30 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+/**
+ * Dimensiones de la matriz en las que se buscan las secuencias, el orden de las constantes
+ * es el orden de recorrido por defecto de {@link DirectionalSequenceDetector}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public enum Direction {
+
+    /**
+     * Filas de la matriz, de izquierda a derecha
+     */
+    HORIZONTAL,
+
+    /**
+     * Columnas de la matriz, de arriba hacia abajo
+     */
+    VERTICAL,
+
+    /**
+     * Diagonales que bajan hacia la derecha
+     */
+    RIGHT_DIAGONAL,
+
+    /**
+     * Diagonales que bajan hacia la izquierda
+     */
+    LEFT_DIAGONAL
+}
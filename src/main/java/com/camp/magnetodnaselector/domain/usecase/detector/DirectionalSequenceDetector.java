@@ -0,0 +1,45 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+/**
+ * Interface para los motores de deteccion que recorren cada dimension de la matriz por
+ * separado, lo que permite elegir el orden en que se recorren las dimensiones.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public interface DirectionalSequenceDetector extends SequenceDetector {
+
+    /**
+     * Cuenta las secuencias de una sola dimension de la matriz, sumandolas al conteo
+     * acumulado de las dimensiones ya recorridas
+     *
+     * @param dna       matriz de ADN de NxN en su representacion compacta
+     * @param direction dimension que se recorre
+     * @param count     conteo acumulado de las dimensiones ya recorridas
+     * @param limit     cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return conteo acumulado incluyendo la dimension recorrida
+     */
+    int countSequences(PackedDNA dna, Direction direction, int count, int limit);
+
+    /**
+     * Cuenta las secuencias recorriendo las dimensiones en el orden de {@link Direction},
+     * deteniendose al alcanzar el valor de limit
+     *
+     * @param dna   matriz de ADN de NxN en su representacion compacta
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return cantidad de secuencias encontradas
+     */
+    @Override
+    default int countSequences(PackedDNA dna, int limit) {
+        int count = 0;
+        for (Direction direction : Direction.values()) {
+            if (count >= limit) {
+                break;
+            }
+            count = countSequences(dna, direction, count, limit);
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,321 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Motor de deteccion que reparte el recorrido de las matrices grandes entre los hilos de un
+ * {@link ForkJoinPool}.
+ * <p>
+ * Las lineas de cada dimension (filas, columnas, diagonales derechas y diagonales izquierdas)
+ * se dividen en bandas de lineas completas, y cada banda se recorre fila por fila con un
+ * contador de longitud de racha por linea, igual que en {@link RunLengthSequenceDetector}.
+ * Como ninguna linea se reparte entre dos bandas no se necesita traslape entre ellas y la
+ * suma de los conteos de las bandas es igual al conteo del recorrido secuencial.
+ * <p>
+ * Las bandas comparten un contador global de secuencias encontradas, el cual revisan al
+ * iniciar cada fila, de manera que todas se detienen en cuanto el conteo alcanza el limite.
+ * <p>
+ * Las matrices con un tamanio menor a {@link #threshold} se evaluan con el motor
+ * {@link #delegate}, ya que en ellas el costo de repartir el trabajo es mayor que el
+ * recorrido completo. Lo mismo ocurre si el pool tiene un solo hilo.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class ParallelSequenceDetector implements SequenceDetector {
+
+    /**
+     * Valor centinela que indica que la linea no tiene una racha en curso
+     */
+    private static final byte NONE = -1;
+
+    /**
+     * Cantidad de bandas por hilo en que se divide cada dimension, para compensar las
+     * bandas que terminan antes que las demas
+     */
+    private static final int BANDS_PER_THREAD = 4;
+
+    /**
+     * Motor de deteccion para las matrices menores al umbral
+     */
+    private final SequenceDetector delegate;
+
+    /**
+     * Cantidad de caracteres repetidos que deben tener las secuencias a buscar
+     */
+    private final int sequenceSize;
+
+    /**
+     * Tamanio N a partir del cual la matriz se recorre en paralelo
+     */
+    private final int threshold;
+
+    /**
+     * Pool de hilos donde se ejecutan las bandas
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor que ejecuta las bandas en el pool comun de la JVM
+     *
+     * @param delegate     motor de deteccion para las matrices menores al umbral
+     * @param sequenceSize cantidad de caracteres repetidos que componen una secuencia
+     * @param threshold    tamanio N a partir del cual la matriz se recorre en paralelo
+     */
+    public ParallelSequenceDetector(SequenceDetector delegate, int sequenceSize, int threshold) {
+        this(delegate, sequenceSize, threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor para especificar el pool de hilos donde se ejecutan las bandas
+     *
+     * @param delegate     motor de deteccion para las matrices menores al umbral
+     * @param sequenceSize cantidad de caracteres repetidos que componen una secuencia
+     * @param threshold    tamanio N a partir del cual la matriz se recorre en paralelo
+     * @param pool         pool de hilos donde se ejecutan las bandas
+     */
+    public ParallelSequenceDetector(SequenceDetector delegate, int sequenceSize, int threshold, ForkJoinPool pool) {
+        this.delegate = delegate;
+        this.sequenceSize = sequenceSize;
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Cuenta las secuencias de la matriz, en paralelo si su tamanio alcanza el umbral y el
+     * pool tiene mas de un hilo.
+     *
+     * @param dna   matriz de ADN de NxN en su representacion compacta
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return cantidad de secuencias encontradas
+     */
+    @Override
+    public int countSequences(PackedDNA dna, int limit) {
+        if (dna.getSize() < threshold || pool.getParallelism() < 2) {
+            return delegate.countSequences(dna, limit);
+        }
+        Search search = new Search(dna, limit, pool.getParallelism());
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<Band> bands = new ArrayList<>();
+                for (Dimension dimension : Dimension.values()) {
+                    bands.add(new Band(search, dimension, 0, dimension.lines(dna.getSize())));
+                }
+                invokeAll(bands);
+            }
+        });
+        return search.found.get();
+    }
+
+    /**
+     * Dimensiones de la matriz en las que se buscan las secuencias
+     */
+    private enum Dimension {
+
+        HORIZONTAL,
+
+        VERTICAL,
+
+        /**
+         * Diagonales de arriba a la izquierda hacia abajo a la derecha, la linea de la celda
+         * (i, j) es {@code j - i + N - 1}
+         */
+        RIGHT_DIAGONAL,
+
+        /**
+         * Diagonales de arriba a la derecha hacia abajo a la izquierda, la linea de la celda
+         * (i, j) es {@code i + j}
+         */
+        LEFT_DIAGONAL;
+
+        /**
+         * @param size tamanio N de la matriz
+         * @return cantidad de lineas de la dimension
+         */
+        int lines(int size) {
+            return this == HORIZONTAL || this == VERTICAL ? size : (2 * size) - 1;
+        }
+
+    }
+
+    /**
+     * Estado compartido por las bandas de una misma busqueda
+     */
+    private static final class Search {
+
+        private final PackedDNA dna;
+
+        private final int limit;
+
+        /**
+         * Cantidad minima de lineas de una banda para seguir dividiendola
+         */
+        private final int grain;
+
+        /**
+         * Contador global de secuencias encontradas por todas las bandas
+         */
+        private final AtomicInteger found = new AtomicInteger();
+
+        Search(PackedDNA dna, int limit, int parallelism) {
+            this.dna = dna;
+            this.limit = limit;
+            this.grain = Math.max(1, dna.getSize() / (parallelism * BANDS_PER_THREAD));
+        }
+
+        /**
+         * @return true si el conteo global ya alcanzo el limite
+         */
+        boolean done() {
+            return found.get() >= limit;
+        }
+
+        /**
+         * Suma una secuencia encontrada al conteo global
+         *
+         * @return true si con esta secuencia el conteo global alcanzo el limite
+         */
+        boolean add() {
+            return found.incrementAndGet() >= limit;
+        }
+
+    }
+
+    /**
+     * Tarea que recorre las lineas from a to - 1 de una dimension, dividiendose en dos mientras
+     * la cantidad de lineas supere el tamanio minimo de la busqueda
+     */
+    private final class Band extends RecursiveAction {
+
+        private final Search search;
+
+        private final Dimension dimension;
+
+        private final int from;
+
+        private final int to;
+
+        Band(Search search, Dimension dimension, int from, int to) {
+            this.search = search;
+            this.dimension = dimension;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.done()) {
+                return;
+            }
+            if (to - from > search.grain) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Band(search, dimension, from, middle), new Band(search, dimension, middle, to));
+            } else if (dimension == Dimension.HORIZONTAL) {
+                scanRows();
+            } else {
+                scanLines();
+            }
+        }
+
+        /**
+         * Recorre las filas de la banda decodificando las bases palabra por palabra
+         */
+        private void scanRows() {
+            PackedDNA dna = search.dna;
+            int size = dna.getSize();
+            for (int i = from; i < to && !search.done(); i++) {
+                byte last = NONE;
+                int run = 0;
+                long word = 0;
+                for (int j = 0; j < size; j++) {
+                    if ((j % PackedDNA.BASES_PER_WORD) == 0) {
+                        word = dna.word(i, j / PackedDNA.BASES_PER_WORD);
+                    }
+                    byte base = (byte) (word & 3);
+                    word >>>= 2;
+                    if (base == last) {
+                        run++;
+                    } else {
+                        last = base;
+                        run = 1;
+                    }
+                    if (run == sequenceSize) {
+                        last = NONE;
+                        run = 0;
+                        if (search.add()) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Recorre la matriz fila por fila avanzando la racha de cada linea vertical o diagonal
+         * de la banda que pasa por la fila. En las tres dimensiones la linea crece con la
+         * columna, por lo que las bases de la fila se decodifican palabra por palabra.
+         */
+        private void scanLines() {
+            PackedDNA dna = search.dna;
+            int size = dna.getSize();
+            byte[] bases = new byte[to - from];
+            int[] runs = new int[to - from];
+            Arrays.fill(bases, NONE);
+            for (int i = 0; i < size && !search.done(); i++) {
+                int offset = offset(i, size);
+                int first = Math.max(from - offset, 0);
+                int last = Math.min(to - 1 - offset, size - 1);
+                long word = first <= last ? dna.word(i, first / PackedDNA.BASES_PER_WORD) >>> ((first % PackedDNA.BASES_PER_WORD) << 1) : 0;
+                for (int j = first; j <= last; j++) {
+                    if ((j % PackedDNA.BASES_PER_WORD) == 0) {
+                        word = dna.word(i, j / PackedDNA.BASES_PER_WORD);
+                    }
+                    byte base = (byte) (word & 3);
+                    word >>>= 2;
+                    int k = (j + offset) - from;
+                    if (bases[k] == base) {
+                        runs[k]++;
+                    } else {
+                        bases[k] = base;
+                        runs[k] = 1;
+                    }
+                    if (runs[k] == sequenceSize) {
+                        bases[k] = NONE;
+                        runs[k] = 0;
+                        if (search.add()) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Retorna la diferencia entre el indice de la linea y la columna en que la linea pasa
+         * por la fila indicada
+         *
+         * @param row  indice de la fila
+         * @param size tamanio N de la matriz
+         * @return indice de la linea menos la columna
+         */
+        private int offset(int row, int size) {
+            switch (dimension) {
+                case RIGHT_DIAGONAL:
+                    return (size - 1) - row;
+                case LEFT_DIAGONAL:
+                    return row;
+                default:
+                    return 0;
+            }
+        }
+
+    }
+
+}
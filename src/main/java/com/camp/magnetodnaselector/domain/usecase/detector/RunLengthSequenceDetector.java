@@ -0,0 +1,137 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+import java.util.Arrays;
+
+/**
+ * Motor de deteccion de secuencias de caracteres repetidos que trabaja sobre la
+ * representacion compacta {@link PackedDNA} de la matriz de ADN.
+ * <p>
+ * La matriz se recorre una unica vez, fila por fila y palabra por palabra, decodificando
+ * los codigos de 2 bits de cada base y llevando un contador de longitud
+ * de racha (run-length) por cada linea que pasa por la celda actual: la horizontal,
+ * la vertical, la diagonal derecha y la diagonal izquierda. No se generan cadenas por
+ * linea ni se usan expresiones regulares, por lo que el unico espacio adicional que se
+ * reserva es el estado de las rachas, proporcional a N.
+ * <p>
+ * El conteo es equivalente al del patron {@code (\w)\1{3}+} aplicado sobre cada linea:
+ * cada vez que una racha alcanza la longitud de la secuencia se cuenta una ocurrencia y
+ * la racha se reinicia, de manera que una racha de longitud L aporta L / 4 ocurrencias.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class RunLengthSequenceDetector implements SequenceDetector {
+
+    /**
+     * Valor centinela que indica que la linea no tiene una racha en curso
+     */
+    private static final byte NONE = -1;
+
+    /**
+     * Cantidad de caracteres repetidos que deben tener las secuencias a buscar
+     */
+    private final int sequenceSize;
+
+    /**
+     * Constructor para especificar la longitud de las secuencias a buscar
+     *
+     * @param sequenceSize cantidad de caracteres repetidos que componen una secuencia
+     */
+    public RunLengthSequenceDetector(int sequenceSize) {
+        this.sequenceSize = sequenceSize;
+    }
+
+    /**
+     * Cuenta las secuencias de caracteres repetidos en las dimensiones horizontal, vertical
+     * y diagonal de la matriz.
+     * <p>
+     * La busqueda se detiene en el momento en que el conteo alcanza el valor dado por
+     * el parametro limit, ya que a partir de ahi el resultado de la evaluacion no cambia.
+     *
+     * @param dna   matriz de ADN de NxN en su representacion compacta
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return cantidad de secuencias encontradas
+     */
+    @Override
+    public int countSequences(PackedDNA dna, int limit) {
+        int size = dna.getSize();
+        int diagonals = (2 * size) - 1;
+        byte[] verticalBase = newState(size);
+        int[] verticalRun = new int[size];
+        byte[] rightDiagonalBase = newState(diagonals);
+        int[] rightDiagonalRun = new int[diagonals];
+        byte[] leftDiagonalBase = newState(diagonals);
+        int[] leftDiagonalRun = new int[diagonals];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            byte horizontalBase = NONE;
+            int horizontalRun = 0;
+            long word = 0;
+            for (int j = 0; j < size; j++) {
+                if ((j % PackedDNA.BASES_PER_WORD) == 0) {
+                    word = dna.word(i, j / PackedDNA.BASES_PER_WORD);
+                }
+                byte base = (byte) (word & 3);
+                word >>>= 2;
+                if (base == horizontalBase) {
+                    horizontalRun++;
+                } else {
+                    horizontalBase = base;
+                    horizontalRun = 1;
+                }
+                if (horizontalRun == sequenceSize) {
+                    horizontalBase = NONE;
+                    horizontalRun = 0;
+                    count++;
+                }
+                count += advance(verticalBase, verticalRun, j, base);
+                count += advance(rightDiagonalBase, rightDiagonalRun, (j - i) + (size - 1), base);
+                count += advance(leftDiagonalBase, leftDiagonalRun, i + j, base);
+                if (count >= limit) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Avanza la racha de la linea indicada con la base de la celda actual.
+     * Si la racha alcanza la longitud de la secuencia se reinicia para que la
+     * siguiente ocurrencia no comparta caracteres con la encontrada.
+     *
+     * @param bases vector con la ultima base vista por cada linea
+     * @param runs  vector con la longitud de la racha en curso por cada linea
+     * @param line  indice de la linea que pasa por la celda actual
+     * @param base  base de la celda actual
+     * @return 1 si la racha completo una secuencia, en otro caso 0
+     */
+    private int advance(byte[] bases, int[] runs, int line, byte base) {
+        if (bases[line] == base) {
+            runs[line]++;
+        } else {
+            bases[line] = base;
+            runs[line] = 1;
+        }
+        if (runs[line] == sequenceSize) {
+            bases[line] = NONE;
+            runs[line] = 0;
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Crea el vector de estado para las lineas de una dimension sin rachas en curso
+     *
+     * @param lines cantidad de lineas de la dimension
+     * @return vector inicializado con el valor centinela {@link #NONE}
+     */
+    private static byte[] newState(int lines) {
+        byte[] bases = new byte[lines];
+        Arrays.fill(bases, NONE);
+        return bases;
+    }
+
+}
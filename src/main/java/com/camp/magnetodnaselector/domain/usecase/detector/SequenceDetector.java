@@ -0,0 +1,42 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+
+/**
+ * Interface para los motores de deteccion de secuencias de caracteres repetidos
+ * sobre la representacion compacta {@link PackedDNA} de la matriz de ADN.
+ * <p>
+ * Toda implementacion debe contar las secuencias con la misma semantica: sobre cada
+ * linea horizontal, vertical o diagonal una racha de L bases iguales aporta
+ * {@code L / SEQUENCE_SIZE} ocurrencias, de manera que los motores son intercambiables.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public interface SequenceDetector {
+
+    /**
+     * En su implementacion debe contar las secuencias de caracteres repetidos en las
+     * dimensiones horizontal, vertical y diagonal de la matriz, pudiendo detener la
+     * busqueda en el momento en que el conteo alcance el valor dado por el parametro limit.
+     *
+     * @param dna   matriz de ADN de NxN en su representacion compacta
+     * @param limit cantidad de secuencias a partir de la cual se puede detener la busqueda
+     * @return cantidad de secuencias encontradas, si es mayor o igual a limit la busqueda
+     * pudo detenerse antes de recorrer toda la matriz
+     */
+    int countSequences(PackedDNA dna, int limit);
+
+    /**
+     * Determina si la matriz tiene por lo menos la cantidad de secuencias dada por el parametro
+     * limit. Por defecto cuenta las secuencias hasta el limite, las implementaciones pueden
+     * responder sin contarlas cuando pueden demostrar el resultado de otra forma.
+     *
+     * @param dna   matriz de ADN de NxN en su representacion compacta
+     * @param limit cantidad minima de secuencias
+     * @return true si la matriz tiene limit secuencias o mas
+     */
+    default boolean hasSequences(PackedDNA dna, int limit) {
+        return countSequences(dna, limit) >= limit;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.camp.magnetodnaselector.metrics;
+
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementacion de {@link EvaluationMetrics} sobre Micrometer, las metricas se publican en
+ * el endpoint /actuator/prometheus de Actuator.
+ * <p>
+ * Los nombres de las metricas y de sus etiquetas son estables, por lo que se pueden usar en
+ * las alertas:
+ * <ul>
+ * <li>{@value #STAGE_TIMER}: duracion de cada etapa de la evaluacion, con la etiqueta stage.</li>
+ * <li>{@value #SIZE_SUMMARY}: tamanio N de las matrices evaluadas.</li>
+ * <li>{@value #SHORTCUT_COUNTER}: evaluaciones que no recorren la matriz, con la etiqueta reason.</li>
+ * <li>{@value #DETECTION_COUNTER}: recorridos de la matriz, con la etiqueta outcome.</li>
+ * </ul>
+ * El timer y el resumen publican un histograma de percentiles, de manera que el p99 de cada
+ * etapa se calcula en Prometheus agregando las instancias del aplicativo.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Component
+public class SelectorMetrics implements EvaluationMetrics {
+
+    /**
+     * Nombre del timer de las etapas de la evaluacion
+     */
+    public static final String STAGE_TIMER = "selector.stage";
+
+    /**
+     * Nombre del resumen de los tamanios de las matrices
+     */
+    public static final String SIZE_SUMMARY = "selector.dna.size";
+
+    /**
+     * Nombre del contador de las evaluaciones que no recorren la matriz
+     */
+    public static final String SHORTCUT_COUNTER = "selector.evaluation.shortcuts";
+
+    /**
+     * Nombre del contador de los recorridos de la matriz por su resultado
+     */
+    public static final String DETECTION_COUNTER = "selector.detect.outcomes";
+
+    /**
+     * Timers de las etapas de la evaluacion
+     */
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+    /**
+     * Contadores de las evaluaciones que no recorren la matriz por cada motivo
+     */
+    private final Map<Shortcut, Counter> shortcutCounters = new EnumMap<>(Shortcut.class);
+
+    /**
+     * Contadores de los recorridos de la matriz por cada resultado
+     */
+    private final Map<Detection, Counter> detectionCounters = new EnumMap<>(Detection.class);
+
+    /**
+     * Resumen de los tamanios de las matrices evaluadas
+     */
+    private final DistributionSummary sizeSummary;
+
+    /**
+     * Constructor que registra todas las metricas, de manera que se publiquen desde el inicio
+     * del aplicativo aunque aun no se haya evaluado ninguna cadena
+     *
+     * @param meterRegistry registro de metricas del contenedor
+     */
+    public SelectorMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder(STAGE_TIMER)
+                    .description("Duration of each stage of the DNA evaluation")
+                    .tag("stage", tagValue(stage))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(500))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+        for (Shortcut shortcut : Shortcut.values()) {
+            shortcutCounters.put(shortcut, Counter.builder(SHORTCUT_COUNTER)
+                    .description("DNA evaluations resolved without scanning the matrix")
+                    .tag("reason", tagValue(shortcut))
+                    .register(meterRegistry));
+        }
+        for (Detection detection : Detection.values()) {
+            detectionCounters.put(detection, Counter.builder(DETECTION_COUNTER)
+                    .description("DNA matrix scans by whether they stopped at the minimum number of sequences")
+                    .tag("outcome", tagValue(detection))
+                    .register(meterRegistry));
+        }
+        sizeSummary = DistributionSummary.builder(SIZE_SUMMARY)
+                .description("Size N of the evaluated NxN DNA matrices")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(4d)
+                .maximumExpectedValue(100_000d)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordStage(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordSize(int size) {
+        sizeSummary.record(size);
+    }
+
+    @Override
+    public void recordShortcut(Shortcut shortcut) {
+        shortcutCounters.get(shortcut).increment();
+    }
+
+    @Override
+    public void recordDetection(Detection detection) {
+        detectionCounters.get(detection).increment();
+    }
+
+    /**
+     * Valor de la etiqueta de una constante en minusculas, por ejemplo in_flight
+     *
+     * @param value constante de la etiqueta
+     * @return valor de la etiqueta
+     */
+    static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.camp.magnetodnaselector.persitence.cache;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorador de {@link SequenceDNARepository} que mantiene en memoria los resultados de
+ * las cadenas de ADN ya evaluadas, de manera que una cadena repetida se responde sin
+ * consultar el medio de persistencia.
+ * <p>
+ * La cache usa la politica de desalojo W-TinyLFU de Caffeine, la llave es la huella de
+ * contenido de la cadena y el peso de cada entrada es la memoria aproximada de la cadena
+ * compacta, por lo que el limite se define en bytes y no en cantidad de entradas. La
+ * cadena se guarda junto al resultado para descartar una colision de la huella.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class CachedSequenceDNARepository implements SequenceDNARepository {
+
+    /**
+     * Bytes aproximados que ocupa una entrada de la cache sin contar las palabras de la cadena
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * Medio de persistencia al que se delegan las consultas que no estan en la cache
+     */
+    private final SequenceDNARepository delegate;
+
+    /**
+     * Resultados de las cadenas evaluadas indexados por su huella de contenido
+     */
+    private final Cache<String, Verdict> cache;
+
+    /**
+     * Constructor del decorador
+     *
+     * @param delegate     medio de persistencia de las cadenas de ADN
+     * @param maximumBytes memoria aproximada que pueden ocupar las cadenas guardadas en la cache
+     */
+    public CachedSequenceDNARepository(SequenceDNARepository delegate, long maximumBytes) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String hash, Verdict verdict) -> weight(verdict.getDna()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Busca el resultado de la cadena en la cache y solo si no esta lo consulta en el
+     * medio de persistencia, guardando en la cache el resultado encontrado
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return si se encuentra la cadena guardada el valor que determina si es mutante,
+     * en otro caso null
+     */
+    @Override
+    public Boolean isMutantSavedDNA(PackedDNA dna) {
+        Boolean res = getCached(dna);
+        if (res != null) {
+            return res;
+        }
+        res = delegate.isMutantSavedDNA(dna);
+        if (res != null) {
+            putCached(dna, res);
+        }
+        return res;
+    }
+
+    /**
+     * Guarda la cadena en el medio de persistencia y su resultado en la cache
+     *
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo que determina si la cadena a
+     *               guadar cumple con la condicion del mutante
+     */
+    @Override
+    public void saveDNA(PackedDNA dna, boolean mutant) {
+        delegate.saveDNA(dna, mutant);
+        putCached(dna, mutant);
+    }
+
+    /**
+     * Busca las cadenas en la cache y consulta en una sola llamada al medio de persistencia
+     * las que no estan, guardando en la cache los resultados encontrados
+     *
+     * @param dnas cadenas de ADN que se deben buscar
+     * @return mapa con el valor que determina si es mutante de las cadenas encontradas
+     */
+    @Override
+    public Map<PackedDNA, Boolean> findMutantSavedDNA(Collection<PackedDNA> dnas) {
+        Map<PackedDNA, Boolean> found = new HashMap<>();
+        List<PackedDNA> missing = new ArrayList<>();
+        for (PackedDNA dna : dnas) {
+            Boolean mutant = getCached(dna);
+            if (mutant != null) {
+                found.put(dna, mutant);
+            } else {
+                missing.add(dna);
+            }
+        }
+        if (!missing.isEmpty()) {
+            delegate.findMutantSavedDNA(missing).forEach((dna, mutant) -> {
+                putCached(dna, mutant);
+                found.put(dna, mutant);
+            });
+        }
+        return found;
+    }
+
+    /**
+     * Guarda las cadenas en el medio de persistencia y sus resultados en la cache
+     *
+     * @param results mapa con las cadenas de ADN a guardar y el valor que determina si son mutantes
+     */
+    @Override
+    public void saveAllDNA(Map<PackedDNA, Boolean> results) {
+        delegate.saveAllDNA(results);
+        results.forEach(this::putCached);
+    }
+
+    /**
+     * Busca el resultado de la cadena en la cache, descartando una colision de la huella
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return el valor que determina si es mutante, null si la cadena no esta en la cache
+     */
+    Boolean getCached(PackedDNA dna) {
+        Verdict verdict = cache.getIfPresent(dna.getContentHash());
+        return verdict != null && verdict.getDna().equals(dna) ? verdict.isMutant() : null;
+    }
+
+    /**
+     * Guarda el resultado de la cadena en la cache
+     *
+     * @param dna    cadena de ADN evaluada
+     * @param mutant valor que determina si la cadena es mutante
+     */
+    void putCached(PackedDNA dna, boolean mutant) {
+        cache.put(dna.getContentHash(), new Verdict(dna, mutant));
+    }
+
+    /**
+     * Retorna las estadisticas de la cache, entre ellas los aciertos, los fallos
+     * y los desalojos
+     *
+     * @return estadisticas acumuladas de la cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Ejecuta las tareas de mantenimiento pendientes de la cache, como los desalojos
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Calcula la memoria aproximada de la cadena compacta
+     *
+     * @param dna cadena de ADN
+     * @return peso de la entrada en bytes
+     */
+    static int weight(PackedDNA dna) {
+        long bytes = ((long) dna.getSize() * dna.getWordsPerRow() * Long.BYTES) + ENTRY_OVERHEAD;
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Resultado de la evaluacion de una cadena guardado en la cache
+     */
+    @Value
+    static class Verdict {
+
+        /**
+         * Cadena de ADN evaluada
+         */
+        PackedDNA dna;
+
+        /**
+         * Determina si la cadena cumple la condicion del mutante
+         */
+        boolean mutant;
+    }
+
+}
@@ -0,0 +1,387 @@
+package com.camp.magnetodnaselector.persitence.cache;
+
+import com.camp.magnetodnaselector.persitence.codec.ContentHashes;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Indice local de resultados {@code huella -> resultado} guardado en un archivo mapeado en
+ * memoria, el cual sobrevive a los reinicios del aplicativo y se puede consultar en cuanto se
+ * abre, sin cargarlo ni deserializarlo, ya que el sistema operativo trae las paginas del archivo
+ * a medida que se leen.
+ * <p>
+ * El archivo tiene un encabezado de {@link #HEADER_BYTES} bytes y una tabla de direccionamiento
+ * abierto con sondeo lineal de {@link #capacity} ranuras de {@link #SLOT_BYTES} bytes, cada una
+ * con las dos mitades de la huella de 128 bits y una palabra con el tamanio N de la matriz y el
+ * resultado. La palabra del resultado se escribe al final con semantica release y se lee con
+ * semantica acquire, por lo que las consultas no usan bloqueos y nunca ven una ranura a medio
+ * escribir. Las inserciones se serializan entre si.
+ * <p>
+ * Las entradas nunca se eliminan, y cuando la tabla alcanza {@link #MAX_LOAD} de su capacidad
+ * deja de aceptar entradas nuevas. El archivo se bloquea al abrirlo, por lo que solo una
+ * instancia del aplicativo puede usarlo a la vez.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+public class MappedVerdictIndex implements AutoCloseable {
+
+    /**
+     * Acceso a las palabras de 64 bits del archivo mapeado
+     */
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Identificador del formato del archivo, "MDNAVIDX" en ASCII
+     */
+    private static final long MAGIC = 0x4D444E4156494458L;
+
+    /**
+     * Version del formato del archivo
+     */
+    private static final long VERSION = 1;
+
+    /**
+     * Bytes del encabezado: identificador, version, capacidad y cantidad de entradas
+     */
+    static final int HEADER_BYTES = 64;
+
+    /**
+     * Bytes de cada ranura: dos mitades de la huella y la palabra del resultado
+     */
+    static final int SLOT_BYTES = 24;
+
+    /**
+     * Proporcion maxima de ranuras ocupadas
+     */
+    private static final double MAX_LOAD = 0.75;
+
+    /**
+     * Posiciones de los campos del encabezado
+     */
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int COUNT_OFFSET = 24;
+
+    /**
+     * Canal del archivo, null en el indice deshabilitado
+     */
+    private final FileChannel channel;
+
+    /**
+     * Bloqueo del archivo mientras el indice esta abierto
+     */
+    private final FileLock lock;
+
+    /**
+     * Contenido del archivo mapeado en memoria
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Cantidad de ranuras de la tabla, potencia de 2
+     */
+    private final int capacity;
+
+    /**
+     * Cantidad maxima de entradas
+     */
+    private final int maxEntries;
+
+    /**
+     * Cantidad de entradas de la tabla
+     */
+    private volatile long count;
+
+    /**
+     * Cantidad de consultas que encontraron el resultado en el indice
+     */
+    private final LongAdder hits = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor del indice sobre un archivo ya mapeado
+     *
+     * @param channel  canal del archivo
+     * @param lock     bloqueo del archivo
+     * @param buffer   contenido del archivo mapeado
+     * @param capacity cantidad de ranuras de la tabla
+     */
+    private MappedVerdictIndex(FileChannel channel, FileLock lock, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.lock = lock;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.maxEntries = (int) (capacity * MAX_LOAD);
+        this.count = buffer == null ? 0 : (long) LONGS.get(buffer, COUNT_OFFSET);
+    }
+
+    /**
+     * Crea un indice deshabilitado, que no encuentra ninguna cadena y no guarda entradas
+     *
+     * @return indice sin archivo
+     */
+    public static MappedVerdictIndex disabled() {
+        return new MappedVerdictIndex(null, null, null, 0);
+    }
+
+    /**
+     * Abre el indice del archivo indicado, si el archivo no existe o no tiene el formato del
+     * indice lo crea vacio con la capacidad indicada. Si el archivo ya es un indice se conserva
+     * con su capacidad original
+     *
+     * @param path     ruta del archivo
+     * @param capacity cantidad minima de ranuras de la tabla, se redondea a una potencia de 2
+     * @return indice abierto
+     * @throws IllegalStateException si otro proceso tiene abierto el archivo
+     * @throws UncheckedIOException  si el archivo no se puede abrir
+     */
+    public static MappedVerdictIndex open(Path path, int capacity) {
+        if (capacity < 1 || capacity > maxCapacity()) {
+            throw new IllegalArgumentException("Unsupported verdict index capacity " + capacity);
+        }
+        FileChannel channel = null;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock lock = tryLock(channel, path);
+            int existing = existingCapacity(channel);
+            int slots = existing > 0 ? existing : Math.max(16, Integer.highestOneBit(capacity - 1) << 1);
+            if (existing == 0) {
+                channel.truncate(0);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes(slots));
+            if (existing == 0) {
+                LONGS.set(buffer, VERSION_OFFSET, VERSION);
+                LONGS.set(buffer, CAPACITY_OFFSET, (long) slots);
+                LONGS.set(buffer, COUNT_OFFSET, 0L);
+                LONGS.setRelease(buffer, MAGIC_OFFSET, MAGIC);
+            }
+            MappedVerdictIndex index = new MappedVerdictIndex(channel, lock, buffer, slots);
+            log.info("Verdict index {} opened with {} of {} slots", path, index.count, slots);
+            return index;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Busca el resultado de una cadena
+     *
+     * @param hash huella de contenido de la cadena
+     * @param size tamanio N de la matriz, solo descarta las matrices de otro tamanio, por lo que el
+     *             resultado depende de la huella de 128 bits
+     * @return true o false segun el resultado guardado, null si la cadena no esta en el indice
+     */
+    public Boolean get(String hash, int size) {
+        if (buffer == null || closed) {
+            return null;
+        }
+        long high = ContentHashes.high(hash);
+        long low = ContentHashes.low(hash);
+        int mask = capacity - 1;
+        for (int i = (int) high & mask, probes = 0; probes < capacity; i = (i + 1) & mask, probes++) {
+            int offset = slotOffset(i);
+            long verdict = (long) LONGS.getAcquire(buffer, offset + 16);
+            if (verdict == 0) {
+                return null;
+            }
+            if ((long) LONGS.get(buffer, offset) == high && (long) LONGS.get(buffer, offset + 8) == low) {
+                if (sizeOf(verdict) != size) {
+                    return null;
+                }
+                hits.increment();
+                return isMutant(verdict);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Guarda el resultado de una cadena, si la cadena ya esta en el indice no se modifica
+     *
+     * @param hash   huella de contenido de la cadena
+     * @param size   tamanio N de la matriz
+     * @param mutant resultado de la evaluacion
+     * @return true si se agrego la entrada, false si ya existia o el indice esta lleno
+     */
+    public synchronized boolean put(String hash, int size, boolean mutant) {
+        if (buffer == null || closed || count >= maxEntries) {
+            return false;
+        }
+        long high = ContentHashes.high(hash);
+        long low = ContentHashes.low(hash);
+        int mask = capacity - 1;
+        for (int i = (int) high & mask; ; i = (i + 1) & mask) {
+            int offset = slotOffset(i);
+            if ((long) LONGS.get(buffer, offset + 16) == 0) {
+                LONGS.set(buffer, offset, high);
+                LONGS.set(buffer, offset + 8, low);
+                LONGS.setRelease(buffer, offset + 16, verdictOf(size, mutant));
+                count++;
+                LONGS.setRelease(buffer, COUNT_OFFSET, count);
+                return true;
+            }
+            if ((long) LONGS.get(buffer, offset) == high && (long) LONGS.get(buffer, offset + 8) == low) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return cantidad de entradas del indice
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return cantidad acumulada de consultas que encontraron el resultado en el indice
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return cantidad de ranuras de la tabla
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Escribe en el disco las paginas modificadas y libera el archivo
+     */
+    @Override
+    public synchronized void close() {
+        if (buffer == null || closed) {
+            return;
+        }
+        closed = true;
+        buffer.force();
+        try {
+            lock.release();
+        } catch (IOException e) {
+            log.warn("Verdict index lock could not be released", e);
+        }
+        closeQuietly(channel);
+    }
+
+    /**
+     * Codifica el tamanio y el resultado en la palabra de la ranura, el bit bajo siempre esta
+     * encendido para distinguir una ranura ocupada de una vacia
+     *
+     * @param size   tamanio N de la matriz
+     * @param mutant resultado de la evaluacion
+     * @return palabra del resultado
+     */
+    static long verdictOf(int size, boolean mutant) {
+        return ((long) size << 2) | (mutant ? 2 : 0) | 1;
+    }
+
+    private static int sizeOf(long verdict) {
+        return (int) (verdict >>> 2);
+    }
+
+    private static boolean isMutant(long verdict) {
+        return (verdict & 2) != 0;
+    }
+
+    /**
+     * @param slot indice de la ranura
+     * @return posicion de la ranura en el archivo
+     */
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + (slot * SLOT_BYTES);
+    }
+
+    /**
+     * @param slots cantidad de ranuras
+     * @return tamanio del archivo en bytes
+     */
+    private static long fileBytes(int slots) {
+        return HEADER_BYTES + ((long) slots * SLOT_BYTES);
+    }
+
+    /**
+     * @return capacidad maxima que se puede mapear en un solo buffer
+     */
+    static int maxCapacity() {
+        return Integer.highestOneBit((Integer.MAX_VALUE - HEADER_BYTES) / SLOT_BYTES);
+    }
+
+    /**
+     * Lee la capacidad del indice que ya existe en el archivo
+     *
+     * @param channel canal del archivo
+     * @return capacidad del indice, 0 si el archivo no tiene el formato del indice
+     * @throws IOException si el archivo no se puede leer
+     */
+    private static int existingCapacity(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            return 0;
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        long capacity = (long) LONGS.get(header, CAPACITY_OFFSET);
+        boolean valid = (long) LONGS.get(header, MAGIC_OFFSET) == MAGIC
+                && (long) LONGS.get(header, VERSION_OFFSET) == VERSION
+                && capacity >= 16 && capacity <= maxCapacity() && Long.bitCount(capacity) == 1
+                && channel.size() == fileBytes((int) capacity);
+        return valid ? (int) capacity : 0;
+    }
+
+    /**
+     * Bloquea el archivo para que otro proceso no lo modifique
+     *
+     * @param channel canal del archivo
+     * @param path    ruta del archivo
+     * @return bloqueo del archivo
+     * @throws IOException           si el archivo no se puede bloquear
+     * @throws IllegalStateException si otro proceso tiene bloqueado el archivo
+     */
+    private static FileLock tryLock(FileChannel channel, Path path) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IllegalStateException("Verdict index " + path + " is in use by another process");
+        }
+        return lock;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Verdict index file could not be closed", e);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.camp.magnetodnaselector.persitence.cache;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveSequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decorador de {@link CachedSequenceDNARepository} para los medios de persistencia que tambien
+ * implementan {@link ReactiveSequenceDNARepository}, de manera que la clase de negocio reactiva
+ * use la misma cache de resultados que las operaciones sincronas.
+ * <p>
+ * Una cadena que esta en la cache se emite sin suscribirse al medio de persistencia, y los
+ * resultados encontrados o guardados por medio de las operaciones reactivas se agregan a la cache
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class ReactiveCachedSequenceDNARepository extends CachedSequenceDNARepository implements ReactiveSequenceDNARepository {
+
+    /**
+     * Medio de persistencia reactivo al que se delegan las consultas que no estan en la cache
+     */
+    private final ReactiveSequenceDNARepository reactiveDelegate;
+
+    /**
+     * Constructor del decorador
+     *
+     * @param delegate     medio de persistencia de las cadenas de ADN con operaciones sincronas y reactivas
+     * @param maximumBytes memoria aproximada que pueden ocupar las cadenas guardadas en la cache
+     * @param <T>          tipo del medio de persistencia
+     */
+    public <T extends SequenceDNARepository & ReactiveSequenceDNARepository> ReactiveCachedSequenceDNARepository(T delegate,
+                                                                                                            long maximumBytes) {
+        super(delegate, maximumBytes);
+        this.reactiveDelegate = delegate;
+    }
+
+    /**
+     * Busca el resultado de la cadena en la cache y solo si no esta se suscribe a la busqueda
+     * del medio de persistencia, guardando en la cache el resultado encontrado
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return valor que determina si la cadena es mutante, vacio si la cadena no esta guardada
+     */
+    @Override
+    public Mono<Boolean> findMutant(PackedDNA dna) {
+        return Mono.defer(() -> {
+            Boolean cached = getCached(dna);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return reactiveDelegate.findMutant(dna)
+                    .doOnNext(mutant -> putCached(dna, mutant));
+        });
+    }
+
+    /**
+     * Guarda la cadena en el medio de persistencia y al terminar guarda su resultado en la cache
+     *
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo que determina si la cadena a guadar cumple con la condicion del mutante
+     * @return senial de terminacion del guardado
+     */
+    @Override
+    public Mono<Void> save(PackedDNA dna, boolean mutant) {
+        return reactiveDelegate.save(dna, mutant)
+                .doOnSuccess(done -> putCached(dna, mutant));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.camp.magnetodnaselector.persitence.codec;
+
+/**
+ * Conversion de la huella de contenido de 128 bits de las cadenas, representada con 32 digitos
+ * hexadecimales, a sus dos mitades de 64 bits, para las estructuras en memoria que trabajan
+ * con valores numericos en lugar de texto.
+ * <p>
+ * Como la huella es parte de un SHA-256, ambas mitades son independientes y uniformes, por lo
+ * que se pueden usar directamente como valores de dispersion.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public final class ContentHashes {
+
+    /**
+     * Digitos hexadecimales de la huella, en minusculas igual que la huella de las cadenas
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ContentHashes() {
+    }
+
+    /**
+     * @param hash huella de contenido en hexadecimal
+     * @return primeros 64 bits de la huella
+     */
+    public static long high(String hash) {
+        return Long.parseUnsignedLong(hash, 0, 16, 16);
+    }
+
+    /**
+     * @param hash huella de contenido en hexadecimal
+     * @return ultimos 64 bits de la huella
+     */
+    public static long low(String hash) {
+        return Long.parseUnsignedLong(hash, 16, 32, 16);
+    }
+
+    /**
+     * Construye la huella en hexadecimal a partir de sus dos mitades
+     *
+     * @param high primeros 64 bits de la huella
+     * @param low  ultimos 64 bits de la huella
+     * @return huella de contenido en hexadecimal
+     */
+    public static String of(long high, long low) {
+        char[] hex = new char[32];
+        for (int i = 0; i < 16; i++) {
+            int shift = 60 - (i * 4);
+            hex[i] = HEX[(int) (high >>> shift) & 0xF];
+            hex[i + 16] = HEX[(int) (low >>> shift) & 0xF];
+        }
+        return new String(hex);
+    }
+
+}
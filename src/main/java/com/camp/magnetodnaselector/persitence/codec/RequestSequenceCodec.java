@@ -0,0 +1,301 @@
+package com.camp.magnetodnaselector.persitence.codec;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Conversion entre la matriz compacta {@link PackedDNA} y el documento {@link RequestSequence}.
+ * <p>
+ * En el formato {@link Format#PACKED} la matriz se guarda en el campo packed como un BinData
+ * con las bases de todas las filas seguidas a 2 bits por base, es decir N * N / 4 bytes, junto
+ * al tamanio N en el campo size. Las filas no se alinean a palabras de 64 bits para que las
+ * matrices pequenias no guarden bits de relleno. Si N es igual o mayor a
+ * {@link #compressionThreshold} el bloque se comprime con Deflate y solo se guarda comprimido
+ * si resulta de menor tamanio, lo cual se marca en el campo deflated.
+ * <p>
+ * En el formato {@link Format#STRINGS} la matriz se guarda como el vector de strings del campo
+ * sequence, que es el formato de los documentos anteriores. La lectura admite ambos formatos
+ * sin importar el formato de escritura configurado.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class RequestSequenceCodec {
+
+    /**
+     * Cantidad de bits que ocupa cada base
+     */
+    private static final int BITS_PER_BASE = 2;
+
+    /**
+     * Formato de escritura de las matrices
+     */
+    private final Format format;
+
+    /**
+     * Tamanio N a partir del cual se intenta comprimir el bloque, con un valor de 0 o
+     * menor nunca se comprime
+     */
+    private final int compressionThreshold;
+
+    /**
+     * Constructor del codificador
+     *
+     * @param format               formato de escritura de las matrices
+     * @param compressionThreshold tamanio N a partir del cual se intenta comprimir el bloque
+     */
+    public RequestSequenceCodec(Format format, int compressionThreshold) {
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Crea el documento de la cadena en el formato de escritura configurado, con el instante
+     * actual como fecha de evaluacion
+     *
+     * @param dna    cadena de ADN
+     * @param mutant determina si la cadena cumple la condicion del mutante
+     * @return documento a guardar
+     */
+    public RequestSequence encode(PackedDNA dna, boolean mutant) {
+        RequestSequence.RequestSequenceBuilder builder = RequestSequence.builder()
+                .hash(dna.getContentHash())
+                .checksum(dna.getContentChecksum())
+                .mutant(mutant)
+                .evaluatedAt(Instant.now());
+        if (format == Format.STRINGS) {
+            return builder.sequence(dna.toStrings()).build();
+        }
+        byte[] packed = pack(dna);
+        boolean deflated = false;
+        if (compressionThreshold > 0 && dna.getSize() >= compressionThreshold) {
+            byte[] compressed = deflate(packed);
+            if (compressed.length < packed.length) {
+                packed = compressed;
+                deflated = true;
+            }
+        }
+        return builder.size(dna.getSize()).packed(packed).deflated(deflated).build();
+    }
+
+    /**
+     * Obtiene la matriz compacta del documento, ya sea del bloque de 2 bits o del vector de
+     * strings de los documentos anteriores
+     *
+     * @param requestSequence documento guardado
+     * @return matriz compacta de la cadena de ADN
+     * @throws IllegalArgumentException si el documento no tiene una cadena valida
+     */
+    public static PackedDNA decode(RequestSequence requestSequence) {
+        if (requestSequence.getPacked() == null) {
+            if (requestSequence.getSequence() == null) {
+                throw new IllegalArgumentException("The document has no DNA sequence");
+            }
+            return PackedDNA.of(requestSequence.getSequence());
+        }
+        int size = requestSequence.getSize() == null ? 0 : requestSequence.getSize();
+        byte[] packed = requestSequence.getPacked();
+        if (requestSequence.isDeflated()) {
+            packed = inflate(packed, packedLength(size));
+        }
+        if (packed.length != packedLength(size)) {
+            throw new IllegalArgumentException("Invalid packed DNA length " + packed.length + " for size " + size);
+        }
+        return unpack(size, packed);
+    }
+
+    /**
+     * Determina si el documento guardado contiene la misma cadena, para descartar una
+     * colision de la huella de contenido
+     *
+     * @param requestSequence documento guardado, puede ser null
+     * @param dna             cadena de ADN buscada
+     * @return true si el documento contiene la cadena
+     */
+    public static boolean matches(RequestSequence requestSequence, PackedDNA dna) {
+        if (requestSequence == null) {
+            return false;
+        }
+        if (requestSequence.getPacked() == null) {
+            return Arrays.equals(requestSequence.getSequence(), dna.toStrings());
+        }
+        if (requestSequence.getSize() == null || requestSequence.getSize() != dna.getSize()) {
+            return false;
+        }
+        return dna.equals(decode(requestSequence));
+    }
+
+    /**
+     * Cantidad de bytes del bloque de 2 bits de una matriz de NxN
+     *
+     * @param size tamanio N de la matriz
+     * @return cantidad de bytes del bloque sin comprimir
+     */
+    static int packedLength(int size) {
+        long bits = (long) size * size * BITS_PER_BASE;
+        return (int) ((bits + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    /**
+     * Copia las bases de la matriz al bloque de 2 bits, fila tras fila y sin relleno entre filas
+     *
+     * @param dna matriz compacta
+     * @return bloque de 2 bits
+     */
+    static byte[] pack(PackedDNA dna) {
+        int size = dna.getSize();
+        int length = packedLength(size);
+        long[] stream = new long[(length + Long.BYTES - 1) / Long.BYTES];
+        long offset = 0;
+        for (int row = 0; row < size; row++) {
+            for (int w = 0; w < dna.getWordsPerRow(); w++) {
+                int bases = Math.min(PackedDNA.BASES_PER_WORD, size - (w * PackedDNA.BASES_PER_WORD));
+                write(stream, offset, dna.word(row, w), bases * BITS_PER_BASE);
+                offset += (long) bases * BITS_PER_BASE;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(stream.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(stream);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    /**
+     * Reconstruye la matriz compacta a partir del bloque de 2 bits
+     *
+     * @param size   tamanio N de la matriz
+     * @param packed bloque de 2 bits sin comprimir
+     * @return matriz compacta
+     */
+    static PackedDNA unpack(int size, byte[] packed) {
+        long[] stream = new long[(packed.length + Long.BYTES - 1) / Long.BYTES];
+        ByteBuffer.wrap(Arrays.copyOf(packed, stream.length * Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer().get(stream);
+        int wordsPerRow = PackedDNA.wordsPerRow(size);
+        long[] words = new long[size * wordsPerRow];
+        long offset = 0;
+        for (int row = 0; row < size; row++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                int bases = Math.min(PackedDNA.BASES_PER_WORD, size - (w * PackedDNA.BASES_PER_WORD));
+                words[(row * wordsPerRow) + w] = read(stream, offset, bases * BITS_PER_BASE);
+                offset += (long) bases * BITS_PER_BASE;
+            }
+        }
+        return PackedDNA.wrap(size, words);
+    }
+
+    /**
+     * Escribe los bits bajos del valor en el flujo a partir del bit indicado
+     *
+     * @param stream flujo de bits
+     * @param offset posicion del primer bit
+     * @param value  valor con los bits sobrantes en cero
+     * @param bits   cantidad de bits del valor, entre 2 y 64
+     */
+    private static void write(long[] stream, long offset, long value, int bits) {
+        int index = (int) (offset >>> 6);
+        int shift = (int) (offset & (Long.SIZE - 1));
+        stream[index] |= value << shift;
+        if (shift != 0 && shift + bits > Long.SIZE) {
+            stream[index + 1] |= value >>> (Long.SIZE - shift);
+        }
+    }
+
+    /**
+     * Lee del flujo la cantidad de bits indicada a partir del bit indicado
+     *
+     * @param stream flujo de bits
+     * @param offset posicion del primer bit
+     * @param bits   cantidad de bits a leer, entre 2 y 64
+     * @return valor con los bits leidos en las posiciones bajas
+     */
+    private static long read(long[] stream, long offset, int bits) {
+        int index = (int) (offset >>> 6);
+        int shift = (int) (offset & (Long.SIZE - 1));
+        long value = stream[index] >>> shift;
+        if (shift != 0 && shift + bits > Long.SIZE) {
+            value |= stream[index + 1] << (Long.SIZE - shift);
+        }
+        return bits == Long.SIZE ? value : value & ((1L << bits) - 1);
+    }
+
+    /**
+     * Comprime el bloque con Deflate
+     *
+     * @param data bloque sin comprimir
+     * @return bloque comprimido
+     */
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[data.length + (data.length / 1000) + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Descomprime el bloque comprimido con Deflate
+     *
+     * @param data   bloque comprimido
+     * @param length cantidad de bytes del bloque sin comprimir
+     * @return bloque sin comprimir
+     * @throws IllegalArgumentException si el bloque no se puede descomprimir
+     */
+    private static byte[] inflate(byte[] data, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] result = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(result, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length || !inflater.finished()) {
+                throw new IllegalArgumentException("Invalid deflated DNA block");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid deflated DNA block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Formatos de escritura de las matrices
+     */
+    public enum Format {
+
+        /**
+         * Bloque BinData de 2 bits por base con el tamanio de la matriz
+         */
+        PACKED,
+
+        /**
+         * Vector de strings, formato de los documentos anteriores
+         */
+        STRINGS
+    }
+
+}
@@ -0,0 +1,599 @@
+package com.camp.magnetodnaselector.persitence.embedded;
+
+import com.camp.magnetodnaselector.persitence.codec.ContentHashes;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Almacen local de los resultados de las cadenas de ADN, formado por un indice en memoria
+ * {@code huella -> resultado} y un log de solo escritura al final en el disco, sin ninguna base
+ * de datos externa.
+ * <p>
+ * Cada resultado nuevo se agrega al indice y se escribe como un registro de {@link #RECORD_BYTES}
+ * bytes al final del log de la generacion actual, con las dos mitades de la huella, el tamanio N,
+ * el resultado y un CRC32 que permite descartar un registro a medio escribir si el proceso se
+ * detiene durante la escritura. Las busquedas solo consultan el indice en memoria.
+ * <p>
+ * Para que el log no crezca sin limite, {@link #snapshot()} inicia una nueva generacion del log,
+ * escribe todo el indice en un archivo temporal que reemplaza de forma atomica a la instantanea
+ * anterior y borra los logs de las generaciones anteriores. Las escrituras solo se detienen
+ * durante el cambio de generacion. Al abrir el almacen se carga la instantanea y se aplican los
+ * logs de su generacion en adelante; un registro repetido no modifica el indice.
+ * <p>
+ * El directorio se bloquea al abrirlo, por lo que solo una instancia del aplicativo puede usarlo.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+public class AppendOnlyVerdictStore implements AutoCloseable {
+
+    /**
+     * Bytes de cada registro: dos mitades de la huella, resultado y CRC32
+     */
+    static final int RECORD_BYTES = 24;
+
+    /**
+     * Identificador del formato de la instantanea, "MDNASNAP" en ASCII
+     */
+    private static final long MAGIC = 0x4D444E41534E4150L;
+
+    /**
+     * Version del formato de la instantanea y de los logs
+     */
+    private static final long VERSION = 1;
+
+    /**
+     * Bytes del encabezado de la instantanea: identificador, version y generacion
+     */
+    private static final int SNAPSHOT_HEADER_BYTES = 24;
+
+    /**
+     * Cantidad de registros que se leen o escriben en cada operacion sobre los archivos
+     */
+    private static final int RECORDS_PER_BUFFER = 4096;
+
+    private static final String SNAPSHOT_FILE = "verdicts.snapshot";
+    private static final String LOCK_FILE = "verdicts.lock";
+    private static final Pattern LOG_FILE = Pattern.compile("verdicts-(\\d+)\\.log");
+
+    /**
+     * Directorio de los archivos del almacen
+     */
+    private final Path directory;
+
+    /**
+     * Determina si cada escritura del log espera a que los datos lleguen al disco
+     */
+    private final boolean syncWrites;
+
+    /**
+     * Bloqueo del directorio mientras el almacen esta abierto
+     */
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    /**
+     * Indice en memoria de la huella al resultado, codificado con {@link #verdictOf(int, boolean)}
+     */
+    private final Map<String, Integer> verdicts = new ConcurrentHashMap<>();
+
+    /**
+     * Cantidad de cadenas de mutantes guardadas
+     */
+    private final LongAdder mutantCount = new LongAdder();
+
+    /**
+     * Cantidad de cadenas de humanos guardadas
+     */
+    private final LongAdder humanCount = new LongAdder();
+
+    /**
+     * Serializa las instantaneas entre si
+     */
+    private final Object snapshotLock = new Object();
+
+    /**
+     * Log de la generacion actual, protegido por el monitor de la instancia
+     */
+    private FileChannel logChannel;
+
+    /**
+     * Generacion del log actual
+     */
+    private long generation;
+
+    /**
+     * Cantidad de registros escritos en el log desde la ultima instantanea
+     */
+    private long pendingRecords;
+
+    private boolean closed;
+
+    /**
+     * Constructor del almacen sobre un directorio ya bloqueado
+     *
+     * @param directory   directorio de los archivos del almacen
+     * @param syncWrites  determina si cada escritura del log espera a que los datos lleguen al disco
+     * @param lockChannel canal del archivo de bloqueo
+     * @param lock        bloqueo del directorio
+     */
+    private AppendOnlyVerdictStore(Path directory, boolean syncWrites, FileChannel lockChannel, FileLock lock) {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * Abre el almacen del directorio indicado, cargando la instantanea y los logs que contenga
+     *
+     * @param directory  directorio de los archivos del almacen, se crea si no existe
+     * @param syncWrites determina si cada escritura del log espera a que los datos lleguen al disco
+     * @return almacen abierto
+     * @throws IllegalStateException si otro proceso tiene abierto el directorio o la instantanea esta danada
+     * @throws UncheckedIOException  si los archivos no se pueden leer
+     */
+    public static AppendOnlyVerdictStore open(Path directory, boolean syncWrites) {
+        FileChannel lockChannel = null;
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = tryLock(lockChannel, directory);
+            AppendOnlyVerdictStore store = new AppendOnlyVerdictStore(directory, syncWrites, lockChannel, lock);
+            store.load();
+            return store;
+        } catch (IOException e) {
+            closeQuietly(lockChannel);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(lockChannel);
+            throw e;
+        }
+    }
+
+    /**
+     * Busca el resultado de una cadena en el indice en memoria
+     *
+     * @param hash huella de contenido de la cadena
+     * @param size tamanio N de la matriz, solo descarta las matrices de otro tamanio, por lo que el
+     *             resultado depende de la huella de 128 bits
+     * @return true o false segun el resultado guardado, null si la cadena no esta guardada
+     */
+    public Boolean get(String hash, int size) {
+        Integer verdict = verdicts.get(hash);
+        if (verdict == null || sizeOf(verdict) != size) {
+            return null;
+        }
+        return isMutant(verdict);
+    }
+
+    /**
+     * Guarda el resultado de una cadena en el indice y en el log, si la cadena ya esta guardada
+     * no se modifica
+     *
+     * @param hash   huella de contenido de la cadena
+     * @param size   tamanio N de la matriz
+     * @param mutant resultado de la evaluacion
+     * @return true si la cadena es nueva
+     * @throws UncheckedIOException si el registro no se puede escribir, en tal caso la cadena no queda guardada
+     */
+    public boolean put(String hash, int size, boolean mutant) {
+        int verdict = verdictOf(size, mutant);
+        if (verdicts.putIfAbsent(hash, verdict) != null) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        writeRecord(buffer, hash, verdict);
+        buffer.flip();
+        try {
+            append(buffer);
+        } catch (RuntimeException e) {
+            verdicts.remove(hash, verdict);
+            throw e;
+        }
+        (mutant ? mutantCount : humanCount).increment();
+        return true;
+    }
+
+    /**
+     * @return cantidad de cadenas de mutantes guardadas
+     */
+    public long getMutantCount() {
+        return mutantCount.sum();
+    }
+
+    /**
+     * @return cantidad de cadenas de humanos guardadas
+     */
+    public long getHumanCount() {
+        return humanCount.sum();
+    }
+
+    /**
+     * @return cantidad de cadenas guardadas
+     */
+    public int size() {
+        return verdicts.size();
+    }
+
+    /**
+     * Escribe todo el indice en una nueva instantanea y borra los logs que esta reemplaza. Si no
+     * se ha escrito ningun registro desde la instantanea anterior no hace nada
+     *
+     * @return true si se escribio la instantanea
+     * @throws UncheckedIOException si la instantanea no se puede escribir, los logs se conservan
+     */
+    public boolean snapshot() {
+        synchronized (snapshotLock) {
+            long snapshotGeneration;
+            synchronized (this) {
+                if (closed || pendingRecords == 0) {
+                    return false;
+                }
+                snapshotGeneration = generation + 1;
+                FileChannel previous = logChannel;
+                logChannel = openLog(snapshotGeneration);
+                generation = snapshotGeneration;
+                pendingRecords = 0;
+                closeQuietly(previous);
+            }
+            try {
+                int entries = writeSnapshot(snapshotGeneration);
+                deleteLogsBefore(snapshotGeneration);
+                log.info("Embedded verdict store snapshot {} written with {} verdicts", snapshotGeneration, entries);
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Escribe en el disco el log actual y libera el directorio
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            logChannel.force(false);
+        } catch (IOException e) {
+            log.warn("Embedded verdict log could not be forced", e);
+        }
+        closeQuietly(logChannel);
+        try {
+            lock.release();
+        } catch (IOException e) {
+            log.warn("Embedded verdict store lock could not be released", e);
+        }
+        closeQuietly(lockChannel);
+    }
+
+    /**
+     * Escribe registros al final del log actual
+     *
+     * @param buffer registros a escribir
+     */
+    private synchronized void append(ByteBuffer buffer) {
+        if (closed) {
+            throw new IllegalStateException("Embedded verdict store is closed");
+        }
+        try {
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+            if (syncWrites) {
+                logChannel.force(false);
+            }
+            pendingRecords++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Carga la instantanea y aplica los logs de su generacion en adelante, el ultimo log queda
+     * abierto para las escrituras nuevas
+     *
+     * @throws IOException si los archivos no se pueden leer
+     */
+    private void load() throws IOException {
+        long snapshotGeneration = readSnapshot();
+        List<Long> logs = logGenerations();
+        generation = snapshotGeneration;
+        for (long logGeneration : logs) {
+            if (logGeneration < snapshotGeneration) {
+                Files.deleteIfExists(logPath(logGeneration));
+            } else {
+                pendingRecords += replay(logGeneration);
+                generation = logGeneration;
+            }
+        }
+        logChannel = openLog(generation);
+        log.info("Embedded verdict store {} opened with {} verdicts at generation {}", directory, verdicts.size(), generation);
+    }
+
+    /**
+     * Carga en el indice los registros de la instantanea
+     *
+     * @return generacion de la instantanea, 0 si no existe
+     * @throws IOException si la instantanea no se puede leer
+     */
+    private long readSnapshot() throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Se lee el encabezado completo
+            }
+            header.flip();
+            if (header.remaining() < SNAPSHOT_HEADER_BYTES || header.getLong() != MAGIC || header.getLong() != VERSION) {
+                throw new IllegalStateException("Embedded verdict snapshot " + path + " has an unknown format");
+            }
+            long snapshotGeneration = header.getLong();
+            if (readRecords(channel) != channel.size()) {
+                throw new IllegalStateException("Embedded verdict snapshot " + path + " is corrupted");
+            }
+            return snapshotGeneration;
+        }
+    }
+
+    /**
+     * Aplica al indice los registros de un log, si el final del log tiene un registro incompleto
+     * o danado se descarta junto con lo que le sigue
+     *
+     * @param logGeneration generacion del log
+     * @return cantidad de registros validos del log
+     * @throws IOException si el log no se puede leer
+     */
+    private long replay(long logGeneration) throws IOException {
+        Path path = logPath(logGeneration);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long valid = readRecords(channel);
+            if (valid < channel.size()) {
+                log.warn("Embedded verdict log {} truncated from {} to {} bytes", path, channel.size(), valid);
+                channel.truncate(valid);
+            }
+            return valid / RECORD_BYTES;
+        }
+    }
+
+    /**
+     * Carga en el indice los registros desde la posicion actual del canal hasta el final o hasta
+     * el primer registro incompleto o danado
+     *
+     * @param channel canal del archivo
+     * @return posicion del final del ultimo registro valido
+     * @throws IOException si el archivo no se puede leer
+     */
+    private long readRecords(FileChannel channel) throws IOException {
+        long position = channel.position();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * RECORDS_PER_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        while (channel.read(buffer) > 0 || buffer.position() >= RECORD_BYTES) {
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_BYTES) {
+                if (!readRecord(buffer)) {
+                    return position;
+                }
+                position += RECORD_BYTES;
+            }
+            buffer.compact();
+        }
+        return position;
+    }
+
+    /**
+     * Lee un registro y lo agrega al indice
+     *
+     * @param buffer buffer posicionado al inicio del registro
+     * @return false si el CRC del registro no coincide
+     */
+    private boolean readRecord(ByteBuffer buffer) {
+        int start = buffer.position();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, RECORD_BYTES - 4);
+        long high = buffer.getLong();
+        long low = buffer.getLong();
+        int verdict = buffer.getInt();
+        if (buffer.getInt() != (int) crc.getValue()) {
+            return false;
+        }
+        if (verdicts.putIfAbsent(ContentHashes.of(high, low), verdict) == null) {
+            (isMutant(verdict) ? mutantCount : humanCount).increment();
+        }
+        return true;
+    }
+
+    /**
+     * Escribe un registro con su CRC32
+     *
+     * @param buffer  buffer de destino
+     * @param hash    huella de contenido de la cadena
+     * @param verdict resultado codificado
+     */
+    private static void writeRecord(ByteBuffer buffer, String hash, int verdict) {
+        int start = buffer.position();
+        buffer.putLong(ContentHashes.high(hash));
+        buffer.putLong(ContentHashes.low(hash));
+        buffer.putInt(verdict);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, RECORD_BYTES - 4);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Escribe el indice en un archivo temporal y lo mueve sobre la instantanea anterior
+     *
+     * @param snapshotGeneration primera generacion de los logs que no incluye la instantanea
+     * @return cantidad de registros escritos
+     * @throws IOException si la instantanea no se puede escribir
+     */
+    private int writeSnapshot(long snapshotGeneration) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        int entries = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * RECORDS_PER_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(MAGIC).putLong(VERSION).putLong(snapshotGeneration);
+            for (Map.Entry<String, Integer> entry : verdicts.entrySet()) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    drain(channel, buffer);
+                }
+                writeRecord(buffer, entry.getKey(), entry.getValue());
+                entries++;
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return entries;
+    }
+
+    /**
+     * Escribe el contenido del buffer en el canal y lo deja vacio
+     *
+     * @param channel canal del archivo
+     * @param buffer  buffer con los datos
+     * @throws IOException si el archivo no se puede escribir
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Borra los logs de las generaciones anteriores a la indicada
+     *
+     * @param snapshotGeneration generacion de la instantanea
+     * @throws IOException si el directorio no se puede leer
+     */
+    private void deleteLogsBefore(long snapshotGeneration) throws IOException {
+        for (long logGeneration : logGenerations()) {
+            if (logGeneration < snapshotGeneration) {
+                Files.deleteIfExists(logPath(logGeneration));
+            }
+        }
+    }
+
+    /**
+     * @return generaciones de los logs del directorio, en orden ascendente
+     * @throws IOException si el directorio no se puede leer
+     */
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "verdicts-*.log")) {
+            for (Path file : files) {
+                Matcher matcher = LOG_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    /**
+     * Abre el log de una generacion para escribir al final
+     *
+     * @param logGeneration generacion del log
+     * @return canal del log
+     */
+    private FileChannel openLog(long logGeneration) {
+        try {
+            return FileChannel.open(logPath(logGeneration), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param logGeneration generacion del log
+     * @return ruta del log
+     */
+    private Path logPath(long logGeneration) {
+        return directory.resolve("verdicts-" + logGeneration + ".log");
+    }
+
+    /**
+     * Codifica el tamanio y el resultado en un entero
+     *
+     * @param size   tamanio N de la matriz
+     * @param mutant resultado de la evaluacion
+     * @return resultado codificado
+     */
+    static int verdictOf(int size, boolean mutant) {
+        return (size << 1) | (mutant ? 1 : 0);
+    }
+
+    private static int sizeOf(int verdict) {
+        return verdict >>> 1;
+    }
+
+    private static boolean isMutant(int verdict) {
+        return (verdict & 1) != 0;
+    }
+
+    /**
+     * Bloquea el directorio para que otro proceso no lo modifique
+     *
+     * @param channel   canal del archivo de bloqueo
+     * @param directory directorio del almacen
+     * @return bloqueo del directorio
+     * @throws IOException           si el archivo no se puede bloquear
+     * @throws IllegalStateException si otro proceso tiene bloqueado el directorio
+     */
+    private static FileLock tryLock(FileChannel channel, Path directory) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IllegalStateException("Embedded verdict store " + directory + " is in use by another process");
+        }
+        return lock;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Embedded verdict store file could not be closed", e);
+        }
+    }
+
+}
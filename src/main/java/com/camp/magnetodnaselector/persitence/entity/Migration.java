@@ -0,0 +1,33 @@
+package com.camp.magnetodnaselector.persitence.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Objeto modelo de persistencia, registra las migraciones de datos que ya terminaron, de
+ * manera que al iniciar el aplicativo se consulten por su identificador en lugar de recorrer
+ * las colecciones para saber si se deben ejecutar
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Document("Migrations")
+@Data
+@Builder(toBuilder = true)
+public class Migration {
+
+    /**
+     * Identificador de la migracion
+     */
+    @Id
+    private String id;
+
+    /**
+     * Fecha y hora en la que termino la migracion
+     */
+    private Instant completedAt;
+
+}
@@ -2,11 +2,25 @@ package com.camp.magnetodnaselector.persitence.entity;
 
 import lombok.Builder;
 import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 /**
  * Objeto modelo de persistencia, almcacena el vector secuencia de ADN
  * y la respuesta booleana de si es o no mutante
+ * <p>
+ * Es el archivo de las secuencias completas, el cual solo se consulta para auditoria. La
+ * busqueda de las cadenas evaluadas y las estadisticas usan el nivel caliente
+ * {@link SequenceVerdict}.
+ * <p>
+ * La secuencia se guarda en el campo packed como un bloque de 2 bits por base o, en los
+ * documentos anteriores y en el formato strings, en el campo sequence. La conversion entre
+ * ambos formatos se hace por medio de
+ * {@link com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec}.
  *
  * @author Carlos Alberto Manrique Palacios
  */
@@ -16,13 +30,63 @@ import org.springframework.data.mongodb.core.mapping.Document;
 public class RequestSequence {
 
     /**
-     * Secuencia de ADN que se almacena
+     * Identificador del documento asignado por MongoDB
+     */
+    @Id
+    private String id;
+
+    /**
+     * Huella de contenido de 128 bits de la secuencia, es la llave de busqueda
+     * de la coleccion y tiene un indice unico. Es dispersa para admitir documentos
+     * guardados antes de que existiera este campo
+     */
+    @Indexed(unique = true, sparse = true)
+    private String hash;
+
+    /**
+     * Secuencia de ADN como vector de strings, solo en los documentos anteriores
+     * y en el formato strings
      */
     private String[] sequence;
 
+    /**
+     * Tamanio N de la matriz guardada en el campo packed
+     */
+    private Integer size;
+
+    /**
+     * Bases de la matriz a 2 bits por base, fila tras fila
+     */
+    private byte[] packed;
+
+    /**
+     * Determina si el campo packed esta comprimido con Deflate
+     */
+    private boolean deflated;
+
     /**
      * Booleano que determina si la cadena validada pertenece a un muntante o no
      */
     private boolean mutant;
 
+    /**
+     * Fecha y hora de la evaluacion de la cadena, no existe en los documentos guardados
+     * antes de que existiera este campo
+     */
+    private Instant evaluatedAt;
+
+    /**
+     * Huella de contenido de otro documento con la misma secuencia, solo existe en los
+     * documentos duplicados guardados antes de que existiera la huella, los cuales no pueden
+     * recibir la huella por el indice unico
+     */
+    private String duplicateOf;
+
+    /**
+     * Suma de verificacion de la secuencia que se guarda en el resultado del nivel caliente,
+     * no se guarda en el archivo ya que este contiene la secuencia completa
+     */
+    @Transient
+    private String checksum;
+
 }
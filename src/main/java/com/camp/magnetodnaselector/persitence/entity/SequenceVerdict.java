@@ -0,0 +1,61 @@
+package com.camp.magnetodnaselector.persitence.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Objeto modelo de persistencia del nivel caliente, almacena solo la huella de contenido
+ * de la cadena de ADN, su tamanio y la respuesta booleana de si es o no mutante.
+ * <p>
+ * Es el unico documento que se consulta al evaluar una cadena y al reconstruir las
+ * estadisticas, y al no guardar la secuencia ocupa pocos bytes por cadena, por lo que la
+ * coleccion y su indice caben en memoria. La secuencia completa se guarda en el archivo
+ * {@link RequestSequence}, el cual solo se consulta para auditoria.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Document("SequenceVerdicts")
+@Data
+@Builder(toBuilder = true)
+public class SequenceVerdict {
+
+    /**
+     * Huella de contenido de 128 bits de la secuencia, es el identificador del documento
+     * por lo que la coleccion no necesita un indice adicional
+     */
+    @Id
+    private String hash;
+
+    /**
+     * Booleano que determina si la cadena validada pertenece a un muntante o no
+     */
+    private boolean mutant;
+
+    /**
+     * Tamanio N de la matriz
+     */
+    @Field("n")
+    private int size;
+
+    /**
+     * Fecha y hora de la evaluacion de la cadena, no existe en los resultados construidos a
+     * partir de los documentos anteriores del archivo
+     */
+    @Field("t")
+    private Instant evaluatedAt;
+
+    /**
+     * Suma de verificacion de 128 bits de la secuencia, independiente de la huella. Se compara
+     * en la busqueda para confirmar que el resultado corresponde a la cadena buscada y no a otra
+     * con la misma huella. No existe en los resultados guardados antes de que existiera este
+     * campo, los cuales se confirman con la secuencia del archivo
+     */
+    @Field("c")
+    private String checksum;
+
+}
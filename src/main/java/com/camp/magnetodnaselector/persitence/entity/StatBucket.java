@@ -0,0 +1,61 @@
+package com.camp.magnetodnaselector.persitence.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Objeto modelo de persistencia, almacena los contadores de las cadenas de ADN evaluadas
+ * de humanos y de mutantes en un intervalo de tiempo de un minuto, una hora o un dia.
+ * <p>
+ * El identificador combina la resolucion y el inicio del intervalo, por lo que los
+ * incrementos de un intervalo se aplican con un upsert sobre el mismo documento. El indice
+ * compuesto por la resolucion y el inicio atiende las consultas por ventana de tiempo, y el
+ * indice TTL del campo expireAt borra los documentos al terminar su retencion.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Document("StatBuckets")
+@CompoundIndex(name = "resolution_start", def = "{'resolution': 1, 'start': 1}")
+@Data
+@Builder(toBuilder = true)
+public class StatBucket {
+
+    /**
+     * Identificador del documento con el formato resolucion:inicio, como MINUTE:2022-02-01T10:15:00Z
+     */
+    @Id
+    private String id;
+
+    /**
+     * Nombre de la resolucion del intervalo
+     */
+    private String resolution;
+
+    /**
+     * Inicio del intervalo en UTC
+     */
+    private Instant start;
+
+    /**
+     * Cantidad de cadenas evaluadas en el intervalo que cumplen con la condicion de ADN mutante
+     */
+    private long countMutantDNA;
+
+    /**
+     * Cantidad de cadenas evaluadas en el intervalo que no cumplen con la condicion de ADN mutante
+     */
+    private long countHumanDNA;
+
+    /**
+     * Fecha y hora en la que MongoDB borra el documento
+     */
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+}
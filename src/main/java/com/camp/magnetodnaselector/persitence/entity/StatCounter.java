@@ -0,0 +1,36 @@
+package com.camp.magnetodnaselector.persitence.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Objeto modelo de persistencia, almacena los contadores de las cadenas de ADN
+ * registradas de humanos y de mutantes, los cuales se incrementan cada vez que
+ * se inserta una cadena nueva
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Document("StatCounters")
+@Data
+@Builder(toBuilder = true)
+public class StatCounter {
+
+    /**
+     * Identificador del documento de contadores
+     */
+    @Id
+    private String id;
+
+    /**
+     * Cantidad de cadenas registradas que cumplen con la condicion de ADN mutante
+     */
+    private long countMutantDNA;
+
+    /**
+     * Cantidad de cadenas registradas que no cumplen con la condicion de ADN mutante
+     */
+    private long countHumanDNA;
+
+}
@@ -0,0 +1,182 @@
+package com.camp.magnetodnaselector.persitence.filter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Filtro de Bloom con su arreglo de bits fuera del heap de Java, en un {@link ByteBuffer}
+ * directo, de manera que millones de llaves no aumentan el trabajo del recolector de basura.
+ * <p>
+ * Cada llave se representa con dos valores de 64 bits independientes, como las dos mitades de
+ * una huella de 128 bits, y sus {@link #hashCount} posiciones se calculan con doble hashing
+ * {@code h1 + i * h2}. Los bits se encienden con una operacion atomica sobre la palabra de 64
+ * bits, por lo que el filtro se puede consultar y actualizar desde varios hilos sin bloqueos.
+ * <p>
+ * El filtro nunca responde que una llave insertada no esta (no tiene falsos negativos), y
+ * responde que una llave no insertada si esta con una probabilidad que depende de la cantidad
+ * de llaves, de bits y de posiciones por llave.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class OffHeapBloomFilter {
+
+    /**
+     * Acceso atomico a las palabras de 64 bits del buffer directo
+     */
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /**
+     * Cantidad maxima de posiciones por llave
+     */
+    private static final int MAX_HASH_COUNT = 16;
+
+    /**
+     * Cantidad maxima de bytes del buffer, el cual se indexa con un int y debe contener
+     * palabras completas de 64 bits
+     */
+    static final long MAX_BYTES = Integer.MAX_VALUE & ~(Long.BYTES - 1L);
+
+    /**
+     * Arreglo de bits fuera del heap
+     */
+    private final ByteBuffer bits;
+
+    /**
+     * Cantidad de bits del filtro, multiplo de 64
+     */
+    private final long bitSize;
+
+    /**
+     * Cantidad de posiciones que se encienden por cada llave
+     */
+    private final int hashCount;
+
+    /**
+     * Constructor del filtro con su tamanio exacto
+     *
+     * @param bitSize   cantidad de bits del filtro, se redondea al multiplo de 64 superior
+     * @param hashCount cantidad de posiciones por llave, entre 1 y 16
+     */
+    public OffHeapBloomFilter(long bitSize, int hashCount) {
+        long bytes = ((bitSize + Long.SIZE - 1) / Long.SIZE) * Long.BYTES;
+        if (bitSize <= 0 || bytes > MAX_BYTES) {
+            throw new IllegalArgumentException("Unsupported bloom filter size " + bitSize);
+        }
+        if (hashCount < 1 || hashCount > MAX_HASH_COUNT) {
+            throw new IllegalArgumentException("Unsupported bloom filter hash count " + hashCount);
+        }
+        this.bits = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        this.bitSize = bytes * Byte.SIZE;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Crea el filtro con la cantidad de bits y de posiciones que dan la probabilidad de falso
+     * positivo indicada para la cantidad de llaves esperada, limitando el arreglo de bits a la
+     * memoria indicada. Si el limite es menor a la memoria necesaria el filtro tendra una
+     * probabilidad de falso positivo mayor
+     *
+     * @param expectedInsertions cantidad de llaves que se espera insertar
+     * @param falsePositiveRate  probabilidad de falso positivo deseada, entre 0 y 1
+     * @param maximumBytes       memoria maxima del arreglo de bits
+     * @return filtro vacio
+     */
+    public static OffHeapBloomFilter create(long expectedInsertions, double falsePositiveRate, long maximumBytes) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Unsupported expected insertions " + expectedInsertions);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Unsupported false positive rate " + falsePositiveRate);
+        }
+        long maximumBits = Math.min(maximumBytes, MAX_BYTES) * Byte.SIZE;
+        long bitSize = Math.min(optimalBitSize(expectedInsertions, falsePositiveRate), maximumBits);
+        return new OffHeapBloomFilter(bitSize, optimalHashCount(expectedInsertions, bitSize));
+    }
+
+    /**
+     * Cantidad de bits que da la probabilidad de falso positivo para la cantidad de llaves,
+     * {@code -n ln(p) / ln(2)^2}
+     *
+     * @param expectedInsertions cantidad de llaves
+     * @param falsePositiveRate  probabilidad de falso positivo
+     * @return cantidad de bits
+     */
+    static long optimalBitSize(long expectedInsertions, double falsePositiveRate) {
+        return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    }
+
+    /**
+     * Cantidad de posiciones por llave que minimiza los falsos positivos, {@code m / n ln(2)}
+     *
+     * @param expectedInsertions cantidad de llaves
+     * @param bitSize            cantidad de bits
+     * @return cantidad de posiciones entre 1 y 16
+     */
+    static int optimalHashCount(long expectedInsertions, long bitSize) {
+        long count = Math.round((double) bitSize / expectedInsertions * Math.log(2));
+        return (int) Math.max(1, Math.min(MAX_HASH_COUNT, count));
+    }
+
+    /**
+     * Inserta la llave encendiendo sus posiciones
+     *
+     * @param h1 primera mitad de la llave
+     * @param h2 segunda mitad de la llave
+     * @return true si alguna posicion estaba apagada, es decir si la llave no estaba en el filtro
+     */
+    public boolean put(long h1, long h2) {
+        boolean changed = false;
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitSize;
+            long mask = 1L << bit;
+            long previous = (long) WORDS.getAndBitwiseOr(bits, (int) (bit >>> 6) * Long.BYTES, mask);
+            changed |= (previous & mask) == 0;
+            combined += h2;
+        }
+        return changed;
+    }
+
+    /**
+     * Determina si la llave puede estar en el filtro
+     *
+     * @param h1 primera mitad de la llave
+     * @param h2 segunda mitad de la llave
+     * @return false si la llave no esta en el filtro, true si la llave puede estar
+     */
+    public boolean mightContain(long h1, long h2) {
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitSize;
+            if (((long) WORDS.get(bits, (int) (bit >>> 6) * Long.BYTES) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    /**
+     * @return cantidad de bits del filtro
+     */
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    /**
+     * @return memoria fuera del heap que ocupa el arreglo de bits
+     */
+    public long getByteSize() {
+        return bits.capacity();
+    }
+
+    /**
+     * @return cantidad de posiciones que se encienden por cada llave
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.camp.magnetodnaselector.persitence.filter;
+
+import com.camp.magnetodnaselector.config.properties.SequenceFilterProperties;
+import com.camp.magnetodnaselector.persitence.codec.ContentHashes;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de las huellas de contenido de las cadenas de ADN guardadas, se consulta antes de
+ * buscar una cadena en la base de datos para que las cadenas que nunca se han evaluado, que son
+ * la mayoria, no hagan una consulta solo para obtener null.
+ * <p>
+ * Usa un {@link OffHeapBloomFilter} cuyas dos llaves de 64 bits son las dos mitades de la
+ * huella de 128 bits. El filtro se llena al iniciar el aplicativo con las huellas del nivel
+ * caliente {@link SequenceVerdict} y se actualiza en cada guardado. Mientras no se ha llenado,
+ * o si esta deshabilitado, responde que todas las cadenas pueden estar guardadas.
+ * <p>
+ * Una respuesta incorrecta del filtro nunca cambia el resultado de la evaluacion: un falso
+ * positivo hace la consulta que se habria hecho sin el filtro, y una cadena que se guardo desde
+ * otra instancia del aplicativo y que el filtro no conoce se vuelve a evaluar y su guardado no
+ * modifica el documento existente ni los contadores de las estadisticas.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+public class SequenceHashFilter {
+
+    /**
+     * Cantidad de huellas que se leen en cada consulta al llenar el filtro
+     */
+    private static final int WARM_UP_BATCH = 10_000;
+
+    /**
+     * Objeto que implementa las funcionalidades generales para MongoDB
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Filtro de Bloom de las huellas, null si el filtro esta deshabilitado
+     */
+    private final OffHeapBloomFilter filter;
+
+    /**
+     * Cantidad de busquedas que el filtro evito
+     */
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * Determina si el filtro ya se lleno con las huellas guardadas
+     */
+    private volatile boolean ready;
+
+    /**
+     * Constructor del filtro
+     *
+     * @param mongoTemplate objeto que implementa las funcionalidades generales para MongoDB
+     * @param properties    propiedades de configuracion del filtro
+     */
+    public SequenceHashFilter(MongoTemplate mongoTemplate, SequenceFilterProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.filter = properties.isEnabled()
+                ? OffHeapBloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveRate(),
+                properties.getMaximumSize().toBytes())
+                : null;
+    }
+
+    /**
+     * Llena el filtro con las huellas de todos los resultados del nivel caliente, leyendo
+     * solo el identificador de los documentos por lotes en el orden del identificador
+     */
+    public void warmUp() {
+        if (filter == null) {
+            return;
+        }
+        long loaded = 0;
+        String lastHash = null;
+        List<SequenceVerdict> batch;
+        while (!(batch = mongoTemplate.find(nextBatch(lastHash), SequenceVerdict.class)).isEmpty()) {
+            for (SequenceVerdict verdict : batch) {
+                put(verdict.getHash());
+            }
+            loaded += batch.size();
+            lastHash = batch.get(batch.size() - 1).getHash();
+        }
+        ready = true;
+        log.info("Sequence hash filter loaded with {} hashes: {} bytes off-heap, {} hash functions",
+                loaded, filter.getByteSize(), filter.getHashCount());
+    }
+
+    /**
+     * Agrega la huella de una cadena guardada
+     *
+     * @param hash huella de contenido de la cadena
+     */
+    public void put(String hash) {
+        if (filter != null) {
+            filter.put(ContentHashes.high(hash), ContentHashes.low(hash));
+        }
+    }
+
+    /**
+     * Determina si la cadena puede estar guardada
+     *
+     * @param hash huella de contenido de la cadena
+     * @return false si la cadena con certeza no esta guardada, true si puede estarlo
+     */
+    public boolean mightContain(String hash) {
+        if (filter == null || !ready || filter.mightContain(ContentHashes.high(hash), ContentHashes.low(hash))) {
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    /**
+     * @return cantidad acumulada de busquedas que el filtro evito
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * Crea la consulta del siguiente lote de huellas
+     *
+     * @param lastHash ultima huella del lote anterior, null en el primer lote
+     * @return consulta del lote
+     */
+    private static Query nextBatch(String lastHash) {
+        Query query = lastHash == null ? new Query() : Query.query(Criteria.where("_id").gt(lastHash));
+        query.fields().include("_id");
+        return query.with(Sort.by("_id")).limit(WARM_UP_BATCH);
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.camp.magnetodnaselector.persitence.migration;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
+import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * Migracion de los documentos {@link RequestSequence} guardados con el vector de strings del
+ * campo sequence al bloque de 2 bits de {@link RequestSequenceCodec}.
+ * <p>
+ * Los documentos se recorren por lotes en el orden de su identificador, y cada lote se convierte
+ * con una operacion bulk desordenada que asigna los campos size, packed y deflated y elimina el
+ * campo sequence. A los documentos sin huella de contenido se les asigna, de manera que tambien
+ * se puedan buscar por el indice unico. Si la huella ya existe en otro documento, o el vector no
+ * es una cadena valida, el documento se deja en el formato anterior, el cual se sigue pudiendo leer.
+ * <p>
+ * La migracion se puede ejecutar con el aplicativo en linea, ya que los documentos de ambos
+ * formatos se leen de la misma manera.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+public class RequestSequenceMigration {
+
+    /**
+     * Objeto que implementa las funcionalidades generales para MongoDB
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Conversion de las cadenas al bloque de 2 bits
+     */
+    private final RequestSequenceCodec requestSequenceCodec;
+
+    /**
+     * Cantidad de documentos por lote
+     */
+    private final int batchSize;
+
+    /**
+     * Constructor de la migracion
+     *
+     * @param mongoTemplate        objeto que implementa las funcionalidades generales para MongoDB
+     * @param compressionThreshold tamanio N a partir del cual se intenta comprimir el bloque
+     * @param batchSize            cantidad de documentos por lote
+     */
+    public RequestSequenceMigration(MongoTemplate mongoTemplate, int compressionThreshold, int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.requestSequenceCodec = new RequestSequenceCodec(RequestSequenceCodec.Format.PACKED, compressionThreshold);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Convierte todos los documentos que aun tienen el vector de strings
+     *
+     * @return cantidad de documentos convertidos
+     */
+    public long migrate() {
+        long migrated = 0;
+        long skipped = 0;
+        String lastId = null;
+        List<RequestSequence> batch;
+        while (!(batch = mongoTemplate.find(nextBatch(lastId), RequestSequence.class)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequestSequence.class);
+            int updates = 0;
+            for (RequestSequence legacy : batch) {
+                try {
+                    bulk.updateOne(Query.query(Criteria.where("_id").is(legacy.getId())), toPacked(legacy));
+                    updates++;
+                } catch (IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+            try {
+                migrated += updates > 0 ? bulk.execute().getModifiedCount() : 0;
+            } catch (BulkOperationException e) {
+                migrated += e.getResult().getModifiedCount();
+                skipped += e.getErrors().size();
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        log.info("Request sequences migrated to packed format: {} migrated, {} skipped", migrated, skipped);
+        return migrated;
+    }
+
+    /**
+     * Crea la consulta del siguiente lote de documentos con el vector de strings
+     *
+     * @param lastId identificador del ultimo documento del lote anterior, null en el primer lote
+     * @return consulta del lote
+     */
+    private Query nextBatch(String lastId) {
+        Criteria criteria = Criteria.where("sequence").exists(true).and("packed").exists(false);
+        if (lastId != null) {
+            criteria = criteria.and("_id").gt(lastId);
+        }
+        return Query.query(criteria).with(Sort.by("_id")).limit(batchSize);
+    }
+
+    /**
+     * Crea la actualizacion que convierte el documento al bloque de 2 bits
+     *
+     * @param legacy documento con el vector de strings
+     * @return actualizacion del documento
+     * @throws IllegalArgumentException si el vector de strings no es una cadena de ADN valida
+     */
+    private Update toPacked(RequestSequence legacy) {
+        PackedDNA dna = PackedDNA.of(legacy.getSequence());
+        RequestSequence packed = requestSequenceCodec.encode(dna, legacy.isMutant());
+        Update update = new Update()
+                .set("size", packed.getSize())
+                .set("packed", packed.getPacked())
+                .set("deflated", packed.isDeflated())
+                .unset("sequence");
+        if (legacy.getHash() == null) {
+            update.set("hash", packed.getHash());
+        }
+        return update;
+    }
+
+}
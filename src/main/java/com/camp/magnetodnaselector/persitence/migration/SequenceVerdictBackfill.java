@@ -0,0 +1,237 @@
+package com.camp.magnetodnaselector.persitence.migration;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
+import com.camp.magnetodnaselector.persitence.entity.Migration;
+import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Construccion del nivel caliente {@link SequenceVerdict} a partir de los documentos del
+ * archivo {@link RequestSequence}, para las bases de datos creadas antes de que existiera el
+ * nivel caliente, y asignacion de la huella de contenido a los documentos del archivo guardados
+ * antes de que existiera la huella, los cuales de otra forma no se encontrarian en la busqueda.
+ * <p>
+ * Los documentos del archivo se recorren por lotes en el orden de su identificador leyendo solo
+ * los campos necesarios, y cada lote se guarda con una operacion bulk desordenada de upserts
+ * que solo asignan los campos al insertar el resultado, por lo que se puede ejecutar con el
+ * aplicativo en linea sin modificar los resultados que ya existen. La huella de contenido y la
+ * suma de verificacion se calculan a partir de la secuencia, y si el documento no se puede
+ * decodificar se usa la huella guardada sin suma de verificacion. Si el nivel caliente ya
+ * existe solo se recorren los documentos sin huella, y a cada uno se le asigna la huella en el
+ * archivo; si otro documento ya tiene esa huella el indice unico lo impide, por lo que el
+ * documento se marca como duplicado con el campo duplicateOf y no se vuelve a recorrer.
+ * <p>
+ * Al terminar se registra el documento {@link Migration} con el identificador {@link #MIGRATION_ID},
+ * y al iniciar el aplicativo solo se consulta ese documento por su identificador, ya que la
+ * consulta de los documentos sin huella no puede usar el indice disperso de la huella y
+ * recorreria todo el archivo.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+public class SequenceVerdictBackfill {
+
+    /**
+     * Codigo de error de MongoDB para una llave duplicada
+     */
+    private static final int DUPLICATE_KEY = 11000;
+
+    /**
+     * Identificador del documento {@link Migration} que registra la construccion terminada
+     */
+    public static final String MIGRATION_ID = "sequenceVerdictBackfill";
+
+    /**
+     * Objeto que implementa las funcionalidades generales para MongoDB
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Cantidad de documentos por lote
+     */
+    private final int batchSize;
+
+    /**
+     * Constructor de la construccion del nivel caliente
+     *
+     * @param mongoTemplate objeto que implementa las funcionalidades generales para MongoDB
+     * @param batchSize     cantidad de documentos por lote
+     */
+    public SequenceVerdictBackfill(MongoTemplate mongoTemplate, int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Determina si la construccion no se ha registrado como terminada y el archivo tiene
+     * documentos. Si el archivo esta vacio la base de datos es nueva y todos sus documentos
+     * tendran huella, por lo que la construccion se registra como terminada
+     *
+     * @return true si se debe construir el nivel caliente
+     */
+    public boolean isRequired() {
+        if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MIGRATION_ID)), Migration.class)) {
+            return false;
+        }
+        if (!mongoTemplate.exists(new Query(), RequestSequence.class)) {
+            markCompleted();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Inserta en el nivel caliente el resultado de los documentos del archivo y asigna la huella
+     * a los documentos del archivo que no la tienen, marcando como duplicados los que no la
+     * pueden recibir. Si el nivel caliente esta vacio se recorren todos los documentos, en caso
+     * contrario solo los que no tienen huella ni estan marcados como duplicados. Al terminar se
+     * registra la construccion como terminada
+     *
+     * @return cantidad de resultados insertados
+     */
+    public long backfill() {
+        boolean onlyWithoutHash = mongoTemplate.exists(new Query(), SequenceVerdict.class);
+        long inserted = 0;
+        long skipped = 0;
+        long hashed = 0;
+        long duplicated = 0;
+        String lastId = null;
+        List<RequestSequence> batch;
+        while (!(batch = mongoTemplate.find(nextBatch(lastId, onlyWithoutHash), RequestSequence.class)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SequenceVerdict.class);
+            BulkOperations hashes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequestSequence.class);
+            int upserts = 0;
+            List<RequestSequence> updated = new ArrayList<>();
+            List<String> updatedHashes = new ArrayList<>();
+            for (RequestSequence requestSequence : batch) {
+                try {
+                    Update update = new Update()
+                            .setOnInsert("mutant", requestSequence.isMutant())
+                            .setOnInsert("n", sizeOf(requestSequence));
+                    String hash = requestSequence.getHash();
+                    PackedDNA dna = decodeOrNull(requestSequence);
+                    if (dna != null) {
+                        hash = dna.getContentHash();
+                        update.setOnInsert("c", dna.getContentChecksum());
+                    }
+                    if (hash == null) {
+                        throw new IllegalArgumentException("The document has no DNA sequence");
+                    }
+                    bulk.upsert(Query.query(Criteria.where("_id").is(hash)), update);
+                    upserts++;
+                    if (requestSequence.getHash() == null) {
+                        hashes.updateOne(Query.query(Criteria.where("_id").is(requestSequence.getId())),
+                                Update.update("hash", hash));
+                        updated.add(requestSequence);
+                        updatedHashes.add(hash);
+                    }
+                } catch (IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+            try {
+                inserted += upserts > 0 ? bulk.execute().getUpserts().size() : 0;
+            } catch (BulkOperationException e) {
+                inserted += e.getResult().getUpserts().size();
+                skipped += e.getErrors().size();
+            }
+            try {
+                hashed += updated.isEmpty() ? 0 : hashes.execute().getModifiedCount();
+            } catch (BulkOperationException e) {
+                hashed += e.getResult().getModifiedCount();
+                BulkOperations duplicates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequestSequence.class);
+                for (BulkWriteError error : e.getErrors()) {
+                    if (error.getCode() != DUPLICATE_KEY) {
+                        throw e;
+                    }
+                    RequestSequence duplicate = updated.get(error.getIndex());
+                    duplicates.updateOne(Query.query(Criteria.where("_id").is(duplicate.getId())),
+                            Update.update("duplicateOf", updatedHashes.get(error.getIndex())));
+                    duplicated++;
+                    log.warn("Archived DNA sequence {} duplicates the content hash of another document: {}",
+                            duplicate.getId(), error.getMessage());
+                }
+                duplicates.execute();
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        markCompleted();
+        log.info("Sequence verdicts backfilled from archive: {} inserted, {} skipped, {} archive hashes assigned, {} duplicated",
+                inserted, skipped, hashed, duplicated);
+        return inserted;
+    }
+
+    /**
+     * Registra la construccion como terminada con el documento {@link Migration}
+     */
+    private void markCompleted() {
+        mongoTemplate.save(Migration.builder().id(MIGRATION_ID).completedAt(Instant.now()).build());
+    }
+
+    /**
+     * @return consulta de los documentos del archivo sin huella de contenido que no estan
+     * marcados como duplicados
+     */
+    private static Query withoutHash() {
+        return Query.query(Criteria.where("hash").exists(false).and("duplicateOf").exists(false));
+    }
+
+    /**
+     * Crea la consulta del siguiente lote de documentos del archivo
+     *
+     * @param lastId          identificador del ultimo documento del lote anterior, null en el primer lote
+     * @param onlyWithoutHash determina si solo se consultan los documentos sin huella de contenido
+     * @return consulta del lote
+     */
+    private Query nextBatch(String lastId, boolean onlyWithoutHash) {
+        Query query = onlyWithoutHash ? withoutHash() : new Query();
+        if (lastId != null) {
+            query.addCriteria(Criteria.where("_id").gt(lastId));
+        }
+        query.fields().include("hash").include("mutant").include("size").include("sequence")
+                .include("packed").include("deflated");
+        return query.with(Sort.by("_id")).limit(batchSize);
+    }
+
+    /**
+     * @param requestSequence documento del archivo
+     * @return cadena del documento, null si el documento no se puede decodificar
+     */
+    private static PackedDNA decodeOrNull(RequestSequence requestSequence) {
+        try {
+            return RequestSequenceCodec.decode(requestSequence);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param requestSequence documento del archivo
+     * @return tamanio N de la matriz del documento en cualquiera de sus formatos
+     * @throws IllegalArgumentException si el documento no tiene el tamanio ni la secuencia
+     */
+    private static int sizeOf(RequestSequence requestSequence) {
+        if (requestSequence.getSize() != null) {
+            return requestSequence.getSize();
+        }
+        if (requestSequence.getSequence() == null) {
+            throw new IllegalArgumentException("The document has no DNA sequence");
+        }
+        return requestSequence.getSequence().length;
+    }
+
+}
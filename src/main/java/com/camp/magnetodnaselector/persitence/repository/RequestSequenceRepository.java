@@ -28,4 +28,14 @@ public interface RequestSequenceRepository extends MongoRepository<RequestSequen
      */
     Optional<RequestSequence> findBySequence(String[] sequence);
 
+    /**
+     * Metodo de busqueda para la clase {@link RequestSequence} por el atributo
+     * hash, el cual tiene un indice unico en la coleccion
+     *
+     * @param hash huella de contenido de la secuencia
+     * @return Optional que contiene el objecto RequestSequence con la
+     * huella ingresada por parametro
+     */
+    Optional<RequestSequence> findByHash(String hash);
+
 }
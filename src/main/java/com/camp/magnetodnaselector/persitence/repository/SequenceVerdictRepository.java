@@ -0,0 +1,16 @@
+package com.camp.magnetodnaselector.persitence.repository;
+
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio de datos para la clase {@link SequenceVerdict}, cuyo identificador es
+ * la huella de contenido de la cadena
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Repository
+public interface SequenceVerdictRepository extends MongoRepository<SequenceVerdict, String> {
+
+}
@@ -0,0 +1,195 @@
+package com.camp.magnetodnaselector.persitence.service;
+
+import com.camp.magnetodnaselector.config.properties.StatsProperties;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveSequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveStatRepository;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.StatRepository;
+import com.camp.magnetodnaselector.persitence.embedded.AppendOnlyVerdictStore;
+import com.camp.magnetodnaselector.persitence.stats.StatBucketCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Servicio para la capa de persistencia del perfil embedded, implementa las interfaces de
+ * negocio sobre el almacen local {@link AppendOnlyVerdictStore}, sin una base de datos externa.
+ * <p>
+ * Las busquedas se resuelven en el indice en memoria del almacen y los guardados escriben un
+ * registro al final de su log, por lo que ninguna operacion sale del proceso. Las estadisticas
+ * se leen de los contadores del almacen. La instantanea del almacen se escribe periodicamente
+ * con el intervalo de la propiedad selector.embedded.snapshot-interval.
+ * <p>
+ * Solo se guarda el resultado de cada cadena y no su secuencia completa. El perfil se puede
+ * combinar con los perfiles reactive y virtual-threads. Con el perfil reactive las operaciones
+ * se exponen por medio de {@link ReactiveSequenceDNARepository} y {@link ReactiveStatRepository},
+ * y solo el guardado, que escribe en el log del almacen, cambia al scheduler boundedElastic.
+ * <p>
+ * Las estadisticas por intervalo de tiempo se llevan solo en memoria con {@link StatBucketCounters},
+ * por lo que cubren las cadenas guardadas desde que inicio el aplicativo. Los intervalos se
+ * eliminan al terminar la retencion de {@link StatsProperties}.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Profile("embedded")
+@RequiredArgsConstructor
+@Service
+public class EmbeddedPersistenceService implements SequenceDNARepository, StatRepository,
+        ReactiveSequenceDNARepository, ReactiveStatRepository {
+
+    /**
+     * Almacen local de los resultados, inyectado por el contenedor
+     */
+    private final AppendOnlyVerdictStore appendOnlyVerdictStore;
+
+    /**
+     * Propiedades de configuracion de la retencion de los intervalos, inyectadas por el contenedor
+     */
+    private final StatsProperties statsProperties;
+
+    /**
+     * Conteos de las cadenas guardadas por intervalo de tiempo
+     */
+    private final StatBucketCounters statBucketCounters = new StatBucketCounters();
+
+    /**
+     * Busca el resultado de la cadena en el indice en memoria por su huella de contenido de
+     * 128 bits y el tamanio de la matriz. A diferencia de {@link PersistenceService} no se guarda
+     * una segunda suma de verificacion, por lo que dos matrices del mismo tamanio con la misma
+     * huella compartirian el resultado
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return null si la cadena no esta guardada, en caso contrario el valor que determina si es mutante
+     */
+    @Override
+    public Boolean isMutantSavedDNA(PackedDNA dna) {
+        return appendOnlyVerdictStore.get(dna.getContentHash(), dna.getSize());
+    }
+
+    /**
+     * Guarda el resultado de la cadena en el almacen e incrementa el intervalo de tiempo actual,
+     * si la cadena ya estaba guardada no se vuelve a guardar ni se incrementan las estadisticas
+     *
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo booleano que determina si la cadena cumple la condicion del mutante o no
+     */
+    @Override
+    public void saveDNA(PackedDNA dna, boolean mutant) {
+        if (appendOnlyVerdictStore.put(dna.getContentHash(), dna.getSize(), mutant)) {
+            statBucketCounters.add(Instant.now(), mutant ? 1 : 0, mutant ? 0 : 1);
+        }
+    }
+
+    /**
+     * Emite el resultado de {@link #isMutantSavedDNA(PackedDNA)}, la busqueda se resuelve en el
+     * indice en memoria por lo que no cambia de hilo
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return valor que determina si la cadena es mutante, vacio si la cadena no esta guardada
+     */
+    @Override
+    public Mono<Boolean> findMutant(PackedDNA dna) {
+        return Mono.fromSupplier(() -> isMutantSavedDNA(dna));
+    }
+
+    /**
+     * Guarda la cadena por medio de {@link #saveDNA(PackedDNA, boolean)} en el scheduler
+     * boundedElastic, ya que la escritura en el log del almacen bloquea el hilo
+     *
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo booleano que determina si la cadena cumple la condicion del mutante o no
+     * @return senial de terminacion del guardado
+     */
+    @Override
+    public Mono<Void> save(PackedDNA dna, boolean mutant) {
+        return Mono.<Void>fromRunnable(() -> saveDNA(dna, mutant))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Escribe la instantanea del almacen y borra los logs que esta reemplaza
+     */
+    @Scheduled(fixedDelayString = "${selector.embedded.snapshot-interval:PT5M}",
+            initialDelayString = "${selector.embedded.snapshot-interval:PT5M}")
+    public void snapshot() {
+        appendOnlyVerdictStore.snapshot();
+    }
+
+    /**
+     * Elimina los intervalos de tiempo que terminaron su retencion
+     */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void trimStatBuckets() {
+        Instant now = Instant.now();
+        for (StatResolution resolution : StatResolution.values()) {
+            statBucketCounters.trim(resolution, now.minus(resolution.getLength())
+                    .minus(statsProperties.retentionOf(resolution)));
+        }
+    }
+
+    /**
+     * Crea el objeto de la clase {@link StatModel} a partir de los contadores del almacen
+     *
+     * @return la instancia de la clase {@link StatModel} que contiene los datos
+     * solitcitados para el servicio de estadistica
+     */
+    @Override
+    public StatModel getStat() {
+        StatModel statModel = StatModel.builder()
+                .countMutantDNA(appendOnlyVerdictStore.getMutantCount())
+                .countHumanDNA(appendOnlyVerdictStore.getHumanCount())
+                .build();
+        calRatio(statModel);
+        return statModel;
+    }
+
+    /**
+     * Calculo del campo ratio, el cual segun la especificacion sera:
+     * cantidadMuntantes/cantidadHumanos
+     *
+     * @param statModel Objecto al cual se le debe calcular el valor del ratio
+     */
+    @Override
+    public void calRatio(StatModel statModel) {
+        if (statModel.getCountHumanDNA() > 0 && statModel.getCountMutantDNA() > 0) {
+            statModel.setRatio(Math.round((((double) statModel.getCountMutantDNA() / (double) statModel.getCountHumanDNA()) * 100d)) / 100d);
+        }
+    }
+
+    /**
+     * Retorna los conteos de los intervalos de tiempo guardados en memoria
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo a retornar
+     * @return conteos de los intervalos
+     */
+    @Override
+    public List<StatBucketModel> findStatBuckets(StatResolution resolution, Instant from) {
+        return statBucketCounters.collect(resolution, from);
+    }
+
+    /**
+     * Emite los conteos de los intervalos de tiempo guardados en memoria por medio de
+     * {@link #findStatBuckets(StatResolution, Instant)}
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo a retornar
+     * @return conteos de los intervalos
+     */
+    @Override
+    public Flux<StatBucketModel> findBuckets(StatResolution resolution, Instant from) {
+        return Flux.defer(() -> Flux.fromIterable(findStatBuckets(resolution, from)));
+    }
+
+}
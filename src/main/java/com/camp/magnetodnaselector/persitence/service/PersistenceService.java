@@ -1,28 +1,51 @@
 package com.camp.magnetodnaselector.persitence.service;
 
-import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
 import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
 import com.camp.magnetodnaselector.domain.model.gateway.StatRepository;
+import com.camp.magnetodnaselector.persitence.cache.MappedVerdictIndex;
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
 import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
-import com.camp.magnetodnaselector.persitence.pojo.AggResultDNACount;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.camp.magnetodnaselector.persitence.filter.SequenceHashFilter;
 import com.camp.magnetodnaselector.persitence.repository.RequestSequenceRepository;
+import com.camp.magnetodnaselector.persitence.repository.SequenceVerdictRepository;
+import com.camp.magnetodnaselector.persitence.writer.RequestSequenceWriteBehind;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-
-import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import java.util.Map;
 
 /**
  * Servicio para la capa de persistencia el es la esceficicion de las
- * interface de negocio
+ * interface de negocio.
+ * <p>
+ * Las cadenas se guardan en dos niveles: el nivel caliente {@link SequenceVerdict} con la
+ * huella, el resultado y el tamanio de cada cadena, que es el unico que se consulta al evaluar
+ * una cadena, y el archivo {@link RequestSequence} con la secuencia completa, que se escribe
+ * despues del nivel caliente y solo se lee para auditoria por medio de
+ * {@link #findArchivedDNA(String)}. Si esta habilitado, el indice local {@link MappedVerdictIndex}
+ * guarda ademas los resultados en un archivo mapeado en memoria que se consulta antes que la base
+ * de datos y se conserva entre reinicios.
+ * <p>
+ * Se usa en todos los perfiles excepto en el perfil reactive, el cual usa
+ * {@link ReactivePersistenceService}, y en el perfil embedded, el cual usa
+ * {@link EmbeddedPersistenceService}
  *
  * @author Carlos Alberto Manrique Palacios
  */
+@Profile("!reactive & !embedded")
 @RequiredArgsConstructor
 @Service
 public class PersistenceService implements SequenceDNARepository, StatRepository {
@@ -34,82 +57,242 @@ public class PersistenceService implements SequenceDNARepository, StatRepository
     private final RequestSequenceRepository requestSequenceRepository;
 
     /**
-     * Objeto que implementa las funcionalidades generales para MongoDB,
-     * inyectado por el contenedor
+     * Repositorio de los resultados del nivel caliente, inyectado por el contenedor
      */
-    private final MongoTemplate mongoTemplate;
+    private final SequenceVerdictRepository sequenceVerdictRepository;
 
     /**
-     * Este metodo realiza una tarea de agregacion a la base de datos
-     * MongoDB, la cual cuenta la cantidad de registros y agrupa por
-     * el booleano mutant.
-     * <p>
-     * Hace la coversion de datos a objetos por medio de la clase {@link AggResultDNACount},
-     * por lo que se espera como respuesta un listado de maximo 2 registros de objetos de dicha
-     * clase
+     * Escritura diferida por lotes de las cadenas evaluadas, inyectada por el contenedor
+     */
+    private final RequestSequenceWriteBehind requestSequenceWriteBehind;
+
+    /**
+     * Contadores de cadenas de humanos y mutantes registradas, inyectado por el contenedor
+     */
+    private final StatCounterService statCounterService;
+
+    /**
+     * Conversion de las cadenas al formato de almacenamiento configurado, inyectado por el contenedor
+     */
+    private final RequestSequenceCodec requestSequenceCodec;
+
+    /**
+     * Filtro de las huellas de las cadenas guardadas, inyectado por el contenedor
+     */
+    private final SequenceHashFilter sequenceHashFilter;
+
+    /**
+     * Indice local de resultados en un archivo mapeado en memoria, inyectado por el contenedor
+     */
+    private final MappedVerdictIndex mappedVerdictIndex;
+
+    /**
+     * Registra el metodo {@link #indexWritten(List)} como observador de la escritura diferida
+     */
+    @PostConstruct
+    public void registerWrittenListener() {
+        requestSequenceWriteBehind.onWritten(this::indexWritten);
+    }
+
+    /**
+     * Agrega al filtro {@link SequenceHashFilter} y al indice local {@link MappedVerdictIndex}
+     * las cadenas cuyo resultado quedo guardado en el nivel caliente
      *
-     * @return Listado de objetos de la clase {@link AggResultDNACount} que contiene el resultado de la agregacion
-     */
-    private List<AggResultDNACount> findStats() {
-        Aggregation agg = newAggregation(
-                group("mutant").count().as("total"),
-                project("total").and("mutant").previousOperation());
-        AggregationResults<AggResultDNACount> groupResults
-                = mongoTemplate.aggregate(agg, RequestSequence.class, AggResultDNACount.class);
-        return groupResults.getMappedResults();
+     * @param written documentos cuyo resultado quedo guardado
+     */
+    private void indexWritten(List<RequestSequence> written) {
+        for (RequestSequence requestSequence : written) {
+            sequenceHashFilter.put(requestSequence.getHash());
+            mappedVerdictIndex.put(requestSequence.getHash(), RequestSequenceWriteBehind.sizeOf(requestSequence),
+                    requestSequence.isMutant());
+        }
     }
 
     /**
      * Verifica si el vector ingresado por parametro ya se encuentra registrado en
      * la base de datos y en tal caso retorna el valor del campo mutant guardado previamente,
-     * en caso contrario retorna null
+     * en caso contrario retorna null.
+     * <p>
+     * Primero se consulta el indice local {@link MappedVerdictIndex} y despues las cadenas que aun
+     * estan pendientes en la escritura diferida, comparando la secuencia completa. Si el filtro
+     * {@link SequenceHashFilter} responde que la cadena no esta guardada no se hace ninguna otra
+     * consulta; como el filtro solo se actualiza despues de guardar el resultado, las cadenas
+     * pendientes se revisan antes que el filtro. En la base de datos
+     * la busqueda se hace por el identificador del nivel caliente, que es la huella de contenido
+     * de 128 bits, y el resultado encontrado se confirma con el metodo
+     * {@link #confirm(SequenceVerdict, PackedDNA)} antes de agregarlo al indice local.
      *
      * @param dna cadena de ADN que se debe buscar
      * @return null si no existe un registro con esa cadena, en caso contrario retorna el valor del campo mutant
      */
     @Override
-    public Boolean isMutantSavedDNA(String[] dna) {
-        RequestSequence requestSequence = requestSequenceRepository.findBySequence(dna).orElse(null);
-        return requestSequence != null ? requestSequence.isMutant() : null;
+    public Boolean isMutantSavedDNA(PackedDNA dna) {
+        Boolean indexed = mappedVerdictIndex.get(dna.getContentHash(), dna.getSize());
+        if (indexed != null) {
+            return indexed;
+        }
+        RequestSequence requestSequence = requestSequenceWriteBehind.findPending(dna.getContentHash());
+        if (requestSequence != null) {
+            return RequestSequenceCodec.matches(requestSequence, dna) ? requestSequence.isMutant() : null;
+        }
+        if (!sequenceHashFilter.mightContain(dna.getContentHash())) {
+            return null;
+        }
+        SequenceVerdict verdict = sequenceVerdictRepository.findById(dna.getContentHash())
+                .filter(found -> confirm(found, dna))
+                .orElse(null);
+        if (verdict == null) {
+            return null;
+        }
+        mappedVerdictIndex.put(verdict.getHash(), verdict.getSize(), verdict.isMutant());
+        return verdict.isMutant();
     }
 
     /**
-     * Crea un objeto de la calse {@link SequenceDNAModel} el cual persiste
-     * en la base de datos MongoDB con los campos de la secuencia y el
-     * booleano ingresado por parametro que determina si cumple la condicion
-     * del mutante
+     * Crea un objeto de la calse {@link RequestSequence} con los campos de la huella de contenido,
+     * la secuencia en el formato de {@link RequestSequenceCodec} y el booleano ingresado por
+     * parametro que determina si cumple la condicion del mutante, el cual persiste en la base de
+     * datos MongoDB en el nivel caliente y en el archivo.
+     * <p>
+     * El guardado es un upsert atomico por la huella que solo asigna los campos al insertar, por lo
+     * que si ya existe un registro con la misma huella la cadena no se vuelve a guardar.
+     * <p>
+     * El documento se deja en la escritura diferida {@link RequestSequenceWriteBehind} para que
+     * la peticion no espere a la base de datos, solo si esta no esta habilitada o su cola esta
+     * llena el documento se guarda directamente. El filtro y el indice local se actualizan por
+     * medio de {@link #indexWritten(List)} solo despues de guardar el resultado.
      *
-     * @param sequenceDNAModel La cadena de ADN a guardar
-     * @param mutant           Campo booleano que determina si la cadena cumple la condicion del mutante o no
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo booleano que determina si la cadena cumple la condicion del mutante o no
      */
     @Override
-    public void saveDNA(SequenceDNAModel sequenceDNAModel, boolean mutant) {
-        requestSequenceRepository.save(RequestSequence.builder()
-                .sequence(sequenceDNAModel.getDna())
-                .mutant(mutant).build());
+    public void saveDNA(PackedDNA dna, boolean mutant) {
+        RequestSequence requestSequence = requestSequenceCodec.encode(dna, mutant);
+        if (requestSequenceWriteBehind.submit(requestSequence)) {
+            return;
+        }
+        requestSequenceWriteBehind.write(Collections.singletonList(requestSequence));
     }
 
+    /**
+     * Busca varias cadenas con una sola consulta al nivel caliente por sus huellas de contenido
+     * con el operador $in. Antes de la consulta resuelve las que estan en el indice local
+     * {@link MappedVerdictIndex}, revisa las cadenas pendientes en la escritura diferida y descarta
+     * las que el filtro {@link SequenceHashFilter} responde que no estan guardadas. Al igual
+     * que en {@link #isMutantSavedDNA(PackedDNA)} los registros encontrados se confirman con el
+     * metodo {@link #confirm(SequenceVerdict, PackedDNA)}.
+     *
+     * @param dnas cadenas de ADN que se deben buscar
+     * @return mapa con el valor del campo mutant de las cadenas encontradas
+     */
+    @Override
+    public Map<PackedDNA, Boolean> findMutantSavedDNA(Collection<PackedDNA> dnas) {
+        Map<PackedDNA, Boolean> found = new HashMap<>();
+        Map<String, PackedDNA> byHash = new HashMap<>();
+        for (PackedDNA dna : dnas) {
+            Boolean indexed = mappedVerdictIndex.get(dna.getContentHash(), dna.getSize());
+            if (indexed != null) {
+                found.put(dna, indexed);
+                continue;
+            }
+            RequestSequence requestSequence = requestSequenceWriteBehind.findPending(dna.getContentHash());
+            if (RequestSequenceCodec.matches(requestSequence, dna)) {
+                found.put(dna, requestSequence.isMutant());
+            } else if (sequenceHashFilter.mightContain(dna.getContentHash())) {
+                byHash.put(dna.getContentHash(), dna);
+            }
+        }
+        if (!byHash.isEmpty()) {
+            for (SequenceVerdict verdict : sequenceVerdictRepository.findAllById(byHash.keySet())) {
+                PackedDNA dna = byHash.get(verdict.getHash());
+                if (dna != null && confirm(verdict, dna)) {
+                    mappedVerdictIndex.put(verdict.getHash(), verdict.getSize(), verdict.isMutant());
+                    found.put(dna, verdict.isMutant());
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Confirma que el resultado encontrado por la huella de contenido corresponde a la cadena
+     * buscada y no a otra matriz con la misma huella, comparando el tamanio y la suma de
+     * verificacion de 128 bits, que junto a la huella completan los 256 bits del SHA-256.
+     * <p>
+     * Los resultados guardados antes de que existiera la suma de verificacion se confirman con la
+     * secuencia completa del archivo, y si coincide se les asigna la suma de verificacion para
+     * que las siguientes busquedas no lean el archivo. Si el archivo no tiene la cadena, porque no
+     * esta habilitado, el resultado solo se confirma con el tamanio
+     *
+     * @param verdict resultado del nivel caliente con la huella de la cadena
+     * @param dna     cadena de ADN buscada
+     * @return true si el resultado corresponde a la cadena
+     */
+    private boolean confirm(SequenceVerdict verdict, PackedDNA dna) {
+        if (verdict.getSize() != dna.getSize()) {
+            return false;
+        }
+        if (verdict.getChecksum() != null) {
+            return verdict.getChecksum().equals(dna.getContentChecksum());
+        }
+        RequestSequence archived = requestSequenceRepository.findByHash(verdict.getHash()).orElse(null);
+        if (archived == null) {
+            return true;
+        }
+        if (!RequestSequenceCodec.matches(archived, dna)) {
+            return false;
+        }
+        sequenceVerdictRepository.save(verdict.toBuilder().checksum(dna.getContentChecksum()).build());
+        return true;
+    }
+
+    /**
+     * Lee la secuencia completa de una cadena del archivo, para auditoria. No se usa al evaluar
+     * las cadenas, por lo que el archivo solo se consulta cuando se necesita la secuencia
+     *
+     * @param hash huella de contenido de la cadena
+     * @return cadena de ADN archivada, null si la cadena no esta en el archivo
+     */
+    public PackedDNA findArchivedDNA(String hash) {
+        return requestSequenceRepository.findByHash(hash)
+                .map(RequestSequenceCodec::decode)
+                .orElse(null);
+    }
+
+    /**
+     * Guarda varias cadenas, las que no se pueden dejar en la escritura diferida se guardan
+     * con una sola operacion bulk de upserts
+     *
+     * @param results mapa con las cadenas de ADN a guardar y el valor que determina si son mutantes
+     */
+    @Override
+    public void saveAllDNA(Map<PackedDNA, Boolean> results) {
+        List<RequestSequence> batch = new ArrayList<>();
+        results.forEach((dna, mutant) -> {
+            RequestSequence requestSequence = requestSequenceCodec.encode(dna, mutant);
+            if (!requestSequenceWriteBehind.submit(requestSequence)) {
+                batch.add(requestSequence);
+            }
+        });
+        if (!batch.isEmpty()) {
+            requestSequenceWriteBehind.write(batch);
+        }
+    }
 
     /**
-     * Hace el llamado al metodo {@link #findStats()} y a partir del
-     * resultado creara el objeto de la clase {@link StatModel} el cual
-     * contiene los valores especificacdos por las reglas de negocio para el
-     * servicio de estadistica
+     * Crea el objeto de la clase {@link StatModel} a partir de los contadores
+     * de {@link StatCounterService}, el cual contiene los valores especificacdos
+     * por las reglas de negocio para el servicio de estadistica
      *
      * @return la instancia de la clase {@link StatModel} que contiene los datos
      * solitcitados para el servicio de estadistica
      */
     @Override
     public StatModel getStat() {
-        List<AggResultDNACount> stats = findStats();
-        StatModel statModel = StatModel.builder().build();
-        for (AggResultDNACount ar : stats) {
-            if (ar.isMutant()) {
-                statModel.setCountMutantDNA(ar.getTotal());
-            } else {
-                statModel.setCountHumanDNA(ar.getTotal());
-            }
-        }
+        StatModel statModel = StatModel.builder()
+                .countMutantDNA(statCounterService.getCountMutantDNA())
+                .countHumanDNA(statCounterService.getCountHumanDNA())
+                .build();
         calRatio(statModel);
         return statModel;
     }
@@ -126,4 +309,18 @@ public class PersistenceService implements SequenceDNARepository, StatRepository
             statModel.setRatio(Math.round((((double) statModel.getCountMutantDNA() / (double) statModel.getCountHumanDNA()) * 100d)) / 100d);
         }
     }
+
+    /**
+     * Retorna los conteos de los intervalos de tiempo por medio de
+     * {@link StatCounterService#findBuckets(StatResolution, Instant)}
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo a retornar
+     * @return conteos de los intervalos
+     */
+    @Override
+    public List<StatBucketModel> findStatBuckets(StatResolution resolution, Instant from) {
+        return statCounterService.findBuckets(resolution, from);
+    }
+
 }
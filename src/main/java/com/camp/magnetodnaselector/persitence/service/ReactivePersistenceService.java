@@ -0,0 +1,312 @@
+package com.camp.magnetodnaselector.persitence.service;
+
+import com.camp.magnetodnaselector.config.properties.StorageProperties;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveSequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveStatRepository;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.StatRepository;
+import com.camp.magnetodnaselector.persitence.cache.MappedVerdictIndex;
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
+import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.camp.magnetodnaselector.persitence.entity.StatBucket;
+import com.camp.magnetodnaselector.persitence.filter.SequenceHashFilter;
+import com.camp.magnetodnaselector.persitence.writer.RequestSequenceWriteBehind;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Servicio para la capa de persistencia del perfil reactive, implementa las interfaces de
+ * negocio sobre el driver reactivo de MongoDB por medio de {@link ReactiveMongoTemplate}.
+ * <p>
+ * Las operaciones se exponen como {@link Mono} y {@link Flux} por medio de las interfaces
+ * {@link ReactiveSequenceDNARepository} y {@link ReactiveStatRepository}, las cuales usa la
+ * clase de negocio reactiva sin bloquear los hilos del event loop. Los metodos de las
+ * interfaces sincronas esperan el resultado de las mismas operaciones, por lo que solo se
+ * deben llamar desde hilos que puedan bloquearse y no hacen parte de la atencion de las
+ * peticiones de este perfil.
+ * <p>
+ * Los documentos y los contadores de estadisticas son los mismos de {@link PersistenceService},
+ * por lo que ambos perfiles pueden trabajar sobre la misma base de datos. Al igual que en ese
+ * servicio la busqueda solo consulta el nivel caliente {@link SequenceVerdict}, y la secuencia
+ * completa se guarda en el archivo {@link RequestSequence} solo para las cadenas nuevas.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+@Profile("reactive & !embedded")
+@RequiredArgsConstructor
+@Service
+public class ReactivePersistenceService implements SequenceDNARepository, StatRepository,
+        ReactiveSequenceDNARepository, ReactiveStatRepository {
+
+    /**
+     * Objeto que implementa las funcionalidades reactivas para MongoDB,
+     * inyectado por el contenedor
+     */
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * Contadores de cadenas de humanos y mutantes registradas, inyectado por el contenedor
+     */
+    private final StatCounterService statCounterService;
+
+    /**
+     * Conversion de las cadenas al formato de almacenamiento configurado, inyectado por el contenedor
+     */
+    private final RequestSequenceCodec requestSequenceCodec;
+
+    /**
+     * Propiedades de configuracion del almacenamiento, inyectadas por el contenedor
+     */
+    private final StorageProperties storageProperties;
+
+    /**
+     * Filtro de las huellas de las cadenas guardadas, inyectado por el contenedor
+     */
+    private final SequenceHashFilter sequenceHashFilter;
+
+    /**
+     * Indice local de resultados en un archivo mapeado en memoria, inyectado por el contenedor
+     */
+    private final MappedVerdictIndex mappedVerdictIndex;
+
+    /**
+     * Busca el resultado de la cadena en el nivel caliente por su huella de contenido y lo confirma
+     * con el tamanio y la suma de verificacion, igual que {@link PersistenceService#isMutantSavedDNA(PackedDNA)},
+     * sin consultar la base de datos si la cadena esta en el indice local {@link MappedVerdictIndex} o si
+     * el filtro {@link SequenceHashFilter} responde que no esta guardada
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return valor del campo mutant del registro, vacio si la cadena no esta registrada
+     */
+    @Override
+    public Mono<Boolean> findMutant(PackedDNA dna) {
+        Boolean indexed = mappedVerdictIndex.get(dna.getContentHash(), dna.getSize());
+        if (indexed != null) {
+            return Mono.just(indexed);
+        }
+        if (!sequenceHashFilter.mightContain(dna.getContentHash())) {
+            return Mono.empty();
+        }
+        return reactiveMongoTemplate.findById(dna.getContentHash(), SequenceVerdict.class)
+                .filterWhen(verdict -> confirm(verdict, dna))
+                .doOnNext(verdict -> mappedVerdictIndex.put(verdict.getHash(), verdict.getSize(), verdict.isMutant()))
+                .map(SequenceVerdict::isMutant);
+    }
+
+    /**
+     * Confirma que el resultado encontrado por la huella corresponde a la cadena buscada con el
+     * tamanio y la suma de verificacion. Los resultados sin suma de verificacion se confirman con
+     * la secuencia del archivo y se les asigna, y si el archivo no tiene la cadena solo se compara
+     * el tamanio
+     *
+     * @param verdict resultado del nivel caliente con la huella de la cadena
+     * @param dna     cadena de ADN buscada
+     * @return true si el resultado corresponde a la cadena
+     */
+    private Mono<Boolean> confirm(SequenceVerdict verdict, PackedDNA dna) {
+        if (verdict.getSize() != dna.getSize()) {
+            return Mono.just(false);
+        }
+        if (verdict.getChecksum() != null) {
+            return Mono.just(verdict.getChecksum().equals(dna.getContentChecksum()));
+        }
+        return reactiveMongoTemplate.findOne(Query.query(Criteria.where("hash").is(verdict.getHash())), RequestSequence.class)
+                .flatMap(archived -> {
+                    if (!RequestSequenceCodec.matches(archived, dna)) {
+                        return Mono.just(false);
+                    }
+                    return reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(verdict.getHash())
+                                            .and("c").exists(false)),
+                                    Update.update("c", dna.getContentChecksum()), SequenceVerdict.class)
+                            .thenReturn(true);
+                })
+                .defaultIfEmpty(true);
+    }
+
+    /**
+     * Guarda el resultado de la cadena en el nivel caliente con un upsert atomico por la huella
+     * que solo asigna los campos al insertar, y si la cadena es nueva incrementa los contadores de
+     * estadisticas y guarda la secuencia completa en el archivo. Si el resultado ya existia, o si
+     * otra escritura lo inserto al mismo tiempo con un error de llave duplicada, se verifica con
+     * el metodo {@link #verifyExisting(PackedDNA)}. El filtro y el indice local se actualizan solo
+     * despues de guardar el resultado
+     *
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo booleano que determina si la cadena cumple la condicion del mutante o no
+     * @return senial de terminacion del guardado
+     */
+    @Override
+    public Mono<Void> save(PackedDNA dna, boolean mutant) {
+        RequestSequence requestSequence = requestSequenceCodec.encode(dna, mutant);
+        long mutants = mutant ? 1 : 0;
+        long humans = mutant ? 0 : 1;
+        return reactiveMongoTemplate.upsert(RequestSequenceWriteBehind.verdictByHash(requestSequence),
+                        RequestSequenceWriteBehind.verdictOnInsert(requestSequence), SequenceVerdict.class)
+                .flatMap(result -> {
+                    if (result.getUpsertedId() == null) {
+                        return verifyExisting(dna);
+                    }
+                    statCounterService.increment(requestSequence.getEvaluatedAt(), mutants, humans);
+                    indexWritten(dna, mutant);
+                    return archive(requestSequence);
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    log.debug("Sequence verdict {} was inserted concurrently: {}", requestSequence.getHash(), e.getMessage());
+                    return verifyExisting(dna);
+                })
+                .then();
+    }
+
+    /**
+     * Verifica que el resultado que ya existia en el nivel caliente con la huella de la cadena
+     * corresponde a la misma cadena por medio del metodo {@link #confirm(SequenceVerdict, PackedDNA)}.
+     * Una colision no se puede guardar porque el resultado se identifica por la huella, por lo que
+     * se registra en el log y la busqueda de la cadena no la encuentra y la vuelve a evaluar
+     *
+     * @param dna cadena de ADN guardada
+     * @return senial de terminacion de la verificacion
+     */
+    private Mono<Void> verifyExisting(PackedDNA dna) {
+        return reactiveMongoTemplate.findById(dna.getContentHash(), SequenceVerdict.class)
+                .filterWhen(verdict -> confirm(verdict, dna))
+                .doOnNext(verdict -> indexWritten(dna, verdict.isMutant()))
+                .hasElement()
+                .doOnNext(same -> {
+                    if (!same) {
+                        log.error("Content hash collision, sequence verdict {} was saved for a different DNA sequence",
+                                dna.getContentHash());
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Agrega al filtro {@link SequenceHashFilter} y al indice local {@link MappedVerdictIndex} una
+     * cadena cuyo resultado quedo guardado en el nivel caliente
+     *
+     * @param dna    cadena de ADN guardada
+     * @param mutant resultado guardado de la cadena
+     */
+    private void indexWritten(PackedDNA dna, boolean mutant) {
+        sequenceHashFilter.put(dna.getContentHash());
+        mappedVerdictIndex.put(dna.getContentHash(), dna.getSize(), mutant);
+    }
+
+    /**
+     * Guarda la secuencia completa de una cadena nueva en el archivo, si el archivo no esta
+     * habilitado no hace nada
+     *
+     * @param requestSequence documento de la cadena
+     * @return senial de terminacion del guardado
+     */
+    private Mono<Void> archive(RequestSequence requestSequence) {
+        if (!storageProperties.isArchive()) {
+            return Mono.empty();
+        }
+        return reactiveMongoTemplate.upsert(RequestSequenceWriteBehind.byHash(requestSequence),
+                        RequestSequenceWriteBehind.setOnInsert(requestSequence), RequestSequence.class)
+                .then();
+    }
+
+    /**
+     * Espera el resultado de {@link #findMutant(PackedDNA)}
+     *
+     * @param dna cadena de ADN que se debe buscar
+     * @return null si no existe un registro con esa cadena, en caso contrario retorna el valor del campo mutant
+     */
+    @Override
+    public Boolean isMutantSavedDNA(PackedDNA dna) {
+        return findMutant(dna).block();
+    }
+
+    /**
+     * Espera el guardado de {@link #save(PackedDNA, boolean)}
+     *
+     * @param dna    La cadena de ADN a guardar
+     * @param mutant Campo booleano que determina si la cadena cumple la condicion del mutante o no
+     */
+    @Override
+    public void saveDNA(PackedDNA dna, boolean mutant) {
+        save(dna, mutant).block();
+    }
+
+    /**
+     * Crea el objeto de la clase {@link StatModel} a partir de los contadores en memoria
+     * de {@link StatCounterService}, por lo que no consulta la base de datos
+     *
+     * @return la instancia de la clase {@link StatModel} que contiene los datos
+     * solitcitados para el servicio de estadistica
+     */
+    @Override
+    public StatModel getStat() {
+        StatModel statModel = StatModel.builder()
+                .countMutantDNA(statCounterService.getCountMutantDNA())
+                .countHumanDNA(statCounterService.getCountHumanDNA())
+                .build();
+        calRatio(statModel);
+        return statModel;
+    }
+
+    /**
+     * Calculo del campo ratio, el cual segun la especificacion sera:
+     * cantidadMuntantes/cantidadHumanos
+     *
+     * @param statModel Objecto al cual se le debe calcular el valor del ratio
+     */
+    @Override
+    public void calRatio(StatModel statModel) {
+        if (statModel.getCountHumanDNA() > 0 && statModel.getCountMutantDNA() > 0) {
+            statModel.setRatio(Math.round((((double) statModel.getCountMutantDNA() / (double) statModel.getCountHumanDNA()) * 100d)) / 100d);
+        }
+    }
+
+    /**
+     * Retorna los conteos de los intervalos de tiempo por medio de
+     * {@link StatCounterService#findBuckets(StatResolution, Instant)}
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo a retornar
+     * @return conteos de los intervalos
+     */
+    @Override
+    public List<StatBucketModel> findStatBuckets(StatResolution resolution, Instant from) {
+        return statCounterService.findBuckets(resolution, from);
+    }
+
+    /**
+     * Retorna los conteos que aun no se aplican por medio de
+     * {@link StatCounterService#findPendingBuckets(StatResolution, Instant)}, seguidos de los
+     * conteos de los documentos {@link StatBucket} leidos con {@link ReactiveMongoTemplate}. Igual
+     * que en {@link StatCounterService#findBuckets(StatResolution, Instant)} los pendientes se leen
+     * antes que los documentos
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo a retornar
+     * @return conteos de los intervalos
+     */
+    @Override
+    public Flux<StatBucketModel> findBuckets(StatResolution resolution, Instant from) {
+        return Flux.defer(() -> Flux.fromIterable(statCounterService.findPendingBuckets(resolution, from)))
+                .concatWith(reactiveMongoTemplate.find(StatCounterService.bucketQuery(resolution, from), StatBucket.class)
+                        .map(StatCounterService::toModel));
+    }
+
+}
@@ -0,0 +1,450 @@
+package com.camp.magnetodnaselector.persitence.service;
+
+import com.camp.magnetodnaselector.config.properties.StatsProperties;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.camp.magnetodnaselector.persitence.entity.StatBucket;
+import com.camp.magnetodnaselector.persitence.entity.StatCounter;
+import com.camp.magnetodnaselector.persitence.pojo.AggResultDNACount;
+import com.camp.magnetodnaselector.persitence.stats.StatBucketCounters;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Servicio que mantiene los contadores de cadenas de humanos y mutantes registradas.
+ * <p>
+ * Los contadores se guardan en un unico documento {@link StatCounter}. Las cadenas nuevas no
+ * incrementan el documento en cada insercion, sino que se acumulan en contadores
+ * {@link LongAdder}, que reparten los incrementos concurrentes en celdas distintas sin bloqueos, y
+ * el metodo {@link #flush()} aplica al documento con una sola operacion $inc los incrementos
+ * pendientes de forma periodica y al detener el aplicativo. Los contadores no se reinician, ya que
+ * reiniciar un {@link LongAdder} no es atomico con los incrementos concurrentes: los pendientes
+ * son la diferencia entre el total acumulado y lo ya aplicado al documento. Asi el documento
+ * recibe una escritura por intervalo en lugar de una por cadena. La consulta de las estadisticas
+ * suma la base leida del documento y los contadores pendientes, por lo que refleja las cadenas
+ * nuevas de inmediato sin recorrer la coleccion de cadenas.
+ * <p>
+ * El incremento no es atomico con la insercion de la cadena, por lo que el metodo
+ * {@link #reconcile()} corrige los contadores a partir de la coleccion, y el metodo
+ * {@link #refresh()} actualiza la base con el documento, el cual tambien incluye los incrementos
+ * de otras instancias del aplicativo. El perfil embedded no lo usa, ya que su almacen local lleva
+ * sus propios contadores.
+ * <p>
+ * Ademas de los contadores totales, cada cadena nueva incrementa los intervalos de un minuto,
+ * una hora y un dia de su instante de evaluacion en {@link StatBucketCounters}, y el mismo
+ * metodo {@link #flush()} aplica los intervalos con una operacion bulk de upserts $inc a los
+ * documentos {@link StatBucket}, de los cuales se leen las estadisticas por ventana de tiempo.
+ * Los documentos expiran con la retencion de {@link StatsProperties}. Los intervalos no se
+ * reconstruyen con {@link #reconcile()}, ya que la coleccion de resultados no guarda el
+ * instante de evaluacion de las cadenas anteriores.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+@Profile("!embedded")
+@RequiredArgsConstructor
+@Service
+public class StatCounterService {
+
+    /**
+     * Identificador del documento de contadores
+     */
+    static final String COUNTER_ID = "requestSequences";
+
+    /**
+     * Objeto que implementa las funcionalidades generales para MongoDB,
+     * inyectado por el contenedor
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Propiedades de configuracion de la retencion de los intervalos, inyectadas por el contenedor
+     */
+    private final StatsProperties statsProperties;
+
+    /**
+     * Conteos de los intervalos de tiempo que aun no se aplican a los documentos
+     */
+    private final StatBucketCounters pendingBuckets = new StatBucketCounters();
+
+    /**
+     * Cantidad acumulada de cadenas de mutantes nuevas desde el inicio del aplicativo
+     */
+    private final LongAdder addedMutants = new LongAdder();
+
+    /**
+     * Cantidad acumulada de cadenas de humanos nuevas desde el inicio del aplicativo
+     */
+    private final LongAdder addedHumans = new LongAdder();
+
+    /**
+     * Valores del documento y cantidades ya aplicadas al documento, se reemplazan juntos para
+     * que las consultas no cuenten dos veces ni omitan los incrementos que se estan aplicando
+     */
+    private volatile Counters counters = new Counters(0, 0, 0, 0);
+
+    /**
+     * Carga los contadores en memoria al iniciar el aplicativo, si el documento de
+     * contadores no existe lo construye a partir de los resultados del nivel caliente
+     */
+    @PostConstruct
+    public void init() {
+        if (!load()) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Incrementa los contadores pendientes y los intervalos del instante de evaluacion con las
+     * cadenas nuevas insertadas, sin escribir en la base de datos
+     *
+     * @param evaluatedAt instante de evaluacion de las cadenas, si es nulo se usa el instante actual
+     * @param mutants     cantidad de cadenas nuevas de mutantes
+     * @param humans      cantidad de cadenas nuevas de humanos
+     */
+    public void increment(Instant evaluatedAt, long mutants, long humans) {
+        if (mutants != 0) {
+            addedMutants.add(mutants);
+        }
+        if (humans != 0) {
+            addedHumans.add(humans);
+        }
+        if (mutants != 0 || humans != 0) {
+            pendingBuckets.add(evaluatedAt != null ? evaluatedAt : Instant.now(), mutants, humans);
+        }
+    }
+
+    /**
+     * @return cantidad de cadenas de mutantes registradas, incluyendo las pendientes
+     */
+    public long getCountMutantDNA() {
+        Counters current = counters;
+        return current.getBaseMutants() + (addedMutants.sum() - current.getFlushedMutants());
+    }
+
+    /**
+     * @return cantidad de cadenas de humanos registradas, incluyendo las pendientes
+     */
+    public long getCountHumanDNA() {
+        Counters current = counters;
+        return current.getBaseHumans() + (addedHumans.sum() - current.getFlushedHumans());
+    }
+
+    /**
+     * Retorna los conteos de los intervalos de la resolucion que inician en el instante from o
+     * despues, leidos de los conteos que aun no se aplican y de los documentos {@link StatBucket},
+     * por lo que un intervalo puede aparecer mas de una vez. Los pendientes se leen antes que los
+     * documentos, de manera que un intervalo que se aplica entre las dos lecturas no se omite
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo
+     * @return conteos de los intervalos sin calcular el ratio
+     */
+    public List<StatBucketModel> findBuckets(StatResolution resolution, Instant from) {
+        List<StatBucketModel> buckets = new ArrayList<>(findPendingBuckets(resolution, from));
+        for (StatBucket statBucket : mongoTemplate.find(bucketQuery(resolution, from), StatBucket.class)) {
+            buckets.add(toModel(statBucket));
+        }
+        return buckets;
+    }
+
+    /**
+     * Retorna los conteos de los intervalos de la resolucion que inician en el instante from o
+     * despues y que aun no se aplican a los documentos {@link StatBucket}, por lo que no consulta
+     * la base de datos
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo
+     * @return conteos de los intervalos sin calcular el ratio
+     */
+    public List<StatBucketModel> findPendingBuckets(StatResolution resolution, Instant from) {
+        return pendingBuckets.collect(resolution, from);
+    }
+
+    /**
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo
+     * @return consulta de los documentos {@link StatBucket} de la resolucion que inician en el
+     * instante from o despues
+     */
+    public static Query bucketQuery(StatResolution resolution, Instant from) {
+        return Query.query(where("resolution").is(resolution.name()).and("start").gte(from));
+    }
+
+    /**
+     * @param statBucket documento de un intervalo
+     * @return conteos del intervalo sin calcular el ratio
+     */
+    public static StatBucketModel toModel(StatBucket statBucket) {
+        return StatBucketCounters.bucketOf(statBucket.getStart(), statBucket.getCountMutantDNA(),
+                statBucket.getCountHumanDNA());
+    }
+
+    /**
+     * Aplica los contadores pendientes al documento con una sola operacion $inc y actualiza la
+     * base con el documento resultante, y aplica los intervalos pendientes a sus documentos. Si
+     * la base de datos falla los incrementos vuelven a quedar pendientes para el siguiente
+     * intervalo
+     */
+    @Scheduled(fixedDelayString = "${selector.stats.flush-interval:PT1S}")
+    public synchronized void flush() {
+        flushCounters();
+        flushBuckets();
+    }
+
+    /**
+     * Aplica al documento de contadores los incrementos acumulados desde la ultima aplicacion
+     */
+    private void flushCounters() {
+        Counters current = counters;
+        long mutants = addedMutants.sum() - current.getFlushedMutants();
+        long humans = addedHumans.sum() - current.getFlushedHumans();
+        if (mutants == 0 && humans == 0) {
+            return;
+        }
+        try {
+            StatCounter statCounter = mongoTemplate.findAndModify(byId(), incrementOf(mutants, humans),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), StatCounter.class);
+            counters = statCounter != null
+                    ? new Counters(statCounter.getCountMutantDNA(), statCounter.getCountHumanDNA(),
+                    current.getFlushedMutants() + mutants, current.getFlushedHumans() + humans)
+                    : new Counters(current.getBaseMutants() + mutants, current.getBaseHumans() + humans,
+                    current.getFlushedMutants() + mutants, current.getFlushedHumans() + humans);
+        } catch (RuntimeException e) {
+            log.warn("Stats counters could not be flushed, {} mutant and {} human kept pending", mutants, humans, e);
+        }
+    }
+
+    /**
+     * Aplica los intervalos pendientes a los documentos {@link StatBucket} con una operacion bulk
+     * desordenada de upserts, que incrementan los conteos y asignan al insertar la resolucion,
+     * el inicio y la fecha de expiracion. Los conteos se descuentan de los pendientes solo
+     * despues de aplicarse, por lo que las consultas los siguen leyendo de la memoria mientras se
+     * aplican. Si algunos upserts fallan solo sus intervalos siguen pendientes, ya que los demas
+     * se aplicaron
+     */
+    private void flushBuckets() {
+        Map<StatResolution, List<StatBucketModel>> pending = pendingBuckets.pending(Instant.now());
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Pair<StatResolution, StatBucketModel>> buckets = new ArrayList<>();
+        List<Pair<Query, Update>> upserts = new ArrayList<>();
+        pending.forEach((resolution, list) -> {
+            for (StatBucketModel bucket : list) {
+                buckets.add(Pair.of(resolution, bucket));
+                upserts.add(Pair.of(Query.query(where("_id").is(bucketId(resolution, bucket.getStart()))),
+                        incrementOf(bucket.getStats().getCountMutantDNA(), bucket.getStats().getCountHumanDNA())
+                                .setOnInsert("resolution", resolution.name())
+                                .setOnInsert("start", bucket.getStart())
+                                .setOnInsert("expireAt", bucket.getStart().plus(resolution.getLength())
+                                        .plus(statsProperties.retentionOf(resolution)))));
+            }
+        });
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatBucket.class)
+                    .upsert(upserts)
+                    .execute();
+            buckets.forEach(bucket -> pendingBuckets.applied(bucket.getFirst(), bucket.getSecond()));
+        } catch (BulkOperationException e) {
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+            }
+            for (int i = 0; i < buckets.size(); i++) {
+                if (!failed.contains(i)) {
+                    pendingBuckets.applied(buckets.get(i).getFirst(), buckets.get(i).getSecond());
+                }
+            }
+            log.warn("Stats buckets could not be flushed, {} buckets kept pending", failed.size(), e);
+        } catch (RuntimeException e) {
+            log.warn("Stats buckets could not be flushed, {} buckets kept pending", buckets.size(), e);
+        }
+    }
+
+    /**
+     * Aplica los contadores pendientes al documento antes de detener el aplicativo
+     */
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Actualiza la base con los valores del documento de contadores
+     */
+    @Scheduled(fixedDelayString = "${selector.stats.refresh-interval:PT5S}")
+    public synchronized void refresh() {
+        load();
+    }
+
+    /**
+     * Carga en la base los valores del documento de contadores
+     *
+     * @return false si el documento de contadores no existe
+     */
+    private boolean load() {
+        StatCounter statCounter = mongoTemplate.findById(COUNTER_ID, StatCounter.class);
+        if (statCounter == null) {
+            return false;
+        }
+        setBase(statCounter.getCountMutantDNA(), statCounter.getCountHumanDNA());
+        return true;
+    }
+
+    /**
+     * Corrige el documento de contadores y la base con la agregacion sobre toda la coleccion de
+     * resultados del nivel caliente, la cual cuenta la cantidad de registros y agrupa por el
+     * booleano mutant.
+     * <p>
+     * La correccion no reemplaza el documento, sino que le aplica con $inc la diferencia entre la
+     * agregacion y el documento, por lo que no se pierden los incrementos que otras instancias
+     * aplican mientras tanto. Antes de la agregacion se aplican los incrementos pendientes de esta
+     * instancia, y los que se acumulan despues se restan de la diferencia, ya que sus cadenas
+     * estan en la agregacion y se aplicaran en el siguiente {@link #flush()}. Los incrementos que
+     * otras instancias aun no aplican se cuentan dos veces, por lo que la correccion se debe
+     * programar en una sola instancia, y las cadenas insertadas durante la agregacion pueden
+     * quedar contadas dos veces o ninguna
+     */
+    @Scheduled(cron = "${selector.stats.reconcile-cron:-}")
+    public synchronized void reconcile() {
+        flushCounters();
+        Counters fence = counters;
+        long pendingMutants = addedMutants.sum() - fence.getFlushedMutants();
+        long pendingHumans = addedHumans.sum() - fence.getFlushedHumans();
+        StatCounter before = mongoTemplate.findById(COUNTER_ID, StatCounter.class);
+        long mutants = 0;
+        long humans = 0;
+        for (AggResultDNACount ar : findStats()) {
+            if (ar.isMutant()) {
+                mutants = ar.getTotal();
+            } else {
+                humans = ar.getTotal();
+            }
+        }
+        long deltaMutants = mutants - pendingMutants - (before != null ? before.getCountMutantDNA() : 0);
+        long deltaHumans = humans - pendingHumans - (before != null ? before.getCountHumanDNA() : 0);
+        StatCounter statCounter = mongoTemplate.findAndModify(byId(), incrementOf(deltaMutants, deltaHumans),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), StatCounter.class);
+        if (statCounter != null) {
+            setBase(statCounter.getCountMutantDNA(), statCounter.getCountHumanDNA());
+        }
+        log.info("Stats counters reconciled: {} mutant, {} human, corrected by {} mutant and {} human",
+                mutants, humans, deltaMutants, deltaHumans);
+    }
+
+    /**
+     * Realiza la tarea de agregacion a la base de datos MongoDB, la cual cuenta la
+     * cantidad de registros y agrupa por el booleano mutant.
+     * <p>
+     * Hace la coversion de datos a objetos por medio de la clase {@link AggResultDNACount},
+     * por lo que se espera como respuesta un listado de maximo 2 registros de objetos de dicha
+     * clase
+     *
+     * @return Listado de objetos de la clase {@link AggResultDNACount} que contiene el resultado de la agregacion
+     */
+    private List<AggResultDNACount> findStats() {
+        Aggregation agg = newAggregation(
+                group("mutant").count().as("total"),
+                project("total").and("mutant").previousOperation());
+        AggregationResults<AggResultDNACount> groupResults
+                = mongoTemplate.aggregate(agg, SequenceVerdict.class, AggResultDNACount.class);
+        return groupResults.getMappedResults();
+    }
+
+    /**
+     * Reemplaza el valor de la base
+     *
+     * @param mutants cantidad de cadenas de mutantes del documento
+     * @param humans  cantidad de cadenas de humanos del documento
+     */
+    private void setBase(long mutants, long humans) {
+        Counters current = counters;
+        counters = new Counters(mutants, humans, current.getFlushedMutants(), current.getFlushedHumans());
+    }
+
+    /**
+     * @return consulta del documento de contadores
+     */
+    static Query byId() {
+        return Query.query(where("_id").is(COUNTER_ID));
+    }
+
+    /**
+     * @param resolution resolucion del intervalo
+     * @param start      inicio del intervalo
+     * @return identificador del documento del intervalo
+     */
+    static String bucketId(StatResolution resolution, Instant start) {
+        return resolution.name() + ":" + start;
+    }
+
+    /**
+     * Crea la operacion $inc del documento de contadores
+     *
+     * @param mutants cantidad de cadenas nuevas de mutantes
+     * @param humans  cantidad de cadenas nuevas de humanos
+     * @return operacion de actualizacion del documento
+     */
+    static Update incrementOf(long mutants, long humans) {
+        return new Update()
+                .inc("countMutantDNA", mutants)
+                .inc("countHumanDNA", humans);
+    }
+
+    /**
+     * Valores del documento de contadores y cantidades acumuladas ya aplicadas al documento
+     */
+    @Value
+    static class Counters {
+
+        /**
+         * Cantidad de cadenas de mutantes del documento de contadores
+         */
+        long baseMutants;
+
+        /**
+         * Cantidad de cadenas de humanos del documento de contadores
+         */
+        long baseHumans;
+
+        /**
+         * Cantidad acumulada de cadenas de mutantes ya aplicada al documento
+         */
+        long flushedMutants;
+
+        /**
+         * Cantidad acumulada de cadenas de humanos ya aplicada al documento
+         */
+        long flushedHumans;
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.camp.magnetodnaselector.persitence.stats;
+
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria de las cadenas evaluadas agrupados por intervalo de tiempo, con un
+ * mapa de intervalos por cada {@link StatResolution}.
+ * <p>
+ * Cada cadena incrementa el intervalo de su instante de evaluacion en las tres resoluciones.
+ * Los conteos de cada intervalo son {@link LongAdder}, por lo que los incrementos concurrentes
+ * del intervalo en curso no se bloquean entre si. Los conteos no se reinician, ya que reiniciar
+ * un {@link LongAdder} no es atomico con los incrementos concurrentes: cada intervalo guarda
+ * ademas la cantidad ya aplicada a la base de datos, y los conteos pendientes son la diferencia
+ * entre el total acumulado y lo aplicado, igual que los contadores totales de
+ * {@link com.camp.magnetodnaselector.persitence.service.StatCounterService}.
+ * <p>
+ * El metodo {@link #pending(Instant)} lee los conteos pendientes para aplicarlos a la base de
+ * datos y el metodo {@link #applied(StatResolution, StatBucketModel)} los descuenta solo cuando
+ * se aplicaron, por lo que el metodo {@link #collect(StatResolution, Instant)} los sigue leyendo
+ * mientras se aplican y nunca quedan fuera de la memoria y de la base de datos a la vez. Entre
+ * la escritura en la base de datos y el descuento una consulta puede contar un incremento dos
+ * veces, pero no lo omite.
+ * <p>
+ * Un intervalo cerrado se elimina del mapa cuando no tiene conteos pendientes despues de haber
+ * terminado el intervalo siguiente, ya que las cadenas se registran al guardarse y la escritura
+ * diferida puede incrementar un intervalo unos instantes despues de que termina.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class StatBucketCounters {
+
+    /**
+     * Intervalos de cada resolucion indexados por su inicio
+     */
+    private final Map<StatResolution, Map<Instant, Counts>> buckets = new EnumMap<>(StatResolution.class);
+
+    /**
+     * Crea los mapas vacios de las resoluciones, despues de construido el objeto el mapa de
+     * resoluciones solo se lee
+     */
+    public StatBucketCounters() {
+        for (StatResolution resolution : StatResolution.values()) {
+            buckets.put(resolution, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Incrementa los intervalos que contienen el instante de evaluacion en todas las resoluciones
+     *
+     * @param evaluatedAt instante de evaluacion de las cadenas
+     * @param mutants     cantidad de cadenas de mutantes
+     * @param humans      cantidad de cadenas de humanos
+     */
+    public void add(Instant evaluatedAt, long mutants, long humans) {
+        for (StatResolution resolution : StatResolution.values()) {
+            add(resolution, resolution.truncate(evaluatedAt), mutants, humans);
+        }
+    }
+
+    /**
+     * Incrementa un intervalo de una resolucion
+     *
+     * @param resolution resolucion del intervalo
+     * @param start      inicio del intervalo
+     * @param mutants    cantidad de cadenas de mutantes
+     * @param humans     cantidad de cadenas de humanos
+     */
+    private void add(StatResolution resolution, Instant start, long mutants, long humans) {
+        Map<Instant, Counts> counts = buckets.get(resolution);
+        Counts bucket = counts.get(start);
+        if (bucket == null) {
+            bucket = counts.computeIfAbsent(start, key -> new Counts());
+        }
+        if (mutants != 0) {
+            bucket.mutants.add(mutants);
+        }
+        if (humans != 0) {
+            bucket.humans.add(humans);
+        }
+    }
+
+    /**
+     * Lee los conteos pendientes de aplicar de todos los intervalos sin descontarlos, y elimina
+     * los intervalos sin conteos pendientes que terminaron antes del intervalo anterior al que
+     * esta en curso. Si un incremento llega al intervalo mientras se elimina, sus conteos se
+     * devuelven al mapa
+     *
+     * @param now instante actual
+     * @return conteos pendientes de cada resolucion, sin los intervalos vacios
+     */
+    public synchronized Map<StatResolution, List<StatBucketModel>> pending(Instant now) {
+        Map<StatResolution, List<StatBucketModel>> pending = new EnumMap<>(StatResolution.class);
+        for (StatResolution resolution : StatResolution.values()) {
+            Instant expired = resolution.truncate(now).minus(resolution.getLength());
+            Map<Instant, Counts> counts = buckets.get(resolution);
+            List<StatBucketModel> list = new ArrayList<>();
+            for (Map.Entry<Instant, Counts> entry : counts.entrySet()) {
+                Counts bucket = entry.getValue();
+                long mutants = bucket.pendingMutants();
+                long humans = bucket.pendingHumans();
+                if (mutants != 0 || humans != 0) {
+                    list.add(bucketOf(entry.getKey(), mutants, humans));
+                } else if (entry.getKey().isBefore(expired) && counts.remove(entry.getKey(), bucket)) {
+                    long late = bucket.pendingMutants();
+                    long lateHumans = bucket.pendingHumans();
+                    if (late != 0 || lateHumans != 0) {
+                        add(resolution, entry.getKey(), late, lateHumans);
+                    }
+                }
+            }
+            if (!list.isEmpty()) {
+                pending.put(resolution, list);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Descuenta de su intervalo los conteos leidos por {@link #pending(Instant)} que ya se
+     * aplicaron a la base de datos
+     *
+     * @param resolution resolucion del intervalo
+     * @param bucket     conteos aplicados del intervalo
+     */
+    public synchronized void applied(StatResolution resolution, StatBucketModel bucket) {
+        Counts counts = buckets.get(resolution).get(bucket.getStart());
+        if (counts != null) {
+            counts.appliedMutants += bucket.getStats().getCountMutantDNA();
+            counts.appliedHumans += bucket.getStats().getCountHumanDNA();
+        }
+    }
+
+    /**
+     * Lee los conteos pendientes de aplicar de los intervalos de una resolucion que inician en
+     * el instante from o despues, incluyendo los que se estan aplicando
+     *
+     * @param resolution resolucion de los intervalos
+     * @param from       inicio del primer intervalo
+     * @return conteos de los intervalos, sin los intervalos vacios
+     */
+    public List<StatBucketModel> collect(StatResolution resolution, Instant from) {
+        List<StatBucketModel> list = new ArrayList<>();
+        buckets.get(resolution).forEach((start, counts) -> {
+            long mutants = counts.pendingMutants();
+            long humans = counts.pendingHumans();
+            if (!start.isBefore(from) && (mutants != 0 || humans != 0)) {
+                list.add(bucketOf(start, mutants, humans));
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Elimina los intervalos de una resolucion que iniciaron antes del instante indicado
+     *
+     * @param resolution resolucion de los intervalos
+     * @param before     instante limite
+     */
+    public void trim(StatResolution resolution, Instant before) {
+        buckets.get(resolution).keySet().removeIf(start -> start.isBefore(before));
+    }
+
+    /**
+     * @param resolution resolucion de los intervalos
+     * @return cantidad de intervalos de la resolucion en memoria
+     */
+    public int size(StatResolution resolution) {
+        return buckets.get(resolution).size();
+    }
+
+    /**
+     * Crea el modelo de negocio de un intervalo sin calcular el ratio
+     *
+     * @param start   inicio del intervalo
+     * @param mutants cantidad de cadenas de mutantes
+     * @param humans  cantidad de cadenas de humanos
+     * @return conteos del intervalo
+     */
+    public static StatBucketModel bucketOf(Instant start, long mutants, long humans) {
+        return StatBucketModel.builder()
+                .start(start)
+                .stats(StatModel.builder().countMutantDNA(mutants).countHumanDNA(humans).build())
+                .build();
+    }
+
+    /**
+     * Conteos de un intervalo
+     */
+    private static final class Counts {
+
+        /**
+         * Cantidad de cadenas de mutantes del intervalo
+         */
+        private final LongAdder mutants = new LongAdder();
+
+        /**
+         * Cantidad de cadenas de humanos del intervalo
+         */
+        private final LongAdder humans = new LongAdder();
+
+        /**
+         * Cantidad de cadenas de mutantes ya aplicada a la base de datos, solo se modifica con el
+         * bloqueo de {@link StatBucketCounters}
+         */
+        private volatile long appliedMutants;
+
+        /**
+         * Cantidad de cadenas de humanos ya aplicada a la base de datos, solo se modifica con el
+         * bloqueo de {@link StatBucketCounters}
+         */
+        private volatile long appliedHumans;
+
+        /**
+         * Lee lo aplicado antes que el total, de manera que un descuento concurrente no deje
+         * fuera un conteo que aun se lee del total
+         *
+         * @return cantidad de cadenas de mutantes pendientes de aplicar
+         */
+        private long pendingMutants() {
+            long applied = appliedMutants;
+            return mutants.sum() - applied;
+        }
+
+        /**
+         * @return cantidad de cadenas de humanos pendientes de aplicar
+         */
+        private long pendingHumans() {
+            long applied = appliedHumans;
+            return humans.sum() - applied;
+        }
+
+    }
+
+}
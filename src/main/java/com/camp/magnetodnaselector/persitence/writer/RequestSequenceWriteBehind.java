@@ -0,0 +1,651 @@
+package com.camp.magnetodnaselector.persitence.writer;
+
+import com.camp.magnetodnaselector.config.properties.WriteBehindProperties;
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
+import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.camp.magnetodnaselector.persitence.service.StatCounterService;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteUpsert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Escritura diferida (write-behind) de los documentos {@link RequestSequence}.
+ * <p>
+ * Las peticiones dejan sus documentos en una cola acotada y un hilo en segundo plano los
+ * guarda en MongoDB por lotes en dos niveles. Primero se guarda el resultado de cada cadena en
+ * el nivel caliente {@link SequenceVerdict} con una operacion bulk desordenada de upserts por la
+ * huella de contenido, los cuales solo asignan los campos al insertar el documento, de manera
+ * que un resultado que ya existe no se modifica ni se duplica. Despues, si el archivo esta
+ * habilitado, se guarda la secuencia completa de las cadenas nuevas en el archivo
+ * {@link RequestSequence} con otra operacion bulk. Un lote se guarda cuando completa
+ * {@link WriteBehindProperties#getBatchSize()} documentos o cuando su primer documento
+ * cumple {@link WriteBehindProperties#getFlushInterval()} en la cola.
+ * <p>
+ * Si la cola esta llena el metodo {@link #submit(RequestSequence)} retorna false para que
+ * la peticion guarde el documento por si misma, lo que limita la velocidad de las peticiones
+ * a la de la base de datos. Un lote que falla se reintenta con una espera acotada, y los
+ * documentos solo se notifican como guardados, por medio de {@link #onWritten(Consumer)}, despues
+ * de guardar su resultado. Al detener la aplicacion se guardan los documentos pendientes.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+public class RequestSequenceWriteBehind implements AutoCloseable {
+
+    /**
+     * Codigo de error de MongoDB para una llave duplicada
+     */
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final StatCounterService statCounterService;
+
+    private final WriteBehindProperties properties;
+
+    /**
+     * Determina si la secuencia completa de las cadenas nuevas se guarda en el archivo
+     */
+    private final boolean archive;
+
+    /**
+     * Cola acotada de documentos pendientes de guardar
+     */
+    private final BlockingQueue<RequestSequence> queue;
+
+    /**
+     * Documentos pendientes indexados por su huella, para responder las consultas
+     * de cadenas que aun no se han guardado
+     */
+    private final Map<String, RequestSequence> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong collisions = new AtomicLong();
+
+    /**
+     * Observador de los documentos cuyo resultado quedo guardado en el nivel caliente
+     */
+    private volatile Consumer<List<RequestSequence>> writtenListener = written -> {
+    };
+
+    /**
+     * Bloqueo que impide dejar documentos en la cola mientras se detiene la escritura, de manera
+     * que ningun documento quede en la cola despues de vaciarla
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Hilo que guarda los lotes en la base de datos
+     */
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    /**
+     * Constructor de la escritura diferida
+     *
+     * @param mongoTemplate      objeto que implementa las funcionalidades generales para MongoDB
+     * @param statCounterService contadores de cadenas de humanos y mutantes registradas
+     * @param properties         propiedades de configuracion de la escritura diferida
+     * @param archive            determina si la secuencia completa se guarda en el archivo
+     */
+    public RequestSequenceWriteBehind(MongoTemplate mongoTemplate, StatCounterService statCounterService,
+                                      WriteBehindProperties properties, boolean archive) {
+        this.mongoTemplate = mongoTemplate;
+        this.statCounterService = statCounterService;
+        this.properties = properties;
+        this.archive = archive;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+    }
+
+    /**
+     * Registra el observador de los documentos cuyo resultado quedo guardado en el nivel caliente,
+     * el cual se llama desde el hilo que guarda el lote
+     *
+     * @param listener observador de los documentos guardados
+     */
+    public void onWritten(Consumer<List<RequestSequence>> listener) {
+        this.writtenListener = listener;
+    }
+
+    /**
+     * Inicia el hilo que guarda los lotes si la escritura diferida esta habilitada
+     */
+    public void start() {
+        lock.writeLock().lock();
+        try {
+            if (!properties.isEnabled() || running) {
+                return;
+            }
+            running = true;
+            flusher = new Thread(this::run, "dna-write-behind");
+            flusher.setDaemon(true);
+            flusher.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deja el documento en la cola de escritura
+     *
+     * @param requestSequence documento a guardar
+     * @return true si el documento quedo en la cola, false si la escritura diferida no esta
+     * activa o la cola esta llena y el documento se debe guardar directamente
+     */
+    public boolean submit(RequestSequence requestSequence) {
+        lock.readLock().lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            if (pending.putIfAbsent(requestSequence.getHash(), requestSequence) != null) {
+                return true;
+            }
+            if (!queue.offer(requestSequence)) {
+                pending.remove(requestSequence.getHash(), requestSequence);
+                rejected.incrementAndGet();
+                return false;
+            }
+            submitted.incrementAndGet();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna el documento con la huella indicada si aun esta pendiente de guardar
+     *
+     * @param hash huella de contenido de la cadena
+     * @return documento pendiente o null si no hay uno con esa huella
+     */
+    public RequestSequence findPending(String hash) {
+        return pending.get(hash);
+    }
+
+    /**
+     * Detiene el hilo de escritura esperando a que se guarden los documentos pendientes. Despues
+     * de marcar la escritura como detenida ningun documento entra a la cola, y los que quedan en
+     * ella al terminar el hilo se guardan en el hilo que detiene la escritura
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        lock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = flusher;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            thread.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Write-behind queue was not drained, {} documents were not saved", queue.size());
+            thread.interrupt();
+            return;
+        }
+        List<RequestSequence> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+    }
+
+    /**
+     * Ciclo del hilo de escritura, termina cuando se detiene y la cola esta vacia
+     */
+    private void run() {
+        List<RequestSequence> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                RequestSequence first = queue.poll(properties.getFlushInterval().toNanos(), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    fill(batch);
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Completa el lote con los documentos de la cola hasta alcanzar el tamanio del lote
+     * o el tiempo maximo de espera del primer documento
+     *
+     * @param batch lote con el primer documento
+     * @throws InterruptedException si el hilo es interrumpido mientras espera
+     */
+    private void fill(List<RequestSequence> batch) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            RequestSequence next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Crea la consulta del documento por su huella de contenido
+     *
+     * @param requestSequence documento a guardar
+     * @return consulta por el campo hash
+     */
+    public static Query byHash(RequestSequence requestSequence) {
+        return Query.query(Criteria.where("hash").is(requestSequence.getHash()));
+    }
+
+    /**
+     * Crea la consulta del resultado del nivel caliente por su huella de contenido
+     *
+     * @param requestSequence documento a guardar
+     * @return consulta por el identificador del resultado
+     */
+    public static Query verdictByHash(RequestSequence requestSequence) {
+        return Query.query(Criteria.where("_id").is(requestSequence.getHash()));
+    }
+
+    /**
+     * Crea la actualizacion que asigna los campos del resultado del nivel caliente solo cuando
+     * el upsert lo inserta
+     *
+     * @param requestSequence documento a guardar
+     * @return actualizacion con el resultado, el tamanio, la fecha de evaluacion y la suma de
+     * verificacion de la cadena
+     */
+    public static Update verdictOnInsert(RequestSequence requestSequence) {
+        Update update = new Update()
+                .setOnInsert("mutant", requestSequence.isMutant())
+                .setOnInsert("n", sizeOf(requestSequence));
+        if (requestSequence.getEvaluatedAt() != null) {
+            update.setOnInsert("t", requestSequence.getEvaluatedAt());
+        }
+        if (requestSequence.getChecksum() != null) {
+            update.setOnInsert("c", requestSequence.getChecksum());
+        }
+        return update;
+    }
+
+    /**
+     * @param requestSequence documento a guardar
+     * @return tamanio N de la matriz del documento en cualquiera de sus formatos
+     */
+    public static int sizeOf(RequestSequence requestSequence) {
+        return requestSequence.getSize() != null ? requestSequence.getSize() : requestSequence.getSequence().length;
+    }
+
+    /**
+     * Crea la actualizacion que asigna los campos del documento del archivo solo cuando el
+     * upsert lo inserta
+     *
+     * @param requestSequence documento a guardar
+     * @return actualizacion con los campos de la secuencia, el resultado y la fecha de evaluacion
+     */
+    public static Update setOnInsert(RequestSequence requestSequence) {
+        Update update = new Update();
+        if (requestSequence.getPacked() != null) {
+            update.setOnInsert("size", requestSequence.getSize())
+                    .setOnInsert("packed", requestSequence.getPacked())
+                    .setOnInsert("deflated", requestSequence.isDeflated());
+        } else {
+            update.setOnInsert("sequence", requestSequence.getSequence());
+        }
+        if (requestSequence.getEvaluatedAt() != null) {
+            update.setOnInsert("evaluatedAt", requestSequence.getEvaluatedAt());
+        }
+        return update.setOnInsert("mutant", requestSequence.isMutant());
+    }
+
+    /**
+     * Guarda los resultados del lote en el nivel caliente por medio del metodo
+     * {@link #upsertVerdicts(List, List)} y despues guarda en el archivo la secuencia completa de
+     * las cadenas nuevas. No reintenta los documentos que fallan, lo cual hace el hilo de escritura
+     *
+     * @param batch lote de documentos
+     * @throws BulkOperationException si algun documento no se pudo guardar por un error distinto
+     *                                a la llave duplicada
+     */
+    public void write(List<RequestSequence> batch) {
+        List<RequestSequence> inserted = new ArrayList<>(batch.size());
+        try {
+            upsertVerdicts(batch, inserted);
+        } catch (BulkOperationException e) {
+            archive(inserted);
+            throw e;
+        }
+        archive(inserted);
+    }
+
+    /**
+     * Guarda los resultados del lote en el nivel caliente con una operacion bulk desordenada de
+     * upserts e incrementa los contadores de las estadisticas con los resultados insertados. Los
+     * que ya existen en la base de datos, o que otra escritura inserto al mismo tiempo con un error
+     * de llave duplicada, no se modifican y se verifican con el metodo {@link #verifyExisting(List, List)}.
+     * Los documentos cuyo resultado quedo guardado se notifican al observador registrado con
+     * {@link #onWritten(Consumer)}
+     *
+     * @param batch    lote de documentos
+     * @param inserted lista a la que se agregan los documentos cuyo resultado se inserto, aun si
+     *                 el metodo lanza una excepcion
+     * @throws BulkOperationException si algun documento no se pudo guardar por un error distinto
+     *                                a la llave duplicada
+     */
+    private void upsertVerdicts(List<RequestSequence> batch, List<RequestSequence> inserted) {
+        List<Pair<Query, Update>> verdicts = new ArrayList<>(batch.size());
+        for (RequestSequence requestSequence : batch) {
+            verdicts.add(Pair.of(verdictByHash(requestSequence), verdictOnInsert(requestSequence)));
+        }
+        try {
+            inserted.addAll(inserted(batch, mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SequenceVerdict.class)
+                    .upsert(verdicts)
+                    .execute()
+                    .getUpserts()));
+        } catch (BulkOperationException e) {
+            inserted.addAll(inserted(batch, e.getResult().getUpserts()));
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                writtenListener.accept(inserted);
+                throw e;
+            }
+            for (BulkWriteError error : e.getErrors()) {
+                log.debug("Sequence verdict {} was inserted concurrently: {}",
+                        batch.get(error.getIndex()).getHash(), error.getMessage());
+            }
+        }
+        List<RequestSequence> written = new ArrayList<>(inserted);
+        written.addAll(verifyExisting(batch, inserted));
+        writtenListener.accept(written);
+    }
+
+    /**
+     * Verifica que los resultados que ya existian en el nivel caliente para los documentos del
+     * lote que no se insertaron corresponden a la misma cadena y no a otra con la misma huella,
+     * comparando la suma de verificacion o, en los resultados sin suma de verificacion, la
+     * secuencia del archivo. Una colision no se puede guardar porque el resultado se identifica
+     * por la huella, por lo que se registra en el log y en el contador {@link #getCollisions()},
+     * y la busqueda de la cadena no la encuentra y la vuelve a evaluar
+     *
+     * @param batch    lote de documentos
+     * @param inserted documentos cuyo resultado se inserto en el nivel caliente
+     * @return documentos cuyo resultado ya existia para la misma cadena
+     */
+    private List<RequestSequence> verifyExisting(List<RequestSequence> batch, List<RequestSequence> inserted) {
+        List<RequestSequence> same = new ArrayList<>();
+        if (inserted.size() == batch.size()) {
+            return same;
+        }
+        Set<RequestSequence> insertedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        insertedSet.addAll(inserted);
+        Map<String, RequestSequence> existing = new HashMap<>();
+        for (RequestSequence requestSequence : batch) {
+            if (!insertedSet.contains(requestSequence)) {
+                existing.putIfAbsent(requestSequence.getHash(), requestSequence);
+            }
+        }
+        for (SequenceVerdict verdict : mongoTemplate.find(Query.query(Criteria.where("_id").in(existing.keySet())),
+                SequenceVerdict.class)) {
+            RequestSequence requestSequence = existing.get(verdict.getHash());
+            if (sameSequence(verdict, requestSequence)) {
+                same.add(requestSequence);
+            } else {
+                collisions.incrementAndGet();
+                log.error("Content hash collision, sequence verdict {} was saved for a different DNA sequence",
+                        verdict.getHash());
+            }
+        }
+        return same;
+    }
+
+    /**
+     * @param verdict         resultado guardado en el nivel caliente
+     * @param requestSequence documento con la misma huella
+     * @return true si el resultado guardado corresponde a la cadena del documento
+     */
+    private boolean sameSequence(SequenceVerdict verdict, RequestSequence requestSequence) {
+        if (verdict.getSize() != sizeOf(requestSequence)) {
+            return false;
+        }
+        if (verdict.getChecksum() != null && requestSequence.getChecksum() != null) {
+            return verdict.getChecksum().equals(requestSequence.getChecksum());
+        }
+        RequestSequence archived = mongoTemplate.findOne(byHash(requestSequence), RequestSequence.class);
+        return archived == null || RequestSequenceCodec.matches(archived, RequestSequenceCodec.decode(requestSequence));
+    }
+
+    /**
+     * Guarda la secuencia completa de las cadenas nuevas en el archivo con una operacion bulk
+     * desordenada de upserts, si el archivo no esta habilitado no hace nada
+     *
+     * @param inserted documentos cuyo resultado se inserto en el nivel caliente
+     * @throws BulkOperationException si algun documento no se pudo guardar por un error distinto
+     *                                a la llave duplicada
+     */
+    private void archive(List<RequestSequence> inserted) {
+        if (!archive || inserted.isEmpty()) {
+            return;
+        }
+        List<Pair<Query, Update>> upserts = new ArrayList<>(inserted.size());
+        for (RequestSequence requestSequence : inserted) {
+            upserts.add(Pair.of(byHash(requestSequence), setOnInsert(requestSequence)));
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequestSequence.class)
+                    .upsert(upserts)
+                    .execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Guarda un lote de la cola en el nivel caliente y en el archivo. Los documentos que no se
+     * pudieron guardar se reintentan hasta {@link WriteBehindProperties#getRetries()} veces,
+     * esperando entre cada intento el tiempo {@link WriteBehindProperties#getRetryBackoff()}, que
+     * se duplica en cada intento. Solo se reintenta la etapa que fallo de cada documento, es decir
+     * el resultado o la secuencia del archivo. Mientras se reintentan, los documentos siguen
+     * pendientes y se responden en las consultas; los que fallan en todos los intentos se
+     * registran en el contador {@link #getFailed()}
+     *
+     * @param batch lote de documentos
+     */
+    private void flush(List<RequestSequence> batch) {
+        List<RequestSequence> verdicts = batch;
+        List<RequestSequence> archives = new ArrayList<>();
+        RuntimeException error = null;
+        try {
+            for (int attempt = 0; attempt <= properties.getRetries(); attempt++) {
+                if (attempt > 0 && !backoff(attempt)) {
+                    break;
+                }
+                error = null;
+                List<RequestSequence> inserted = new ArrayList<>();
+                try {
+                    if (!verdicts.isEmpty()) {
+                        upsertVerdicts(verdicts, inserted);
+                        verdicts = Collections.emptyList();
+                    }
+                } catch (BulkOperationException e) {
+                    verdicts = failed(verdicts, e);
+                    error = e;
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+                archives.addAll(inserted);
+                try {
+                    archive(archives);
+                    archives = new ArrayList<>();
+                } catch (BulkOperationException e) {
+                    archives = failed(archives, e);
+                    error = e;
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+                if (error == null) {
+                    return;
+                }
+                log.warn("Write-behind batch attempt {} failed for {} documents", attempt + 1,
+                        verdicts.size() + archives.size(), error);
+            }
+            failed.addAndGet(verdicts.size() + archives.size());
+            log.error("Write-behind batch failed for {} documents", verdicts.size() + archives.size(), error);
+        } finally {
+            batches.incrementAndGet();
+            for (RequestSequence requestSequence : batch) {
+                pending.remove(requestSequence.getHash(), requestSequence);
+            }
+        }
+    }
+
+    /**
+     * Espera antes de un nuevo intento de guardar un lote
+     *
+     * @param attempt numero del intento, mayor a cero
+     * @return false si el hilo fue interrumpido mientras esperaba
+     */
+    private boolean backoff(int attempt) {
+        try {
+            Thread.sleep(properties.getRetryBackoff().toMillis() << Math.min(attempt - 1, 16));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @param docs documentos de la operacion bulk
+     * @param e    excepcion de la operacion bulk
+     * @return documentos que fallaron por un error distinto a la llave duplicada
+     */
+    private static List<RequestSequence> failed(List<RequestSequence> docs, BulkOperationException e) {
+        List<RequestSequence> failed = new ArrayList<>();
+        for (BulkWriteError error : e.getErrors()) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                failed.add(docs.get(error.getIndex()));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Registra los documentos del lote cuyo resultado fue insertado por el upsert e incrementa
+     * los contadores de las estadisticas con ellos, cada uno en el intervalo de su fecha de evaluacion
+     *
+     * @param batch   lote de documentos
+     * @param upserts resultado de los upserts que insertaron un resultado nuevo
+     * @return documentos del lote cuyo resultado es nuevo
+     */
+    private List<RequestSequence> inserted(List<RequestSequence> batch, List<BulkWriteUpsert> upserts) {
+        List<RequestSequence> inserted = new ArrayList<>(upserts.size());
+        for (BulkWriteUpsert upsert : upserts) {
+            RequestSequence requestSequence = batch.get(upsert.getIndex());
+            inserted.add(requestSequence);
+            statCounterService.increment(requestSequence.getEvaluatedAt(),
+                    requestSequence.isMutant() ? 1 : 0, requestSequence.isMutant() ? 0 : 1);
+        }
+        written.addAndGet(upserts.size());
+        return inserted;
+    }
+
+    /**
+     * @return cantidad de documentos pendientes en la cola
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return cantidad de documentos que se dejaron en la cola
+     */
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     * @return cantidad de documentos rechazados por la cola llena que se guardaron directamente
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return cantidad de resultados nuevos insertados por los lotes en el nivel caliente
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return cantidad de lotes ejecutados
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * @return cantidad de documentos que no se pudieron guardar por un error distinto a la llave duplicada
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return cantidad de documentos cuya huella ya estaba guardada para una cadena distinta
+     */
+    public long getCollisions() {
+        return collisions.get();
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.camp.magnetodnaselector.restcontroller;
+
+import com.camp.magnetodnaselector.config.model.ErrorModel;
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.service.ReactiveSelectorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Funciones de atencion de los servicios REST del perfil reactive, expuestas por medio de las
+ * rutas de {@link com.camp.magnetodnaselector.config.SelectorRouterConfig}.
+ * <p>
+ * Los servicios y sus respuestas son los mismos de {@link SelectorRestController}. El cuerpo
+ * de la peticion se lee en los hilos del event loop y la evaluacion de la cadena se compone
+ * con {@link ReactiveSelectorService}, la cual no bloquea el event loop, por lo que no se
+ * cambia de hilo en esta clase.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Profile("reactive")
+@Component
+@RequiredArgsConstructor
+public class SelectorHandler {
+
+    /**
+     * Objecto de llamado de funcionalidades
+     */
+    private final ReactiveSelectorService reactiveSelectorService;
+
+    /**
+     * Servicio de prueba para verificar si el aplicativo esta en linea
+     *
+     * @param request peticion http
+     * @return texto con el estado del aplicativo
+     */
+    public Mono<ServerResponse> getHealthMsg(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue("The DNA selector is online");
+    }
+
+    /**
+     * Evalua la cadena del cuerpo de la peticion, retorna un cuerpo vacio con el codigo 200 si la
+     * cadena pertenece a un mutante y 403 si no.
+     * <p>
+     * Si la cadena no es valida o el cuerpo no se puede leer el codigo es 400, y ante cualquier
+     * otro error es 500, con el mismo objeto {@link ErrorModel} del perfil por defecto
+     *
+     * @param request peticion http
+     * @return respuesta con el codigo correspondiente segun la validacion de la cadena
+     */
+    public Mono<ServerResponse> isMutant(ServerRequest request) {
+        return request.bodyToMono(SequenceDNAModel.class)
+                .defaultIfEmpty(SequenceDNAModel.builder().build())
+                .flatMap(reactiveSelectorService::isMutant)
+                .flatMap(mutant -> ServerResponse.status(mutant ? HttpStatus.OK : HttpStatus.FORBIDDEN).build())
+                .onErrorResume(SelectorHandler::isBadRequest, e -> error(HttpStatus.BAD_REQUEST, e))
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, e));
+    }
+
+    /**
+     * Retorna las estadisticas de las cadenas evaluadas, las cuales se leen de los contadores
+     * en memoria. Con el parametro window las estadisticas corresponden a la ventana de tiempo
+     *
+     * @param request peticion http
+     * @return respuesta con el objeto de estadisticas en formato JSON
+     */
+    public Mono<ServerResponse> getStat(ServerRequest request) {
+        Optional<String> window = request.queryParam("window");
+        Mono<StatModel> stats = window.isPresent() ?
+                reactiveSelectorService.findStats(window.get()) :
+                reactiveSelectorService.findStats();
+        return stats
+                .flatMap(statModel -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(statModel))
+                .onErrorResume(SelectorHandler::isBadRequest, e -> error(HttpStatus.BAD_REQUEST, e))
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, e));
+    }
+
+    /**
+     * Retorna la serie de estadisticas por intervalo de tiempo de los parametros resolution y
+     * window
+     *
+     * @param request peticion http
+     * @return respuesta con las estadisticas de cada intervalo en formato JSON
+     */
+    public Mono<ServerResponse> getStatSeries(ServerRequest request) {
+        String resolution = request.queryParam("resolution").orElse(null);
+        String window = request.queryParam("window").orElse(null);
+        return reactiveSelectorService.findStatSeries(resolution, window)
+                .flatMap(series -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(series))
+                .onErrorResume(SelectorHandler::isBadRequest, e -> error(HttpStatus.BAD_REQUEST, e))
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, e));
+    }
+
+    /**
+     * @param e error de la evaluacion
+     * @return true si el error corresponde a una peticion no valida
+     */
+    private static boolean isBadRequest(Throwable e) {
+        return e instanceof InvalidDNAException || e instanceof InvalidStatWindowException
+                || e instanceof ServerWebInputException || e instanceof DecodingException;
+    }
+
+    /**
+     * Crea la respuesta de error con el objeto {@link ErrorModel}
+     *
+     * @param status codigo de la respuesta
+     * @param e      error interceptado
+     * @return respuesta con el detalle del error
+     */
+    private static Mono<ServerResponse> error(HttpStatus status, Throwable e) {
+        ErrorModel errorModel = ErrorModel.builder()
+                .timestamp(System.currentTimeMillis())
+                .type(e.getClass().getSimpleName())
+                .message(e.getMessage()).build();
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(errorModel);
+    }
+
+}
@@ -2,21 +2,43 @@ package com.camp.magnetodnaselector.restcontroller;
 
 
 import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.BatchResultModel;
 import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.usecase.SequenceDNAUseCase;
 import com.camp.magnetodnaselector.service.SelectorService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Clase controladora de servicios REST donde se encuentra la exposicion de las
- * funcionalidades solicitadas para ser consumidas a traves de metodos HTTP
+ * funcionalidades solicitadas para ser consumidas a traves de metodos HTTP.
+ * <p>
+ * Se usa en todos los perfiles excepto en el perfil reactive, el cual expone los mismos
+ * servicios por medio de {@link SelectorHandler}
  *
  * @author Carlos Alberto Manrique Palacios
  */
+@Profile("!reactive")
 @RestController
 @RequestMapping("selector")
 @RequiredArgsConstructor
@@ -27,6 +49,11 @@ public class SelectorRestController {
      */
     private final SelectorService selectorService;
 
+    /**
+     * Objeto de Jackson del contenedor para leer las peticiones por lotes
+     */
+    private final ObjectMapper objectMapper;
+
     /**
      * Endpoint de prueba para verificar si el aplicativo
      * esta en linea. Se debe consumir desde el navegador con
@@ -62,17 +89,119 @@ public class SelectorRestController {
     }
 
     /**
-     * Metodo que expone por POST la funcionalidad de getStat,
+     * Metodo que expone por POST la evaluacion de un lote de cadenas de ADN, recibe
+     * un arreglo JSON de objetos con el mismo formato del servicio /mutant.
+     * <p>
+     * Los elementos del arreglo se leen uno a uno y se deja de leer al pasar la cantidad
+     * maxima del lote, por lo que un arreglo mas grande no se lee completo en memoria y el
+     * lote leido es rechazado por la clase de negocio.
+     * <p>
+     * Retorna con codigo 200 el resultado de cada cadena en la misma posicion en que se
+     * recibio, el cual tiene el campo mutant si la cadena se pudo evaluar o el campo error
+     * con el mensaje de validacion si la cadena no es valida
+     *
+     * @param request objecto de la solictud realizada
+     * @return Objecto de la clases {@link ResponseEntity} con el resultado de cada cadena
+     * @throws InvalidDNAException Excepcion lanzada si el lote supera la cantidad maxima permitida
+     * @throws IOException         Excepcion lanzada si no se puede leer la peticion
+     */
+    @PostMapping(value = "/mutant/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchResultModel>> isMutantBatch(HttpServletRequest request) throws IOException {
+        List<SequenceDNAModel> sequences = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+            expect(parser.nextToken() == JsonToken.START_ARRAY, request);
+            ObjectReader reader = objectMapper.readerFor(SequenceDNAModel.class);
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && sequences.size() <= SequenceDNAUseCase.MAX_BATCH_SIZE) {
+                expect(token != null, request);
+                sequences.add(reader.readValue(parser));
+            }
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e,
+                    new ServletServerHttpRequest(request));
+        }
+        return new ResponseEntity<>(selectorService.isMutantBatch(sequences), HttpStatus.OK);
+    }
+
+    /**
+     * Metodo que expone por POST la evaluacion de un lote de cadenas de ADN en formato
+     * NDJSON, donde cada linea es un objeto con el mismo formato del servicio /mutant.
+     * Las lineas se leen una a una y se deja de leer al pasar la cantidad maxima del lote,
+     * de manera que el lote leido es rechazado por la clase de negocio con la
+     * {@link InvalidDNAException}. La respuesta es la misma del metodo
+     * {@link #isMutantBatch(HttpServletRequest)}
+     *
+     * @param request objecto de la solictud realizada
+     * @return Objecto de la clases {@link ResponseEntity} con el resultado de cada cadena
+     * @throws InvalidDNAException Excepcion lanzada si el lote supera la cantidad maxima permitida
+     * @throws IOException         Excepcion lanzada si no se puede leer la peticion
+     */
+    @PostMapping(value = "/mutant/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchResultModel>> isMutantBatchNdjson(HttpServletRequest request) throws IOException {
+        List<SequenceDNAModel> sequences = new ArrayList<>();
+        try (MappingIterator<SequenceDNAModel> lines = objectMapper.readerFor(SequenceDNAModel.class)
+                .readValues(request.getInputStream())) {
+            while (lines.hasNextValue() && sequences.size() <= SequenceDNAUseCase.MAX_BATCH_SIZE) {
+                sequences.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e,
+                    new ServletServerHttpRequest(request));
+        }
+        return new ResponseEntity<>(selectorService.isMutantBatch(sequences), HttpStatus.OK);
+    }
+
+    /**
+     * Verifica una condicion de la estructura del arreglo JSON del lote
+     *
+     * @param condition condicion que debe cumplir el JSON
+     * @param request   objecto de la solictud realizada
+     * @throws HttpMessageNotReadableException si no se cumple la condicion
+     */
+    private static void expect(boolean condition, HttpServletRequest request) {
+        if (!condition) {
+            throw new HttpMessageNotReadableException("JSON parse error: unexpected structure for DNA batch",
+                    new ServletServerHttpRequest(request));
+        }
+    }
+
+    /**
+     * Metodo que expone por GET la funcionalidad de getStat,
      * retorna un objecto de la clases {@link ResponseEntity} que contiene el
      * objeto de negocio de la clase {@link StatModel} el cual es representado en
-     * formato JSON al usuario
+     * formato JSON al usuario.
+     * <p>
+     * Con el parametro window, como 15m, 1h o 7d, los conteos corresponden solo a las
+     * cadenas evaluadas en esa ventana de tiempo
      *
+     * @param window ventana de tiempo opcional
      * @return Objecto de la clases {@link ResponseEntity} con el objeto de negocio
      * que tiene los conteos solicitados en las especificaiones del problema
+     * @throws InvalidStatWindowException Excepcion lanzada si la ventana no es valida
      */
     @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<StatModel> getStat() {
-        return new ResponseEntity<>(selectorService.findStats(), HttpStatus.OK);
+    public ResponseEntity<StatModel> getStat(@RequestParam(required = false) String window)
+            throws InvalidStatWindowException {
+        return new ResponseEntity<>(window == null ? selectorService.findStats() : selectorService.findStats(window),
+                HttpStatus.OK);
+    }
+
+    /**
+     * Metodo que expone por GET la serie de estadisticas por intervalo de tiempo, con un
+     * elemento por cada minuto, hora o dia de la ventana, incluyendo los intervalos sin cadenas
+     *
+     * @param resolution resolucion opcional de los intervalos: minute, hour o day
+     * @param window     ventana de tiempo opcional, por defecto 1h
+     * @return Objecto de la clases {@link ResponseEntity} con las estadisticas de cada intervalo
+     * @throws InvalidStatWindowException Excepcion lanzada si la ventana o la resolucion no son validas
+     */
+    @GetMapping(value = "/stats/series", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<StatBucketModel>> getStatSeries(@RequestParam(required = false) String resolution,
+                                                               @RequestParam(required = false) String window)
+            throws InvalidStatWindowException {
+        return new ResponseEntity<>(selectorService.findStatSeries(resolution, window), HttpStatus.OK);
     }
 
 }
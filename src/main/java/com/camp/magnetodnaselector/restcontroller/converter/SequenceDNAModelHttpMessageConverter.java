@@ -0,0 +1,157 @@
+package com.camp.magnetodnaselector.restcontroller.converter;
+
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import com.camp.magnetodnaselector.domain.usecase.DNASequenceValidator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Conversor del cuerpo JSON de la peticion al modelo {@link SequenceDNAModel} que lee el
+ * contenido token por token.
+ * <p>
+ * Cada fila del campo dna se valida y se codifica en la matriz compacta por medio de
+ * {@link DNASequenceValidator} en cuanto se lee, leyendo los caracteres directamente del
+ * buffer del parser, por lo que el vector completo de strings nunca se construye. El modelo
+ * resultante solo tiene asignado el campo packedDNA.
+ * <p>
+ * Si la cadena no es valida se lanza la {@link InvalidDNAException} con el mismo mensaje de la
+ * validacion del vector completo, y si el JSON no tiene la estructura esperada se lanza una
+ * {@link HttpMessageNotReadableException}. Este conversor solo se usa para leer.
+ * <p>
+ * La duracion de la lectura de las peticiones validas se registra como la etapa
+ * {@link EvaluationMetrics.Stage#READ}.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Profile("!reactive")
+@Component
+public class SequenceDNAModelHttpMessageConverter extends AbstractHttpMessageConverter<SequenceDNAModel> {
+
+    /**
+     * Nombre del campo JSON con las filas de la cadena de ADN
+     */
+    private static final String DNA_FIELD = "dna";
+
+    private final ObjectMapper objectMapper;
+
+    private final EvaluationMetrics evaluationMetrics;
+
+    /**
+     * Constructor del conversor para el tipo de contenido application/json
+     *
+     * @param objectMapper      objeto de Jackson del contenedor, del cual se toma la fabrica de parsers
+     * @param evaluationMetrics metricas de la evaluacion de las cadenas
+     */
+    public SequenceDNAModelHttpMessageConverter(ObjectMapper objectMapper, EvaluationMetrics evaluationMetrics) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.evaluationMetrics = evaluationMetrics;
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return SequenceDNAModel.class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(@NonNull Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Lee el objeto JSON del cuerpo de la peticion, del cual solo se procesa el campo dna
+     * y se ignoran los demas campos
+     *
+     * @param clazz        clase del modelo
+     * @param inputMessage peticion http
+     * @return modelo con la matriz compacta de la cadena de ADN
+     * @throws IOException                     si la cadena de ADN no es valida o no se puede leer la peticion
+     * @throws HttpMessageNotReadableException si el JSON no tiene la estructura esperada
+     */
+    @Override
+    @NonNull
+    protected SequenceDNAModel readInternal(@NonNull Class<? extends SequenceDNAModel> clazz,
+                                            @NonNull HttpInputMessage inputMessage) throws IOException {
+        long start = System.nanoTime();
+        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().build();
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputMessage.getBody())) {
+            expect(parser.nextToken() == JsonToken.START_OBJECT, inputMessage);
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (DNA_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    DNASequenceValidator validator = new DNASequenceValidator();
+                    readRows(parser, validator, inputMessage);
+                    sequenceDNAModel.setPackedDNA(validator.finish());
+                } else {
+                    expect(!DNA_FIELD.equals(field) || value == JsonToken.VALUE_NULL, inputMessage);
+                    parser.skipChildren();
+                }
+            }
+            expect(token == JsonToken.END_OBJECT, inputMessage);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+        evaluationMetrics.recordStage(EvaluationMetrics.Stage.READ, System.nanoTime() - start);
+        return sequenceDNAModel;
+    }
+
+    /**
+     * Lee las filas del arreglo dna entregandolas al validador, despues del primer error
+     * las filas solo se cuentan sin leer sus caracteres
+     *
+     * @param parser       parser ubicado al inicio del arreglo
+     * @param validator    validador de la cadena de ADN
+     * @param inputMessage peticion http
+     * @throws IOException si una fila no es valida o no se puede leer la peticion
+     */
+    private static void readRows(JsonParser parser, DNASequenceValidator validator,
+                                 HttpInputMessage inputMessage) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL, inputMessage);
+            if (validator.isFailed()) {
+                validator.skipRow();
+            } else if (token == JsonToken.VALUE_STRING) {
+                validator.addRow(CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+            } else {
+                validator.addRow(parser.getText());
+            }
+        }
+    }
+
+    /**
+     * Verifica una condicion de la estructura del JSON
+     *
+     * @param condition    condicion que debe cumplir el JSON
+     * @param inputMessage peticion http
+     * @throws HttpMessageNotReadableException si no se cumple la condicion
+     */
+    private static void expect(boolean condition, HttpInputMessage inputMessage) {
+        if (!condition) {
+            throw new HttpMessageNotReadableException("JSON parse error: unexpected structure for DNA request", inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(@NonNull SequenceDNAModel sequenceDNAModel, @NonNull HttpOutputMessage outputMessage) {
+        throw new UnsupportedOperationException("SequenceDNAModel is only read by this converter");
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.camp.magnetodnaselector.service;
+
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.usecase.ReactiveSequenceDNAUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Clase de servicio del perfil reactive, es el punto de entrada de
+ * {@link com.camp.magnetodnaselector.restcontroller.SelectorHandler} para las funcionalidades
+ * de {@link ReactiveSequenceDNAUseCase}.
+ * <p>
+ * Contiene las mismas funcionalidades de {@link SelectorService}, pero los resultados y los
+ * errores se emiten por medio de un {@link Mono}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Profile("reactive")
+@Service
+@RequiredArgsConstructor
+public class ReactiveSelectorService {
+
+    /**
+     * Objecto de la clase de negocio {@link ReactiveSequenceDNAUseCase}
+     * inyectado por el contenedor
+     */
+    private final ReactiveSequenceDNAUseCase reactiveSequenceDNAUseCase;
+
+    /**
+     * Hace el llamado al metodo {@link ReactiveSequenceDNAUseCase#isMutant(SequenceDNAModel)}
+     *
+     * @param sequenceDNAModel Objeto de negocio contenedor del vector de strings que se debe evaluar
+     * @return booleano que determina si la cadena pertenece a un mutante, o el error
+     * {@link InvalidDNAException} si la cadena no es valida
+     */
+    public Mono<Boolean> isMutant(SequenceDNAModel sequenceDNAModel) {
+        return reactiveSequenceDNAUseCase.isMutant(sequenceDNAModel);
+    }
+
+    /**
+     * Hace el llamado al metodo {@link ReactiveSequenceDNAUseCase#getStat()}
+     *
+     * @return Objecto de negocio que tiene los conteos de todas las cadenas evaluadas
+     */
+    public Mono<StatModel> findStats() {
+        return reactiveSequenceDNAUseCase.getStat();
+    }
+
+    /**
+     * Hace el llamado al metodo {@link ReactiveSequenceDNAUseCase#getStat(String)}
+     *
+     * @param window ventana de tiempo como 15m, 1h o 7d, sin ventana se retornan todas las cadenas
+     * @return Objecto de negocio con los conteos de la ventana, o el error
+     * {@link InvalidStatWindowException} si la ventana no es valida
+     */
+    public Mono<StatModel> findStats(String window) {
+        return reactiveSequenceDNAUseCase.getStat(window);
+    }
+
+    /**
+     * Hace el llamado al metodo {@link ReactiveSequenceDNAUseCase#getStatSeries(String, String)}
+     *
+     * @param resolution resolucion de los intervalos: minute, hour o day
+     * @param window     ventana de tiempo como 15m, 1h o 7d
+     * @return estadisticas de cada intervalo ordenadas por su inicio, o el error
+     * {@link InvalidStatWindowException} si la ventana o la resolucion no son validas
+     */
+    public Mono<List<StatBucketModel>> findStatSeries(String resolution, String window) {
+        return reactiveSequenceDNAUseCase.getStatSeries(resolution, window);
+    }
+}
@@ -1,13 +1,18 @@
 package com.camp.magnetodnaselector.service;
 
 import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.BatchResultModel;
 import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
 import com.camp.magnetodnaselector.domain.usecase.SequenceDNAUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Clase de servicio que sirve como punto de entrada para las funcionalidades
  * relacionadas con los objetos de negocio.
@@ -42,6 +47,18 @@ public class SelectorService {
         return sequenceDNAUseCase.isMutant(sequenceDNAModel);
     }
 
+    /**
+     * Hace el llamado al metodo {@link SequenceDNAUseCase#isMutantBatch(List)} que evalua
+     * un lote de cadenas de ADN
+     *
+     * @param sequences Objetos de negocio contenedores de los vectores de strings que se deben evaluar
+     * @return resultado de cada cadena del lote, en la misma posicion en que se recibio
+     * @throws InvalidDNAException Excepcion lanzada si el lote supera la cantidad maxima permitida
+     */
+    public List<BatchResultModel> isMutantBatch(List<SequenceDNAModel> sequences) throws InvalidDNAException {
+        return sequenceDNAUseCase.isMutantBatch(sequences);
+    }
+
     /**
      * Hace el llamado al metodo {@link SequenceDNAUseCase#getStat()} el cual
      * hace el llamado a la logica necesaria para retornar el objeto con la estadistica solicitada
@@ -51,4 +68,29 @@ public class SelectorService {
     public StatModel findStats() {
         return sequenceDNAUseCase.getStat();
     }
+
+    /**
+     * Hace el llamado al metodo {@link SequenceDNAUseCase#getStat(String)} que retorna las
+     * estadisticas de la ventana de tiempo indicada
+     *
+     * @param window ventana de tiempo como 15m, 1h o 7d, sin ventana se retornan todas las cadenas
+     * @return Objecto de negocio con los conteos de la ventana
+     * @throws InvalidStatWindowException Excepcion lanzada si la ventana no es valida
+     */
+    public StatModel findStats(String window) throws InvalidStatWindowException {
+        return sequenceDNAUseCase.getStat(window);
+    }
+
+    /**
+     * Hace el llamado al metodo {@link SequenceDNAUseCase#getStatSeries(String, String)} que
+     * retorna la serie de estadisticas por intervalo
+     *
+     * @param resolution resolucion de los intervalos: minute, hour o day
+     * @param window     ventana de tiempo como 15m, 1h o 7d
+     * @return estadisticas de cada intervalo ordenadas por su inicio
+     * @throws InvalidStatWindowException Excepcion lanzada si la ventana o la resolucion no son validas
+     */
+    public List<StatBucketModel> findStatSeries(String resolution, String window) throws InvalidStatWindowException {
+        return sequenceDNAUseCase.getStatSeries(resolution, window);
+    }
 }
@@ -0,0 +1,201 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Motor de deteccion que utiliza la Vector API (jdk.incubator.vector) para comparar
+ * en carriles SIMD porciones desplazadas de las filas de la matriz.
+ * <p>
+ * La matriz se recorre fila por fila manteniendo decodificadas, un byte por base, las
+ * {@link #sequenceSize} filas a partir de la fila actual. Sobre cada porcion de la fila se
+ * calcula la mascara de inicios de ventana comparando con una sola instruccion la porcion
+ * de la fila contra:
+ * <ul>
+ *     <li>Horizontal: la misma fila desplazada k columnas.</li>
+ *     <li>Vertical: la fila k siguiente en las mismas columnas.</li>
+ *     <li>Diagonal: la fila k siguiente desplazada k columnas a la derecha o izquierda.</li>
+ * </ul>
+ * <p>
+ * Las ventanas se toman de forma voraz y sin traslape sobre cada linea, con la misma semantica
+ * de conteo de {@link RunLengthSequenceDetector}. Esta clase solo se compila con el perfil
+ * vectorApi de build.gradle y se carga por reflexion cuando el modulo esta presente.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+public class VectorSequenceDetector implements SequenceDetector {
+
+    /**
+     * Especie de vector preferida por el procesador, limitada a 64 carriles para poder
+     * representar sus mascaras en un long
+     */
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE ?
+            ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+    /**
+     * Desplazamientos de columna por dimension: vertical, diagonal derecha y diagonal izquierda
+     */
+    private static final int[] DIRECTIONS = {0, 1, -1};
+
+    /**
+     * Cantidad de caracteres repetidos que deben tener las secuencias a buscar
+     */
+    private final int sequenceSize;
+
+    /**
+     * Margen a cada lado de las filas decodificadas para que las lecturas desplazadas
+     * de las porciones nunca se salgan del vector
+     */
+    private final int padding;
+
+    /**
+     * Constructor para especificar la longitud de las secuencias a buscar
+     *
+     * @param sequenceSize cantidad de caracteres repetidos que componen una secuencia
+     */
+    public VectorSequenceDetector(int sequenceSize) {
+        this.sequenceSize = sequenceSize;
+        this.padding = sequenceSize;
+    }
+
+    /**
+     * Cuenta las secuencias recorriendo la matriz una vez fila por fila. En cada fila se evalua
+     * la horizontal y las ventanas vertical y diagonales que inician en ella, deteniendose al
+     * alcanzar el valor de limit.
+     *
+     * @param dna   matriz de ADN de NxN en su representacion compacta
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return cantidad de secuencias encontradas
+     */
+    @Override
+    public int countSequences(PackedDNA dna, int limit) {
+        int size = dna.getSize();
+        int width = padding + size + SPECIES.length() + padding;
+        byte[][] rows = new byte[sequenceSize][width];
+        byte[][][] blocked = new byte[DIRECTIONS.length][sequenceSize][width];
+        for (int r = 0; r < sequenceSize - 1 && r < size; r++) {
+            decodeRow(dna, r, rows[r]);
+        }
+        int count = 0;
+        for (int r = 0; r < size; r++) {
+            int next = r + sequenceSize - 1;
+            if (next < size) {
+                decodeRow(dna, next, rows[next % sequenceSize]);
+            }
+            count = countHorizontal(rows[r % sequenceSize], size, count, limit);
+            if (count >= limit) {
+                return count;
+            }
+            if (r + sequenceSize <= size) {
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    count = countLines(rows, blocked[d], r, size, DIRECTIONS[d], count);
+                }
+                if (count >= limit) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cuenta las secuencias de la fila en la dimension horizontal, tomando los inicios de ventana
+     * de menor columna y descartando los que se traslapan con una secuencia ya contada
+     *
+     * @param row   fila decodificada
+     * @param size  tamanio N de la matriz
+     * @param count conteo acumulado
+     * @param limit cantidad de secuencias a partir de la cual se detiene la busqueda
+     * @return conteo acumulado
+     */
+    private int countHorizontal(byte[] row, int size, int count, int limit) {
+        int last = size - sequenceSize;
+        int free = 0;
+        for (int c = 0; c <= last; c += SPECIES.length()) {
+            ByteVector base = ByteVector.fromArray(SPECIES, row, padding + c);
+            VectorMask<Byte> windows = SPECIES.indexInRange(c, last + 1);
+            for (int k = 1; k < sequenceSize; k++) {
+                windows = windows.and(base.compare(VectorOperators.EQ, ByteVector.fromArray(SPECIES, row, padding + c + k)));
+            }
+            long bits = windows.toLong();
+            while (bits != 0) {
+                int col = c + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (col >= free) {
+                    count++;
+                    if (count >= limit) {
+                        return count;
+                    }
+                    free = col + sequenceSize;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cuenta las ventanas que inician en la fila r para la dimension vertical o diagonal dada por
+     * el desplazamiento de columna. Cada secuencia contada bloquea en las filas siguientes las
+     * columnas que ocupa sobre su linea, para que no se cuenten secuencias traslapadas.
+     *
+     * @param rows      filas decodificadas a partir de la fila r
+     * @param blocked   columnas bloqueadas por cada fila, indexadas por fila modulo sequenceSize
+     * @param r         indice de la fila actual
+     * @param size      tamanio N de la matriz
+     * @param direction desplazamiento de columna por fila: 0, 1 o -1
+     * @param count     conteo acumulado
+     * @return conteo acumulado
+     */
+    private int countLines(byte[][] rows, byte[][] blocked, int r, int size, int direction, int count) {
+        byte[] row = rows[r % sequenceSize];
+        byte[] block = blocked[r % sequenceSize];
+        int first = direction < 0 ? sequenceSize - 1 : 0;
+        int last = direction > 0 ? size - sequenceSize : size - 1;
+        for (int c = first; c <= last; c += SPECIES.length()) {
+            ByteVector base = ByteVector.fromArray(SPECIES, row, padding + c);
+            VectorMask<Byte> windows = SPECIES.indexInRange(c - first, last - first + 1)
+                    .and(ByteVector.fromArray(SPECIES, block, padding + c).compare(VectorOperators.EQ, (byte) 0));
+            for (int k = 1; k < sequenceSize; k++) {
+                ByteVector other = ByteVector.fromArray(SPECIES, rows[(r + k) % sequenceSize], padding + c + (k * direction));
+                windows = windows.and(base.compare(VectorOperators.EQ, other));
+            }
+            long bits = windows.toLong();
+            count += Long.bitCount(bits);
+            while (bits != 0) {
+                int col = c + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                for (int k = 1; k < sequenceSize; k++) {
+                    blocked[(r + k) % sequenceSize][padding + col + (k * direction)] = 1;
+                }
+            }
+        }
+        Arrays.fill(block, (byte) 0);
+        return count;
+    }
+
+    /**
+     * Decodifica la fila de la matriz compacta a un byte por base a partir de la posicion
+     * dada por el margen {@link #padding}
+     *
+     * @param dna    matriz de ADN
+     * @param row    indice de la fila
+     * @param target vector donde se deja la fila decodificada
+     */
+    private void decodeRow(PackedDNA dna, int row, byte[] target) {
+        int size = dna.getSize();
+        int col = 0;
+        for (int w = 0; w < dna.getWordsPerRow(); w++) {
+            long word = dna.word(row, w);
+            for (int b = 0; b < PackedDNA.BASES_PER_WORD && col < size; b++, col++) {
+                target[padding + col] = (byte) (word & 3);
+                word >>>= 2;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.camp.magnetodnaselector.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Clase de configuracion que atiende las peticiones http en hilos virtuales en lugar del
+ * pool de hilos de plataforma de Tomcat.
+ * <p>
+ * Cada peticion se ejecuta en un hilo virtual nuevo, por lo que las llamadas bloqueantes a
+ * MongoDB de la capa de persistencia solo ocupan un hilo de plataforma mientras se ejecutan
+ * y no mientras esperan la respuesta. La cantidad de peticiones simultaneas queda limitada por
+ * la propiedad server.tomcat.max-connections y no por server.tomcat.threads.max.
+ * <p>
+ * Esta clase solo se compila con el perfil virtualThreads de build.gradle, el cual requiere
+ * Java 21, y se activa con el perfil de Spring virtual-threads.
+ * <p>
+ * Es una configuracion experimental: Spring Boot 2.6 no soporta Java 21 ni los hilos virtuales,
+ * por lo que el resto del contenedor (pools del driver de MongoDB, bloques synchronized de las
+ * librerias que fijan el hilo virtual a su hilo de plataforma) no esta preparado para ellos.
+ * El soporte oficial requiere Spring Boot 3.2 o superior con spring.threads.virtual.enabled.
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    /**
+     * Reemplaza el ejecutor del conector de Tomcat por uno que crea un hilo virtual por peticion
+     *
+     * @return personalizador del protocolo del conector de Tomcat
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+}
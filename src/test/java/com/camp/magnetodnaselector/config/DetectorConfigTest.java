@@ -0,0 +1,103 @@
+package com.camp.magnetodnaselector.config;
+
+import com.camp.magnetodnaselector.config.properties.DetectorProperties;
+import com.camp.magnetodnaselector.domain.usecase.detector.AdaptiveSequenceDetector;
+import com.camp.magnetodnaselector.domain.usecase.detector.RunLengthSequenceDetector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para la configuracion {@link DetectorConfig}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class DetectorConfigTest {
+
+    private final DetectorConfig detectorConfig = new DetectorConfig();
+
+    private final ForkJoinPool detectorPool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        detectorPool.shutdown();
+    }
+
+    /**
+     * Crea las propiedades con el motor indicado y sin motores envolventes
+     *
+     * @param engine motor de deteccion
+     * @return propiedades del motor de deteccion
+     */
+    private static DetectorProperties properties(DetectorProperties.Engine engine) {
+        DetectorProperties detectorProperties = new DetectorProperties();
+        detectorProperties.setEngine(engine);
+        detectorProperties.setParallelThreshold(0);
+        detectorProperties.setAdaptiveOrder(false);
+        detectorProperties.setPreScreen(false);
+        return detectorProperties;
+    }
+
+    /**
+     * Verifica que el motor vector configurado explicitamente impida el inicio si la
+     * Vector API no esta disponible, en lugar de usar otro motor sin avisar
+     */
+    @Test
+    void vectorUnavailableTest() {
+        if (DetectorConfig.loadVectorDetector() != null) {
+            return;
+        }
+        DetectorProperties detectorProperties = properties(DetectorProperties.Engine.VECTOR);
+        assertThrows(IllegalStateException.class,
+                () -> detectorConfig.sequenceDetector(detectorProperties, detectorPool));
+    }
+
+    /**
+     * Verifica que el motor auto use el motor run-length si la Vector API no esta disponible
+     */
+    @Test
+    void autoFallbackTest() {
+        if (DetectorConfig.loadVectorDetector() != null) {
+            return;
+        }
+        assertTrue(detectorConfig.sequenceDetector(properties(DetectorProperties.Engine.AUTO), detectorPool)
+                instanceof RunLengthSequenceDetector);
+    }
+
+    /**
+     * Verifica que el pool de la deteccion en paralelo tenga el tamanio configurado y que
+     * por defecto use la cantidad de procesadores disponibles
+     */
+    @Test
+    void detectorPoolTest() {
+        DetectorProperties detectorProperties = new DetectorProperties();
+        ForkJoinPool pool = detectorConfig.detectorPool(detectorProperties);
+        assertEquals(Runtime.getRuntime().availableProcessors(), pool.getParallelism());
+        pool.shutdown();
+        detectorProperties.setParallelism(3);
+        pool = detectorConfig.detectorPool(detectorProperties);
+        assertEquals(3, pool.getParallelism());
+        pool.shutdown();
+    }
+
+    /**
+     * Verifica que el orden adaptativo solo envuelva a los motores que recorren cada dimension
+     * por separado, y que con los demas el motor quede sin cambios
+     */
+    @Test
+    void adaptiveOrderTest() {
+        DetectorProperties detectorProperties = properties(DetectorProperties.Engine.BIT_PARALLEL);
+        detectorProperties.setAdaptiveOrder(true);
+        assertTrue(detectorConfig.sequenceDetector(detectorProperties, detectorPool)
+                instanceof AdaptiveSequenceDetector);
+        detectorProperties.setEngine(DetectorProperties.Engine.RUN_LENGTH);
+        assertTrue(detectorConfig.sequenceDetector(detectorProperties, detectorPool)
+                instanceof RunLengthSequenceDetector);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.camp.magnetodnaselector.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas para la clase {@link PackedDNA}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class PackedDNATest {
+
+    /**
+     * Verifica que la cadena de ADN se recupera igual despues de codificarla,
+     * incluyendo filas que ocupan mas de una palabra de 64 bits
+     */
+    @Test
+    void toStringsTest() {
+        String[] dna = new String[40];
+        for (int i = 0; i < dna.length; i++) {
+            char[] row = new char[dna.length];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = PackedDNA.decode(i * 7 + j * 3);
+            }
+            dna[i] = new String(row);
+        }
+        assertEquals(Arrays.toString(dna), Arrays.toString(PackedDNA.of(dna).toStrings()));
+    }
+
+    /**
+     * Verifica que se rechaza una cadena con caracteres no permitidos
+     */
+    @Test
+    void ofIllegalCharactersTest() {
+        assertThrows(IllegalArgumentException.class, () -> PackedDNA.of("ATGC", "CAGT", "TTXT", "AGAA"));
+    }
+
+    /**
+     * Verifica que la huella de contenido es de 128 bits en hexadecimal y que
+     * dos cadenas iguales tienen la misma huella
+     */
+    @Test
+    void contentHashEqualTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String hash = PackedDNA.of(dna).getContentHash();
+        assertTrue(hash.matches("[0-9a-f]{32}"));
+        assertEquals(hash, PackedDNA.of(dna.clone()).getContentHash());
+    }
+
+    /**
+     * Verifica que cadenas que difieren en una base o en el tamanio tienen huellas distintas
+     */
+    @Test
+    void contentHashDistinctTest() {
+        String hash = PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG").getContentHash();
+        assertNotEquals(hash, PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTT").getContentHash());
+        assertNotEquals(PackedDNA.of("AAAA", "AAAA", "AAAA", "AAAA").getContentHash(),
+                PackedDNA.of("AAAAA", "AAAAA", "AAAAA", "AAAAA", "AAAAA").getContentHash());
+    }
+
+    /**
+     * Verifica que la suma de verificacion es de 128 bits en hexadecimal, distinta de la huella
+     * de contenido, y que cambia si la cadena difiere en una base
+     */
+    @Test
+    void contentChecksumTest() {
+        PackedDNA dna = PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        String checksum = dna.getContentChecksum();
+        assertTrue(checksum.matches("[0-9a-f]{32}"));
+        assertNotEquals(dna.getContentHash(), checksum);
+        assertEquals(checksum, PackedDNA.of(dna.toStrings()).getContentChecksum());
+        assertNotEquals(checksum, PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTT")
+                .getContentChecksum());
+    }
+
+}
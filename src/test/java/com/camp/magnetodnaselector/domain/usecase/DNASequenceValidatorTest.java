@@ -0,0 +1,78 @@
+package com.camp.magnetodnaselector.domain.usecase;
+
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas para la clase {@link DNASequenceValidator} cuando la cantidad de filas no se
+ * conoce desde el inicio, como en la lectura por partes de la peticion
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class DNASequenceValidatorTest {
+
+    /**
+     * Valida las filas en el orden recibido y termina la validacion
+     *
+     * @param dna filas de la cadena de ADN
+     * @return matriz compacta
+     * @throws InvalidDNAException si la cadena no es valida
+     */
+    private static PackedDNA validate(String... dna) throws InvalidDNAException {
+        DNASequenceValidator validator = new DNASequenceValidator();
+        for (String seq : dna) {
+            if (validator.isFailed()) {
+                validator.skipRow();
+            } else {
+                validator.addRow(seq);
+            }
+        }
+        return validator.finish();
+    }
+
+    /**
+     * Verifica que una cadena valida se codifica igual que con {@link PackedDNA#of(String...)}
+     *
+     * @throws InvalidDNAException
+     */
+    @Test
+    void validTest() throws InvalidDNAException {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        assertEquals(PackedDNA.of(dna), validate(dna));
+    }
+
+    /**
+     * Verifica que con menos filas que el minimo el mensaje es el de longitud minima,
+     * aunque las filas tengan otros errores
+     */
+    @Test
+    void lessThanMinimumTest() {
+        Exception exception = assertThrows(InvalidDNAException.class, () -> validate("AGGCGAG", "CTXTGGA", "TTAAGTT"));
+        assertEquals(DNASequenceValidator.LESS_THAN_MINIMUM, exception.getMessage());
+    }
+
+    /**
+     * Verifica que si la cantidad de filas es distinta a la longitud de la primera fila el
+     * mensaje es el de longitud distinta, aunque una fila anterior tenga caracteres no permitidos
+     */
+    @Test
+    void differentLengthTest() {
+        Exception exception = assertThrows(InvalidDNAException.class, () -> validate("AGGCA", "CCXTA", "TTATA", "TGAGA"));
+        assertEquals(DNASequenceValidator.DIFFERENT_LENGTH, exception.getMessage());
+        exception = assertThrows(InvalidDNAException.class, () -> validate("AGGC", "CCTT", "TTAT", "TGAG", "TGAG"));
+        assertEquals(DNASequenceValidator.DIFFERENT_LENGTH, exception.getMessage());
+    }
+
+    /**
+     * Verifica que para una matriz cuadrada se reporta el primer error de las filas
+     */
+    @Test
+    void illegalCharactersTest() {
+        Exception exception = assertThrows(InvalidDNAException.class, () -> validate("AGGCA", "CCTXA", "TTATA", "TGA", "TGAGA"));
+        assertEquals(DNASequenceValidator.ILLEGAL_CHARACTERS, exception.getMessage());
+    }
+
+}
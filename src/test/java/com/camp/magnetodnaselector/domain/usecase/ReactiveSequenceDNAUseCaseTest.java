@@ -0,0 +1,200 @@
+package com.camp.magnetodnaselector.domain.usecase;
+
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Shortcut;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveSequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.ReactiveStatRepository;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import com.camp.magnetodnaselector.domain.model.gateway.StatRepository;
+import com.camp.magnetodnaselector.domain.usecase.detector.RunLengthSequenceDetector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de prueba para la clase de negocio {@link ReactiveSequenceDNAUseCase}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveSequenceDNAUseCaseTest {
+
+    @Mock
+    private StatRepository statRepository;
+
+    @Mock
+    private SequenceDNARepository sequenceDNARepository;
+
+    @Mock
+    private ReactiveSequenceDNARepository reactiveSequenceDNARepository;
+
+    @Mock
+    private ReactiveStatRepository reactiveStatRepository;
+
+    @Mock
+    private EvaluationMetrics evaluationMetrics;
+
+    private ReactiveSequenceDNAUseCase reactiveSequenceDNAUseCase;
+
+    @BeforeEach
+    void setup() {
+        SequenceDNAUseCase sequenceDNAUseCase = new SequenceDNAUseCase(sequenceDNARepository, statRepository,
+                new RunLengthSequenceDetector(SequenceDNAUseCase.SEQUENCE_SIZE), evaluationMetrics);
+        reactiveSequenceDNAUseCase = new ReactiveSequenceDNAUseCase(sequenceDNAUseCase, reactiveSequenceDNARepository,
+                reactiveStatRepository, evaluationMetrics);
+    }
+
+    /**
+     * Verifica que una cadena guardada se responde sin evaluarla ni guardarla
+     */
+    @Test
+    void isMutantSavedDNATest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(reactiveSequenceDNARepository.findMutant(PackedDNA.of(dna))).thenReturn(Mono.just(false));
+        assertFalse(reactiveSequenceDNAUseCase.isMutant(SequenceDNAModel.builder().dna(dna).build()).block());
+        verify(reactiveSequenceDNARepository, never()).save(any(), anyBoolean());
+        verify(evaluationMetrics).recordShortcut(Shortcut.SAVED);
+        verifyNoInteractions(sequenceDNARepository);
+    }
+
+    /**
+     * Verifica que una cadena nueva se evalua en el scheduler parallel y se guarda su resultado
+     */
+    @Test
+    void isMutantDetectTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        AtomicReference<String> saveThread = new AtomicReference<>();
+        when(reactiveSequenceDNARepository.findMutant(PackedDNA.of(dna))).thenReturn(Mono.empty());
+        when(reactiveSequenceDNARepository.save(PackedDNA.of(dna), true)).thenAnswer(invocation -> {
+            saveThread.set(Thread.currentThread().getName());
+            return Mono.empty();
+        });
+        assertTrue(reactiveSequenceDNAUseCase.isMutant(SequenceDNAModel.builder().dna(dna).build()).block());
+        assertTrue(saveThread.get().startsWith("parallel"));
+        verify(reactiveSequenceDNARepository).save(PackedDNA.of(dna), true);
+        verifyNoInteractions(sequenceDNARepository);
+    }
+
+    /**
+     * Verifica que las peticiones concurrentes de una misma cadena esperan el resultado de
+     * la evaluacion en curso sin volver a buscarla
+     */
+    @Test
+    void isMutantInFlightTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        Sinks.One<Boolean> lookup = Sinks.one();
+        when(reactiveSequenceDNARepository.findMutant(PackedDNA.of(dna))).thenReturn(lookup.asMono());
+        SequenceDNAModel model = SequenceDNAModel.builder().dna(dna).build();
+        Mono<Boolean> first = reactiveSequenceDNAUseCase.isMutant(model).cache();
+        first.subscribe();
+        Mono<Boolean> second = reactiveSequenceDNAUseCase.isMutant(model).cache();
+        second.subscribe();
+        lookup.tryEmitValue(true);
+        assertTrue(first.block());
+        assertTrue(second.block());
+        verify(reactiveSequenceDNARepository, times(1)).findMutant(any());
+        verify(evaluationMetrics).recordShortcut(Shortcut.IN_FLIGHT);
+    }
+
+    /**
+     * Verifica que si la peticion que inicia la evaluacion se cancela, la evaluacion continua,
+     * el resultado se guarda y las demas peticiones de la misma cadena lo reciben
+     */
+    @Test
+    void isMutantFirstCallerCancelledTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        Sinks.One<Boolean> lookup = Sinks.one();
+        when(reactiveSequenceDNARepository.findMutant(PackedDNA.of(dna))).thenReturn(lookup.asMono());
+        when(reactiveSequenceDNARepository.save(PackedDNA.of(dna), true)).thenReturn(Mono.empty());
+        SequenceDNAModel model = SequenceDNAModel.builder().dna(dna).build();
+        Disposable first = reactiveSequenceDNAUseCase.isMutant(model).subscribe();
+        Mono<Boolean> second = reactiveSequenceDNAUseCase.isMutant(model).cache();
+        second.subscribe();
+        first.dispose();
+        lookup.tryEmitEmpty();
+        assertTrue(second.block());
+        verify(reactiveSequenceDNARepository).save(PackedDNA.of(dna), true);
+    }
+
+    /**
+     * Verifica que una cadena no valida termina con el error {@link InvalidDNAException}
+     * sin consultar el medio de persistencia
+     */
+    @Test
+    void isMutantInvalidDNATest() {
+        String[] dna = {"ATGC", "CAXT", "TTAT", "AGAA"};
+        Mono<Boolean> mutant = reactiveSequenceDNAUseCase.isMutant(SequenceDNAModel.builder().dna(dna).build());
+        RuntimeException exception = assertThrows(RuntimeException.class, mutant::block);
+        assertInstanceOf(InvalidDNAException.class, Exceptions.unwrap(exception));
+        verifyNoInteractions(reactiveSequenceDNARepository);
+    }
+
+    /**
+     * Verifica que las estadisticas de la ventana sumen los conteos de los intervalos emitidos
+     */
+    @Test
+    void getStatWindowTest() {
+        when(reactiveStatRepository.findBuckets(eq(StatResolution.MINUTE), any()))
+                .thenReturn(Flux.just(bucket("2022-02-01T09:20:00Z", 2, 1), bucket("2022-02-01T10:15:00Z", 1, 3)));
+        StatModel statModel = reactiveSequenceDNAUseCase.getStat("1h").block();
+        assertEquals(3, statModel.getCountMutantDNA());
+        assertEquals(4, statModel.getCountHumanDNA());
+        verify(statRepository).calRatio(statModel);
+        verify(statRepository, never()).findStatBuckets(any(), any());
+    }
+
+    /**
+     * Verifica que la serie tenga un elemento por intervalo de la ventana
+     */
+    @Test
+    void getStatSeriesTest() {
+        when(reactiveStatRepository.findBuckets(eq(StatResolution.MINUTE), any())).thenReturn(Flux.empty());
+        List<StatBucketModel> series = reactiveSequenceDNAUseCase.getStatSeries(null, "5m").block();
+        assertEquals(5, series.size());
+    }
+
+    /**
+     * Verifica que una ventana no valida termina con el error {@link InvalidStatWindowException}
+     * sin consultar el medio de persistencia
+     */
+    @Test
+    void invalidStatWindowTest() {
+        Mono<StatModel> stat = reactiveSequenceDNAUseCase.getStat("0m");
+        assertInstanceOf(InvalidStatWindowException.class, Exceptions.unwrap(assertThrows(RuntimeException.class, stat::block)));
+        Mono<List<StatBucketModel>> series = reactiveSequenceDNAUseCase.getStatSeries("minute", "2d");
+        assertInstanceOf(InvalidStatWindowException.class, Exceptions.unwrap(assertThrows(RuntimeException.class, series::block)));
+        verifyNoInteractions(reactiveStatRepository);
+    }
+
+    private static StatBucketModel bucket(String start, long mutants, long humans) {
+        return StatBucketModel.builder()
+                .start(Instant.parse(start))
+                .stats(StatModel.builder().countMutantDNA(mutants).countHumanDNA(humans).build())
+                .build();
+    }
+
+}
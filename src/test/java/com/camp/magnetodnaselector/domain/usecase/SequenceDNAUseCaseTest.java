@@ -1,18 +1,39 @@
 package com.camp.magnetodnaselector.domain.usecase;
 
 import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.BatchResultModel;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
 import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
 import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
 import com.camp.magnetodnaselector.domain.model.gateway.StatRepository;
+import com.camp.magnetodnaselector.domain.usecase.detector.RunLengthSequenceDetector;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * Clase de prueba para la clase de negocio {@link SequenceDNAUseCase}
@@ -28,9 +49,16 @@ class SequenceDNAUseCaseTest {
     @Mock
     private SequenceDNARepository sequenceDNARepository;
 
-    @InjectMocks
+    @Mock
+    private EvaluationMetrics evaluationMetrics;
+
     private SequenceDNAUseCase sequenceDNAUseCase;
 
+    @BeforeEach
+    void setup() {
+        sequenceDNAUseCase = new SequenceDNAUseCase(sequenceDNARepository, statRepository,
+                new RunLengthSequenceDetector(SequenceDNAUseCase.SEQUENCE_SIZE), evaluationMetrics);
+    }
 
     /**
      * Prueba para la excepcion lanzada cuando la longitud del vector es menor al minimo
@@ -41,7 +69,6 @@ class SequenceDNAUseCaseTest {
         String[] dna = {"AGGCGAG", "CTGTGGA", "TTAAGTT"};
         String msg = "The length of the DNA string is less than the minimum allowed";
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
 
         Exception exception = assertThrows(InvalidDNAException.class, () -> {
             sequenceDNAUseCase.isMutant(sequenceDNAModel);
@@ -59,7 +86,6 @@ class SequenceDNAUseCaseTest {
         String[] dna = {"AGGC", "CTGTA", "TTAA", "TGAA"};
         String msg = "The length of an individual string is different than the DNA string";
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
 
         Exception exception = assertThrows(InvalidDNAException.class, () -> {
             sequenceDNAUseCase.isMutant(sequenceDNAModel);
@@ -77,7 +103,6 @@ class SequenceDNAUseCaseTest {
         String[] dna = {"AGGCA", "CCTTA", "TTATA", "1qWAQ", "TGAGA"};
         String msg = "The individual string has illegal characters";
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
 
         Exception exception = assertThrows(InvalidDNAException.class, () -> {
             sequenceDNAUseCase.isMutant(sequenceDNAModel);
@@ -96,11 +121,35 @@ class SequenceDNAUseCaseTest {
     void validDNASequenceValidResSavedDNATest() throws InvalidDNAException {
         String[] dna = {"GGGGA", "CCTTA", "TAAAA", "ATGTG", "TGAGA"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(false);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(false);
         Boolean res = sequenceDNAUseCase.isMutant(sequenceDNAModel);
         assertFalse(res);
     }
 
+    /**
+     * Prueba de las metricas registradas en la evaluacion de una cadena nueva y de una cadena
+     * ya guardada
+     *
+     * @throws InvalidDNAException
+     */
+    @Test
+    void evaluationMetricsTest() throws InvalidDNAException {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(null, true);
+        sequenceDNAUseCase.isMutant(sequenceDNAModel);
+        verify(evaluationMetrics).recordStage(eq(EvaluationMetrics.Stage.DETECT), anyLong());
+        verify(evaluationMetrics).recordStage(eq(EvaluationMetrics.Stage.SAVE), anyLong());
+        sequenceDNAUseCase.isMutant(sequenceDNAModel);
+        verify(evaluationMetrics, times(2)).recordSize(6);
+        verify(evaluationMetrics, times(2)).recordStage(eq(EvaluationMetrics.Stage.VALIDATE), anyLong());
+        verify(evaluationMetrics, times(2)).recordStage(eq(EvaluationMetrics.Stage.LOOKUP), anyLong());
+        verify(evaluationMetrics).recordShortcut(EvaluationMetrics.Shortcut.SAVED);
+        verify(evaluationMetrics).recordStage(eq(EvaluationMetrics.Stage.DETECT), anyLong());
+        verify(evaluationMetrics).recordDetection(EvaluationMetrics.Detection.EARLY_EXIT);
+        verify(evaluationMetrics, never()).recordDetection(EvaluationMetrics.Detection.FULL_SCAN);
+    }
+
     /**
      * Prueba para cuando se ecuentran las cadenas en la dimension horizontal
      *
@@ -110,7 +159,7 @@ class SequenceDNAUseCaseTest {
     void validDNASequenceHorizontalValidTest() throws InvalidDNAException {
         String[] dna = {"GGGGA", "CCTTA", "TAAAA", "ATGTG", "TGAGA"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(null);
         Boolean res = sequenceDNAUseCase.isMutant(sequenceDNAModel);
         assertTrue(res);
     }
@@ -124,7 +173,7 @@ class SequenceDNAUseCaseTest {
     void validDNASequenceVerticaValidTest() throws InvalidDNAException {
         String[] dna = {"GCTAA", "GCTTA", "GACAA", "GTGTA", "TGAGA"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(null);
         Boolean res = sequenceDNAUseCase.isMutant(sequenceDNAModel);
         assertTrue(res);
     }
@@ -138,7 +187,7 @@ class SequenceDNAUseCaseTest {
     void validDNASequenceDiagonalValidTest() throws InvalidDNAException {
         String[] dna = {"GCTGA", "AGGTC", "CGGAC", "GTGGA", "TGAGA"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(null);
         Boolean res = sequenceDNAUseCase.isMutant(sequenceDNAModel);
         assertTrue(res);
     }
@@ -152,7 +201,7 @@ class SequenceDNAUseCaseTest {
     void validDNASequenceValidTest() throws InvalidDNAException {
         String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(null);
         Boolean res = sequenceDNAUseCase.isMutant(sequenceDNAModel);
         assertTrue(res);
     }
@@ -166,11 +215,141 @@ class SequenceDNAUseCaseTest {
     void validDNASequenceBigTest() throws InvalidDNAException {
         String[] dna = {"AATTAATTAA", "CTCTCTCTCT", "CGCGCGCGCG", "TCTCTCTCTC", "GAGAGAGAGA", "AATTAATTAA", "CTCTCTCTCT", "CGCGCGCGCG", "TCTCTCTCTC", "GAGAGAGAGA"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        when(sequenceDNARepository.isMutantSavedDNA(dna)).thenReturn(null);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(null);
         Boolean res = sequenceDNAUseCase.isMutant(sequenceDNAModel);
         assertFalse(res);
     }
 
+    /**
+     * Prueba para dos peticiones concurrentes de la misma cadena, la segunda peticion
+     * espera el resultado de la primera y la cadena se busca y se guarda una sola vez
+     *
+     * @throws Exception
+     */
+    @Test
+    void concurrentSameDNATest() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
+        CountDownLatch lookup = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenAnswer(invocation -> {
+            lookup.countDown();
+            release.await();
+            return null;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(() -> sequenceDNAUseCase.isMutant(sequenceDNAModel));
+            lookup.await();
+            AtomicReference<Thread> waiting = new AtomicReference<>();
+            Future<Boolean> second = executor.submit(() -> {
+                waiting.set(Thread.currentThread());
+                return sequenceDNAUseCase.isMutant(sequenceDNAModel);
+            });
+            while (waiting.get() == null || waiting.get().getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            assertTrue(first.get());
+            assertTrue(second.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(sequenceDNARepository, times(1)).isMutantSavedDNA(PackedDNA.of(dna));
+        verify(sequenceDNARepository, times(1)).saveDNA(PackedDNA.of(dna), true);
+    }
+
+    /**
+     * Prueba para dos peticiones concurrentes de la misma cadena cuando la evaluacion de la
+     * primera termina con un {@link Error}, la segunda peticion recibe el mismo error en lugar
+     * de esperar indefinidamente
+     *
+     * @throws Exception
+     */
+    @Test
+    void concurrentSameDNAErrorTest() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
+        CountDownLatch lookup = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenAnswer(invocation -> {
+            lookup.countDown();
+            release.await();
+            throw new StackOverflowError();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(() -> sequenceDNAUseCase.isMutant(sequenceDNAModel));
+            lookup.await();
+            AtomicReference<Thread> waiting = new AtomicReference<>();
+            Future<Boolean> second = executor.submit(() -> {
+                waiting.set(Thread.currentThread());
+                return sequenceDNAUseCase.isMutant(sequenceDNAModel);
+            });
+            while (waiting.get() == null || waiting.get().getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, firstError.getCause());
+            ExecutionException secondError = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, secondError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(sequenceDNARepository, times(1)).isMutantSavedDNA(PackedDNA.of(dna));
+        verify(sequenceDNARepository, never()).saveDNA(any(), anyBoolean());
+    }
+
+    /**
+     * Prueba para la evaluacion por lotes, las cadenas repetidas se evaluan una sola vez,
+     * las guardadas no se evaluan ni se guardan de nuevo y las invalidas retornan el error
+     * en su posicion
+     *
+     * @throws InvalidDNAException
+     */
+    @Test
+    void isMutantBatchTest() throws InvalidDNAException {
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] human = {"AATTAATTAA", "CTCTCTCTCT", "CGCGCGCGCG", "TCTCTCTCTC", "GAGAGAGAGA", "AATTAATTAA", "CTCTCTCTCT", "CGCGCGCGCG", "TCTCTCTCTC", "GAGAGAGAGA"};
+        String[] saved = {"GGGGA", "CCTTA", "TAAAA", "ATGTG", "TGAGA"};
+        String[] invalid = {"AGGCA", "CCTTA", "TTATA", "1qWAQ", "TGAGA"};
+        List<SequenceDNAModel> batch = Arrays.asList(
+                SequenceDNAModel.builder().dna(mutant).build(),
+                SequenceDNAModel.builder().dna(invalid).build(),
+                SequenceDNAModel.builder().dna(saved).build(),
+                SequenceDNAModel.builder().dna(human).build(),
+                SequenceDNAModel.builder().dna(mutant).build(),
+                SequenceDNAModel.builder().build());
+        when(sequenceDNARepository.findMutantSavedDNA(any())).thenReturn(Collections.singletonMap(PackedDNA.of(saved), false));
+
+        List<BatchResultModel> results = sequenceDNAUseCase.isMutantBatch(batch);
+
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).getMutant());
+        assertEquals("The individual string has illegal characters", results.get(1).getError());
+        assertNull(results.get(1).getMutant());
+        assertFalse(results.get(2).getMutant());
+        assertFalse(results.get(3).getMutant());
+        assertTrue(results.get(4).getMutant());
+        assertEquals(DNASequenceValidator.REQUIRED, results.get(5).getError());
+        Map<PackedDNA, Boolean> evaluated = new HashMap<>();
+        evaluated.put(PackedDNA.of(mutant), true);
+        evaluated.put(PackedDNA.of(human), false);
+        verify(sequenceDNARepository).saveAllDNA(evaluated);
+        verify(sequenceDNARepository, never()).saveDNA(any(), anyBoolean());
+    }
+
+    /**
+     * Prueba para la excepcion lanzada cuando el lote supera la cantidad maxima permitida
+     */
+    @Test
+    void isMutantBatchMaxSizeTest() {
+        List<SequenceDNAModel> batch = Collections.nCopies(SequenceDNAUseCase.MAX_BATCH_SIZE + 1,
+                SequenceDNAModel.builder().build());
+        assertThrows(InvalidDNAException.class, () -> sequenceDNAUseCase.isMutantBatch(batch));
+    }
+
     /**
      * Prueba verificar el retorno del metodo getStat()
      */
@@ -185,4 +364,88 @@ class SequenceDNAUseCaseTest {
         assertEquals(statModel, sequenceDNAUseCase.getStat());
     }
 
-}
\ No newline at end of file
+    /**
+     * Crea los conteos de un intervalo
+     *
+     * @param start   inicio del intervalo
+     * @param mutants cantidad de cadenas de mutantes
+     * @param humans  cantidad de cadenas de humanos
+     * @return conteos del intervalo
+     */
+    private static StatBucketModel bucket(String start, long mutants, long humans) {
+        return StatBucketModel.builder()
+                .start(Instant.parse(start))
+                .stats(StatModel.builder().countMutantDNA(mutants).countHumanDNA(humans).build())
+                .build();
+    }
+
+    /**
+     * Verifica que las estadisticas de una ventana sumen los intervalos de minutos que terminan
+     * en el intervalo en curso
+     *
+     * @throws InvalidStatWindowException
+     */
+    @Test
+    void getStatWindowTest() throws InvalidStatWindowException {
+        when(statRepository.findStatBuckets(StatResolution.MINUTE, Instant.parse("2022-02-01T09:16:00Z")))
+                .thenReturn(Arrays.asList(bucket("2022-02-01T09:20:00Z", 2, 1),
+                        bucket("2022-02-01T10:15:00Z", 1, 3),
+                        bucket("2022-02-01T10:15:00Z", 0, 1)));
+        StatModel statModel = sequenceDNAUseCase.getStat("1h", Instant.parse("2022-02-01T10:15:30Z"));
+        assertEquals(3, statModel.getCountMutantDNA());
+        assertEquals(5, statModel.getCountHumanDNA());
+        verify(statRepository).calRatio(statModel);
+    }
+
+    /**
+     * Verifica que la serie tenga un elemento por intervalo de la ventana, con los intervalos
+     * sin cadenas en cero y los conteos repetidos de un intervalo sumados
+     *
+     * @throws InvalidStatWindowException
+     */
+    @Test
+    void getStatSeriesTest() throws InvalidStatWindowException {
+        when(statRepository.findStatBuckets(StatResolution.MINUTE, Instant.parse("2022-02-01T10:11:00Z")))
+                .thenReturn(Arrays.asList(bucket("2022-02-01T10:12:00Z", 1, 2),
+                        bucket("2022-02-01T10:12:00Z", 1, 0),
+                        bucket("2022-02-01T10:15:00Z", 0, 3)));
+        List<StatBucketModel> series = sequenceDNAUseCase.getStatSeries(null, "5m", Instant.parse("2022-02-01T10:15:30Z"));
+        assertEquals(5, series.size());
+        assertEquals(Instant.parse("2022-02-01T10:11:00Z"), series.get(0).getStart());
+        assertEquals(Instant.parse("2022-02-01T10:15:00Z"), series.get(4).getStart());
+        assertEquals(0, series.get(0).getStats().getCountMutantDNA() + series.get(0).getStats().getCountHumanDNA());
+        assertEquals(2, series.get(1).getStats().getCountMutantDNA());
+        assertEquals(2, series.get(1).getStats().getCountHumanDNA());
+        assertEquals(3, series.get(4).getStats().getCountHumanDNA());
+        verify(statRepository, times(5)).calRatio(any());
+    }
+
+    /**
+     * Verifica la resolucion indicada y la ventana por defecto de la serie
+     *
+     * @throws InvalidStatWindowException
+     */
+    @Test
+    void getStatSeriesResolutionTest() throws InvalidStatWindowException {
+        when(statRepository.findStatBuckets(StatResolution.HOUR, Instant.parse("2022-02-01T10:00:00Z")))
+                .thenReturn(Collections.emptyList());
+        List<StatBucketModel> series = sequenceDNAUseCase.getStatSeries("Hour", null, Instant.parse("2022-02-01T10:15:30Z"));
+        assertEquals(1, series.size());
+        assertEquals(Instant.parse("2022-02-01T10:00:00Z"), series.get(0).getStart());
+    }
+
+    /**
+     * Verifica las ventanas, las resoluciones y las series no validas
+     */
+    @Test
+    void invalidStatWindowTest() {
+        assertThrows(InvalidStatWindowException.class, () -> sequenceDNAUseCase.getStat("1y"));
+        assertThrows(InvalidStatWindowException.class, () -> sequenceDNAUseCase.getStat("0m"));
+        assertThrows(InvalidStatWindowException.class, () -> sequenceDNAUseCase.getStat("15"));
+        assertThrows(InvalidStatWindowException.class, () -> sequenceDNAUseCase.getStat("3651d"));
+        assertThrows(InvalidStatWindowException.class, () -> sequenceDNAUseCase.getStatSeries("week", "1h"));
+        assertThrows(InvalidStatWindowException.class, () -> sequenceDNAUseCase.getStatSeries("minute", "2d"));
+        verifyNoInteractions(statRepository);
+    }
+
+}
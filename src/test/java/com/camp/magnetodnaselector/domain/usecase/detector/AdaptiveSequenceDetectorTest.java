@@ -0,0 +1,90 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Clase de prueba para el motor de deteccion {@link AdaptiveSequenceDetector}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class AdaptiveSequenceDetectorTest {
+
+    private final BitParallelSequenceDetector bitParallelDetector = new BitParallelSequenceDetector(4);
+
+    private final AdaptiveSequenceDetector detector = new AdaptiveSequenceDetector(bitParallelDetector, 8);
+
+    /**
+     * Genera una matriz aleatoria de NxN usando solo las primeras bases del alfabeto
+     * indicadas, entre menos bases mas secuencias tendra la matriz
+     *
+     * @param random generador de numeros aleatorios
+     * @param size   tamanio de la matriz
+     * @param bases  cantidad de bases distintas a usar
+     * @return cadena de ADN
+     */
+    private static String[] randomDNA(Random random, int size, int bases) {
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                row.append("ATCG".charAt(random.nextInt(bases)));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Verifica que mientras no se reordenen las dimensiones el orden sea el de {@link Direction}
+     * y que las dimensiones donde se encuentran las secuencias pasen al inicio
+     */
+    @Test
+    void reorderTest() {
+        assertArrayEquals(Direction.values(), detector.getOrder());
+        PackedDNA vertical = PackedDNA.of("TCTGTT", "TCTAAC", "TTCGTC", "TGATGC", "TAACAC", "TCCCTT");
+        PackedDNA leftDiagonal = PackedDNA.of("TTAGGC", "GTGCGT", "GGCGCG", "GCATTC", "CCAAGA", "ATTACC");
+        for (int i = 0; i < 7; i++) {
+            assertEquals(2, detector.countSequences(vertical, 2));
+        }
+        assertArrayEquals(Direction.values(), detector.getOrder());
+        assertEquals(2, detector.countSequences(leftDiagonal, 2));
+        assertArrayEquals(new Direction[]{Direction.VERTICAL, Direction.LEFT_DIAGONAL, Direction.HORIZONTAL,
+                Direction.RIGHT_DIAGONAL}, detector.getOrder());
+        for (int i = 0; i < 24; i++) {
+            detector.countSequences(leftDiagonal, 2);
+        }
+        assertEquals(Direction.LEFT_DIAGONAL, detector.getOrder()[0]);
+    }
+
+    /**
+     * Verifica que el resultado y el conteo completo sean iguales a los del motor
+     * {@link BitParallelSequenceDetector} mientras las dimensiones cambian de orden
+     */
+    @Test
+    void countEqualsBitParallelTest() {
+        Random random = new Random(9105);
+        for (int i = 0; i < 2000; i++) {
+            PackedDNA dna = PackedDNA.of(randomDNA(random, 4 + random.nextInt(40), 1 + random.nextInt(4)));
+            int limit = 1 + random.nextInt(4);
+            assertEquals(bitParallelDetector.countSequences(dna, limit) >= limit, detector.countSequences(dna, limit) >= limit);
+            assertEquals(bitParallelDetector.countSequences(dna, Integer.MAX_VALUE),
+                    detector.countSequences(dna, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Verifica que el intervalo de reordenamiento sea mayor a 0
+     */
+    @Test
+    void unsupportedIntervalTest() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSequenceDetector(bitParallelDetector, 0));
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Clase de prueba para el motor de deteccion {@link BitParallelSequenceDetector}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class BitParallelSequenceDetectorTest {
+
+    private final BitParallelSequenceDetector detector = new BitParallelSequenceDetector(4);
+
+    private final RunLengthSequenceDetector runLengthDetector = new RunLengthSequenceDetector(4);
+
+    /**
+     * Genera una matriz aleatoria de NxN usando solo las primeras bases del alfabeto
+     * indicadas, entre menos bases mas secuencias tendra la matriz
+     *
+     * @param random generador de numeros aleatorios
+     * @param size   tamanio de la matriz
+     * @param bases  cantidad de bases distintas a usar
+     * @return cadena de ADN
+     */
+    private static String[] randomDNA(Random random, int size, int bases) {
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                row.append("ATCG".charAt(random.nextInt(bases)));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Verifica el conteo de secuencias en cada una de las dimensiones sin limite de busqueda
+     */
+    @Test
+    void countAllDimensionsTest() {
+        String[] horizontal = {"GGGGA", "CCTTA", "TAAAA", "ATGTG", "TGAGA"};
+        String[] vertical = {"GCTAA", "GCTTA", "GACAA", "GTGTA", "TGAGA"};
+        String[] diagonal = {"GCTGA", "AGGTC", "CGGAC", "GTGGA", "TGAGA"};
+        assertEquals(2, detector.countSequences(PackedDNA.of(horizontal), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(vertical), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(diagonal), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Verifica que las secuencias que cruzan el limite entre dos palabras de 64 bits
+     * se cuenten una sola vez
+     */
+    @Test
+    void countAcrossWordBoundaryTest() {
+        String[] dna = new String[40];
+        for (int i = 0; i < dna.length; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < dna.length; j++) {
+                row.append(i == 0 && j >= 29 && j < 37 ? 'A' : "CGTC".charAt((i + (2 * j)) % 4));
+            }
+            dna[i] = row.toString();
+        }
+        assertEquals(2, detector.countSequences(PackedDNA.of(dna), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Verifica que el conteo sea igual al del motor {@link RunLengthSequenceDetector}
+     * para matrices aleatorias de distintos tamanios y densidades de secuencias
+     */
+    @Test
+    void countEqualsRunLengthTest() {
+        Random random = new Random(9105);
+        for (int i = 0; i < 2000; i++) {
+            PackedDNA dna = PackedDNA.of(randomDNA(random, 4 + random.nextInt(100), 1 + random.nextInt(4)));
+            assertEquals(runLengthDetector.countSequences(dna, Integer.MAX_VALUE),
+                    detector.countSequences(dna, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Verifica que la busqueda se detenga al alcanzar el limite dado
+     */
+    @Test
+    void countStopsAtLimitTest() {
+        String[] dna = {"AAAA", "AAAA", "AAAA", "AAAA"};
+        assertEquals(10, detector.countSequences(PackedDNA.of(dna), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(dna), 2));
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para el motor de deteccion {@link ParallelSequenceDetector}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class ParallelSequenceDetectorTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    private final RunLengthSequenceDetector runLengthDetector = new RunLengthSequenceDetector(4);
+
+    private final ParallelSequenceDetector detector = new ParallelSequenceDetector(runLengthDetector, 4, 8, pool);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Genera una matriz aleatoria de NxN usando solo las primeras bases del alfabeto
+     * indicadas, entre menos bases mas secuencias tendra la matriz
+     *
+     * @param random generador de numeros aleatorios
+     * @param size   tamanio de la matriz
+     * @param bases  cantidad de bases distintas a usar
+     * @return cadena de ADN
+     */
+    private static String[] randomDNA(Random random, int size, int bases) {
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                row.append("ATCG".charAt(random.nextInt(bases)));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Verifica el conteo de secuencias en cada una de las dimensiones de una matriz
+     * mayor al umbral sin limite de busqueda
+     */
+    @Test
+    void countAllDimensionsTest() {
+        String[] dna = new String[40];
+        for (int i = 0; i < dna.length; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < dna.length; j++) {
+                row.append("CGTC".charAt((i + (2 * j)) % 4));
+            }
+            dna[i] = row.toString();
+        }
+        assertEquals(0, detector.countSequences(PackedDNA.of(dna), Integer.MAX_VALUE));
+        dna[0] = "AAAAAAAA" + dna[0].substring(8);
+        assertEquals(2, detector.countSequences(PackedDNA.of(dna), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Verifica que el conteo sea igual al del motor {@link RunLengthSequenceDetector}
+     * para matrices aleatorias menores y mayores al umbral
+     */
+    @Test
+    void countEqualsRunLengthTest() {
+        Random random = new Random(9105);
+        for (int i = 0; i < 500; i++) {
+            PackedDNA dna = PackedDNA.of(randomDNA(random, 4 + random.nextInt(100), 1 + random.nextInt(4)));
+            assertEquals(runLengthDetector.countSequences(dna, Integer.MAX_VALUE),
+                    detector.countSequences(dna, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Verifica que todas las bandas se detengan al alcanzar el limite dado
+     */
+    @Test
+    void countStopsAtLimitTest() {
+        String[] dna = randomDNA(new Random(1), 200, 1);
+        int count = detector.countSequences(PackedDNA.of(dna), 2);
+        assertTrue(count >= 2 && count < 2 + pool.getParallelism());
+    }
+
+}
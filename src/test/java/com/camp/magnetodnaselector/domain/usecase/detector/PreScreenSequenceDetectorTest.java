@@ -0,0 +1,134 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para el motor de deteccion {@link PreScreenSequenceDetector}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class PreScreenSequenceDetectorTest {
+
+    private final RunLengthSequenceDetector runLengthDetector = new RunLengthSequenceDetector(4);
+
+    /**
+     * Cantidad de veces que se consulta al motor delegado
+     */
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+
+    private final PreScreenSequenceDetector detector = new PreScreenSequenceDetector((dna, limit) -> {
+        delegateCalls.incrementAndGet();
+        return runLengthDetector.countSequences(dna, limit);
+    }, 4);
+
+    /**
+     * Genera una matriz aleatoria de NxN usando solo las primeras bases del alfabeto
+     * indicadas, entre menos bases mas secuencias tendra la matriz
+     *
+     * @param random generador de numeros aleatorios
+     * @param size   tamanio de la matriz
+     * @param bases  cantidad de bases distintas a usar
+     * @return cadena de ADN
+     */
+    private static String[] randomDNA(Random random, int size, int bases) {
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                row.append("ATCG".charAt(random.nextInt(bases)));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Verifica que una matriz sin tripletas en ninguna dimension se descarte sin consultar
+     * al motor delegado
+     */
+    @Test
+    void humanWithoutScanTest() {
+        String[] dna = new String[200];
+        for (int i = 0; i < dna.length; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < dna.length; j++) {
+                row.append("CGTC".charAt((i + (2 * j)) % 4));
+            }
+            dna[i] = row.toString();
+        }
+        assertFalse(detector.hasSequences(PackedDNA.of(dna), 2));
+        assertEquals(0, delegateCalls.get());
+        assertEquals(1, detector.getScreenedCount());
+    }
+
+    /**
+     * Verifica que una matriz con una sola secuencia se descarte sin consultar al motor delegado
+     * y que con dos secuencias se consulte y se detecte el mutante
+     */
+    @Test
+    void mutantScannedTest() {
+        assertFalse(detector.hasSequences(PackedDNA.of("ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"), 2));
+        assertEquals(0, delegateCalls.get());
+        assertTrue(detector.hasSequences(PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"), 2));
+        assertEquals(1, delegateCalls.get());
+    }
+
+    /**
+     * Verifica que el resultado sea igual al del motor {@link RunLengthSequenceDetector}
+     * para matrices aleatorias de distintos tamanios y limites
+     */
+    @Test
+    void hasSequencesEqualsRunLengthTest() {
+        Random random = new Random(9105);
+        for (int i = 0; i < 2000; i++) {
+            PackedDNA dna = PackedDNA.of(randomDNA(random, 1 + random.nextInt(70), 1 + random.nextInt(4)));
+            int limit = 1 + random.nextInt(3);
+            assertEquals(runLengthDetector.countSequences(dna, limit) >= limit, detector.hasSequences(dna, limit));
+        }
+    }
+
+    /**
+     * Verifica que el motor solo acepte longitudes de secuencia de 3 a 32
+     */
+    @Test
+    void unsupportedSequenceSizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new PreScreenSequenceDetector(runLengthDetector, 2));
+        assertThrows(IllegalArgumentException.class, () -> new PreScreenSequenceDetector(runLengthDetector, 33));
+    }
+
+    /**
+     * Verifica que las matrices mayores al tamanio maximo se entreguen al motor delegado sin
+     * calcular la cota, aunque la cota las descartaria
+     */
+    @Test
+    void maxSizeTest() {
+        String[] dna = new String[12];
+        for (int i = 0; i < dna.length; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < dna.length; j++) {
+                row.append("ATCG".charAt((i + (2 * j)) % 4));
+            }
+            dna[i] = row.toString();
+        }
+        PreScreenSequenceDetector limited = new PreScreenSequenceDetector((packed, limit) -> {
+            delegateCalls.incrementAndGet();
+            return runLengthDetector.countSequences(packed, limit);
+        }, 4, 8);
+        assertFalse(limited.hasSequences(PackedDNA.of(dna), 2));
+        assertEquals(1, delegateCalls.get());
+        assertEquals(0, limited.getScreenedCount());
+        assertFalse(detector.hasSequences(PackedDNA.of(dna), 2));
+        assertEquals(1, delegateCalls.get());
+        assertEquals(1, detector.getScreenedCount());
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Clase de prueba para el motor de deteccion {@link RunLengthSequenceDetector}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class RunLengthSequenceDetectorTest {
+
+    private final RunLengthSequenceDetector detector = new RunLengthSequenceDetector(4);
+
+    /**
+     * Verifica el conteo de secuencias en cada una de las dimensiones sin limite de busqueda
+     */
+    @Test
+    void countAllDimensionsTest() {
+        String[] horizontal = {"GGGGA", "CCTTA", "TAAAA", "ATGTG", "TGAGA"};
+        String[] vertical = {"GCTAA", "GCTTA", "GACAA", "GTGTA", "TGAGA"};
+        String[] diagonal = {"GCTGA", "AGGTC", "CGGAC", "GTGGA", "TGAGA"};
+        assertEquals(2, detector.countSequences(PackedDNA.of(horizontal), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(vertical), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(diagonal), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Verifica que una racha de longitud L aporte L / 4 ocurrencias, igual que
+     * el patron de expresion regular que reemplaza el motor
+     */
+    @Test
+    void countLongRunTest() {
+        String[] dna = {"AAAAAAAAA", "CTCTCTCTC", "GAGAGAGAG", "TCTCTCTCT",
+                "GAGAGAGAG", "TCTCTCTCT", "GAGAGAGAG", "TCTCTCTCT", "GAGAGAGAG"};
+        assertEquals(2, detector.countSequences(PackedDNA.of(dna), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Verifica que la busqueda se detenga al alcanzar el limite dado
+     */
+    @Test
+    void countStopsAtLimitTest() {
+        String[] dna = {"AAAA", "AAAA", "AAAA", "AAAA"};
+        assertEquals(10, detector.countSequences(PackedDNA.of(dna), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(dna), 2));
+    }
+
+    /**
+     * Verifica que una matriz sin secuencias no cuente ocurrencias
+     */
+    @Test
+    void countHumanTest() {
+        String[] dna = {"AATTAATTAA", "CTCTCTCTCT", "CGCGCGCGCG", "TCTCTCTCTC", "GAGAGAGAGA",
+                "AATTAATTAA", "CTCTCTCTCT", "CGCGCGCGCG", "TCTCTCTCTC", "GAGAGAGAGA"};
+        assertEquals(0, detector.countSequences(PackedDNA.of(dna), Integer.MAX_VALUE));
+    }
+
+}
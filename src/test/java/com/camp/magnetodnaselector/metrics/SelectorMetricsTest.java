@@ -0,0 +1,64 @@
+package com.camp.magnetodnaselector.metrics;
+
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Detection;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Shortcut;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Clase de prueba para las metricas de {@link SelectorMetrics}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class SelectorMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SelectorMetrics selectorMetrics = new SelectorMetrics(meterRegistry);
+
+    /**
+     * Verifica que todas las metricas se registren al crear el objeto con los nombres
+     * y etiquetas documentados
+     */
+    @Test
+    void registeredMetricsTest() {
+        for (String stage : new String[]{"read", "validate", "lookup", "detect", "save"}) {
+            assertEquals(0, meterRegistry.get(SelectorMetrics.STAGE_TIMER).tag("stage", stage).timer().count());
+        }
+        for (String reason : new String[]{"saved", "in_flight"}) {
+            assertEquals(0, meterRegistry.get(SelectorMetrics.SHORTCUT_COUNTER).tag("reason", reason).counter().count());
+        }
+        for (String outcome : new String[]{"early_exit", "full_scan"}) {
+            assertEquals(0, meterRegistry.get(SelectorMetrics.DETECTION_COUNTER).tag("outcome", outcome).counter().count());
+        }
+        assertEquals(0, meterRegistry.get(SelectorMetrics.SIZE_SUMMARY).summary().count());
+    }
+
+    /**
+     * Verifica el registro de la duracion de las etapas, los tamanios, las evaluaciones
+     * que no recorren la matriz y los resultados de los recorridos
+     */
+    @Test
+    void recordTest() {
+        selectorMetrics.recordStage(Stage.DETECT, TimeUnit.MILLISECONDS.toNanos(3));
+        selectorMetrics.recordStage(Stage.DETECT, TimeUnit.MILLISECONDS.toNanos(5));
+        selectorMetrics.recordSize(6);
+        selectorMetrics.recordSize(1000);
+        selectorMetrics.recordShortcut(Shortcut.IN_FLIGHT);
+        selectorMetrics.recordDetection(Detection.EARLY_EXIT);
+
+        assertEquals(2, meterRegistry.get(SelectorMetrics.STAGE_TIMER).tag("stage", "detect").timer().count());
+        assertEquals(8, meterRegistry.get(SelectorMetrics.STAGE_TIMER).tag("stage", "detect").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1006, meterRegistry.get(SelectorMetrics.SIZE_SUMMARY).summary().totalAmount());
+        assertEquals(1, meterRegistry.get(SelectorMetrics.SHORTCUT_COUNTER).tag("reason", "in_flight").counter().count());
+        assertEquals(0, meterRegistry.get(SelectorMetrics.SHORTCUT_COUNTER).tag("reason", "saved").counter().count());
+        assertEquals(1, meterRegistry.get(SelectorMetrics.DETECTION_COUNTER).tag("outcome", "early_exit").counter().count());
+        assertEquals(0, meterRegistry.get(SelectorMetrics.DETECTION_COUNTER).tag("outcome", "full_scan").counter().count());
+    }
+
+}
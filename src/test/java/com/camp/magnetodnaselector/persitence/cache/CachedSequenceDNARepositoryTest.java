@@ -0,0 +1,91 @@
+package com.camp.magnetodnaselector.persitence.cache;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas para la clase {@link CachedSequenceDNARepository}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@ExtendWith(MockitoExtension.class)
+class CachedSequenceDNARepositoryTest {
+
+    @Mock
+    private SequenceDNARepository sequenceDNARepository;
+
+    private CachedSequenceDNARepository cachedSequenceDNARepository;
+
+    @BeforeEach
+    void setup() {
+        cachedSequenceDNARepository = new CachedSequenceDNARepository(sequenceDNARepository, 1024 * 1024);
+    }
+
+    /**
+     * Verifica que una cadena consultada dos veces solo se busca una vez en el
+     * medio de persistencia
+     */
+    @Test
+    void isMutantSavedDNAHitTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(true);
+        assertTrue(cachedSequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna)));
+        assertTrue(cachedSequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna)));
+        verify(sequenceDNARepository, times(1)).isMutantSavedDNA(PackedDNA.of(dna));
+        assertEquals(1, cachedSequenceDNARepository.getStats().hitCount());
+        assertEquals(1, cachedSequenceDNARepository.getStats().missCount());
+    }
+
+    /**
+     * Verifica que una cadena no registrada no se guarda en la cache y se vuelve
+     * a consultar en el medio de persistencia
+     */
+    @Test
+    void isMutantSavedDNAMissTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(sequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna))).thenReturn(null);
+        assertNull(cachedSequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna)));
+        assertNull(cachedSequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna)));
+        verify(sequenceDNARepository, times(2)).isMutantSavedDNA(PackedDNA.of(dna));
+    }
+
+    /**
+     * Verifica que una cadena guardada se responde desde la cache sin consultar
+     * el medio de persistencia
+     */
+    @Test
+    void saveDNATest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        cachedSequenceDNARepository.saveDNA(PackedDNA.of(dna), false);
+        assertFalse(cachedSequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna)));
+        verify(sequenceDNARepository).saveDNA(PackedDNA.of(dna), false);
+        verify(sequenceDNARepository, never()).isMutantSavedDNA(any());
+    }
+
+    /**
+     * Verifica que la cache desaloja entradas cuando las cadenas superan el tamanio maximo
+     */
+    @Test
+    void evictionTest() {
+        cachedSequenceDNARepository = new CachedSequenceDNARepository(sequenceDNARepository, 4096);
+        for (int i = 0; i < 256; i++) {
+            char[] row = new char[6];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = PackedDNA.decode(i >> (2 * j));
+            }
+            cachedSequenceDNARepository.saveDNA(
+                    PackedDNA.of(new String(row), "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"), true);
+        }
+        cachedSequenceDNARepository.cleanUp();
+        assertTrue(cachedSequenceDNARepository.getStats().evictionCount() > 0);
+    }
+
+}
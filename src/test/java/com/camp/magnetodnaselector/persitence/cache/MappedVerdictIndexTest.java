@@ -0,0 +1,130 @@
+package com.camp.magnetodnaselector.persitence.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para el indice local {@link MappedVerdictIndex}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class MappedVerdictIndexTest {
+
+    /**
+     * Directorio temporal de los archivos del indice
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Genera una huella de contenido aleatoria de 32 caracteres hexadecimales
+     *
+     * @param random generador de numeros aleatorios
+     * @return huella de contenido
+     */
+    private static String randomHash(Random random) {
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * Verifica que los resultados guardados se encuentren, que una cadena no se guarde dos veces
+     * y que no se encuentren las cadenas no guardadas o con otro tamanio
+     */
+    @Test
+    void putAndGetTest() {
+        Random random = new Random(9105);
+        String[] hashes = new String[1000];
+        try (MappedVerdictIndex index = MappedVerdictIndex.open(directory.resolve("verdicts.idx"), 2048)) {
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = randomHash(random);
+                assertTrue(index.put(hashes[i], 6 + (i % 10), i % 3 == 0));
+            }
+            assertFalse(index.put(hashes[0], 6, false));
+            assertEquals(1000, index.getCount());
+            for (int i = 0; i < hashes.length; i++) {
+                assertEquals(i % 3 == 0, index.get(hashes[i], 6 + (i % 10)));
+            }
+            assertNull(index.get(hashes[1], 6));
+            assertNull(index.get(randomHash(random), 6));
+            assertEquals(1000, index.getHitCount());
+        }
+    }
+
+    /**
+     * Verifica que los resultados se conserven al cerrar y volver a abrir el archivo, aun si se
+     * indica otra capacidad
+     */
+    @Test
+    void reopenTest() {
+        Path path = directory.resolve("verdicts.idx");
+        String hash = randomHash(new Random(9105));
+        try (MappedVerdictIndex index = MappedVerdictIndex.open(path, 100)) {
+            index.put(hash, 6, true);
+        }
+        try (MappedVerdictIndex index = MappedVerdictIndex.open(path, 4096)) {
+            assertEquals(128, index.getCapacity());
+            assertEquals(1, index.getCount());
+            assertEquals(Boolean.TRUE, index.get(hash, 6));
+        }
+    }
+
+    /**
+     * Verifica que un archivo que no tiene el formato del indice se reemplace por un indice vacio
+     *
+     * @throws Exception si el archivo no se puede escribir
+     */
+    @Test
+    void invalidFileTest() throws Exception {
+        Path path = directory.resolve("verdicts.idx");
+        Files.write(path, new byte[1000]);
+        try (MappedVerdictIndex index = MappedVerdictIndex.open(path, 16)) {
+            assertEquals(0, index.getCount());
+            assertEquals(16, index.getCapacity());
+        }
+    }
+
+    /**
+     * Verifica que el indice deje de aceptar entradas al llegar al 75% de su capacidad
+     */
+    @Test
+    void fullIndexTest() {
+        Random random = new Random(9105);
+        try (MappedVerdictIndex index = MappedVerdictIndex.open(directory.resolve("verdicts.idx"), 16)) {
+            for (int i = 0; i < 12; i++) {
+                assertTrue(index.put(randomHash(random), 6, false));
+            }
+            String hash = randomHash(random);
+            assertFalse(index.put(hash, 6, false));
+            assertNull(index.get(hash, 6));
+            assertEquals(12, index.getCount());
+        }
+    }
+
+    /**
+     * Verifica que el archivo no se pueda abrir dos veces y que el indice deshabilitado no
+     * guarde resultados
+     */
+    @Test
+    void lockedAndDisabledTest() {
+        Path path = directory.resolve("verdicts.idx");
+        try (MappedVerdictIndex index = MappedVerdictIndex.open(path, 16)) {
+            assertThrows(IllegalStateException.class, () -> MappedVerdictIndex.open(path, 16));
+            assertTrue(index.put(randomHash(new Random(9105)), 6, true));
+        }
+        MappedVerdictIndex disabled = MappedVerdictIndex.disabled();
+        String hash = randomHash(new Random(9105));
+        assertFalse(disabled.put(hash, 6, true));
+        assertNull(disabled.get(hash, 6));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.camp.magnetodnaselector.persitence.cache;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.persitence.service.EmbeddedPersistenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas para la clase {@link ReactiveCachedSequenceDNARepository}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveCachedSequenceDNARepositoryTest {
+
+    @Mock
+    private EmbeddedPersistenceService embeddedPersistenceService;
+
+    private ReactiveCachedSequenceDNARepository reactiveCachedSequenceDNARepository;
+
+    @BeforeEach
+    void setup() {
+        reactiveCachedSequenceDNARepository = new ReactiveCachedSequenceDNARepository(embeddedPersistenceService, 1024 * 1024);
+    }
+
+    /**
+     * Verifica que una cadena encontrada por la busqueda reactiva se responde desde la cache,
+     * tanto en la busqueda reactiva como en la sincrona
+     */
+    @Test
+    void findMutantHitTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(embeddedPersistenceService.findMutant(PackedDNA.of(dna))).thenReturn(Mono.just(true));
+        assertTrue(reactiveCachedSequenceDNARepository.findMutant(PackedDNA.of(dna)).block());
+        assertTrue(reactiveCachedSequenceDNARepository.findMutant(PackedDNA.of(dna)).block());
+        assertTrue(reactiveCachedSequenceDNARepository.isMutantSavedDNA(PackedDNA.of(dna)));
+        verify(embeddedPersistenceService, times(1)).findMutant(PackedDNA.of(dna));
+        verify(embeddedPersistenceService, never()).isMutantSavedDNA(any());
+    }
+
+    /**
+     * Verifica que una cadena no registrada no se guarda en la cache
+     */
+    @Test
+    void findMutantMissTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(embeddedPersistenceService.findMutant(PackedDNA.of(dna))).thenReturn(Mono.empty());
+        assertNull(reactiveCachedSequenceDNARepository.findMutant(PackedDNA.of(dna)).block());
+        assertNull(reactiveCachedSequenceDNARepository.findMutant(PackedDNA.of(dna)).block());
+        verify(embeddedPersistenceService, times(2)).findMutant(PackedDNA.of(dna));
+    }
+
+    /**
+     * Verifica que el resultado se guarda en la cache solo al terminar el guardado reactivo
+     */
+    @Test
+    void saveTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(embeddedPersistenceService.save(PackedDNA.of(dna), false)).thenReturn(Mono.empty());
+        Mono<Void> save = reactiveCachedSequenceDNARepository.save(PackedDNA.of(dna), false);
+        assertNull(reactiveCachedSequenceDNARepository.getCached(PackedDNA.of(dna)));
+        save.block();
+        assertFalse(reactiveCachedSequenceDNARepository.findMutant(PackedDNA.of(dna)).block());
+        verify(embeddedPersistenceService, never()).findMutant(any());
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.camp.magnetodnaselector.persitence.codec;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para la conversion {@link RequestSequenceCodec}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class RequestSequenceCodecTest {
+
+    private final RequestSequenceCodec codec = new RequestSequenceCodec(RequestSequenceCodec.Format.PACKED, 64);
+
+    /**
+     * Genera una matriz aleatoria de NxN
+     *
+     * @param random generador de numeros aleatorios
+     * @param size   tamanio de la matriz
+     * @return cadena de ADN
+     */
+    private static String[] randomDNA(Random random, int size) {
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                row.append("ATCG".charAt(random.nextInt(4)));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Verifica que las matrices de distintos tamanios, incluyendo los que no son multiplo de
+     * 32 bases, se recuperen iguales del bloque de 2 bits y que el bloque no tenga relleno
+     */
+    @Test
+    void packedRoundTripTest() {
+        Random random = new Random(9105);
+        for (int size = 1; size <= 100; size++) {
+            String[] dna = randomDNA(random, size);
+            RequestSequence requestSequence = codec.encode(PackedDNA.of(dna), size % 2 == 0);
+            assertNull(requestSequence.getSequence());
+            assertEquals(size, requestSequence.getSize());
+            assertEquals(PackedDNA.of(dna).getContentHash(), requestSequence.getHash());
+            assertEquals(size % 2 == 0, requestSequence.isMutant());
+            if (!requestSequence.isDeflated()) {
+                assertEquals(((size * size) + 3) / 4, requestSequence.getPacked().length);
+            }
+            assertArrayEquals(dna, RequestSequenceCodec.decode(requestSequence).toStrings());
+            assertTrue(RequestSequenceCodec.matches(requestSequence, PackedDNA.of(dna)));
+        }
+    }
+
+    /**
+     * Verifica que una matriz grande de baja entropia se guarde comprimida y que una matriz
+     * aleatoria, que no se reduce al comprimirla, se guarde sin comprimir
+     */
+    @Test
+    void deflateTest() {
+        String[] repeated = new String[200];
+        Arrays.fill(repeated, "ATGC".repeat(50));
+        RequestSequence compressed = codec.encode(PackedDNA.of(repeated), true);
+        assertTrue(compressed.isDeflated());
+        assertTrue(compressed.getPacked().length < RequestSequenceCodec.packedLength(200));
+        assertArrayEquals(repeated, RequestSequenceCodec.decode(compressed).toStrings());
+
+        String[] random = randomDNA(new Random(9105), 200);
+        RequestSequence uncompressed = codec.encode(PackedDNA.of(random), true);
+        assertFalse(uncompressed.isDeflated());
+        assertArrayEquals(random, RequestSequenceCodec.decode(uncompressed).toStrings());
+    }
+
+    /**
+     * Verifica que en el formato strings se guarde el vector de strings y que los documentos
+     * anteriores, sin el bloque de 2 bits, se sigan leyendo
+     */
+    @Test
+    void stringsAndLegacyTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        RequestSequence requestSequence = new RequestSequenceCodec(RequestSequenceCodec.Format.STRINGS, 64)
+                .encode(PackedDNA.of(dna), true);
+        assertArrayEquals(dna, requestSequence.getSequence());
+        assertNull(requestSequence.getPacked());
+        assertNull(requestSequence.getSize());
+        assertArrayEquals(dna, RequestSequenceCodec.decode(requestSequence).toStrings());
+        assertTrue(RequestSequenceCodec.matches(requestSequence, PackedDNA.of(dna)));
+    }
+
+    /**
+     * Verifica que un documento con otra cadena, de igual o distinto tamanio, no se tome como
+     * la cadena buscada
+     */
+    @Test
+    void matchesOtherDNATest() {
+        PackedDNA dna = PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        assertFalse(RequestSequenceCodec.matches(null, dna));
+        assertFalse(RequestSequenceCodec.matches(
+                codec.encode(PackedDNA.of("ATGTGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"), true), dna));
+        assertFalse(RequestSequenceCodec.matches(codec.encode(PackedDNA.of("ATGC", "CAGT", "TTAT", "AGAA"), true), dna));
+    }
+
+    /**
+     * Verifica que un documento sin cadena o con un bloque de longitud incorrecta no se pueda leer
+     */
+    @Test
+    void decodeInvalidTest() {
+        assertThrows(IllegalArgumentException.class, () -> RequestSequenceCodec.decode(RequestSequence.builder().build()));
+        assertThrows(IllegalArgumentException.class, () -> RequestSequenceCodec.decode(RequestSequence.builder()
+                .size(6).packed(new byte[4]).build()));
+        assertThrows(IllegalArgumentException.class, () -> RequestSequenceCodec.decode(RequestSequence.builder()
+                .size(6).packed(new byte[4]).deflated(true).build()));
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.camp.magnetodnaselector.persitence.embedded;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para el almacen local {@link AppendOnlyVerdictStore}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class AppendOnlyVerdictStoreTest {
+
+    /**
+     * Directorio temporal de los archivos del almacen
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Genera huellas de contenido aleatorias de 32 caracteres hexadecimales
+     *
+     * @param count cantidad de huellas
+     * @return huellas de contenido
+     */
+    private static String[] randomHashes(int count) {
+        Random random = new Random(9105);
+        String[] hashes = new String[count];
+        for (int i = 0; i < count; i++) {
+            hashes[i] = String.format("%016x%016x", random.nextLong(), random.nextLong());
+        }
+        return hashes;
+    }
+
+    /**
+     * Verifica que los resultados guardados se encuentren, que una cadena no se guarde dos veces
+     * y que los contadores solo incluyan las cadenas nuevas
+     */
+    @Test
+    void putAndGetTest() {
+        String[] hashes = randomHashes(3);
+        try (AppendOnlyVerdictStore store = AppendOnlyVerdictStore.open(directory, false)) {
+            assertTrue(store.put(hashes[0], 6, true));
+            assertTrue(store.put(hashes[1], 6, false));
+            assertFalse(store.put(hashes[0], 6, false));
+            assertEquals(Boolean.TRUE, store.get(hashes[0], 6));
+            assertEquals(Boolean.FALSE, store.get(hashes[1], 6));
+            assertNull(store.get(hashes[0], 7));
+            assertNull(store.get(hashes[2], 6));
+            assertEquals(1, store.getMutantCount());
+            assertEquals(1, store.getHumanCount());
+        }
+    }
+
+    /**
+     * Verifica que los resultados se recuperen al volver a abrir el almacen, tanto los del log
+     * como los de la instantanea, y que la instantanea borre los logs que reemplaza
+     *
+     * @throws IOException si el directorio no se puede leer
+     */
+    @Test
+    void reopenAndSnapshotTest() throws IOException {
+        String[] hashes = randomHashes(10_000);
+        try (AppendOnlyVerdictStore store = AppendOnlyVerdictStore.open(directory, false)) {
+            for (int i = 0; i < 6_000; i++) {
+                store.put(hashes[i], 10, i % 4 == 0);
+            }
+            assertTrue(store.snapshot());
+            assertFalse(store.snapshot());
+            for (int i = 6_000; i < hashes.length; i++) {
+                store.put(hashes[i], 10, i % 4 == 0);
+            }
+        }
+        assertFalse(Files.exists(directory.resolve("verdicts-0.log")));
+        try (AppendOnlyVerdictStore store = AppendOnlyVerdictStore.open(directory, true)) {
+            assertEquals(10_000, store.size());
+            assertEquals(2_500, store.getMutantCount());
+            assertEquals(7_500, store.getHumanCount());
+            for (int i = 0; i < hashes.length; i++) {
+                assertEquals(i % 4 == 0, store.get(hashes[i], 10));
+            }
+            assertTrue(store.snapshot());
+        }
+        try (AppendOnlyVerdictStore store = AppendOnlyVerdictStore.open(directory, false)) {
+            assertEquals(10_000, store.size());
+        }
+    }
+
+    /**
+     * Verifica que un registro a medio escribir al final del log se descarte sin perder los
+     * registros anteriores
+     *
+     * @throws IOException si el log no se puede modificar
+     */
+    @Test
+    void tornRecordTest() throws IOException {
+        String[] hashes = randomHashes(3);
+        try (AppendOnlyVerdictStore store = AppendOnlyVerdictStore.open(directory, false)) {
+            store.put(hashes[0], 6, true);
+            store.put(hashes[1], 6, false);
+        }
+        Path log = directory.resolve("verdicts-0.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate((2L * AppendOnlyVerdictStore.RECORD_BYTES) - 5);
+        }
+        try (AppendOnlyVerdictStore store = AppendOnlyVerdictStore.open(directory, false)) {
+            assertEquals(Boolean.TRUE, store.get(hashes[0], 6));
+            assertNull(store.get(hashes[1], 6));
+            assertTrue(store.put(hashes[2], 6, false));
+        }
+        assertEquals(2L * AppendOnlyVerdictStore.RECORD_BYTES, Files.size(log));
+    }
+
+    /**
+     * Verifica que el directorio no se pueda abrir dos veces
+     */
+    @Test
+    void lockedDirectoryTest() {
+        try (AppendOnlyVerdictStore store = AppendOnlyVerdictStore.open(directory, false)) {
+            assertThrows(IllegalStateException.class, () -> AppendOnlyVerdictStore.open(directory, false));
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.camp.magnetodnaselector.persitence.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para el filtro {@link OffHeapBloomFilter}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class OffHeapBloomFilterTest {
+
+    /**
+     * Verifica que el filtro no tenga falsos negativos y que la proporcion de falsos positivos
+     * este cerca de la probabilidad configurada
+     */
+    @Test
+    void falsePositiveRateTest() {
+        OffHeapBloomFilter filter = OffHeapBloomFilter.create(100_000, 0.01, 1024 * 1024);
+        Random random = new Random(9105);
+        long[] high = new long[200_000];
+        long[] low = new long[high.length];
+        for (int i = 0; i < high.length; i++) {
+            high[i] = random.nextLong();
+            low[i] = random.nextLong();
+        }
+        assertTrue(filter.put(high[0], low[0]));
+        for (int i = 1; i < 100_000; i++) {
+            filter.put(high[i], low[i]);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain(high[i], low[i]));
+        }
+        int falsePositives = 0;
+        for (int i = 100_000; i < high.length; i++) {
+            if (filter.mightContain(high[i], low[i])) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1500, "False positives " + falsePositives);
+        assertFalse(filter.put(high[0], low[0]));
+    }
+
+    /**
+     * Verifica que el tamanio y las posiciones por llave correspondan a la probabilidad
+     * configurada y que la memoria nunca supere el limite
+     */
+    @Test
+    void sizingTest() {
+        OffHeapBloomFilter filter = OffHeapBloomFilter.create(1_000_000, 0.01, 64L * 1024 * 1024);
+        assertEquals(7, filter.getHashCount());
+        assertEquals(1_198_136, filter.getByteSize());
+        OffHeapBloomFilter limited = OffHeapBloomFilter.create(1_000_000, 0.01, 256 * 1024);
+        assertEquals(256 * 1024, limited.getByteSize());
+        assertEquals(1, limited.getHashCount());
+        assertEquals(limited.getByteSize() * 8, limited.getBitSize());
+    }
+
+    /**
+     * Verifica que no se acepten configuraciones invalidas
+     */
+    @Test
+    void invalidConfigurationTest() {
+        assertThrows(IllegalArgumentException.class, () -> OffHeapBloomFilter.create(0, 0.01, 1024));
+        assertThrows(IllegalArgumentException.class, () -> OffHeapBloomFilter.create(1000, 0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> OffHeapBloomFilter.create(1000, 1, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapBloomFilter(1024, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapBloomFilter(0, 3));
+    }
+
+}
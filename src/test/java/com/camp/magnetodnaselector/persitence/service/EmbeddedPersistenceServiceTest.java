@@ -0,0 +1,110 @@
+package com.camp.magnetodnaselector.persitence.service;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.SequenceDNARepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas para la clase {@link EmbeddedPersistenceService}
+ * Se anota con @SpringBootTest y se activa el perfil embedded para crear un contexto de prueba
+ * de SpringBoot sin MongoDB, con el almacen local en un directorio temporal
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class EmbeddedPersistenceServiceTest {
+
+    @Autowired
+    private EmbeddedPersistenceService embeddedPersistenceService;
+
+    @Autowired
+    private SequenceDNARepository sequenceDNARepository;
+
+    @Autowired(required = false)
+    private MongoTemplate mongoTemplate;
+
+    @DynamicPropertySource
+    static void embeddedDirectory(DynamicPropertyRegistry registry) {
+        registry.add("selector.embedded.directory",
+                () -> Paths.get(System.getProperty("java.io.tmpdir"), "embedded-" + UUID.randomUUID()).toString());
+    }
+
+    /**
+     * Verifica que el contexto no cree los objetos de MongoDB y que las clases de negocio
+     * reciban la cache delante del almacen local
+     */
+    @Test
+    void withoutMongoTest() {
+        assertNull(mongoTemplate);
+        assertNotSame(embeddedPersistenceService, sequenceDNARepository);
+    }
+
+    /**
+     * Varifica el guardado de una cadena, su busqueda y que el guardado de una cadena ya
+     * registrada no incremente los contadores
+     */
+    @Test
+    void saveAndFindDNATest() {
+        PackedDNA dna = PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        StatModel before = embeddedPersistenceService.getStat();
+        assertNull(embeddedPersistenceService.isMutantSavedDNA(dna));
+        embeddedPersistenceService.saveDNA(dna, true);
+        embeddedPersistenceService.saveDNA(dna, false);
+        assertTrue(embeddedPersistenceService.isMutantSavedDNA(dna));
+        StatModel after = embeddedPersistenceService.getStat();
+        assertEquals(before.getCountMutantDNA() + 1, after.getCountMutantDNA());
+        assertEquals(before.getCountHumanDNA(), after.getCountHumanDNA());
+    }
+
+    /**
+     * Verifica que una cadena nueva incremente el intervalo en curso de cada resolucion y que
+     * una cadena ya registrada no lo incremente
+     */
+    @Test
+    void statBucketsTest() {
+        PackedDNA dna = PackedDNA.of("GTGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCGCTA", "TCACTG");
+        Instant from = StatResolution.DAY.truncate(Instant.now()).minus(StatResolution.DAY.getLength());
+        long before = humans(embeddedPersistenceService.findStatBuckets(StatResolution.MINUTE, from));
+        embeddedPersistenceService.saveDNA(dna, false);
+        embeddedPersistenceService.saveDNA(dna, false);
+        for (StatResolution resolution : StatResolution.values()) {
+            assertEquals(before + 1, humans(embeddedPersistenceService.findStatBuckets(resolution, from)));
+        }
+    }
+
+    /**
+     * @param buckets conteos de los intervalos
+     * @return suma de las cadenas de humanos de los intervalos
+     */
+    private static long humans(List<StatBucketModel> buckets) {
+        return buckets.stream().mapToLong(bucket -> bucket.getStats().getCountHumanDNA()).sum();
+    }
+
+    /**
+     * Verifica el calculo del ratio de las estadisticas
+     */
+    @Test
+    void calRatioTest() {
+        StatModel statModel = StatModel.builder().countMutantDNA(40).countHumanDNA(100).build();
+        embeddedPersistenceService.calRatio(statModel);
+        assertEquals(0.4, statModel.getRatio());
+    }
+
+}
@@ -1,16 +1,49 @@
 package com.camp.magnetodnaselector.persitence.service;
 
+import com.camp.magnetodnaselector.config.properties.SequenceFilterProperties;
+import com.camp.magnetodnaselector.config.properties.StatsProperties;
+import com.camp.magnetodnaselector.config.properties.WriteBehindProperties;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
 import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import com.camp.magnetodnaselector.domain.usecase.SequenceDNAUseCase;
+import com.camp.magnetodnaselector.domain.usecase.detector.RunLengthSequenceDetector;
+import com.camp.magnetodnaselector.persitence.cache.MappedVerdictIndex;
+import com.camp.magnetodnaselector.persitence.codec.RequestSequenceCodec;
+import com.camp.magnetodnaselector.persitence.entity.Migration;
 import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.camp.magnetodnaselector.persitence.entity.StatBucket;
+import com.camp.magnetodnaselector.persitence.entity.StatCounter;
+import com.camp.magnetodnaselector.persitence.filter.SequenceHashFilter;
+import com.camp.magnetodnaselector.persitence.migration.RequestSequenceMigration;
+import com.camp.magnetodnaselector.persitence.migration.SequenceVerdictBackfill;
 import com.camp.magnetodnaselector.persitence.repository.RequestSequenceRepository;
+import com.camp.magnetodnaselector.persitence.repository.SequenceVerdictRepository;
+import com.camp.magnetodnaselector.persitence.writer.RequestSequenceWriteBehind;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,19 +69,233 @@ class PersistenceServiceTest {
     @Autowired
     private RequestSequenceRepository requestSequenceRepository;
 
+    @Autowired
+    private SequenceVerdictRepository sequenceVerdictRepository;
+
+    @Autowired
+    private StatCounterService statCounterService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SequenceHashFilter sequenceHashFilter;
+
+    @Autowired
+    private RequestSequenceCodec requestSequenceCodec;
+
+    @Autowired
+    private StatsProperties statsProperties;
+
     /**
      * Varifica el correcto guardado de un objeto de la clase
      * {@link RequestSequence} como una coleccion del documento anotado
-     * en dicha clase
+     * en dicha clase, con la secuencia en el bloque de 2 bits, y de su
+     * resultado en el nivel caliente {@link SequenceVerdict}
      */
     @Test
     void saveDNATest() {
         requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        PackedDNA packedDNA = PackedDNA.of(dna);
+        persistenceService.saveDNA(packedDNA, true);
+        RequestSequence requestSequence = requestSequenceRepository.findByHash(packedDNA.getContentHash()).get();
+        assertNull(requestSequence.getSequence());
+        assertEquals(6, requestSequence.getSize());
+        assertEquals(9, requestSequence.getPacked().length);
+        assertEquals(Arrays.toString(dna), Arrays.toString(RequestSequenceCodec.decode(requestSequence).toStrings()));
+        assertEquals(packedDNA, persistenceService.findArchivedDNA(packedDNA.getContentHash()));
+        SequenceVerdict verdict = sequenceVerdictRepository.findById(packedDNA.getContentHash()).get();
+        assertTrue(verdict.isMutant());
+        assertEquals(6, verdict.getSize());
+    }
+
+    /**
+     * Varifica que el guardado de una secuencia ya registrada no crea un nuevo
+     * documento ni modifica el existente, ya que el guardado es un upsert por la
+     * huella de contenido
+     */
+    @Test
+    void saveDNADuplicateTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        persistenceService.saveDNA(PackedDNA.of(dna), true);
+        persistenceService.saveDNA(PackedDNA.of(dna), false);
+        assertEquals(1, requestSequenceRepository.count());
+        assertEquals(1, sequenceVerdictRepository.count());
+        assertTrue(persistenceService.isMutantSavedDNA(PackedDNA.of(dna)));
+        RequestSequence requestSequence = requestSequenceRepository.findByHash(PackedDNA.of(dna).getContentHash()).get();
+        assertEquals(Arrays.toString(dna), Arrays.toString(RequestSequenceCodec.decode(requestSequence).toStrings()));
+    }
+
+    /**
+     * Varifica que el nivel caliente se construya a partir de los documentos del archivo,
+     * incluyendo los del vector de strings sin huella de contenido, y que despues las cadenas
+     * se encuentren por medio del servicio
+     */
+    @Test
+    void backfillVerdictsTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        mongoTemplate.remove(new Query(), Migration.class);
+        statCounterService.reconcile();
+        requestSequenceRepository.insert(RequestSequence.builder()
+                .sequence(distinctDNA(0))
+                .mutant(true).build());
+        requestSequenceRepository.insert(RequestSequence.builder()
+                .hash(PackedDNA.of(distinctDNA(1)).getContentHash())
+                .sequence(distinctDNA(1))
+                .mutant(false).build());
+        for (int i = 2; i < 5; i++) {
+            requestSequenceRepository.insert(new RequestSequenceCodec(RequestSequenceCodec.Format.PACKED, 256)
+                    .encode(PackedDNA.of(distinctDNA(i)), true));
+        }
+        assertNull(persistenceService.isMutantSavedDNA(PackedDNA.of(distinctDNA(0))));
+        SequenceVerdictBackfill backfill = new SequenceVerdictBackfill(mongoTemplate, 2);
+        assertTrue(backfill.isRequired());
+        assertEquals(5, backfill.backfill());
+        assertFalse(backfill.isRequired());
+        assertEquals(PackedDNA.of(distinctDNA(0)), persistenceService.findArchivedDNA(PackedDNA.of(distinctDNA(0)).getContentHash()));
+        sequenceHashFilter.warmUp();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i != 1, persistenceService.isMutantSavedDNA(PackedDNA.of(distinctDNA(i))));
+        }
+        assertEquals(Map.of(PackedDNA.of(distinctDNA(1)), false),
+                persistenceService.findMutantSavedDNA(List.of(PackedDNA.of(distinctDNA(1)))));
+    }
+
+    /**
+     * Varifica que con el nivel caliente ya construido, los documentos del archivo guardados sin
+     * huella de contenido reciban la huella y su resultado al iniciar, que un documento sin
+     * huella con la misma cadena de otro documento se marque como duplicado sin fallar, y que
+     * la construccion quede registrada como terminada
+     */
+    @Test
+    void backfillMissingHashTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        mongoTemplate.remove(new Query(), Migration.class);
+        statCounterService.reconcile();
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(0)), true);
+        requestSequenceRepository.insert(RequestSequence.builder()
+                .sequence(distinctDNA(1))
+                .mutant(false).build());
+        requestSequenceRepository.insert(RequestSequence.builder()
+                .sequence(distinctDNA(0))
+                .mutant(true).build());
+        SequenceVerdictBackfill backfill = new SequenceVerdictBackfill(mongoTemplate, 2);
+        assertTrue(backfill.isRequired());
+        assertEquals(1, backfill.backfill());
+        assertFalse(backfill.isRequired());
+        RequestSequence duplicate = mongoTemplate.findOne(Query.query(Criteria.where("duplicateOf").exists(true)),
+                RequestSequence.class);
+        assertEquals(PackedDNA.of(distinctDNA(0)).getContentHash(), duplicate.getDuplicateOf());
+        assertNull(duplicate.getHash());
+        sequenceHashFilter.warmUp();
+        assertEquals(false, persistenceService.isMutantSavedDNA(PackedDNA.of(distinctDNA(1))));
+        assertEquals(PackedDNA.of(distinctDNA(1)), persistenceService.findArchivedDNA(PackedDNA.of(distinctDNA(1)).getContentHash()));
+        assertEquals(2, sequenceVerdictRepository.count());
+    }
+
+    /**
+     * Varifica que la migracion convierta al bloque de 2 bits los documentos con el vector de
+     * strings, incluyendo los que no tenian huella de contenido, y que despues de convertirlos
+     * se sigan leyendo del archivo
+     */
+    @Test
+    void migrateLegacyTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        for (int i = 0; i < 5; i++) {
+            requestSequenceRepository.insert(RequestSequence.builder()
+                    .hash(i == 0 ? null : PackedDNA.of(distinctDNA(i)).getContentHash())
+                    .sequence(distinctDNA(i))
+                    .mutant(i % 2 == 0).build());
+        }
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(5)), true);
+        assertEquals(5, new RequestSequenceMigration(mongoTemplate, 256, 2).migrate());
+        assertEquals(0, new RequestSequenceMigration(mongoTemplate, 256, 2).migrate());
+        for (RequestSequence requestSequence : requestSequenceRepository.findAll()) {
+            assertNull(requestSequence.getSequence());
+            assertNotNull(requestSequence.getPacked());
+        }
+        for (int i = 0; i < 6; i++) {
+            PackedDNA dna = PackedDNA.of(distinctDNA(i));
+            assertEquals(dna, persistenceService.findArchivedDNA(dna.getContentHash()));
+        }
+    }
+
+    /**
+     * Varifica que un resultado con la misma huella pero con un tamanio distinto
+     * no se toma como la cadena buscada, simulando una colision de la huella
+     */
+    @Test
+    void isSavedDNAHashCollisionTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(PackedDNA.of(dna).getContentHash())
+                .size(7)
+                .mutant(true).build());
+        assertNull(persistenceService.isMutantSavedDNA(PackedDNA.of(dna)));
+        assertTrue(persistenceService.findMutantSavedDNA(List.of(PackedDNA.of(dna))).isEmpty());
+    }
+
+    /**
+     * Varifica que un resultado con la misma huella y el mismo tamanio pero con una suma de
+     * verificacion distinta no se toma como la cadena buscada
+     */
+    @Test
+    void isSavedDNAChecksumCollisionTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
         String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        persistenceService.saveDNA(sequenceDNAModel, true);
-        RequestSequence requestSequence = requestSequenceRepository.findBySequence(dna).get();
-        assertEquals(Arrays.toString(dna), Arrays.toString(requestSequence.getSequence()));
+        String[] other = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTT"};
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(PackedDNA.of(dna).getContentHash())
+                .size(6)
+                .checksum(PackedDNA.of(other).getContentChecksum())
+                .mutant(true).build());
+        sequenceHashFilter.warmUp();
+        assertNull(persistenceService.isMutantSavedDNA(PackedDNA.of(dna)));
+        assertTrue(persistenceService.findMutantSavedDNA(List.of(PackedDNA.of(dna))).isEmpty());
+    }
+
+    /**
+     * Varifica que un resultado guardado sin suma de verificacion se confirma con la secuencia
+     * del archivo, que se le asigna la suma de verificacion, y que no se toma como la cadena
+     * buscada si la secuencia del archivo es distinta
+     */
+    @Test
+    void isSavedDNALegacyVerdictTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        PackedDNA dna = PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        PackedDNA other = PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTT");
+        RequestSequence archived = requestSequenceCodec.encode(other, true);
+        archived.setHash(dna.getContentHash());
+        requestSequenceRepository.insert(archived);
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(dna.getContentHash())
+                .size(6)
+                .mutant(true).build());
+        sequenceHashFilter.warmUp();
+        assertNull(persistenceService.isMutantSavedDNA(dna));
+
+        requestSequenceRepository.deleteAll();
+        requestSequenceRepository.insert(requestSequenceCodec.encode(dna, true));
+        assertTrue(persistenceService.isMutantSavedDNA(dna));
+        assertEquals(dna.getContentChecksum(),
+                sequenceVerdictRepository.findById(dna.getContentHash()).orElseThrow().getChecksum());
     }
 
     /**
@@ -58,7 +305,7 @@ class PersistenceServiceTest {
     @Test
     void isSavedDNANullTest() {
         String[] dna = {"ATGTGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        Boolean res = persistenceService.isMutantSavedDNA(dna);
+        Boolean res = persistenceService.isMutantSavedDNA(PackedDNA.of(dna));
         assertNull(res);
     }
 
@@ -70,13 +317,58 @@ class PersistenceServiceTest {
     @Test
     void isSavedDNATrueTest() {
         requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
         String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        persistenceService.saveDNA(sequenceDNAModel, true);
-        Boolean res = persistenceService.isMutantSavedDNA(dna);
+        PackedDNA packedDNA = PackedDNA.of(dna);
+        persistenceService.saveDNA(packedDNA, true);
+        Boolean res = persistenceService.isMutantSavedDNA(PackedDNA.of(dna));
         assertTrue(res);
     }
 
+    /**
+     * Varifica el guardado y la busqueda por lotes, solo se retornan las cadenas
+     * guardadas y cada una con su resultado
+     */
+    @Test
+    void saveAllAndFindDNATest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        Map<PackedDNA, Boolean> results = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            results.put(PackedDNA.of(distinctDNA(i)), i % 2 == 0);
+        }
+        persistenceService.saveAllDNA(results);
+        List<PackedDNA> batch = new ArrayList<>(results.keySet());
+        batch.add(PackedDNA.of(distinctDNA(10)));
+        Map<PackedDNA, Boolean> saved = persistenceService.findMutantSavedDNA(batch);
+        assertEquals(10, requestSequenceRepository.count());
+        assertEquals(results, saved);
+        StatModel statModel = persistenceService.getStat();
+        assertEquals(5, statModel.getCountMutantDNA());
+        assertEquals(5, statModel.getCountHumanDNA());
+    }
+
+    /**
+     * Varifica que una cadena que el filtro de huellas no conoce no se busque en la base de
+     * datos, aunque su resultado se haya guardado desde otra instancia del aplicativo, y que
+     * despues de llenar el filtro con las huellas guardadas si se encuentre
+     */
+    @Test
+    void isSavedDNAFilterSkipTest() {
+        String[] dna = {"ACGTACG", "CAGTGCA", "TTATGTC", "AGAAGGT", "CCCCTAG", "TCACTGA", "GGTCAAC"};
+        sequenceVerdictRepository.save(SequenceVerdict.builder()
+                .hash(PackedDNA.of(dna).getContentHash())
+                .size(7)
+                .mutant(true).build());
+        long skipped = sequenceHashFilter.getSkippedCount();
+        assertNull(persistenceService.isMutantSavedDNA(PackedDNA.of(dna)));
+        assertEquals(skipped + 1, sequenceHashFilter.getSkippedCount());
+        sequenceHashFilter.warmUp();
+        assertTrue(persistenceService.isMutantSavedDNA(PackedDNA.of(dna)));
+    }
+
     /**
      * Varifica la busqueda las estadisitcas para el caso donde solo hay
      * un mutante registrado, se espera la correcta ejecucion en base de datos
@@ -85,9 +377,11 @@ class PersistenceServiceTest {
     @Test
     void getStatOneMutantTest() {
         requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
         String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        persistenceService.saveDNA(sequenceDNAModel, true);
+        PackedDNA packedDNA = PackedDNA.of(dna);
+        persistenceService.saveDNA(packedDNA, true);
         StatModel stat = persistenceService.getStat();
         assertEquals(0, stat.getRatio());
         assertEquals(0, stat.getCountHumanDNA());
@@ -102,9 +396,11 @@ class PersistenceServiceTest {
     @Test
     void getStatOneHumanTest() {
         requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
         String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
-        persistenceService.saveDNA(sequenceDNAModel, false);
+        PackedDNA packedDNA = PackedDNA.of(dna);
+        persistenceService.saveDNA(packedDNA, false);
         StatModel stat = persistenceService.getStat();
         assertEquals(0, stat.getRatio());
         assertEquals(1, stat.getCountHumanDNA());
@@ -119,6 +415,8 @@ class PersistenceServiceTest {
     @Test
     void getStatNoDataTest() {
         requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
         StatModel stat = persistenceService.getStat();
         assertEquals(0, stat.getRatio());
         assertEquals(0, stat.getCountHumanDNA());
@@ -127,17 +425,17 @@ class PersistenceServiceTest {
 
     /**
      * Varifica la busqueda las estadisitcas para el caso donde
-     * se ingresan previamente 140 colecciones de las cuales 100 son
+     * se ingresan previamente 140 colecciones distintas de las cuales 100 son
      * de humanos y 40 de mutantes, se espera la correcta ejecucion
      * en base de datos y un ratio de 0,4 y conteos 100 humanos y 40 mutantes
      */
     @Test
     void getStatTest() {
         requestSequenceRepository.deleteAll();
-        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
-        SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
         for (int i = 0; i < 140; i++) {
-            persistenceService.saveDNA(sequenceDNAModel, i >= 100);
+            persistenceService.saveDNA(PackedDNA.of(distinctDNA(i)), i >= 100);
         }
         StatModel stat = persistenceService.getStat();
         assertEquals(0.4, stat.getRatio());
@@ -145,5 +443,212 @@ class PersistenceServiceTest {
         assertEquals(40, stat.getCountMutantDNA());
     }
 
+    /**
+     * Varifica que la reconciliacion reconstruye los contadores de las estadisticas a partir
+     * de los resultados del nivel caliente, incluyendo los que no se guardaron por medio del servicio
+     */
+    @Test
+    void reconcileStatTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(0)), true);
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(PackedDNA.of(distinctDNA(1)).getContentHash())
+                .size(6)
+                .mutant(false).build());
+        assertEquals(0, persistenceService.getStat().getCountHumanDNA());
+        statCounterService.reconcile();
+        StatModel stat = persistenceService.getStat();
+        assertEquals(1, stat.getCountHumanDNA());
+        assertEquals(1, stat.getCountMutantDNA());
+    }
+
+    /**
+     * Varifica que la reconciliacion corrija el documento de contadores con la diferencia respecto
+     * a la agregacion, sin contar dos veces los incrementos pendientes de la instancia ni descartar
+     * los que otra instancia ya aplico al documento
+     */
+    @Test
+    void reconcileStatDeltaTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(0)), false);
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(PackedDNA.of(distinctDNA(1)).getContentHash())
+                .size(6)
+                .mutant(true).build());
+        mongoTemplate.updateFirst(StatCounterService.byId(), StatCounterService.incrementOf(1, 0), StatCounter.class);
+        statCounterService.reconcile();
+        statCounterService.flush();
+        StatCounter statCounter = mongoTemplate.findById(StatCounterService.COUNTER_ID, StatCounter.class);
+        assertEquals(1, statCounter.getCountMutantDNA());
+        assertEquals(1, statCounter.getCountHumanDNA());
+        StatModel stat = persistenceService.getStat();
+        assertEquals(1, stat.getCountMutantDNA());
+        assertEquals(1, stat.getCountHumanDNA());
+    }
+
+    /**
+     * Varifica que las evaluaciones concurrentes de las mismas cadenas nuevas, en varios hilos y
+     * en dos instancias del aplicativo que comparten la base de datos, guarden un solo resultado
+     * por cadena y que las estadisticas cuenten cada cadena una sola vez. La segunda instancia
+     * tiene sus propios contadores, filtro y escritura diferida habilitada, mientras que la del
+     * contexto guarda directamente
+     *
+     * @throws Exception si alguna evaluacion falla
+     */
+    @Test
+    void concurrentDuplicateEvaluationTest() throws Exception {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        StatCounterService otherStatCounterService = new StatCounterService(mongoTemplate, statsProperties);
+        otherStatCounterService.init();
+        WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+        writeBehindProperties.setBatchSize(8);
+        writeBehindProperties.setFlushInterval(Duration.ofMillis(20));
+        RequestSequenceWriteBehind otherWriteBehind = new RequestSequenceWriteBehind(mongoTemplate,
+                otherStatCounterService, writeBehindProperties, true);
+        otherWriteBehind.start();
+        SequenceFilterProperties filterProperties = new SequenceFilterProperties();
+        filterProperties.setEnabled(false);
+        PersistenceService otherPersistenceService = new PersistenceService(requestSequenceRepository,
+                sequenceVerdictRepository, otherWriteBehind, otherStatCounterService, requestSequenceCodec,
+                new SequenceHashFilter(mongoTemplate, filterProperties), MappedVerdictIndex.disabled());
+        otherPersistenceService.registerWrittenListener();
+        SequenceDNAUseCase[] instances = {
+                new SequenceDNAUseCase(persistenceService, persistenceService,
+                        new RunLengthSequenceDetector(SequenceDNAUseCase.SEQUENCE_SIZE), EvaluationMetrics.NONE),
+                new SequenceDNAUseCase(otherPersistenceService, otherPersistenceService,
+                        new RunLengthSequenceDetector(SequenceDNAUseCase.SEQUENCE_SIZE), EvaluationMetrics.NONE)
+        };
+        int sequences = 32;
+        int threadsPerInstance = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(instances.length * threadsPerInstance);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> evaluations = new ArrayList<>();
+        try {
+            for (SequenceDNAUseCase instance : instances) {
+                for (int t = 0; t < threadsPerInstance; t++) {
+                    evaluations.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < sequences; i++) {
+                            instance.isMutant(SequenceDNAModel.builder().dna(distinctDNA(i)).build());
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> evaluation : evaluations) {
+                evaluation.get();
+            }
+        } finally {
+            executor.shutdown();
+            otherWriteBehind.close();
+        }
+        assertEquals(0, otherWriteBehind.getFailed());
+        otherStatCounterService.flush();
+        statCounterService.flush();
+        statCounterService.refresh();
+        long verdicts = sequenceVerdictRepository.count();
+        long mutants = mongoTemplate.count(Query.query(Criteria.where("mutant").is(true)), SequenceVerdict.class);
+        assertEquals(sequences, verdicts);
+        StatModel stat = persistenceService.getStat();
+        assertEquals(verdicts, stat.getCountMutantDNA() + stat.getCountHumanDNA());
+        assertEquals(mutants, stat.getCountMutantDNA());
+        otherStatCounterService.refresh();
+        assertEquals(verdicts, otherStatCounterService.getCountMutantDNA() + otherStatCounterService.getCountHumanDNA());
+    }
+
+    /**
+     * Varifica que las cadenas nuevas se reflejen en las estadisticas de inmediato, pero que el
+     * documento de contadores solo se incremente al aplicar los contadores pendientes
+     */
+    @Test
+    void flushStatTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(0)), true);
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(1)), false);
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(2)), false);
+        StatModel stat = persistenceService.getStat();
+        assertEquals(1, stat.getCountMutantDNA());
+        assertEquals(2, stat.getCountHumanDNA());
+        StatCounter statCounter = mongoTemplate.findById(StatCounterService.COUNTER_ID, StatCounter.class);
+        assertEquals(0, statCounter.getCountMutantDNA());
+        statCounterService.flush();
+        statCounter = mongoTemplate.findById(StatCounterService.COUNTER_ID, StatCounter.class);
+        assertEquals(1, statCounter.getCountMutantDNA());
+        assertEquals(2, statCounter.getCountHumanDNA());
+        stat = persistenceService.getStat();
+        assertEquals(1, stat.getCountMutantDNA());
+        assertEquals(2, stat.getCountHumanDNA());
+    }
+
+    /**
+     * Varifica que las cadenas nuevas se reflejen en los intervalos de tiempo de inmediato, y que
+     * al aplicar los contadores pendientes se guarden en los documentos {@link StatBucket} sin
+     * contarse dos veces
+     */
+    @Test
+    void flushStatBucketsTest() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.flush();
+        mongoTemplate.remove(new Query(), StatBucket.class);
+        Instant from = StatResolution.HOUR.truncate(Instant.now()).minus(StatResolution.HOUR.getLength());
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(0)), true);
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(1)), false);
+        persistenceService.saveDNA(PackedDNA.of(distinctDNA(2)), false);
+        assertCounts(persistenceService.findStatBuckets(StatResolution.HOUR, from), 1, 2);
+        assertEquals(0, mongoTemplate.count(new Query(), StatBucket.class));
+        statCounterService.flush();
+        for (StatResolution resolution : StatResolution.values()) {
+            long mutants = 0;
+            long humans = 0;
+            for (StatBucket statBucket : mongoTemplate.findAll(StatBucket.class)) {
+                if (statBucket.getResolution().equals(resolution.name())) {
+                    mutants += statBucket.getCountMutantDNA();
+                    humans += statBucket.getCountHumanDNA();
+                    assertTrue(statBucket.getExpireAt().isAfter(statBucket.getStart()));
+                }
+            }
+            assertEquals(1, mutants);
+            assertEquals(2, humans);
+        }
+        assertCounts(persistenceService.findStatBuckets(StatResolution.HOUR, from), 1, 2);
+        assertCounts(persistenceService.findStatBuckets(StatResolution.MINUTE, from), 1, 2);
+    }
+
+    /**
+     * Verifica la suma de los conteos de los intervalos
+     *
+     * @param buckets conteos de los intervalos
+     * @param mutants cantidad esperada de cadenas de mutantes
+     * @param humans  cantidad esperada de cadenas de humanos
+     */
+    private static void assertCounts(List<StatBucketModel> buckets, long mutants, long humans) {
+        assertEquals(mutants, buckets.stream().mapToLong(bucket -> bucket.getStats().getCountMutantDNA()).sum());
+        assertEquals(humans, buckets.stream().mapToLong(bucket -> bucket.getStats().getCountHumanDNA()).sum());
+    }
+
+    /**
+     * Genera una cadena de ADN de 6x6 cuya primera fila codifica el indice
+     * ingresado en base 4, de manera que cada indice produce una cadena distinta
+     *
+     * @param index indice de la cadena, menor a 4096
+     * @return cadena de ADN
+     */
+    private static String[] distinctDNA(int index) {
+        char[] row = new char[6];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = PackedDNA.decode(index >> (2 * j));
+        }
+        return new String[]{new String(row), "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+    }
 
-}
\ No newline at end of file
+}
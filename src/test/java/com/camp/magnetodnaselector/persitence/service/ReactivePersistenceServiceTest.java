@@ -0,0 +1,134 @@
+package com.camp.magnetodnaselector.persitence.service;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.camp.magnetodnaselector.persitence.repository.RequestSequenceRepository;
+import com.camp.magnetodnaselector.persitence.repository.SequenceVerdictRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas para la clase {@link ReactivePersistenceService}
+ * Se anota con @SpringBootTest y se activa el perfil reactive para crear un contexto
+ * de prueba de SpringBoot con WebFlux y el driver reactivo sobre la instancia de
+ * MongoDB en memoria
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@SpringBootTest
+@ActiveProfiles("reactive")
+class ReactivePersistenceServiceTest {
+
+    @Autowired
+    private ReactivePersistenceService reactivePersistenceService;
+
+    @Autowired
+    private RequestSequenceRepository requestSequenceRepository;
+
+    @Autowired
+    private SequenceVerdictRepository sequenceVerdictRepository;
+
+    @Autowired
+    private StatCounterService statCounterService;
+
+    @BeforeEach
+    void setup() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+    }
+
+    /**
+     * Varifica el guardado de una cadena y su busqueda por la huella de contenido
+     */
+    @Test
+    void saveAndFindDNATest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        assertNull(reactivePersistenceService.findMutant(PackedDNA.of(dna)).block());
+        reactivePersistenceService.save(PackedDNA.of(dna), true).block();
+        assertTrue(reactivePersistenceService.findMutant(PackedDNA.of(dna)).block());
+        assertTrue(reactivePersistenceService.isMutantSavedDNA(PackedDNA.of(dna)));
+    }
+
+    /**
+     * Varifica que el guardado de una secuencia ya registrada no crea un nuevo documento
+     * ni incrementa los contadores
+     */
+    @Test
+    void saveDNADuplicateTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        reactivePersistenceService.saveDNA(PackedDNA.of(dna), true);
+        reactivePersistenceService.saveDNA(PackedDNA.of(dna), false);
+        assertEquals(1, requestSequenceRepository.count());
+        assertEquals(1, sequenceVerdictRepository.count());
+        StatModel statModel = reactivePersistenceService.getStat();
+        assertEquals(1, statModel.getCountMutantDNA());
+        assertEquals(0, statModel.getCountHumanDNA());
+    }
+
+    /**
+     * Varifica que un resultado con la misma huella pero con un tamanio distinto
+     * no se toma como la cadena buscada, simulando una colision de la huella
+     */
+    @Test
+    void findDNAHashCollisionTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(PackedDNA.of(dna).getContentHash())
+                .size(7)
+                .mutant(true).build());
+        assertNull(reactivePersistenceService.isMutantSavedDNA(PackedDNA.of(dna)));
+    }
+
+    /**
+     * Varifica que los contadores reflejan las cadenas nuevas y que al aplicar los contadores
+     * pendientes el documento de contadores queda con los mismos valores
+     */
+    @Test
+    void getStatTest() {
+        reactivePersistenceService.saveDNA(PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"), true);
+        reactivePersistenceService.saveDNA(PackedDNA.of("ATGTGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"), false);
+        reactivePersistenceService.saveDNA(PackedDNA.of("ATGTGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTA"), false);
+        StatModel statModel = reactivePersistenceService.getStat();
+        assertEquals(1, statModel.getCountMutantDNA());
+        assertEquals(2, statModel.getCountHumanDNA());
+        assertEquals(0.5, statModel.getRatio());
+        statCounterService.flush();
+        statCounterService.refresh();
+        assertEquals(1, statCounterService.getCountMutantDNA());
+        assertEquals(2, statCounterService.getCountHumanDNA());
+    }
+
+    /**
+     * Varifica que los intervalos se emitan tanto antes como despues de aplicar los conteos
+     * pendientes a los documentos de intervalos
+     */
+    @Test
+    void findBucketsTest() {
+        Instant from = Instant.now().minus(StatResolution.MINUTE.getLength());
+        long before = countOf(reactivePersistenceService.findBuckets(StatResolution.MINUTE, from).collectList().block());
+        reactivePersistenceService.save(PackedDNA.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"), true).block();
+        reactivePersistenceService.save(PackedDNA.of("ATGTGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"), false).block();
+        assertEquals(before + 2, countOf(reactivePersistenceService.findBuckets(StatResolution.MINUTE, from).collectList().block()));
+        statCounterService.flush();
+        assertEquals(before + 2, countOf(reactivePersistenceService.findBuckets(StatResolution.MINUTE, from).collectList().block()));
+    }
+
+    private static long countOf(List<StatBucketModel> buckets) {
+        return buckets.stream()
+                .mapToLong(bucket -> bucket.getStats().getCountMutantDNA() + bucket.getStats().getCountHumanDNA())
+                .sum();
+    }
+
+}
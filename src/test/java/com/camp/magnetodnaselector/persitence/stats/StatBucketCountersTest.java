@@ -0,0 +1,132 @@
+package com.camp.magnetodnaselector.persitence.stats;
+
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatResolution;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para los contadores por intervalo de tiempo {@link StatBucketCounters}
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class StatBucketCountersTest {
+
+    private final StatBucketCounters counters = new StatBucketCounters();
+
+    /**
+     * Verifica que cada cadena incremente el intervalo de su instante en las tres resoluciones
+     */
+    @Test
+    void addAndCollectTest() {
+        counters.add(Instant.parse("2022-02-01T10:15:10Z"), 1, 0);
+        counters.add(Instant.parse("2022-02-01T10:15:50Z"), 0, 2);
+        counters.add(Instant.parse("2022-02-01T10:16:05Z"), 1, 0);
+        List<StatBucketModel> minutes = counters.collect(StatResolution.MINUTE, Instant.parse("2022-02-01T10:16:00Z"));
+        assertEquals(1, minutes.size());
+        assertEquals(Instant.parse("2022-02-01T10:16:00Z"), minutes.get(0).getStart());
+        assertEquals(2, counters.collect(StatResolution.MINUTE, Instant.EPOCH).size());
+        List<StatBucketModel> days = counters.collect(StatResolution.DAY, Instant.EPOCH);
+        assertEquals(1, days.size());
+        assertEquals(Instant.parse("2022-02-01T00:00:00Z"), days.get(0).getStart());
+        assertEquals(2, days.get(0).getStats().getCountMutantDNA());
+        assertEquals(2, days.get(0).getStats().getCountHumanDNA());
+    }
+
+    /**
+     * Verifica que los conteos pendientes se sigan leyendo hasta que se descuentan como aplicados,
+     * que los no aplicados se vuelvan a leer y que los intervalos cerrados vacios se eliminen
+     */
+    @Test
+    void pendingAndAppliedTest() {
+        counters.add(Instant.parse("2022-02-01T10:15:10Z"), 1, 1);
+        Map<StatResolution, List<StatBucketModel>> pending = counters.pending(Instant.parse("2022-02-01T10:15:30Z"));
+        assertEquals(3, pending.size());
+        assertEquals(1, counters.collect(StatResolution.HOUR, Instant.EPOCH).size());
+        counters.applied(StatResolution.HOUR, pending.get(StatResolution.HOUR).get(0));
+        counters.applied(StatResolution.DAY, pending.get(StatResolution.DAY).get(0));
+        assertTrue(counters.collect(StatResolution.HOUR, Instant.EPOCH).isEmpty());
+        counters.add(Instant.parse("2022-02-01T10:15:35Z"), 1, 0);
+        pending = counters.pending(Instant.parse("2022-02-01T10:15:40Z"));
+        assertEquals(2, pending.get(StatResolution.MINUTE).get(0).getStats().getCountMutantDNA());
+        assertEquals(1, pending.get(StatResolution.MINUTE).get(0).getStats().getCountHumanDNA());
+        assertEquals(1, pending.get(StatResolution.HOUR).get(0).getStats().getCountMutantDNA());
+        assertEquals(0, pending.get(StatResolution.HOUR).get(0).getStats().getCountHumanDNA());
+        pending.forEach((resolution, buckets) -> buckets.forEach(bucket -> counters.applied(resolution, bucket)));
+        assertTrue(counters.pending(Instant.parse("2022-02-01T10:16:30Z")).isEmpty());
+        assertEquals(1, counters.size(StatResolution.MINUTE));
+        assertTrue(counters.pending(Instant.parse("2022-02-01T10:17:30Z")).isEmpty());
+        assertEquals(0, counters.size(StatResolution.MINUTE));
+        assertEquals(1, counters.size(StatResolution.HOUR));
+    }
+
+    /**
+     * Verifica que los incrementos concurrentes con la lectura y el descuento de los pendientes
+     * no se pierden: al terminar, lo aplicado mas lo pendiente es igual a lo incrementado
+     *
+     * @throws Exception
+     */
+    @Test
+    void concurrentAddTest() throws Exception {
+        Instant evaluatedAt = Instant.parse("2022-02-01T10:15:10Z");
+        int threads = 4;
+        int increments = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < increments; i++) {
+                        counters.add(evaluatedAt, 1, 1);
+                    }
+                    done.countDown();
+                });
+            }
+            long applied = 0;
+            while (done.getCount() > 0) {
+                applied += applyMinutes();
+            }
+            applied += applyMinutes();
+            assertEquals((long) threads * increments, applied);
+            assertTrue(counters.collect(StatResolution.MINUTE, Instant.EPOCH).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Descuenta como aplicados los pendientes de todas las resoluciones
+     *
+     * @return cantidad de cadenas de mutantes aplicadas del intervalo de un minuto
+     */
+    private long applyMinutes() {
+        Map<StatResolution, List<StatBucketModel>> pending = counters.pending(Instant.parse("2022-02-01T10:15:30Z"));
+        pending.forEach((resolution, buckets) -> buckets.forEach(bucket -> counters.applied(resolution, bucket)));
+        return pending.getOrDefault(StatResolution.MINUTE, Collections.emptyList()).stream()
+                .mapToLong(bucket -> bucket.getStats().getCountMutantDNA())
+                .sum();
+    }
+
+    /**
+     * Verifica la eliminacion de los intervalos anteriores a un instante
+     */
+    @Test
+    void trimTest() {
+        counters.add(Instant.parse("2022-02-01T10:15:10Z"), 1, 0);
+        counters.add(Instant.parse("2022-02-01T12:15:10Z"), 1, 0);
+        counters.trim(StatResolution.HOUR, Instant.parse("2022-02-01T11:00:00Z"));
+        assertEquals(1, counters.size(StatResolution.HOUR));
+        assertEquals(2, counters.size(StatResolution.MINUTE));
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.camp.magnetodnaselector.persitence.writer;
+
+import com.camp.magnetodnaselector.config.properties.WriteBehindProperties;
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import com.camp.magnetodnaselector.persitence.entity.RequestSequence;
+import com.camp.magnetodnaselector.persitence.entity.SequenceVerdict;
+import com.camp.magnetodnaselector.persitence.repository.RequestSequenceRepository;
+import com.camp.magnetodnaselector.persitence.repository.SequenceVerdictRepository;
+import com.camp.magnetodnaselector.persitence.service.StatCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas para la clase {@link RequestSequenceWriteBehind} sobre la instancia de
+ * MongoDB en memoria del contexto de prueba
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class RequestSequenceWriteBehindTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RequestSequenceRepository requestSequenceRepository;
+
+    @Autowired
+    private SequenceVerdictRepository sequenceVerdictRepository;
+
+    @Autowired
+    private StatCounterService statCounterService;
+
+    private WriteBehindProperties properties;
+
+    @BeforeEach
+    void setup() {
+        requestSequenceRepository.deleteAll();
+        sequenceVerdictRepository.deleteAll();
+        statCounterService.reconcile();
+        properties = new WriteBehindProperties();
+        properties.setBatchSize(10);
+        properties.setFlushInterval(Duration.ofMillis(50));
+    }
+
+    /**
+     * Verifica que los documentos pendientes se guardan por lotes al detener la escritura
+     * y que un documento repetido solo se guarda una vez
+     */
+    @Test
+    void drainOnCloseTest() {
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(mongoTemplate, statCounterService, properties, true);
+        writeBehind.start();
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writeBehind.submit(requestSequence(i)));
+        }
+        assertTrue(writeBehind.submit(requestSequence(0)));
+        writeBehind.close();
+        assertEquals(25, sequenceVerdictRepository.count());
+        assertEquals(25, requestSequenceRepository.count());
+        assertEquals(25, writeBehind.getWritten());
+        assertEquals(0, writeBehind.getQueueSize());
+        assertEquals(0, writeBehind.getFailed());
+        assertTrue(writeBehind.getBatches() >= 3);
+        assertNull(writeBehind.findPending(requestSequence(0).getHash()));
+        assertEquals(13, statCounterService.getCountMutantDNA());
+        assertEquals(12, statCounterService.getCountHumanDNA());
+    }
+
+    /**
+     * Verifica que los resultados que ya existen en la base de datos no hacen fallar el lote
+     * y que solo las cadenas nuevas se guardan en el archivo
+     */
+    @Test
+    void duplicateInBatchTest() {
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(requestSequence(3).getHash())
+                .size(6)
+                .mutant(false).build());
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(mongoTemplate, statCounterService, properties, true);
+        writeBehind.start();
+        for (int i = 0; i < 5; i++) {
+            writeBehind.submit(requestSequence(i));
+        }
+        writeBehind.close();
+        assertEquals(5, sequenceVerdictRepository.count());
+        assertEquals(4, requestSequenceRepository.count());
+        assertEquals(4, writeBehind.getWritten());
+        assertEquals(3, statCounterService.getCountMutantDNA());
+        assertEquals(1, statCounterService.getCountHumanDNA());
+        assertEquals(0, writeBehind.getFailed());
+        assertEquals(0, writeBehind.getCollisions());
+    }
+
+    /**
+     * Verifica que un resultado guardado con la misma huella pero de otra cadena se registra
+     * como una colision sin modificar el resultado guardado, y que un resultado guardado de la
+     * misma cadena no se registra
+     */
+    @Test
+    void hashCollisionTest() {
+        sequenceVerdictRepository.insert(SequenceVerdict.builder()
+                .hash(requestSequence(3).getHash())
+                .checksum(requestSequence(4).getChecksum())
+                .size(6)
+                .mutant(false).build());
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(mongoTemplate, statCounterService, properties, true);
+        writeBehind.write(List.of(requestSequence(2), requestSequence(3)));
+        writeBehind.write(List.of(requestSequence(2)));
+        assertEquals(1, writeBehind.getCollisions());
+        assertEquals(1, writeBehind.getWritten());
+        assertEquals(requestSequence(4).getChecksum(),
+                sequenceVerdictRepository.findById(requestSequence(3).getHash()).orElseThrow().getChecksum());
+    }
+
+    /**
+     * Verifica que un lote que falla se reintenta, que sus documentos siguen pendientes mientras
+     * se reintenta y que solo se notifican como guardados despues de guardar su resultado
+     */
+    @Test
+    void retryFailedBatchTest() {
+        MongoTemplate failing = Mockito.spy(mongoTemplate);
+        Mockito.doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .doCallRealMethod()
+                .when(failing).bulkOps(BulkOperations.BulkMode.UNORDERED, SequenceVerdict.class);
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(failing, statCounterService, properties, true);
+        List<RequestSequence> written = Collections.synchronizedList(new ArrayList<>());
+        writeBehind.onWritten(written::addAll);
+        writeBehind.start();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writeBehind.submit(requestSequence(i)));
+        }
+        writeBehind.close();
+        assertEquals(5, sequenceVerdictRepository.count());
+        assertEquals(5, requestSequenceRepository.count());
+        assertEquals(5, written.size());
+        assertEquals(0, writeBehind.getFailed());
+    }
+
+    /**
+     * Verifica que los documentos de un lote que falla en todos los reintentos se registran como
+     * fallidos, dejan de estar pendientes y no se notifican como guardados
+     */
+    @Test
+    void retriesExhaustedTest() {
+        MongoTemplate failing = Mockito.spy(mongoTemplate);
+        Mockito.doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .when(failing).bulkOps(BulkOperations.BulkMode.UNORDERED, SequenceVerdict.class);
+        properties.setRetries(2);
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(failing, statCounterService, properties, true);
+        List<RequestSequence> written = Collections.synchronizedList(new ArrayList<>());
+        writeBehind.onWritten(written::addAll);
+        writeBehind.start();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writeBehind.submit(requestSequence(i)));
+        }
+        writeBehind.close();
+        Mockito.verify(failing, Mockito.times(3)).bulkOps(BulkOperations.BulkMode.UNORDERED, SequenceVerdict.class);
+        assertEquals(5, writeBehind.getFailed());
+        assertEquals(0, sequenceVerdictRepository.count());
+        assertTrue(written.isEmpty());
+        assertNull(writeBehind.findPending(requestSequence(0).getHash()));
+    }
+
+    /**
+     * Verifica que los documentos aceptados en la cola mientras se detiene la escritura se guardan,
+     * de manera que ninguno queda en la cola ni pendiente despues de detenerla
+     */
+    @Test
+    void submitWhileClosingTest() throws Exception {
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(mongoTemplate, statCounterService, properties, true);
+        writeBehind.start();
+        int threads = 4;
+        int perThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> accepted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            accepted.add(executor.submit(() -> {
+                start.await();
+                int count = 0;
+                for (int i = 0; i < perThread; i++) {
+                    if (writeBehind.submit(requestSequence(offset + i))) {
+                        count++;
+                    }
+                }
+                return count;
+            }));
+        }
+        start.countDown();
+        Thread.sleep(5);
+        writeBehind.close();
+        int total = 0;
+        for (Future<Integer> future : accepted) {
+            total += future.get();
+        }
+        executor.shutdown();
+        assertEquals(total, sequenceVerdictRepository.count());
+        assertEquals(0, writeBehind.getQueueSize());
+        for (int i = 0; i < threads * perThread; i++) {
+            assertNull(writeBehind.findPending(requestSequence(i).getHash()));
+        }
+    }
+
+    /**
+     * Verifica que con el archivo deshabilitado solo se guarda el resultado en el nivel caliente
+     */
+    @Test
+    void archiveDisabledTest() {
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(mongoTemplate, statCounterService, properties, false);
+        writeBehind.write(List.of(requestSequence(0), requestSequence(1)));
+        assertEquals(2, sequenceVerdictRepository.count());
+        assertEquals(0, requestSequenceRepository.count());
+        assertEquals(2, writeBehind.getWritten());
+    }
+
+    /**
+     * Verifica que sin iniciar la escritura los documentos no se aceptan en la cola,
+     * de manera que la peticion los guarda directamente
+     */
+    @Test
+    void submitNotStartedTest() {
+        RequestSequenceWriteBehind writeBehind = new RequestSequenceWriteBehind(mongoTemplate, statCounterService, properties, true);
+        assertFalse(writeBehind.submit(requestSequence(0)));
+        assertEquals(0, writeBehind.getSubmitted());
+    }
+
+    /**
+     * Crea un documento distinto por cada indice
+     *
+     * @param index indice del documento, menor a 4096
+     * @return documento con la cadena de ADN y su huella
+     */
+    private static RequestSequence requestSequence(int index) {
+        char[] row = new char[6];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = PackedDNA.decode(index >> (2 * j));
+        }
+        PackedDNA dna = PackedDNA.of(new String(row), "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        return RequestSequence.builder()
+                .hash(dna.getContentHash())
+                .checksum(dna.getContentChecksum())
+                .sequence(dna.toStrings())
+                .mutant(index % 2 == 0).build();
+    }
+
+}
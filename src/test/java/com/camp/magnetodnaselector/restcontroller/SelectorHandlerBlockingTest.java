@@ -0,0 +1,69 @@
+package com.camp.magnetodnaselector.restcontroller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.blockhound.BlockHound;
+
+/**
+ * Pruebas de {@link SelectorHandler} que verifican que la atencion de las peticiones del perfil
+ * reactive no bloquea los hilos del event loop ni del scheduler parallel.
+ * <p>
+ * Se instala BlockHound, que convierte cualquier llamado bloqueante en esos hilos en un error,
+ * por lo que el servicio responderia con el codigo 500. El contexto de SpringBoot usa el driver
+ * reactivo sobre la instancia de MongoDB en memoria y las peticiones se hacen sobre el
+ * servidor Netty. Solo se permite la escritura del log, que es sincrona
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class SelectorHandlerBlockingTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @BeforeAll
+    static void installBlockHound() {
+        BlockHound.install(builder -> builder.allowBlockingCallsInside("ch.qos.logback.classic.Logger", "callAppenders"));
+    }
+
+    /**
+     * Evalua una cadena nueva y la misma cadena repetida, de manera que se recorren la busqueda,
+     * la deteccion y el guardado, y la respuesta desde el resultado guardado
+     */
+    @Test
+    void isMutantNonBlockingTest() {
+        for (int i = 0; i < 2; i++) {
+            client.post().uri("/selector/mutant")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}")
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+        client.post().uri("/selector/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dna\":[\"ATGGAA\",\"AGGTGC\",\"CTATGT\",\"AGAAGG\",\"CCACTA\",\"TCACTG\"]}")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    /**
+     * Consulta las estadisticas totales, las de una ventana de tiempo y la serie por intervalo,
+     * las dos ultimas leen los intervalos de la base de datos
+     */
+    @Test
+    void getStatNonBlockingTest() {
+        client.get().uri("/selector/stats").exchange()
+                .expectStatus().isOk();
+        client.get().uri("/selector/stats?window=1h").exchange()
+                .expectStatus().isOk();
+        client.get().uri("/selector/stats/series?resolution=minute&window=15m").exchange()
+                .expectStatus().isOk();
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.camp.magnetodnaselector.restcontroller;
+
+import com.camp.magnetodnaselector.config.SelectorRouterConfig;
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
+import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.service.ReactiveSelectorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas para la clase {@link SelectorHandler}
+ * Se crea un cliente de prueba de WebFlux sobre las rutas de {@link SelectorRouterConfig},
+ * con el servicio simulado por medio de Mockito
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@ExtendWith(MockitoExtension.class)
+class SelectorHandlerTest {
+
+    @Mock
+    private ReactiveSelectorService reactiveSelectorService;
+
+    /**
+     * Cliente que permite la simulacion de peticiones http
+     */
+    private WebTestClient client;
+
+    @BeforeEach
+    void setup() {
+        client = WebTestClient.bindToRouterFunction(
+                new SelectorRouterConfig().selectorRoutes(new SelectorHandler(reactiveSelectorService))).build();
+    }
+
+    /**
+     * Prueba para el serivicio de verificación del aplicativo
+     */
+    @Test
+    void getHealthMsgTest() {
+        client.get().uri("/selector/health").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("The DNA selector is online");
+    }
+
+    /**
+     * Prueba para el servicio get de estadisticas
+     */
+    @Test
+    void getStatTest() {
+        StatModel statModel = StatModel.builder()
+                .countHumanDNA(40)
+                .countMutantDNA(100)
+                .ratio(2.5)
+                .build();
+        when(reactiveSelectorService.findStats()).thenReturn(Mono.just(statModel));
+        client.get().uri("/selector/stats").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.count_mutant_dna").isEqualTo(100)
+                .jsonPath("$.count_human_dna").isEqualTo(40)
+                .jsonPath("$.ratio").isEqualTo(2.5);
+    }
+
+    /**
+     * Prueba para el servicio get de estadisticas con una ventana de tiempo no valida,
+     * por lo que el codigo esperado de las respuesta sera un 400
+     */
+    @Test
+    void getStatInvalidWindowTest() {
+        when(reactiveSelectorService.findStats("0m")).thenReturn(Mono.error(new InvalidStatWindowException("The stats window is not valid")));
+        client.get().uri("/selector/stats?window=0m").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("InvalidStatWindowException")
+                .jsonPath("$.message").isEqualTo("The stats window is not valid");
+    }
+
+    /**
+     * Prueba para el servicio get de la serie de estadisticas por intervalo
+     */
+    @Test
+    void getStatSeriesTest() {
+        StatBucketModel bucket = StatBucketModel.builder()
+                .start(Instant.parse("2022-02-01T10:00:00Z"))
+                .stats(StatModel.builder().countMutantDNA(8).countHumanDNA(4).ratio(2).build())
+                .build();
+        when(reactiveSelectorService.findStatSeries("hour", "1d")).thenReturn(Mono.just(Collections.singletonList(bucket)));
+        client.get().uri("/selector/stats/series?resolution=hour&window=1d").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$[0].start").isEqualTo("2022-02-01T10:00:00Z")
+                .jsonPath("$[0].count_mutant_dna").isEqualTo(8)
+                .jsonPath("$[0].count_human_dna").isEqualTo(4)
+                .jsonPath("$[0].ratio").isEqualTo(2.0);
+    }
+
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant con un respuesta true
+     * del Mock del servicio, por lo que el codigo esperado de la respuesta sera un 200
+     */
+    @Test
+    void isMutantTrueTest() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        when(reactiveSelectorService.isMutant(argThat(model -> Arrays.equals(dna, model.getDna())))).thenReturn(Mono.just(true));
+        client.post().uri("/selector/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+    }
+
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant con un respuesta false
+     * del Mock del servicio, por lo que el codigo esperado de la respuesta sera un 403
+     */
+    @Test
+    void isMutantFalseTest() {
+        when(reactiveSelectorService.isMutant(any())).thenReturn(Mono.just(false));
+        client.post().uri("/selector/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dna\":[\"ATGGAA\",\"AGGTGC\",\"CTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant cuando la cadena no es
+     * valida, por lo que el codigo esperado de las respuesta sera un 400
+     */
+    @Test
+    void isMutantInvalidDNATest() {
+        when(reactiveSelectorService.isMutant(any())).thenReturn(Mono.error(new InvalidDNAException("The individual string has illegal characters")));
+        client.post().uri("/selector/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dna\":[\"ATGC\",\"CAXT\",\"TTAT\",\"AGAA\"]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("InvalidDNAException")
+                .jsonPath("$.message").isEqualTo("The individual string has illegal characters");
+    }
+
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant con un JSON mal formado,
+     * por lo que el codigo esperado de las respuesta sera un 400
+     */
+    @Test
+    void isMutantMalformedTest() {
+        client.post().uri("/selector/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dna\":")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant cuando se lanza una
+     * excepcion no esperada, por lo que el codigo esperado de las respuesta sera un 500
+     */
+    @Test
+    void isMutantErrorExceptionTest() {
+        when(reactiveSelectorService.isMutant(any())).thenReturn(Mono.fromCallable(() -> 1 / 0 == 1));
+        client.post().uri("/selector/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dna\":[\"ATGGAA\",\"AGGTGC\",\"CTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}")
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("ArithmeticException");
+    }
+
+}
@@ -1,8 +1,14 @@
 package com.camp.magnetodnaselector.restcontroller;
 
 import com.camp.magnetodnaselector.config.ExceptionHandlerConfig;
+import com.camp.magnetodnaselector.domain.exception.InvalidDNAException;
+import com.camp.magnetodnaselector.domain.exception.InvalidStatWindowException;
+import com.camp.magnetodnaselector.domain.model.BatchResultModel;
 import com.camp.magnetodnaselector.domain.model.SequenceDNAModel;
+import com.camp.magnetodnaselector.domain.model.StatBucketModel;
 import com.camp.magnetodnaselector.domain.model.StatModel;
+import com.camp.magnetodnaselector.domain.model.gateway.EvaluationMetrics;
+import com.camp.magnetodnaselector.domain.usecase.SequenceDNAUseCase;
 import com.camp.magnetodnaselector.service.SelectorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,14 +20,23 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.emptyString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -47,6 +62,9 @@ class SelectorRestControllerTest {
     @MockBean
     private SelectorService selectorService;
 
+    @MockBean
+    private EvaluationMetrics evaluationMetrics;
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -85,6 +103,61 @@ class SelectorRestControllerTest {
                 .andExpect(content().string(objectMapper.writeValueAsString(statModel)));
     }
 
+    /**
+     * Prueba para el servicio get de estadisticas con una ventana de tiempo
+     *
+     * @throws Exception
+     */
+    @Test
+    void getStatWindowTest() throws Exception {
+        StatModel statModel = StatModel.builder()
+                .countHumanDNA(4)
+                .countMutantDNA(2)
+                .ratio(0.5)
+                .build();
+        when(selectorService.findStats("1h")).thenReturn(statModel);
+        mvc.perform(get("/selector/stats").param("window", "1h"))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(statModel)));
+        verify(selectorService, never()).findStats();
+    }
+
+    /**
+     * Prueba para el servicio get de estadisticas con una ventana de tiempo no valida,
+     * por lo que el codigo esperado de las respuesta sera un 400
+     *
+     * @throws Exception
+     */
+    @Test
+    void getStatInvalidWindowTest() throws Exception {
+        when(selectorService.findStats("1y")).thenThrow(new InvalidStatWindowException("The stats window is not valid"));
+        mvc.perform(get("/selector/stats").param("window", "1y"))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("InvalidStatWindowException")))
+                .andExpect(content().string(containsString("The stats window is not valid")));
+    }
+
+    /**
+     * Prueba para el servicio get de la serie de estadisticas por intervalo
+     *
+     * @throws Exception
+     */
+    @Test
+    void getStatSeriesTest() throws Exception {
+        StatBucketModel bucket = StatBucketModel.builder()
+                .start(Instant.parse("2022-02-01T10:15:00Z"))
+                .stats(StatModel.builder().countMutantDNA(3).countHumanDNA(6).ratio(0.5).build())
+                .build();
+        when(selectorService.findStatSeries("minute", "15m")).thenReturn(Collections.singletonList(bucket));
+        mvc.perform(get("/selector/stats/series").param("resolution", "minute").param("window", "15m"))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].start").value("2022-02-01T10:15:00Z"))
+                .andExpect(jsonPath("$[0].count_mutant_dna").value(3))
+                .andExpect(jsonPath("$[0].count_human_dna").value(6))
+                .andExpect(jsonPath("$[0].ratio").value(0.5));
+    }
+
     /**
      * Prueba para el servicio post de la funcionalidad isMutant
      * Se simula una ejecucion normal del servicio con un respuesta true del
@@ -97,7 +170,8 @@ class SelectorRestControllerTest {
         String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
 
-        when(selectorService.isMutant(sequenceDNAModel)).thenReturn(true);
+        when(selectorService.isMutant(argThat(model -> Arrays.equals(dna, model.getPackedDNA().toStrings()))))
+                .thenReturn(true);
         mvc.perform(post("/selector/mutant")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(sequenceDNAModel)))
@@ -117,7 +191,8 @@ class SelectorRestControllerTest {
         String[] dna = {"ATGGAA", "AGGTGC", "CTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
         SequenceDNAModel sequenceDNAModel = SequenceDNAModel.builder().dna(dna).build();
 
-        when(selectorService.isMutant(sequenceDNAModel)).thenReturn(false);
+        when(selectorService.isMutant(argThat(model -> Arrays.equals(dna, model.getPackedDNA().toStrings()))))
+                .thenReturn(false);
         mvc.perform(post("/selector/mutant")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(sequenceDNAModel)))
@@ -143,6 +218,157 @@ class SelectorRestControllerTest {
                 .andExpect(content().string(containsString(("HttpMessageNotReadableException"))));
     }
 
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant
+     * Se envia una cadena con caracteres no permitidos, la cual se rechaza mientras se
+     * lee la peticion con el mismo mensaje de la validacion de la clase de negocio,
+     * por lo que el codigo esperado de las respuesta sera un 400
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantInvalidDNATest() throws Exception {
+        mvc.perform(post("/selector/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dna\":[\"ATGC\",\"CAXT\",\"TTAT\",\"AGAA\"]}"))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("InvalidDNAException")))
+                .andExpect(content().string(containsString("The individual string has illegal characters")));
+        verify(selectorService, never()).isMutant(any());
+    }
+
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant
+     * Se envia una cadena con menos filas que la longitud de sus filas, el mensaje de error
+     * depende de la cantidad total de filas, por lo que el codigo esperado de las respuesta sera un 400
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantLessThanMinimumTest() throws Exception {
+        mvc.perform(post("/selector/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dna\":[\"ATGCG\",\"CAGTG\",\"TTATG\"]}"))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("The length of the DNA string is less than the minimum allowed")));
+    }
+
+    /**
+     * Prueba para el servicio post de la funcionalidad isMutant
+     * Se envia un JSON donde el campo dna no es un arreglo, por lo que el codigo
+     * esperado de las respuesta sera un 400
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantMalformedTest() throws Exception {
+        mvc.perform(post("/selector/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dna\":{\"row\":\"ATGC\"}}"))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("HttpMessageNotReadableException")));
+    }
+
+    /**
+     * Prueba para el servicio post de evaluacion por lotes con un arreglo JSON
+     * Se simula una ejecucion normal del servicio, por lo que el codigo esperado de
+     * la respuesta sera un 200 con el resultado de cada cadena
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantBatchTest() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        List<BatchResultModel> results = Arrays.asList(
+                BatchResultModel.builder().index(0).mutant(true).build(),
+                BatchResultModel.builder().index(1).error("The individual string has illegal characters").build());
+        when(selectorService.isMutantBatch(argThat(sequences -> sequences.size() == 2
+                && Arrays.equals(dna, sequences.get(0).getDna())))).thenReturn(results);
+        mvc.perform(post("/selector/mutant/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + objectMapper.writeValueAsString(SequenceDNAModel.builder().dna(dna).build())
+                                + ",{\"dna\":[\"ATGC\",\"CAXT\",\"TTAT\",\"AGAA\"]}]"))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(results)));
+    }
+
+    /**
+     * Prueba para el servicio post de evaluacion por lotes con un arreglo JSON
+     * Se envia un arreglo con mas cadenas que la cantidad maxima del lote, por lo que
+     * solo se lee una cadena mas que la cantidad maxima y el codigo esperado de la
+     * respuesta sera un 400
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantBatchOversizeTest() throws Exception {
+        when(selectorService.isMutantBatch(argThat(sequences -> sequences.size() == SequenceDNAUseCase.MAX_BATCH_SIZE + 1)))
+                .thenThrow(new InvalidDNAException("The batch exceeds the maximum size"));
+        String element = "{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}";
+        mvc.perform(post("/selector/mutant/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", Collections.nCopies(SequenceDNAUseCase.MAX_BATCH_SIZE + 10, element)) + "]"))
+                .andDo(print()).andExpect(status().isBadRequest());
+        verify(selectorService).isMutantBatch(argThat(sequences -> sequences.size() == SequenceDNAUseCase.MAX_BATCH_SIZE + 1));
+    }
+
+    /**
+     * Prueba para el servicio post de evaluacion por lotes con un arreglo JSON
+     * Se envia un objeto en lugar del arreglo, por lo que el codigo esperado de
+     * las respuesta sera un 400
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantBatchNotArrayTest() throws Exception {
+        mvc.perform(post("/selector/mutant/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}"))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("HttpMessageNotReadableException")));
+        verify(selectorService, never()).isMutantBatch(any());
+    }
+
+    /**
+     * Prueba para el servicio post de evaluacion por lotes en formato NDJSON
+     * Cada linea del cuerpo es una cadena, por lo que el codigo esperado de la
+     * respuesta sera un 200 con el resultado de cada cadena
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantBatchNdjsonTest() throws Exception {
+        List<BatchResultModel> results = Arrays.asList(
+                BatchResultModel.builder().index(0).mutant(false).build(),
+                BatchResultModel.builder().index(1).mutant(true).build());
+        when(selectorService.isMutantBatch(argThat(sequences -> sequences.size() == 2
+                && "AAAA".equals(sequences.get(1).getDna()[0])))).thenReturn(results);
+        mvc.perform(post("/selector/mutant/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}\n"
+                                + "{\"dna\":[\"AAAA\",\"CCCC\",\"TTAT\",\"AGAC\"]}\n"))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(results)));
+    }
+
+    /**
+     * Prueba para el servicio post de evaluacion por lotes en formato NDJSON
+     * Se envia una linea que no es un JSON valido, por lo que el codigo esperado
+     * de las respuesta sera un 400
+     *
+     * @throws Exception
+     */
+    @Test
+    void isMutantBatchNdjsonMalformedTest() throws Exception {
+        mvc.perform(post("/selector/mutant/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}\n{\"dna\":"))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("HttpMessageNotReadableException")));
+        verify(selectorService, never()).isMutantBatch(any());
+    }
+
     /**
      * Prueba para el servicio post de la funcionalidad isMutant
      * Se simula una ejecucion donde al ejecutar la funcionalidad isMutant
@@ -0,0 +1,71 @@
+package com.camp.magnetodnaselector.domain.usecase.detector;
+
+import com.camp.magnetodnaselector.domain.model.PackedDNA;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Clase de prueba para el motor de deteccion {@link VectorSequenceDetector},
+ * solo se compila y ejecuta con el perfil vectorApi de build.gradle
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+class VectorSequenceDetectorTest {
+
+    private final VectorSequenceDetector detector = new VectorSequenceDetector(4);
+
+    private final RunLengthSequenceDetector runLengthDetector = new RunLengthSequenceDetector(4);
+
+    /**
+     * Genera una matriz aleatoria de NxN usando solo las primeras bases del alfabeto
+     * indicadas, entre menos bases mas secuencias tendra la matriz
+     *
+     * @param random generador de numeros aleatorios
+     * @param size   tamanio de la matriz
+     * @param bases  cantidad de bases distintas a usar
+     * @return cadena de ADN
+     */
+    private static String[] randomDNA(Random random, int size, int bases) {
+        String[] dna = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int j = 0; j < size; j++) {
+                row.append("ATCG".charAt(random.nextInt(bases)));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * Verifica el conteo de secuencias en cada una de las dimensiones sin limite de busqueda
+     */
+    @Test
+    void countAllDimensionsTest() {
+        String[] horizontal = {"GGGGA", "CCTTA", "TAAAA", "ATGTG", "TGAGA"};
+        String[] vertical = {"GCTAA", "GCTTA", "GACAA", "GTGTA", "TGAGA"};
+        String[] diagonal = {"GCTGA", "AGGTC", "CGGAC", "GTGGA", "TGAGA"};
+        assertEquals(2, detector.countSequences(PackedDNA.of(horizontal), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(vertical), Integer.MAX_VALUE));
+        assertEquals(2, detector.countSequences(PackedDNA.of(diagonal), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Verifica que el conteo sea igual al del motor {@link RunLengthSequenceDetector}
+     * para matrices aleatorias de distintos tamanios y densidades de secuencias
+     */
+    @Test
+    void countEqualsRunLengthTest() {
+        Random random = new Random(9105);
+        for (int i = 0; i < 2000; i++) {
+            PackedDNA dna = PackedDNA.of(randomDNA(random, 4 + random.nextInt(150), 1 + random.nextInt(4)));
+            assertEquals(runLengthDetector.countSequences(dna, Integer.MAX_VALUE),
+                    detector.countSequences(dna, Integer.MAX_VALUE));
+            assertEquals(runLengthDetector.countSequences(dna, 2) >= 2, detector.countSequences(dna, 2) >= 2);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.camp.magnetodnaselector.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas para la clase {@link VirtualThreadConfig}, solo se compila y ejecuta con el
+ * perfil virtualThreads de build.gradle
+ *
+ * @author Carlos Alberto Manrique Palacios
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    /**
+     * Verifica que el ejecutor del conector de Tomcat ejecuta las tareas en hilos virtuales
+     *
+     * @throws Exception
+     */
+    @Test
+    void connectorExecutorTest() throws Exception {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        Executor executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        assertTrue(((ExecutorService) executor).submit(() -> Thread.currentThread().isVirtual()).get());
+    }
+
+    /**
+     * Verifica que el servicio de verificacion responde con el ejecutor de hilos virtuales
+     */
+    @Test
+    void getHealthMsgTest() {
+        assertEquals("The DNA selector is online", restTemplate.getForObject("/selector/health", String.class));
+    }
+
+}